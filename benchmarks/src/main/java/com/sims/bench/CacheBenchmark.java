@@ -0,0 +1,145 @@
+package com.sims.bench;
+
+import com.sims.cache.QueryCache;
+import com.sims.cache.StudentCache;
+import com.sims.events.EventBus;
+import com.sims.events.StudentUpdated;
+import com.sims.mapping.EnumLookup;
+import com.sims.models.Course;
+import com.sims.models.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hit paths of the in-process caches, enum lookups and event publishing
+ * The loaders never run after setup, so these measure lookup and locking overhead only.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheBenchmark {
+    private static final int STUDENTS = 1000;
+
+    private QueryCache<Integer, Course> courseCache;
+    private StudentCache studentCache;
+    private String[] codes;
+    private EnumLookup<Student.Status> statusLookup;
+    private EventBus eventBus;
+    private List<EventBus.Subscription> subscriptions;
+    private StudentUpdated event;
+
+    /**
+     * Per-thread cursor so each thread walks the keys independently
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        int nextId() {
+            next = next == STUDENTS ? 1 : next + 1;
+            return next;
+        }
+    }
+
+    @Setup
+    public void setUp() throws SQLException {
+        courseCache = new QueryCache<>("bench.courses", 300, STUDENTS);
+        studentCache = new StudentCache("bench.students", STUDENTS);
+        codes = new String[STUDENTS + 1];
+        for (int i = 1; i <= STUDENTS; i++) {
+            Course course = new Course();
+            course.setCourseId(i);
+            courseCache.put(i, course);
+            studentCache.put(student(i));
+            codes[i] = code(i);
+        }
+
+        statusLookup = EnumLookup.of(Student.Status.class);
+
+        eventBus = new EventBus();
+        subscriptions = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            subscriptions.add(eventBus.subscribe(StudentUpdated.class, EventBus.Delivery.SYNC, e -> { }));
+        }
+        event = new StudentUpdated(student(1));
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (EventBus.Subscription subscription : subscriptions) {
+            subscription.unsubscribe();
+        }
+    }
+
+    @Benchmark
+    public Course queryCacheHit(Cursor cursor) throws SQLException {
+        int id = cursor.nextId();
+        return courseCache.get(id, () -> null);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Course queryCacheHitContended(Cursor cursor) throws SQLException {
+        int id = cursor.nextId();
+        return courseCache.get(id, () -> null);
+    }
+
+    @Benchmark
+    public Student studentCacheById(Cursor cursor) throws SQLException {
+        int id = cursor.nextId();
+        return studentCache.getById(id, () -> null);
+    }
+
+    @Benchmark
+    public Student studentCacheByCode(Cursor cursor) throws SQLException {
+        return studentCache.getByCode(codes[cursor.nextId()], () -> null);
+    }
+
+    @Benchmark
+    public void enumLookup(Blackhole bh) {
+        bh.consume(statusLookup.get("ACTIVE"));
+        bh.consume(statusLookup.get("GRADUATED"));
+    }
+
+    @Benchmark
+    public void enumValueOf(Blackhole bh) {
+        bh.consume(Student.Status.valueOf("ACTIVE"));
+        bh.consume(Student.Status.valueOf("GRADUATED"));
+    }
+
+    @Benchmark
+    public void publishEvent() {
+        eventBus.publish(event);
+    }
+
+    private static Student student(int id) {
+        Student student = new Student(code(id), "First" + id, "Last" + id, LocalDate.of(2005, 1, 1),
+                Student.Gender.OTHER, "student" + id + "@example.edu", "555-0100", "Campus", LocalDate.of(2024, 9, 1));
+        student.setStudentId(id);
+        return student;
+    }
+
+    private static String code(int id) {
+        return String.format("STU%06d", id);
+    }
+}
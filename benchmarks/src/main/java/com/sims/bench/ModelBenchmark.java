@@ -0,0 +1,99 @@
+package com.sims.bench;
+
+import com.sims.dao.UserDAO;
+import com.sims.models.Grade;
+import com.sims.models.Student;
+import com.sims.models.User;
+import com.sims.services.AuthService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Model-level hot paths: grade percentage/letter math, full name building and permission checks
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModelBenchmark {
+    private BigDecimal marksObtained;
+    private BigDecimal totalMarks;
+    private Grade grade;
+    private Student student;
+
+    /**
+     * Service logged in with a stubbed UserDAO as the given role
+     */
+    @State(Scope.Thread)
+    public static class Session {
+        @Param({"ADMIN", "TEACHER", "STUDENT"})
+        public String role;
+
+        private AuthService authService;
+
+        @Setup
+        public void setUp() {
+            User user = new User(1, "bench", "bench", User.Role.valueOf(role), "bench@example.edu");
+            authService = new AuthService(new UserDAO() {
+                @Override
+                public User authenticate(String username, String password) {
+                    return user;
+                }
+            });
+            authService.login("bench", "bench");
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        marksObtained = new BigDecimal("73.50");
+        totalMarks = new BigDecimal("100");
+        grade = new Grade(1, 1, "EXAM", "Midterm", marksObtained, totalMarks, "Fall", "2024-2025");
+        student = new Student("STU000001", "Ada", "Lovelace", LocalDate.of(2005, 12, 10),
+                Student.Gender.FEMALE, "ada@example.edu", "555-0100", "1 Campus Road", LocalDate.of(2024, 9, 1));
+    }
+
+    /**
+     * Grade.calculatePercentageAndGrade runs on every marks update
+     */
+    @Benchmark
+    public String gradeMath() {
+        grade.setMarksObtained(marksObtained);
+        return grade.getGradeLetter();
+    }
+
+    @Benchmark
+    public Grade newGrade() {
+        return new Grade(1, 1, "EXAM", "Midterm", marksObtained, totalMarks, "Fall", "2024-2025");
+    }
+
+    @Benchmark
+    public String studentFullName() {
+        return student.getFullName();
+    }
+
+    @Benchmark
+    public boolean hasPermission(Session session) {
+        return session.authService.hasPermission("ATTENDANCE");
+    }
+
+    @Benchmark
+    public boolean hasPermissionUnknownModule(Session session) {
+        return session.authService.hasPermission("REPORTS");
+    }
+}
@@ -0,0 +1,153 @@
+package com.sims.bench;
+
+import com.sims.bench.support.InMemoryResultSet;
+import com.sims.bench.support.SampleResultSets;
+import com.sims.models.AttendanceRowMapper;
+import com.sims.models.CourseRowMapper;
+import com.sims.models.FinancialRecordRowMapper;
+import com.sims.models.GradeRowMapper;
+import com.sims.models.Student;
+import com.sims.models.StudentRowMapper;
+import com.sims.models.UserRowMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row cost of mapping each model with its generated RowMapper
+ * Each invocation replays a result set of ROWS rows, creating the mapper once as the DAOs do.
+ * studentByName repeats the former name-based, valueOf/java.sql.Date mapping as a baseline.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMappingBenchmark {
+    private static final int ROWS = 1000;
+
+    private InMemoryResultSet students;
+    private InMemoryResultSet courses;
+    private InMemoryResultSet attendance;
+    private InMemoryResultSet grades;
+    private InMemoryResultSet financialRecords;
+    private InMemoryResultSet users;
+
+    @Setup
+    public void setUp() {
+        students = SampleResultSets.students(ROWS);
+        courses = SampleResultSets.courses(ROWS);
+        attendance = SampleResultSets.attendance(ROWS);
+        grades = SampleResultSets.grades(ROWS);
+        financialRecords = SampleResultSets.financialRecords(ROWS);
+        users = SampleResultSets.users(ROWS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void student(Blackhole bh) throws SQLException {
+        students.beforeFirst();
+        StudentRowMapper mapper = new StudentRowMapper(students);
+        while (students.next()) {
+            bh.consume(mapper.map(students));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void studentByName(Blackhole bh) throws SQLException {
+        students.beforeFirst();
+        while (students.next()) {
+            bh.consume(mapStudentByName(students));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void course(Blackhole bh) throws SQLException {
+        courses.beforeFirst();
+        CourseRowMapper mapper = new CourseRowMapper(courses);
+        while (courses.next()) {
+            bh.consume(mapper.map(courses));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void attendance(Blackhole bh) throws SQLException {
+        attendance.beforeFirst();
+        AttendanceRowMapper mapper = new AttendanceRowMapper(attendance);
+        while (attendance.next()) {
+            bh.consume(mapper.map(attendance));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void grade(Blackhole bh) throws SQLException {
+        grades.beforeFirst();
+        GradeRowMapper mapper = new GradeRowMapper(grades);
+        while (grades.next()) {
+            bh.consume(mapper.map(grades));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void financialRecord(Blackhole bh) throws SQLException {
+        financialRecords.beforeFirst();
+        FinancialRecordRowMapper mapper = new FinancialRecordRowMapper(financialRecords);
+        while (financialRecords.next()) {
+            bh.consume(mapper.map(financialRecords));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void user(Blackhole bh) throws SQLException {
+        users.beforeFirst();
+        UserRowMapper mapper = new UserRowMapper(users);
+        while (users.next()) {
+            bh.consume(mapper.map(users));
+        }
+    }
+
+    private static Student mapStudentByName(InMemoryResultSet rs) throws SQLException {
+        Student student = new Student();
+        student.setStudentId(rs.getInt("student_id"));
+        int userId = rs.getInt("user_id");
+        if (!rs.wasNull()) {
+            student.setUserId(userId);
+        }
+        student.setStudentCode(rs.getString("student_code"));
+        student.setFirstName(rs.getString("first_name"));
+        student.setLastName(rs.getString("last_name"));
+        java.sql.Date dob = rs.getDate("date_of_birth");
+        if (dob != null) {
+            student.setDateOfBirth(dob.toLocalDate());
+        }
+        student.setGender(Student.Gender.valueOf(rs.getString("gender")));
+        student.setEmail(rs.getString("email"));
+        student.setPhone(rs.getString("phone"));
+        student.setAddress(rs.getString("address"));
+        java.sql.Date enrollmentDate = rs.getDate("enrollment_date");
+        if (enrollmentDate != null) {
+            student.setEnrollmentDate(enrollmentDate.toLocalDate());
+        }
+        student.setStatus(Student.Status.valueOf(rs.getString("status")));
+        return student;
+    }
+}
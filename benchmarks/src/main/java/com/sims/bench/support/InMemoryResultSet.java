@@ -0,0 +1,287 @@
+package com.sims.bench.support;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Forward-only ResultSet over rows held in memory, shaped like the MySQL driver's
+ * Values are stored as the driver would return them (Integer, String, BigDecimal, LocalDate);
+ * getDate allocates a java.sql.Date per call just like the driver does. beforeFirst() rewinds
+ * so one instance can be replayed on every benchmark invocation.
+ */
+public class InMemoryResultSet extends UnsupportedResultSet {
+    private final String[] labels;
+    private final List<Object[]> rows = new ArrayList<>();
+    private int cursor = -1;
+    private boolean lastWasNull;
+
+    public InMemoryResultSet(String... labels) {
+        this.labels = labels;
+    }
+
+    /**
+     * Append a row; values are given in column order
+     */
+    public InMemoryResultSet addRow(Object... values) {
+        if (values.length != labels.length) {
+            throw new IllegalArgumentException("Expected " + labels.length + " values, got " + values.length);
+        }
+        rows.add(Arrays.copyOf(values, values.length));
+        return this;
+    }
+
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public boolean next() {
+        cursor++;
+        return cursor < rows.size();
+    }
+
+    @Override
+    public void beforeFirst() {
+        cursor = -1;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public boolean isClosed() {
+        return false;
+    }
+
+    @Override
+    public boolean wasNull() {
+        return lastWasNull;
+    }
+
+    @Override
+    public int findColumn(String label) throws SQLException {
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i].equalsIgnoreCase(label)) {
+                return i + 1;
+            }
+        }
+        throw new SQLException("Column '" + label + "' not found");
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() {
+        return new InMemoryResultSetMetaData(labels);
+    }
+
+    private Object value(int column) throws SQLException {
+        if (cursor < 0 || cursor >= rows.size()) {
+            throw new SQLException("No current row");
+        }
+        Object value = rows.get(cursor)[column - 1];
+        lastWasNull = value == null;
+        return value;
+    }
+
+    @Override
+    public int getInt(int column) throws SQLException {
+        Object value = value(column);
+        return value == null ? 0 : ((Number) value).intValue();
+    }
+
+    @Override
+    public int getInt(String label) throws SQLException {
+        return getInt(findColumn(label));
+    }
+
+    @Override
+    public long getLong(int column) throws SQLException {
+        Object value = value(column);
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+
+    @Override
+    public long getLong(String label) throws SQLException {
+        return getLong(findColumn(label));
+    }
+
+    @Override
+    public String getString(int column) throws SQLException {
+        Object value = value(column);
+        return value == null ? null : value.toString();
+    }
+
+    @Override
+    public String getString(String label) throws SQLException {
+        return getString(findColumn(label));
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(int column) throws SQLException {
+        return (BigDecimal) value(column);
+    }
+
+    @Override
+    public BigDecimal getBigDecimal(String label) throws SQLException {
+        return getBigDecimal(findColumn(label));
+    }
+
+    @Override
+    public Date getDate(int column) throws SQLException {
+        LocalDate value = (LocalDate) value(column);
+        return value == null ? null : Date.valueOf(value);
+    }
+
+    @Override
+    public Date getDate(String label) throws SQLException {
+        return getDate(findColumn(label));
+    }
+
+    @Override
+    public Object getObject(int column) throws SQLException {
+        return value(column);
+    }
+
+    @Override
+    public <T> T getObject(int column, Class<T> type) throws SQLException {
+        return type.cast(value(column));
+    }
+
+    @Override
+    public <T> T getObject(String label, Class<T> type) throws SQLException {
+        return getObject(findColumn(label), type);
+    }
+
+    /**
+     * Column metadata; only labels are meaningful
+     */
+    static class InMemoryResultSetMetaData implements ResultSetMetaData {
+        private final String[] labels;
+
+        InMemoryResultSetMetaData(String[] labels) {
+            this.labels = labels;
+        }
+
+        @Override
+        public int getColumnCount() {
+            return labels.length;
+        }
+
+        @Override
+        public String getColumnLabel(int column) {
+            return labels[column - 1];
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return labels[column - 1];
+        }
+
+        @Override
+        public String getCatalogName(int column) {
+            return "";
+        }
+
+        @Override
+        public String getColumnClassName(int column) {
+            return Object.class.getName();
+        }
+
+        @Override
+        public int getColumnDisplaySize(int column) {
+            return 0;
+        }
+
+        @Override
+        public int getColumnType(int column) {
+            return Types.OTHER;
+        }
+
+        @Override
+        public String getColumnTypeName(int column) {
+            return "OTHER";
+        }
+
+        @Override
+        public int getPrecision(int column) {
+            return 0;
+        }
+
+        @Override
+        public int getScale(int column) {
+            return 0;
+        }
+
+        @Override
+        public String getSchemaName(int column) {
+            return "";
+        }
+
+        @Override
+        public String getTableName(int column) {
+            return "";
+        }
+
+        @Override
+        public boolean isAutoIncrement(int column) {
+            return false;
+        }
+
+        @Override
+        public boolean isCaseSensitive(int column) {
+            return false;
+        }
+
+        @Override
+        public boolean isCurrency(int column) {
+            return false;
+        }
+
+        @Override
+        public boolean isDefinitelyWritable(int column) {
+            return false;
+        }
+
+        @Override
+        public int isNullable(int column) {
+            return columnNullableUnknown;
+        }
+
+        @Override
+        public boolean isReadOnly(int column) {
+            return true;
+        }
+
+        @Override
+        public boolean isSearchable(int column) {
+            return false;
+        }
+
+        @Override
+        public boolean isSigned(int column) {
+            return false;
+        }
+
+        @Override
+        public boolean isWrapperFor(Class<?> iface) {
+            return false;
+        }
+
+        @Override
+        public boolean isWritable(int column) {
+            return false;
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            throw new SQLException("Not a wrapper");
+        }
+    }
+}
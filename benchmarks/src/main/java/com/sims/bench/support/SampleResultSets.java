@@ -0,0 +1,84 @@
+package com.sims.bench.support;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * In-memory result sets with the same select lists the DAOs use
+ */
+public final class SampleResultSets {
+    private static final LocalDate BASE_DATE = LocalDate.of(2024, 1, 1);
+
+    private SampleResultSets() {
+    }
+
+    public static InMemoryResultSet students(int rows) {
+        InMemoryResultSet rs = new InMemoryResultSet("student_id", "user_id", "student_code", "first_name",
+                "last_name", "date_of_birth", "gender", "email", "phone", "address", "enrollment_date", "status");
+        for (int i = 1; i <= rows; i++) {
+            rs.addRow(i, i % 3 == 0 ? null : i, String.format("STU%06d", i), "First" + i, "Last" + i,
+                    BASE_DATE.minusYears(18).minusDays(i % 365), i % 2 == 0 ? "MALE" : "FEMALE",
+                    "student" + i + "@example.edu", "555-" + i, i + " Campus Road", BASE_DATE.plusDays(i % 30),
+                    "ACTIVE");
+        }
+        return rs;
+    }
+
+    public static InMemoryResultSet courses(int rows) {
+        InMemoryResultSet rs = new InMemoryResultSet("course_id", "course_code", "course_name", "description",
+                "credits", "instructor_id", "semester", "academic_year", "status");
+        for (int i = 1; i <= rows; i++) {
+            rs.addRow(i, "CS" + (100 + i), "Course " + i, "Description of course " + i, 3 + i % 2,
+                    i % 4 == 0 ? null : i, i % 2 == 0 ? "Fall" : "Spring", "2024-2025", "ACTIVE");
+        }
+        return rs;
+    }
+
+    public static InMemoryResultSet attendance(int rows) {
+        String[] statuses = {"PRESENT", "ABSENT", "LATE", "EXCUSED"};
+        InMemoryResultSet rs = new InMemoryResultSet("attendance_id", "student_id", "course_id",
+                "attendance_date", "status", "remarks", "recorded_by");
+        for (int i = 1; i <= rows; i++) {
+            rs.addRow(i, i % 500 + 1, i % 20 + 1, BASE_DATE.plusDays(i % 120), statuses[i % statuses.length],
+                    i % 10 == 0 ? "Late bus" : null, i % 5 == 0 ? null : 2);
+        }
+        return rs;
+    }
+
+    public static InMemoryResultSet grades(int rows) {
+        InMemoryResultSet rs = new InMemoryResultSet("grade_id", "student_id", "course_id", "assessment_type",
+                "assessment_name", "marks_obtained", "total_marks", "percentage", "grade_letter", "semester",
+                "academic_year", "recorded_by", "created_at");
+        for (int i = 1; i <= rows; i++) {
+            BigDecimal marks = BigDecimal.valueOf(40 + i % 61);
+            rs.addRow(i, i % 500 + 1, i % 20 + 1, "EXAM", "Midterm " + i % 4, marks, BigDecimal.valueOf(100),
+                    marks.setScale(2), null, "Fall", "2024-2025", 2, BASE_DATE.plusDays(i % 90));
+        }
+        return rs;
+    }
+
+    public static InMemoryResultSet financialRecords(int rows) {
+        String[] types = {"FEE", "PAYMENT", "SCHOLARSHIP", "REFUND", "PENALTY"};
+        String[] statuses = {"PENDING", "PAID", "OVERDUE", "CANCELLED"};
+        InMemoryResultSet rs = new InMemoryResultSet("financial_id", "student_id", "transaction_type", "amount",
+                "description", "transaction_date", "due_date", "status", "payment_method", "payment_date",
+                "receipt_number", "recorded_by");
+        for (int i = 1; i <= rows; i++) {
+            boolean paid = i % statuses.length == 1;
+            rs.addRow(i, i % 500 + 1, types[i % types.length], BigDecimal.valueOf(100 + i % 900, 0),
+                    "Transaction " + i, BASE_DATE.plusDays(i % 60), BASE_DATE.plusDays(30 + i % 60),
+                    statuses[i % statuses.length], paid ? "CARD" : null, paid ? BASE_DATE.plusDays(i % 60) : null,
+                    paid ? "REC" + i : null, 1);
+        }
+        return rs;
+    }
+
+    public static InMemoryResultSet users(int rows) {
+        String[] roles = {"ADMIN", "TEACHER", "STUDENT"};
+        InMemoryResultSet rs = new InMemoryResultSet("user_id", "username", "password", "role", "email");
+        for (int i = 1; i <= rows; i++) {
+            rs.addRow(i, "user" + i, "secret" + i, roles[i % roles.length], "user" + i + "@example.edu");
+        }
+        return rs;
+    }
+}
@@ -1,41 +1,174 @@
 package com.sims;
 
+import com.sims.cli.SimsCli;
 import com.sims.database.DatabaseConnection;
+import com.sims.events.ConnectivityChanged;
+import com.sims.events.EventBus;
+import com.sims.metrics.FlightEvents;
+import com.sims.metrics.Tracer;
+import com.sims.offline.LocalStore;
+import com.sims.offline.OfflineMode;
+import com.sims.services.AttendanceWriteBuffer;
+import com.sims.services.ChangeLogPoller;
+import com.sims.services.MetricsReporter;
+import com.sims.services.SnapshotRefresher;
+import com.sims.services.StartupWarmup;
+import com.sims.ui.DashboardFrame;
 import com.sims.ui.LoginFrame;
+import com.sims.ui.SplashWindow;
+import com.sims.ui.UiActionMonitor;
 
 import javax.swing.*;
+import java.sql.SQLException;
 
 /**
  * Main entry point for Student Information Management System
  */
 public class Main {
     public static void main(String[] args) {
-        // Test database connection
-        if (!DatabaseConnection.testConnection()) {
-            JOptionPane.showMessageDialog(null,
-                    "Failed to connect to database!\n" +
-                    "Please ensure MySQL is running and database is set up.\n" +
-                    "Check DatabaseConnection.java for connection settings.",
-                    "Database Connection Error",
-                    JOptionPane.ERROR_MESSAGE);
-            System.exit(1);
-        }
-
-        // Set look and feel
+        // Any arguments select the headless command line; nothing below touches Swing before this
+        if (args.length > 0) {
+            System.exit(SimsCli.run(args));
+        }
+
+        long mainStart = System.nanoTime();
+
+        // Flight recording with the bundled profile (-Dsims.jfr.recording=file.jfr)
+        FlightEvents.startRecordingIfRequested();
+
+        // Splash first, then warm the driver, connection pool and caches in the background
+        SplashWindow splash = SplashWindow.showLater();
+        // Mapped reference snapshot, so the warmup and first pickers read students and courses from disk
+        SnapshotRefresher.startIfEnabled();
+        StartupWarmup warmup = StartupWarmup.start(mainStart, splash::setStatus);
+        splash.whenShown(() -> {
+            warmup.record("splash", mainStart);
+            exitIfBenchmarking("splash", warmup);
+        });
+
+        // Set look and feel while the database connects
+        long phaseStart = System.nanoTime();
         try {
-            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeel());
+            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
         } catch (Exception e) {
             System.err.println("Error setting look and feel: " + e.getMessage());
         }
+        warmup.record("look and feel", phaseStart);
+
+        // Wait for the database connection; without one, offer to work from the offline store
+        try {
+            warmup.awaitConnection();
+        } catch (SQLException e) {
+            System.err.println("Connection test failed: " + e.getMessage());
+            splash.close();
+            if (!offerOfflineMode(e)) {
+                JOptionPane.showMessageDialog(null,
+                        "Failed to connect to database!\n" +
+                        "Please ensure MySQL is running and database is set up.\n" +
+                        "Check DatabaseConnection.java for connection settings.",
+                        "Database Connection Error",
+                        JOptionPane.ERROR_MESSAGE);
+                System.exit(1);
+            }
+        }
 
-        // Launch login window
+        // Pending schema migrations are applied by the warmup when requested (-Dsims.migrate=true)
+        if (!OfflineMode.isOffline()) {
+            try {
+                warmup.awaitMigration();
+            } catch (SQLException e) {
+                splash.close();
+                JOptionPane.showMessageDialog(null,
+                        "Failed to migrate database schema:\n" + e.getMessage(),
+                        "Database Migration Error",
+                        JOptionPane.ERROR_MESSAGE);
+                System.exit(1);
+            }
+
+            // Writes journaled during an earlier offline session
+            OfflineMode.replayPendingIfAny();
+        }
+
+        // Write-behind attendance marks left in the journal by an earlier run are flushed in the background
+        AttendanceWriteBuffer.startIfNeeded();
+
+        // Pick up changes made by other clients, once the database is reachable
+        ChangeLogPoller.startIfEnabled();
+        EventBus.getDefault().subscribe(ConnectivityChanged.class, EventBus.Delivery.ASYNC, event -> {
+            if (!event.isOffline()) {
+                ChangeLogPoller.startIfEnabled();
+            }
+        });
+
+        // Periodic query/pool statistics dump (-Dsims.metrics.dumpSeconds); JMX is always available
+        MetricsReporter.startIfEnabled();
+
+        // Time clicks and key presses as flight recorder events and trace roots
+        UiActionMonitor.installIfEnabled();
+
+        // Launch login window in place of the splash
         SwingUtilities.invokeLater(() -> {
+            long loginStart = System.nanoTime();
             new LoginFrame().setVisible(true);
+            splash.close();
+            warmup.record("login window", loginStart);
+            exitIfBenchmarking("login", warmup);
         });
 
-        // Register shutdown hook to close database connection
+        // Load the dashboard's classes while the user logs in, then report phase timing
+        phaseStart = System.nanoTime();
+        try {
+            DashboardFrame.preloadClasses();
+        } catch (ClassNotFoundException e) {
+            System.err.println("Error preloading dashboard classes: " + e.getMessage());
+        }
+        warmup.record("ui classes", phaseStart);
+        warmup.finish();
+
+        // Register shutdown hook to drain buffered writes and close database connection
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            AttendanceWriteBuffer.shutdownIfStarted();
+            OfflineMode.shutdownIfStarted();
+            SnapshotRefresher.shutdownIfStarted();
+            ChangeLogPoller.shutdownIfStarted();
+            MetricsReporter.shutdownIfStarted();
+            Tracer.shutdownIfStarted();
             DatabaseConnection.closeConnection();
         }));
     }
+
+    /**
+     * Ask whether to start offline, if courses and a signed-in user are stored locally
+     * @return true if the user chose to work offline
+     */
+    private static boolean offerOfflineMode(SQLException cause) {
+        if (!OfflineMode.isEnabled() || !LocalStore.getDefault().canWorkOffline()) {
+            return false;
+        }
+        int pending = OfflineMode.getPendingCount();
+        int choice = JOptionPane.showConfirmDialog(null,
+                "Failed to connect to database!\n" +
+                "Work offline with the courses and rosters saved on this computer?\n" +
+                "Attendance and grades will be sent to the database once it is reachable" +
+                (pending > 0 ? "\n(" + pending + " changes from an earlier session are still waiting)." : "."),
+                "Database Connection Error",
+                JOptionPane.YES_NO_OPTION,
+                JOptionPane.WARNING_MESSAGE);
+        if (choice != JOptionPane.YES_OPTION) {
+            return false;
+        }
+        OfflineMode.enter(cause);
+        return true;
+    }
+
+    /**
+     * StartupBenchmark launches with -Dsims.startup.exitAfter=splash|login to stop once that window is up
+     */
+    private static void exitIfBenchmarking(String window, StartupWarmup warmup) {
+        if (window.equals(System.getProperty("sims.startup.exitAfter"))) {
+            System.out.print(warmup.report());
+            System.out.flush();
+            Runtime.getRuntime().halt(0);
+        }
+    }
 }
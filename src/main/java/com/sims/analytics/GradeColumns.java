@@ -0,0 +1,462 @@
+package com.sims.analytics;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BinaryOperator;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Read-only columnar copy of the grades table for analytics
+ * One primitive array per column instead of one Grade object per row: ids are ints, marks are
+ * ints in hundredths (the columns are DECIMAL(5,2)), and assessment type, semester and academic
+ * year are short codes into per-column dictionaries. That is 26 bytes a row against 300+ for a
+ * Grade, so several years of grades fit in the client heap.
+ *
+ * Aggregations split the rows into chunks that run in parallel on the common fork-join pool; each
+ * chunk fills its own accumulator and the accumulators are merged at the end, so nothing is shared
+ * or locked while rows are scanned. Filters are resolved to codes once, then compared as ints.
+ */
+public final class GradeColumns {
+    /**
+     * Fewest rows scanned by one parallel task
+     */
+    private static final int MIN_CHUNK_SIZE = 16_384;
+    /**
+     * Tasks per fork-join worker; more balance the load, fewer mean fewer accumulators to allocate and merge
+     */
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    private static final int ANY = -1;
+    private static final int NONE = -2;
+
+    /**
+     * Folds one row into a per-chunk accumulator
+     */
+    public interface RowAccumulator<A> {
+        void accept(A accumulator, int row);
+    }
+
+    /**
+     * Which rows an aggregation looks at; unset criteria match every row
+     */
+    public static final class Filter {
+        private static final Filter ALL = new Filter(null, null, null, null, false);
+
+        private final Integer courseId;
+        private final String semester;
+        private final String academicYear;
+        private final String assessmentType;
+        private final boolean termSet;
+
+        private Filter(Integer courseId, String semester, String academicYear, String assessmentType,
+                       boolean termSet) {
+            this.courseId = courseId;
+            this.semester = semester;
+            this.academicYear = academicYear;
+            this.assessmentType = assessmentType;
+            this.termSet = termSet;
+        }
+
+        public static Filter all() {
+            return ALL;
+        }
+
+        public Filter course(int courseId) {
+            return new Filter(courseId, semester, academicYear, assessmentType, termSet);
+        }
+
+        public Filter term(String semester, String academicYear) {
+            return new Filter(courseId, semester, academicYear, assessmentType, true);
+        }
+
+        public Filter assessmentType(String assessmentType) {
+            return new Filter(courseId, semester, academicYear, assessmentType, termSet);
+        }
+    }
+
+    /**
+     * Count, mean, minimum and maximum percentage of a set of rows
+     */
+    public static final class Summary {
+        private long count;
+        private double sum;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        private void add(double percentage) {
+            count++;
+            sum += percentage;
+            min = Math.min(min, percentage);
+            max = Math.max(max, percentage);
+        }
+
+        private Summary merge(Summary other) {
+            count += other.count;
+            sum += other.sum;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+            return this;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getMean() {
+            return count > 0 ? sum / count : Double.NaN;
+        }
+
+        public double getMin() {
+            return count > 0 ? min : Double.NaN;
+        }
+
+        public double getMax() {
+            return count > 0 ? max : Double.NaN;
+        }
+    }
+
+    /**
+     * Appends rows while grades are streamed in; build() trims the arrays
+     */
+    public static final class Builder {
+        private int size;
+        private int[] gradeIds = new int[1024];
+        private int[] studentIds = new int[1024];
+        private int[] courseIds = new int[1024];
+        private int[] marks = new int[1024];
+        private int[] totals = new int[1024];
+        private short[] assessmentTypes = new short[1024];
+        private short[] semesters = new short[1024];
+        private short[] academicYears = new short[1024];
+        private final Dictionary assessmentTypeDictionary = new Dictionary("assessment_type");
+        private final Dictionary semesterDictionary = new Dictionary("semester");
+        private final Dictionary academicYearDictionary = new Dictionary("academic_year");
+
+        /**
+         * Append one grade; marks are in hundredths (see hundredths())
+         * @throws IllegalStateException if a dictionary column has more than 32767 distinct values
+         */
+        public void add(int gradeId, int studentId, int courseId, String assessmentType,
+                        int marksObtained, int totalMarks, String semester, String academicYear) {
+            if (size == gradeIds.length) {
+                int capacity = size + (size >> 1);
+                gradeIds = Arrays.copyOf(gradeIds, capacity);
+                studentIds = Arrays.copyOf(studentIds, capacity);
+                courseIds = Arrays.copyOf(courseIds, capacity);
+                marks = Arrays.copyOf(marks, capacity);
+                totals = Arrays.copyOf(totals, capacity);
+                assessmentTypes = Arrays.copyOf(assessmentTypes, capacity);
+                semesters = Arrays.copyOf(semesters, capacity);
+                academicYears = Arrays.copyOf(academicYears, capacity);
+            }
+            gradeIds[size] = gradeId;
+            studentIds[size] = studentId;
+            courseIds[size] = courseId;
+            marks[size] = marksObtained;
+            totals[size] = totalMarks;
+            assessmentTypes[size] = assessmentTypeDictionary.encode(assessmentType);
+            semesters[size] = semesterDictionary.encode(semester);
+            academicYears[size] = academicYearDictionary.encode(academicYear);
+            size++;
+        }
+
+        public GradeColumns build() {
+            return new GradeColumns(this);
+        }
+    }
+
+    /**
+     * Distinct values of one text column, in order of first appearance; null is a value too
+     */
+    private static final class Dictionary {
+        private final String column;
+        private final Map<String, Short> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        private Dictionary(String column) {
+            this.column = column;
+        }
+
+        private short encode(String value) {
+            Short code = codes.get(value);
+            if (code == null) {
+                if (values.size() > Short.MAX_VALUE) {
+                    throw new IllegalStateException("Too many distinct values of " + column);
+                }
+                code = (short) values.size();
+                codes.put(value, code);
+                values.add(value);
+            }
+            return code;
+        }
+    }
+
+    private final int size;
+    private final int[] gradeIds;
+    private final int[] studentIds;
+    private final int[] courseIds;
+    private final int[] marks;
+    private final int[] totals;
+    private final short[] assessmentTypes;
+    private final short[] semesters;
+    private final short[] academicYears;
+    private final String[] assessmentTypeValues;
+    private final String[] semesterValues;
+    private final String[] academicYearValues;
+    private final Map<String, Short> assessmentTypeCodes;
+    private final Map<String, Short> semesterCodes;
+    private final Map<String, Short> academicYearCodes;
+
+    private GradeColumns(Builder builder) {
+        this.size = builder.size;
+        this.gradeIds = Arrays.copyOf(builder.gradeIds, size);
+        this.studentIds = Arrays.copyOf(builder.studentIds, size);
+        this.courseIds = Arrays.copyOf(builder.courseIds, size);
+        this.marks = Arrays.copyOf(builder.marks, size);
+        this.totals = Arrays.copyOf(builder.totals, size);
+        this.assessmentTypes = Arrays.copyOf(builder.assessmentTypes, size);
+        this.semesters = Arrays.copyOf(builder.semesters, size);
+        this.academicYears = Arrays.copyOf(builder.academicYears, size);
+        this.assessmentTypeValues = builder.assessmentTypeDictionary.values.toArray(new String[0]);
+        this.semesterValues = builder.semesterDictionary.values.toArray(new String[0]);
+        this.academicYearValues = builder.academicYearDictionary.values.toArray(new String[0]);
+        this.assessmentTypeCodes = new HashMap<>(builder.assessmentTypeDictionary.codes);
+        this.semesterCodes = new HashMap<>(builder.semesterDictionary.codes);
+        this.academicYearCodes = new HashMap<>(builder.academicYearDictionary.codes);
+    }
+
+    /**
+     * Convert a DECIMAL(5,2) value to hundredths
+     */
+    public static int hundredths(BigDecimal value) {
+        return value.movePointRight(2).setScale(0, RoundingMode.HALF_UP).intValueExact();
+    }
+
+    // ---- Rows ----
+
+    public int size() {
+        return size;
+    }
+
+    public int getGradeId(int row) {
+        return gradeIds[row];
+    }
+
+    public int getStudentId(int row) {
+        return studentIds[row];
+    }
+
+    public int getCourseId(int row) {
+        return courseIds[row];
+    }
+
+    /**
+     * Marks obtained, in hundredths
+     */
+    public int getMarksObtained(int row) {
+        return marks[row];
+    }
+
+    /**
+     * Total marks, in hundredths
+     */
+    public int getTotalMarks(int row) {
+        return totals[row];
+    }
+
+    /**
+     * Marks obtained as a percentage of total marks, or NaN if total marks is zero
+     */
+    public double getPercentage(int row) {
+        return totals[row] > 0 ? marks[row] * 100.0 / totals[row] : Double.NaN;
+    }
+
+    public String getAssessmentType(int row) {
+        return assessmentTypeValues[assessmentTypes[row]];
+    }
+
+    public String getSemester(int row) {
+        return semesterValues[semesters[row]];
+    }
+
+    public String getAcademicYear(int row) {
+        return academicYearValues[academicYears[row]];
+    }
+
+    // ---- Group keys, for aggregateBy() ----
+
+    /**
+     * Group key of a row's assessment type; see getAssessmentTypeOfKey()
+     */
+    public int getAssessmentTypeKey(int row) {
+        return assessmentTypes[row];
+    }
+
+    public String getAssessmentTypeOfKey(int key) {
+        return assessmentTypeValues[key];
+    }
+
+    /**
+     * Group key of a row's semester and academic year; see getTermOfKey()
+     */
+    public int getTermKey(int row) {
+        return semesters[row] << 16 | academicYears[row];
+    }
+
+    /**
+     * Term of a group key as "semester academic_year"
+     */
+    public String getTermOfKey(int key) {
+        return semesterValues[key >>> 16] + " " + academicYearValues[key & 0xFFFF];
+    }
+
+    /**
+     * Distinct assessment types, in order of first appearance
+     */
+    public List<String> getAssessmentTypes() {
+        return Arrays.asList(assessmentTypeValues.clone());
+    }
+
+    // ---- Aggregations ----
+
+    /**
+     * Fold the matching rows into accumulators in parallel
+     * @param supplier new, empty accumulator (one per chunk)
+     * @param accumulator adds one row to an accumulator
+     * @param combiner merges two accumulators and returns the result
+     */
+    public <A> A aggregate(Filter filter, Supplier<A> supplier, RowAccumulator<A> accumulator,
+                           BinaryOperator<A> combiner) {
+        Match match = new Match(filter);
+        if (match.isEmpty()) {
+            return supplier.get();
+        }
+        int chunkSize = chunkSize();
+        return chunks(chunkSize).mapToObj(chunk -> {
+            A result = supplier.get();
+            for (int row = chunk * chunkSize, end = Math.min(row + chunkSize, size); row < end; row++) {
+                if (match.test(row)) {
+                    accumulator.accept(result, row);
+                }
+            }
+            return result;
+        }).reduce(combiner).orElseGet(supplier);
+    }
+
+    /**
+     * Fold the matching rows into one accumulator per group, in parallel
+     * @param key group key of a row, e.g. getCourseId, getAssessmentTypeKey or getTermKey
+     * @return accumulators by group key
+     */
+    public <A> Map<Integer, A> aggregateBy(IntUnaryOperator key, Filter filter, Supplier<A> supplier,
+                                           RowAccumulator<A> accumulator, BinaryOperator<A> combiner) {
+        Match match = new Match(filter);
+        if (match.isEmpty()) {
+            return new HashMap<>();
+        }
+        int chunkSize = chunkSize();
+        return chunks(chunkSize).mapToObj(chunk -> {
+            Map<Integer, A> groups = new HashMap<>();
+            for (int row = chunk * chunkSize, end = Math.min(row + chunkSize, size); row < end; row++) {
+                if (match.test(row)) {
+                    accumulator.accept(groups.computeIfAbsent(key.applyAsInt(row), k -> supplier.get()), row);
+                }
+            }
+            return groups;
+        }).reduce((left, right) -> {
+            right.forEach((group, value) -> left.merge(group, value, combiner));
+            return left;
+        }).orElseGet(HashMap::new);
+    }
+
+    /**
+     * Count, mean, minimum and maximum percentage of the matching rows
+     */
+    public Summary summarize(Filter filter) {
+        return aggregate(filter, Summary::new, this::addPercentage, Summary::merge);
+    }
+
+    /**
+     * Summaries of the matching rows by group key
+     */
+    public Map<Integer, Summary> summarizeBy(IntUnaryOperator key, Filter filter) {
+        return aggregateBy(key, filter, Summary::new, this::addPercentage, Summary::merge);
+    }
+
+    private void addPercentage(Summary summary, int row) {
+        double percentage = getPercentage(row);
+        if (!Double.isNaN(percentage)) {
+            summary.add(percentage);
+        }
+    }
+
+    private int chunkSize() {
+        int chunks = ForkJoinPool.getCommonPoolParallelism() * CHUNKS_PER_WORKER;
+        return Math.max(MIN_CHUNK_SIZE, (size + chunks - 1) / chunks);
+    }
+
+    private IntStream chunks(int chunkSize) {
+        return IntStream.range(0, (size + chunkSize - 1) / chunkSize).parallel();
+    }
+
+    /**
+     * Approximate heap used by the columns
+     */
+    public long getEstimatedBytes() {
+        return (long) size * (5 * Integer.BYTES + 3 * Short.BYTES);
+    }
+
+    @Override
+    public String toString() {
+        return "GradeColumns[rows=" + size + ", assessmentTypes=" + assessmentTypeValues.length +
+               ", terms=" + semesterValues.length + "x" + academicYearValues.length +
+               ", ~" + getEstimatedBytes() / 1024 + " KB]";
+    }
+
+    /**
+     * A filter resolved to dictionary codes
+     */
+    private final class Match {
+        private final int courseId;
+        private final boolean anyCourse;
+        private final int semester;
+        private final int academicYear;
+        private final int assessmentType;
+
+        private Match(Filter filter) {
+            this.anyCourse = filter.courseId == null;
+            this.courseId = anyCourse ? 0 : filter.courseId;
+            this.semester = filter.termSet ? code(semesterCodes, filter.semester) : ANY;
+            this.academicYear = filter.termSet ? code(academicYearCodes, filter.academicYear) : ANY;
+            this.assessmentType = filter.assessmentType != null
+                    ? code(assessmentTypeCodes, filter.assessmentType) : ANY;
+        }
+
+        private int code(Map<String, Short> codes, String value) {
+            Short code = codes.get(value);
+            return code != null ? code : NONE;
+        }
+
+        /**
+         * A value that never occurs was asked for, so no row can match
+         */
+        private boolean isEmpty() {
+            return semester == NONE || academicYear == NONE || assessmentType == NONE;
+        }
+
+        private boolean test(int row) {
+            return (anyCourse || courseIds[row] == courseId)
+                   && (semester == ANY || semesters[row] == semester)
+                   && (academicYear == ANY || academicYears[row] == academicYear)
+                   && (assessmentType == ANY || assessmentTypes[row] == assessmentType);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.sims.analytics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Mergeable one-pass statistics of grade percentages: count, mean, standard deviation, range,
+ * approximate quantiles and the distribution over grade bands
+ * Mean and variance are kept with Welford's update and combined with Chan's formula, so partial
+ * results from parallel chunks merge without a second pass over the rows. Percentages are also
+ * counted in quarter-point bins, a fixed-size sketch that merges by adding counts; quantiles are
+ * interpolated from it to within a quarter point, and the grade bands are read from it exactly.
+ */
+public final class GradeStatistics {
+    private static final int BINS_PER_POINT = 4;
+    /**
+     * Quarter-point bins from 0 up to 100, plus one bin for 100% and above
+     */
+    private static final int BINS = 100 * BINS_PER_POINT + 1;
+
+    /**
+     * Lower bounds of the grade bands, highest first (the same bands as Grade's letters)
+     */
+    private static final String[] BAND_LETTERS = {"A+", "A", "B+", "B", "C+", "C", "F"};
+    private static final int[] BAND_FLOORS = {90, 80, 70, 60, 50, 40, 0};
+
+    private long count;
+    private double mean;
+    private double sumOfSquares;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private final long[] bins = new long[BINS];
+
+    /**
+     * Statistics of the matching rows, computed in one parallel pass
+     */
+    public static GradeStatistics of(GradeColumns columns, GradeColumns.Filter filter) {
+        return columns.aggregate(filter, GradeStatistics::new, (statistics, row) -> statistics.add(columns, row),
+                GradeStatistics::merge);
+    }
+
+    /**
+     * Statistics of the matching rows per group, computed in one parallel pass
+     * @param key group key of a row, e.g. columns::getCourseId or columns::getAssessmentTypeKey
+     */
+    public static Map<Integer, GradeStatistics> byGroup(GradeColumns columns, IntUnaryOperator key,
+                                                        GradeColumns.Filter filter) {
+        return columns.aggregateBy(key, filter, GradeStatistics::new,
+                (statistics, row) -> statistics.add(columns, row), GradeStatistics::merge);
+    }
+
+    private void add(GradeColumns columns, int row) {
+        add(columns.getMarksObtained(row), columns.getTotalMarks(row));
+    }
+
+    /**
+     * Add one grade; marks are in hundredths and grades without total marks are skipped
+     */
+    public void add(int marksObtained, int totalMarks) {
+        if (totalMarks <= 0) {
+            return;
+        }
+        double percentage = marksObtained * 100.0 / totalMarks;
+        count++;
+        double delta = percentage - mean;
+        mean += delta / count;
+        sumOfSquares += delta * (percentage - mean);
+        min = Math.min(min, percentage);
+        max = Math.max(max, percentage);
+        // Bin from the integer marks, so a grade exactly on a band boundary never lands below it
+        long bin = Math.max(0, (long) marksObtained * 100 * BINS_PER_POINT / totalMarks);
+        bins[(int) Math.min(bin, BINS - 1)]++;
+    }
+
+    /**
+     * Fold another partial result into this one
+     * @return this
+     */
+    public GradeStatistics merge(GradeStatistics other) {
+        if (other.count == 0) {
+            return this;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        sumOfSquares += other.sumOfSquares + delta * delta * ((double) count * other.count / total);
+        mean += delta * other.count / total;
+        count = total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        for (int i = 0; i < BINS; i++) {
+            bins[i] += other.bins[i];
+        }
+        return this;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return count > 0 ? mean : Double.NaN;
+    }
+
+    /**
+     * Population standard deviation (the grades are the whole class, not a sample)
+     */
+    public double getStandardDeviation() {
+        return count > 0 ? Math.sqrt(sumOfSquares / count) : Double.NaN;
+    }
+
+    public double getMin() {
+        return count > 0 ? min : Double.NaN;
+    }
+
+    public double getMax() {
+        return count > 0 ? max : Double.NaN;
+    }
+
+    public double getMedian() {
+        return getQuantile(0.5);
+    }
+
+    /**
+     * Approximate quantile, within a quarter point of the exact value
+     * @param q between 0 and 1, e.g. 0.9 for the 90th percentile
+     */
+    public double getQuantile(double q) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        double rank = Math.max(0, Math.min(1, q)) * count;
+        long below = 0;
+        for (int i = 0; i < BINS; i++) {
+            if (bins[i] > 0 && below + bins[i] >= rank) {
+                double lower = (double) i / BINS_PER_POINT;
+                double upper = i < BINS - 1 ? (double) (i + 1) / BINS_PER_POINT : max;
+                double estimate = lower + (upper - lower) * (rank - below) / bins[i];
+                return Math.max(min, Math.min(max, estimate));
+            }
+            below += bins[i];
+        }
+        return max;
+    }
+
+    /**
+     * Number of grades in each grade band, from A+ down to F
+     */
+    public Map<String, Long> getBandCounts() {
+        Map<String, Long> bands = new LinkedHashMap<>();
+        int upper = BINS;
+        for (int band = 0; band < BAND_LETTERS.length; band++) {
+            int lower = BAND_FLOORS[band] * BINS_PER_POINT;
+            long bandCount = 0;
+            for (int i = lower; i < upper; i++) {
+                bandCount += bins[i];
+            }
+            bands.put(BAND_LETTERS[band], bandCount);
+            upper = lower;
+        }
+        return bands;
+    }
+
+    /**
+     * Histogram of percentages in equal-width bars from 0 to 100; 100% and above counts in the last bar
+     * @param points width of a bar in percentage points; must divide 100
+     */
+    public long[] getHistogram(int points) {
+        if (points <= 0 || 100 % points != 0) {
+            throw new IllegalArgumentException("Bar width must divide 100: " + points);
+        }
+        long[] bars = new long[100 / points];
+        for (int i = 0; i < BINS; i++) {
+            bars[Math.min(i / (points * BINS_PER_POINT), bars.length - 1)] += bins[i];
+        }
+        return bars;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("GradeStatistics[n=%d, mean=%.2f, sd=%.2f, median=%.2f, min=%.2f, max=%.2f]",
+                count, getMean(), getStandardDeviation(), getMedian(), getMin(), getMax());
+    }
+}
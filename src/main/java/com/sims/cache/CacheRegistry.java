@@ -0,0 +1,45 @@
+package com.sims.cache;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of every cache created in this process
+ */
+public class CacheRegistry {
+    private static final Map<String, ManagedCache> CACHES =
+            Collections.synchronizedMap(new LinkedHashMap<String, ManagedCache>());
+
+    private CacheRegistry() {}
+
+    public static void register(ManagedCache cache) {
+        CACHES.put(cache.getName(), cache);
+    }
+
+    /**
+     * Statistics of every registered cache
+     */
+    public static List<CacheStats> getAllStats() {
+        List<CacheStats> stats = new ArrayList<>();
+        synchronized (CACHES) {
+            for (ManagedCache cache : CACHES.values()) {
+                stats.add(cache.getStats());
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Clear every registered cache
+     */
+    public static void invalidateAll() {
+        synchronized (CACHES) {
+            for (ManagedCache cache : CACHES.values()) {
+                cache.invalidateAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.sims.cache;
+
+/**
+ * Point-in-time statistics of a cache
+ */
+public class CacheStats {
+    private final String name;
+    private final int size;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    public CacheStats(String name, int size, long hits, long misses, long evictions) {
+        this.name = name;
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: size=%d hits=%d misses=%d evictions=%d hitRate=%.1f%%",
+                name, size, hits, misses, evictions, getHitRate() * 100);
+    }
+}
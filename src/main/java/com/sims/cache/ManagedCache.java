@@ -0,0 +1,13 @@
+package com.sims.cache;
+
+/**
+ * Cache registered with the CacheRegistry for statistics and bulk invalidation
+ */
+public interface ManagedCache {
+
+    String getName();
+
+    CacheStats getStats();
+
+    void invalidateAll();
+}
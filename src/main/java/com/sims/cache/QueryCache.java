@@ -0,0 +1,147 @@
+package com.sims.cache;
+
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * Read-through cache for DAO query results
+ * Entries expire after a fixed TTL and the least recently used entry is evicted once the
+ * cache is full. Writers call invalidate/invalidateAll after a successful mutation; a load
+ * that overlaps an invalidation is returned to its caller but not cached. Caches of mutable
+ * values take a copier, so callers get copies and editing one never changes the cached value.
+ */
+public class QueryCache<K, V> implements ManagedCache {
+
+    /**
+     * Loads a value from the database on a cache miss
+     */
+    public interface Loader<V> {
+        V load() throws SQLException;
+    }
+
+    private static class CachedValue<V> {
+        private final V value;
+        private final long expiresAt;
+
+        CachedValue(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final String name;
+    private final long ttlNanos;
+    private final UnaryOperator<V> copier;
+    private final LinkedHashMap<K, CachedValue<V>> entries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long generation;
+
+    /**
+     * @param name cache name used in statistics
+     * @param ttlSeconds time to live of each entry
+     * @param maxSize maximum number of entries kept
+     */
+    public QueryCache(String name, long ttlSeconds, final int maxSize) {
+        this(name, ttlSeconds, maxSize, UnaryOperator.identity());
+    }
+
+    /**
+     * @param name cache name used in statistics
+     * @param ttlSeconds time to live of each entry
+     * @param maxSize maximum number of entries kept
+     * @param copier copies a value; applied when a value is cached and when a cached value is returned
+     */
+    public QueryCache(String name, long ttlSeconds, final int maxSize, UnaryOperator<V> copier) {
+        this.name = name;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.copier = copier;
+        this.entries = new LinkedHashMap<K, CachedValue<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CachedValue<V>> eldest) {
+                if (size() > maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        CacheRegistry.register(this);
+    }
+
+    /**
+     * Get a cached value, loading and caching it on a miss (null results are not cached)
+     */
+    public V get(K key, Loader<V> loader) throws SQLException {
+        long loadGeneration;
+        synchronized (this) {
+            CachedValue<V> entry = entries.get(key);
+            if (entry != null) {
+                if (System.nanoTime() - entry.expiresAt < 0) {
+                    hits.incrementAndGet();
+                    return copier.apply(entry.value);
+                }
+                entries.remove(key);
+            }
+            loadGeneration = generation;
+        }
+
+        misses.incrementAndGet();
+        V value = loader.load();
+
+        if (value != null) {
+            synchronized (this) {
+                if (loadGeneration == generation) {
+                    entries.put(key, new CachedValue<>(copier.apply(value), System.nanoTime() + ttlNanos));
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Store a value directly (e.g. after a write returned the persisted entity)
+     */
+    public synchronized void put(K key, V value) {
+        generation++;
+        entries.put(key, new CachedValue<>(copier.apply(value), System.nanoTime() + ttlNanos));
+    }
+
+    /**
+     * Remove one entry
+     */
+    public synchronized void invalidate(K key) {
+        generation++;
+        entries.remove(key);
+    }
+
+    /**
+     * Remove all entries
+     */
+    @Override
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Snapshot of hit/miss statistics
+     */
+    @Override
+    public CacheStats getStats() {
+        int size;
+        synchronized (this) {
+            size = entries.size();
+        }
+        return new CacheStats(name, size, hits.get(), misses.get(), evictions.get());
+    }
+}
@@ -0,0 +1,563 @@
+package com.sims.cache;
+
+import com.sims.models.Course;
+import com.sims.models.Student;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Read-only, memory-mapped snapshot of students, courses and enrollments
+ * Lets the desktop client fill its pickers from disk before the first query returns. The file is
+ * written in one go by write() and never modified; a newer snapshot goes to a new file.
+ *
+ * Layout (big-endian, offsets are absolute positions in the file):
+ *   header          magic, version, creation time, last change_log id, then for each table:
+ *                   count, order offset, id index (offset, base id, slots), code index (offset, slots)
+ *   records         one variable-length record per student and per course; id and code come first
+ *   order           record offsets in the order the rows were read (by code)
+ *   id index        record offset for each id from base to base + slots - 1 (0 = none), so a
+ *                   lookup by id is one array read
+ *   code index      open-addressing hash table of record offsets keyed by code (linear probing)
+ *   rosters         per course id: enrolled student record offsets; per student id: course offsets
+ *
+ * DAOs ask getCurrent() for the installed snapshot; it returns null as soon as markStale() is
+ * called (a student, course or enrollment changed) until a fresh snapshot is installed.
+ */
+public class ReferenceSnapshot {
+    private static final int MAGIC = 0x53494D52;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 128;
+    private static final int NULL_INT = Integer.MIN_VALUE;
+
+    private static final AtomicLong generation = new AtomicLong();
+    private static volatile ReferenceSnapshot current;
+
+    /**
+     * Offsets of one table of records in the file
+     */
+    private static class Table {
+        private int count;
+        private int orderOffset;
+        private int idIndexOffset;
+        private int idBase;
+        private int idSlots;
+        private int codeIndexOffset;
+        private int codeSlots;
+
+        void writeTo(ByteBuffer header) {
+            header.putInt(count).putInt(orderOffset).putInt(idIndexOffset).putInt(idBase).putInt(idSlots)
+                  .putInt(codeIndexOffset).putInt(codeSlots);
+        }
+
+        static Table readFrom(ByteBuffer header) {
+            Table table = new Table();
+            table.count = header.getInt();
+            table.orderOffset = header.getInt();
+            table.idIndexOffset = header.getInt();
+            table.idBase = header.getInt();
+            table.idSlots = header.getInt();
+            table.codeIndexOffset = header.getInt();
+            table.codeSlots = header.getInt();
+            return table;
+        }
+    }
+
+    private final Path file;
+    private final ByteBuffer buffer;
+    private final long createdAt;
+    private final long lastChangeId;
+    private final Table students;
+    private final Table courses;
+    private final int rosterIndexOffset;
+    private final int studentCoursesIndexOffset;
+
+    private ReferenceSnapshot(Path file, ByteBuffer buffer) throws IOException {
+        this.file = file;
+        this.buffer = buffer;
+        ByteBuffer header = buffer.duplicate();
+        if (buffer.limit() < HEADER_SIZE || header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("Not a reference snapshot: " + file);
+        }
+        this.createdAt = header.getLong();
+        this.lastChangeId = header.getLong();
+        this.students = Table.readFrom(header);
+        this.courses = Table.readFrom(header);
+        this.rosterIndexOffset = header.getInt();
+        this.studentCoursesIndexOffset = header.getInt();
+        if (header.getInt() != buffer.limit()) {
+            throw new IOException("Truncated reference snapshot: " + file);
+        }
+    }
+
+    /**
+     * Map a snapshot file into memory
+     * @throws IOException if the file cannot be read or is not a complete snapshot
+     */
+    public static ReferenceSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new ReferenceSnapshot(file, buffer);
+        }
+    }
+
+    // ---- Installed snapshot ----
+
+    /**
+     * Get the installed snapshot, or null if none is installed or it is known to be stale
+     */
+    public static ReferenceSnapshot getCurrent() {
+        return current;
+    }
+
+    /**
+     * Stop serving the installed snapshot
+     * @return the new generation; pass it to install() for the snapshot built after this call
+     */
+    public static synchronized long markStale() {
+        current = null;
+        return generation.incrementAndGet();
+    }
+
+    /**
+     * Get the generation a snapshot loaded now would belong to
+     */
+    public static long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Serve a snapshot, unless markStale() was called since the given generation was obtained
+     * @return true if the snapshot was installed
+     */
+    public static synchronized boolean install(ReferenceSnapshot snapshot, long expectedGeneration) {
+        if (generation.get() != expectedGeneration) {
+            return false;
+        }
+        current = snapshot;
+        return true;
+    }
+
+    // ---- Lookups ----
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Newest change_log id at the time the data was read; later changes are not in the snapshot
+     */
+    public long getLastChangeId() {
+        return lastChangeId;
+    }
+
+    public int getStudentCount() {
+        return students.count;
+    }
+
+    public int getCourseCount() {
+        return courses.count;
+    }
+
+    /**
+     * Get all students in student code order
+     */
+    public List<Student> getStudents() {
+        List<Student> result = new ArrayList<>(students.count);
+        for (int i = 0; i < students.count; i++) {
+            result.add(readStudent(buffer.getInt(students.orderOffset + 4 * i)));
+        }
+        return result;
+    }
+
+    /**
+     * Get a student by id, or null if there is none
+     */
+    public Student getStudent(int studentId) {
+        int offset = findById(students, studentId);
+        return offset != 0 ? readStudent(offset) : null;
+    }
+
+    /**
+     * Get a student by student code, or null if there is none
+     */
+    public Student getStudentByCode(String studentCode) {
+        int offset = findByCode(students, studentCode);
+        return offset != 0 ? readStudent(offset) : null;
+    }
+
+    /**
+     * Get all courses in course code order
+     */
+    public List<Course> getCourses() {
+        List<Course> result = new ArrayList<>(courses.count);
+        for (int i = 0; i < courses.count; i++) {
+            result.add(readCourse(buffer.getInt(courses.orderOffset + 4 * i)));
+        }
+        return result;
+    }
+
+    /**
+     * Get a course by id, or null if there is none
+     */
+    public Course getCourse(int courseId) {
+        int offset = findById(courses, courseId);
+        return offset != 0 ? readCourse(offset) : null;
+    }
+
+    /**
+     * Get the students enrolled in a course, in student code order
+     */
+    public List<Student> getRoster(int courseId) {
+        List<Student> roster = new ArrayList<>();
+        int list = slot(rosterIndexOffset, courses, courseId);
+        if (list != 0) {
+            int count = buffer.getInt(list);
+            for (int i = 1; i <= count; i++) {
+                roster.add(readStudent(buffer.getInt(list + 4 * i)));
+            }
+        }
+        return roster;
+    }
+
+    /**
+     * Get the courses a student is enrolled in, in course code order
+     */
+    public List<Course> getCoursesOfStudent(int studentId) {
+        List<Course> result = new ArrayList<>();
+        int list = slot(studentCoursesIndexOffset, students, studentId);
+        if (list != 0) {
+            int count = buffer.getInt(list);
+            for (int i = 1; i <= count; i++) {
+                result.add(readCourse(buffer.getInt(list + 4 * i)));
+            }
+        }
+        return result;
+    }
+
+    private int findById(Table table, int id) {
+        return slot(table.idIndexOffset, table, id);
+    }
+
+    /**
+     * Read the entry for an id from an index laid out like the table's id index
+     */
+    private int slot(int indexOffset, Table table, int id) {
+        long index = (long) id - table.idBase;
+        if (index < 0 || index >= table.idSlots) {
+            return 0;
+        }
+        return buffer.getInt(indexOffset + 4 * (int) index);
+    }
+
+    private int findByCode(Table table, String code) {
+        if (code == null || table.codeSlots == 0) {
+            return 0;
+        }
+        int mask = table.codeSlots - 1;
+        for (int slot = code.hashCode() & mask; ; slot = (slot + 1) & mask) {
+            int offset = buffer.getInt(table.codeIndexOffset + 4 * slot);
+            if (offset == 0) {
+                return 0;
+            }
+            if (code.equals(readString(offset + 4))) {
+                return offset;
+            }
+        }
+    }
+
+    private Student readStudent(int offset) {
+        Reader reader = new Reader(offset);
+        Student student = new Student();
+        student.setStudentId(reader.nextInt());
+        student.setStudentCode(reader.nextString());
+        student.setUserId(reader.nextInteger());
+        student.setFirstName(reader.nextString());
+        student.setLastName(reader.nextString());
+        student.setDateOfBirth(reader.nextDate());
+        int gender = reader.nextInt();
+        student.setGender(gender != NULL_INT ? Student.Gender.values()[gender] : null);
+        student.setEmail(reader.nextString());
+        student.setPhone(reader.nextString());
+        student.setAddress(reader.nextString());
+        student.setEnrollmentDate(reader.nextDate());
+        int status = reader.nextInt();
+        student.setStatus(status != NULL_INT ? Student.Status.values()[status] : null);
+        return student;
+    }
+
+    private Course readCourse(int offset) {
+        Reader reader = new Reader(offset);
+        Course course = new Course();
+        course.setCourseId(reader.nextInt());
+        course.setCourseCode(reader.nextString());
+        course.setCourseName(reader.nextString());
+        course.setDescription(reader.nextString());
+        course.setCredits(reader.nextInt());
+        course.setInstructorId(reader.nextInteger());
+        course.setSemester(reader.nextString());
+        course.setAcademicYear(reader.nextString());
+        int status = reader.nextInt();
+        course.setStatus(status != NULL_INT ? Course.Status.values()[status] : null);
+        return course;
+    }
+
+    private String readString(int offset) {
+        int length = buffer.getInt(offset);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset + 4);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Sequential reader over one record, using absolute reads so snapshots can be shared between threads
+     */
+    private class Reader {
+        private int position;
+
+        Reader(int position) {
+            this.position = position;
+        }
+
+        int nextInt() {
+            int value = buffer.getInt(position);
+            position += 4;
+            return value;
+        }
+
+        Integer nextInteger() {
+            int value = nextInt();
+            return value != NULL_INT ? value : null;
+        }
+
+        LocalDate nextDate() {
+            int value = nextInt();
+            return value != NULL_INT ? LocalDate.ofEpochDay(value) : null;
+        }
+
+        String nextString() {
+            String value = readString(position);
+            int length = buffer.getInt(position);
+            position += 4 + Math.max(length, 0);
+            return value;
+        }
+    }
+
+    // ---- Writing ----
+
+    /**
+     * Write a snapshot file; rows are kept in the order given (student and course code order)
+     * @param enrollments enrolled student ids per course id
+     */
+    public static void write(Path file, long lastChangeId, List<Student> studentList, List<Course> courseList,
+                             Map<Integer, List<Integer>> enrollments) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(HEADER_SIZE + studentList.size() * 160);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.write(new byte[HEADER_SIZE]);
+
+        Map<Integer, Integer> studentOffsets = new HashMap<>();
+        for (Student student : studentList) {
+            studentOffsets.put(student.getStudentId(), out.size());
+            writeStudent(out, student);
+        }
+        Map<Integer, Integer> courseOffsets = new HashMap<>();
+        for (Course course : courseList) {
+            courseOffsets.put(course.getCourseId(), out.size());
+            writeCourse(out, course);
+        }
+
+        List<Integer> studentIds = new ArrayList<>();
+        List<String> studentCodes = new ArrayList<>();
+        for (Student student : studentList) {
+            studentIds.add(student.getStudentId());
+            studentCodes.add(student.getStudentCode());
+        }
+        Table students = writeIndexes(out, studentIds, studentCodes, studentOffsets);
+
+        List<Integer> courseIds = new ArrayList<>();
+        List<String> courseCodes = new ArrayList<>();
+        for (Course course : courseList) {
+            courseIds.add(course.getCourseId());
+            courseCodes.add(course.getCourseCode());
+        }
+        Table courses = writeIndexes(out, courseIds, courseCodes, courseOffsets);
+
+        // Rosters in student code order, course lists in course code order
+        Map<Integer, Integer> studentRank = rank(studentIds);
+        Map<Integer, Integer> courseRank = rank(courseIds);
+        Map<Integer, List<Integer>> rosters = new HashMap<>();
+        Map<Integer, List<Integer>> coursesOfStudent = new HashMap<>();
+        for (Map.Entry<Integer, List<Integer>> enrollment : enrollments.entrySet()) {
+            if (!courseOffsets.containsKey(enrollment.getKey())) {
+                continue;
+            }
+            for (int studentId : enrollment.getValue()) {
+                if (studentOffsets.containsKey(studentId)) {
+                    rosters.computeIfAbsent(enrollment.getKey(), id -> new ArrayList<>()).add(studentId);
+                    coursesOfStudent.computeIfAbsent(studentId, id -> new ArrayList<>()).add(enrollment.getKey());
+                }
+            }
+        }
+        int rosterIndexOffset = writeLists(out, courses, rosters, studentRank, studentOffsets);
+        int studentCoursesIndexOffset = writeLists(out, students, coursesOfStudent, courseRank, courseOffsets);
+        out.flush();
+
+        byte[] data = bytes.toByteArray();
+        ByteBuffer header = ByteBuffer.wrap(data);
+        header.putInt(MAGIC).putInt(VERSION).putLong(System.currentTimeMillis()).putLong(lastChangeId);
+        students.writeTo(header);
+        courses.writeTo(header);
+        header.putInt(rosterIndexOffset).putInt(studentCoursesIndexOffset).putInt(data.length);
+        Files.write(file, data);
+    }
+
+    private static Table writeIndexes(DataOutputStream out, List<Integer> ids, List<String> codes,
+                                      Map<Integer, Integer> offsets) throws IOException {
+        Table table = new Table();
+        table.count = ids.size();
+
+        table.orderOffset = out.size();
+        for (int id : ids) {
+            out.writeInt(offsets.get(id));
+        }
+
+        int minId = ids.isEmpty() ? 0 : Collections.min(ids);
+        int maxId = ids.isEmpty() ? -1 : Collections.max(ids);
+        if ((long) maxId - minId > 4L * ids.size() + 65536) {
+            throw new IOException("Ids " + minId + ".." + maxId + " are too sparse for a direct index");
+        }
+        int[] idIndex = new int[maxId - minId + 1];
+        for (int id : ids) {
+            idIndex[id - minId] = offsets.get(id);
+        }
+        table.idIndexOffset = out.size();
+        table.idBase = minId;
+        table.idSlots = idIndex.length;
+        for (int offset : idIndex) {
+            out.writeInt(offset);
+        }
+
+        // At most half full, so probe sequences stay short
+        int slots = Integer.highestOneBit(Math.max(ids.size(), 1) * 2) * 2;
+        int[] codeIndex = new int[slots];
+        for (int i = 0; i < ids.size(); i++) {
+            String code = codes.get(i);
+            if (code == null) {
+                continue;
+            }
+            int slot = code.hashCode() & (slots - 1);
+            while (codeIndex[slot] != 0) {
+                slot = (slot + 1) & (slots - 1);
+            }
+            codeIndex[slot] = offsets.get(ids.get(i));
+        }
+        table.codeIndexOffset = out.size();
+        table.codeSlots = slots;
+        for (int offset : codeIndex) {
+            out.writeInt(offset);
+        }
+        return table;
+    }
+
+    /**
+     * Write one list of record offsets per owner id, plus an index laid out like the owner table's id index
+     */
+    private static int writeLists(DataOutputStream out, Table owners, Map<Integer, List<Integer>> lists,
+                                  Map<Integer, Integer> rank, Map<Integer, Integer> memberOffsets)
+            throws IOException {
+        int[] index = new int[owners.idSlots];
+        for (Map.Entry<Integer, List<Integer>> list : lists.entrySet()) {
+            List<Integer> members = list.getValue();
+            members.sort((a, b) -> Integer.compare(rank.get(a), rank.get(b)));
+            index[list.getKey() - owners.idBase] = out.size();
+            out.writeInt(members.size());
+            for (int member : members) {
+                out.writeInt(memberOffsets.get(member));
+            }
+        }
+        int indexOffset = out.size();
+        for (int offset : index) {
+            out.writeInt(offset);
+        }
+        return indexOffset;
+    }
+
+    private static Map<Integer, Integer> rank(List<Integer> ids) {
+        Map<Integer, Integer> rank = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            rank.put(ids.get(i), i);
+        }
+        return rank;
+    }
+
+    private static void writeStudent(DataOutputStream out, Student student) throws IOException {
+        out.writeInt(student.getStudentId());
+        writeString(out, student.getStudentCode());
+        out.writeInt(student.getUserId() != null ? student.getUserId() : NULL_INT);
+        writeString(out, student.getFirstName());
+        writeString(out, student.getLastName());
+        writeDate(out, student.getDateOfBirth());
+        out.writeInt(student.getGender() != null ? student.getGender().ordinal() : NULL_INT);
+        writeString(out, student.getEmail());
+        writeString(out, student.getPhone());
+        writeString(out, student.getAddress());
+        writeDate(out, student.getEnrollmentDate());
+        out.writeInt(student.getStatus() != null ? student.getStatus().ordinal() : NULL_INT);
+    }
+
+    private static void writeCourse(DataOutputStream out, Course course) throws IOException {
+        out.writeInt(course.getCourseId());
+        writeString(out, course.getCourseCode());
+        writeString(out, course.getCourseName());
+        writeString(out, course.getDescription());
+        out.writeInt(course.getCredits());
+        out.writeInt(course.getInstructorId() != null ? course.getInstructorId() : NULL_INT);
+        writeString(out, course.getSemester());
+        writeString(out, course.getAcademicYear());
+        out.writeInt(course.getStatus() != null ? course.getStatus().ordinal() : NULL_INT);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeDate(DataOutputStream out, LocalDate date) throws IOException {
+        out.writeInt(date != null ? (int) date.toEpochDay() : NULL_INT);
+    }
+
+    @Override
+    public String toString() {
+        return "ReferenceSnapshot[" + file.getFileName() + ", students=" + students.count +
+               ", courses=" + courses.count + ", lastChangeId=" + lastChangeId + "]";
+    }
+}
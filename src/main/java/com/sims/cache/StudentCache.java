@@ -0,0 +1,227 @@
+package com.sims.cache;
+
+import com.sims.models.Student;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded write-through entity cache for students, keyed by student id and student code
+ * Reads are lock-free (ConcurrentHashMap); writes to an entry take one of a fixed set of
+ * striped locks so the id and code indexes stay consistent. Entries are evicted in
+ * insertion order once the cache is full; removing one only drops its slot from the index, and
+ * the stale slot is skipped when the queue reaches it. Callers always receive copies, so
+ * editing a returned student never changes the cached one.
+ */
+public class StudentCache implements ManagedCache {
+    private static final int STRIPES = 16;
+
+    /**
+     * Place of one cached student in the eviction queue
+     */
+    private static final class Slot {
+        private final int studentId;
+
+        Slot(int studentId) {
+            this.studentId = studentId;
+        }
+    }
+
+    private final String name;
+    private final int maxSize;
+    private final ConcurrentHashMap<Integer, Student> byId = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Integer> idByCode = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Slot> slots = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Slot> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger staleSlots = new AtomicInteger();
+    private final Object[] locks = new Object[STRIPES];
+    private final AtomicLong mutations = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public StudentCache(String name, int maxSize) {
+        this.name = name;
+        this.maxSize = maxSize;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        CacheRegistry.register(this);
+    }
+
+    /**
+     * Get a student by id, loading and caching it on a miss
+     */
+    public Student getById(int studentId, QueryCache.Loader<Student> loader) throws SQLException {
+        Student cached = byId.get(studentId);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return new Student(cached);
+        }
+        return load(loader);
+    }
+
+    /**
+     * Get a student by student code, loading and caching it on a miss
+     */
+    public Student getByCode(String studentCode, QueryCache.Loader<Student> loader) throws SQLException {
+        Integer studentId = idByCode.get(studentCode);
+        Student cached = studentId != null ? byId.get(studentId) : null;
+        if (cached != null && studentCode.equals(cached.getStudentCode())) {
+            hits.incrementAndGet();
+            return new Student(cached);
+        }
+        return load(loader);
+    }
+
+    private Student load(QueryCache.Loader<Student> loader) throws SQLException {
+        misses.incrementAndGet();
+        long mutationCount = mutations.get();
+        Student student = loader.load();
+        if (student != null) {
+            putIfUnchanged(student, mutationCount);
+        }
+        return student;
+    }
+
+    /**
+     * Current mutation count, taken before a bulk read that will be passed to putAllIfUnchanged
+     */
+    public long getMutationCount() {
+        return mutations.get();
+    }
+
+    /**
+     * Populate the cache from a bulk read, unless a write happened while the read was running
+     */
+    public void putAllIfUnchanged(List<Student> students, long mutationCount) {
+        for (Student student : students) {
+            if (!putIfUnchanged(student, mutationCount)) {
+                return;
+            }
+        }
+    }
+
+    private boolean putIfUnchanged(Student student, long mutationCount) {
+        synchronized (lockFor(student.getStudentId())) {
+            if (mutations.get() != mutationCount) {
+                return false;
+            }
+            store(student);
+        }
+        evictOverflow();
+        return true;
+    }
+
+    /**
+     * Write-through after a successful create or update
+     */
+    public void put(Student student) {
+        synchronized (lockFor(student.getStudentId())) {
+            mutations.incrementAndGet();
+            store(student);
+        }
+        evictOverflow();
+    }
+
+    /**
+     * Remove a student after a delete
+     */
+    public void evict(int studentId) {
+        synchronized (lockFor(studentId)) {
+            mutations.incrementAndGet();
+            Student removed = byId.remove(studentId);
+            if (removed != null) {
+                idByCode.remove(removed.getStudentCode(), studentId);
+                slots.remove(studentId);
+                staleSlots.incrementAndGet();
+            }
+        }
+        compactIfMostlyStale();
+    }
+
+    private void store(Student student) {
+        Student copy = new Student(student);
+        Student previous = byId.put(copy.getStudentId(), copy);
+        if (previous == null) {
+            Slot slot = new Slot(copy.getStudentId());
+            slots.put(slot.studentId, slot);
+            insertionOrder.add(slot);
+        } else if (!previous.getStudentCode().equals(copy.getStudentCode())) {
+            idByCode.remove(previous.getStudentCode(), copy.getStudentId());
+        }
+        idByCode.put(copy.getStudentCode(), copy.getStudentId());
+    }
+
+    private void evictOverflow() {
+        while (byId.size() > maxSize) {
+            Slot oldest = insertionOrder.poll();
+            if (oldest == null) {
+                return;
+            }
+            synchronized (lockFor(oldest.studentId)) {
+                if (!slots.remove(oldest.studentId, oldest)) {
+                    // Left behind by evict; the student is gone or was cached again later
+                    staleSlots.decrementAndGet();
+                    continue;
+                }
+                Student removed = byId.remove(oldest.studentId);
+                if (removed != null) {
+                    idByCode.remove(removed.getStudentCode(), oldest.studentId);
+                    evictions.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Drop stale slots once they outnumber the live ones, so the queue stays proportional to the cache
+     */
+    private void compactIfMostlyStale() {
+        int stale = staleSlots.get();
+        if (stale > 64 && stale > byId.size() && staleSlots.compareAndSet(stale, 0)) {
+            insertionOrder.removeIf(slot -> slots.get(slot.studentId) != slot);
+        }
+    }
+
+    private Object lockFor(int studentId) {
+        return locks[(studentId & 0x7fffffff) % STRIPES];
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public CacheStats getStats() {
+        return new CacheStats(name, byId.size(), hits.get(), misses.get(), evictions.get());
+    }
+
+    @Override
+    public void invalidateAll() {
+        clearHoldingLocks(0);
+    }
+
+    /**
+     * Take every stripe lock in order so no concurrent load can repopulate a half-cleared cache
+     */
+    private void clearHoldingLocks(int stripe) {
+        if (stripe == STRIPES) {
+            mutations.incrementAndGet();
+            byId.clear();
+            idByCode.clear();
+            slots.clear();
+            insertionOrder.clear();
+            staleSlots.set(0);
+            return;
+        }
+        synchronized (locks[stripe]) {
+            clearHoldingLocks(stripe + 1);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.sims.cli;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Parsed subcommand arguments: "--name value" options, "--flag" switches and positional arguments
+ */
+class CliOptions {
+    private final Map<String, String> values = new HashMap<>();
+    private final Set<String> flags = new HashSet<>();
+    private final List<String> positional = new ArrayList<>();
+
+    /**
+     * @param flagNames options that take no value
+     */
+    static CliOptions parse(String[] args, int from, Set<String> flagNames) {
+        CliOptions options = new CliOptions();
+        for (int i = from; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                options.positional.add(arg);
+            } else if (flagNames.contains(arg)) {
+                options.flags.add(arg);
+            } else if (i + 1 < args.length) {
+                options.values.put(arg, args[++i]);
+            } else {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+        }
+        return options;
+    }
+
+    String get(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    String require(String name) {
+        String value = values.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing required option " + name);
+        }
+        return value;
+    }
+
+    int getInt(String name, int defaultValue) {
+        String value = values.get(name);
+        try {
+            return value != null ? Integer.parseInt(value) : defaultValue;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Expected a number for " + name + ": " + value);
+        }
+    }
+
+    LocalDate getDate(String name, LocalDate defaultValue) {
+        String value = values.get(name);
+        try {
+            return value != null ? LocalDate.parse(value) : defaultValue;
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Expected a date (yyyy-MM-dd) for " + name + ": " + value);
+        }
+    }
+
+    boolean has(String flag) {
+        return flags.contains(flag);
+    }
+
+    List<String> positional() {
+        return positional;
+    }
+
+    /**
+     * Worker threads for parallel commands; defaults to the processor count, capped by the connection pool
+     */
+    int threads() {
+        int poolSize = Integer.getInteger("sims.db.poolSize", 8);
+        int threads = getInt("--threads", Math.min(Runtime.getRuntime().availableProcessors(), poolSize));
+        if (threads < 1) {
+            throw new IllegalArgumentException("--threads must be at least 1");
+        }
+        return Math.min(threads, poolSize);
+    }
+}
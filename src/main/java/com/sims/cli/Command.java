@@ -0,0 +1,18 @@
+package com.sims.cli;
+
+/**
+ * One subcommand of the headless command line
+ */
+interface Command {
+    String name();
+
+    /**
+     * Arguments and a one-line description, for the help text
+     */
+    String usage();
+
+    /**
+     * @return process exit code: 0 on success, 1 if the work failed
+     */
+    int run(CliOptions options) throws Exception;
+}
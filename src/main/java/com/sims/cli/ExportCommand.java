@@ -0,0 +1,135 @@
+package com.sims.cli;
+
+import com.sims.dao.CourseDAO;
+import com.sims.dao.FinancialDAO;
+import com.sims.dao.GradeDAO;
+import com.sims.dao.StudentDAO;
+import com.sims.models.Course;
+import com.sims.models.FinancialRecord;
+import com.sims.models.Grade;
+import com.sims.models.Student;
+
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Export students, courses, grades or financial records as CSV
+ * Grades and financial records are fetched per student, so those run on --threads workers;
+ * rows still come out in student order.
+ */
+class ExportCommand implements Command {
+    private static final int STUDENTS_PER_CHUNK = 50;
+
+    @Override
+    public String name() {
+        return "export";
+    }
+
+    @Override
+    public String usage() {
+        return "<students|courses|grades|financial> [--out FILE] [--threads N]  write a table as CSV";
+    }
+
+    @Override
+    public int run(CliOptions options) throws Exception {
+        if (options.positional().size() != 1) {
+            throw new IllegalArgumentException("Expected exactly one table to export");
+        }
+        String table = options.positional().get(0);
+        int rows;
+        try (Writer out = SimsCli.openOutput(options)) {
+            switch (table) {
+                case "students":
+                    rows = exportStudents(out);
+                    break;
+                case "courses":
+                    rows = exportCourses(out);
+                    break;
+                case "grades":
+                    rows = exportGrades(out, options.threads());
+                    break;
+                case "financial":
+                    rows = exportFinancial(out, options.threads());
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown table: " + table);
+            }
+        }
+        System.err.println("Exported " + rows + " " + table + " rows");
+        return 0;
+    }
+
+    private int exportStudents(Writer out) throws Exception {
+        Csv.writeRow(out, "student_id", "student_code", "first_name", "last_name", "date_of_birth", "gender",
+                "email", "phone", "address", "enrollment_date", "status");
+        List<Student> students = new StudentDAO().getAllStudents();
+        for (Student s : students) {
+            Csv.writeRow(out, s.getStudentId(), s.getStudentCode(), s.getFirstName(), s.getLastName(),
+                    s.getDateOfBirth(), s.getGender(), s.getEmail(), s.getPhone(), s.getAddress(),
+                    s.getEnrollmentDate(), s.getStatus());
+        }
+        return students.size();
+    }
+
+    private int exportCourses(Writer out) throws Exception {
+        Csv.writeRow(out, "course_id", "course_code", "course_name", "description", "credits", "instructor_id",
+                "semester", "academic_year", "status");
+        List<Course> courses = new CourseDAO().getAllCourses();
+        for (Course c : courses) {
+            Csv.writeRow(out, c.getCourseId(), c.getCourseCode(), c.getCourseName(), c.getDescription(),
+                    c.getCredits(), c.getInstructorId(), c.getSemester(), c.getAcademicYear(), c.getStatus());
+        }
+        return courses.size();
+    }
+
+    private int exportGrades(Writer out, int threads) throws Exception {
+        GradeDAO gradeDAO = new GradeDAO();
+        List<List<Grade>> chunks = SimsCli.inParallel(new StudentDAO().getAllStudents(), STUDENTS_PER_CHUNK,
+                threads, chunk -> {
+                    List<Grade> grades = new ArrayList<>();
+                    for (Student student : chunk) {
+                        grades.addAll(gradeDAO.getGradesByStudent(student.getStudentId()));
+                    }
+                    return grades;
+                });
+
+        Csv.writeRow(out, "grade_id", "student_id", "course_id", "assessment_type", "assessment_name",
+                "marks_obtained", "total_marks", "percentage", "grade_letter", "semester", "academic_year");
+        int rows = 0;
+        for (List<Grade> grades : chunks) {
+            for (Grade g : grades) {
+                Csv.writeRow(out, g.getGradeId(), g.getStudentId(), g.getCourseId(), g.getAssessmentType(),
+                        g.getAssessmentName(), g.getMarksObtained(), g.getTotalMarks(), g.getPercentage(),
+                        g.getGradeLetter(), g.getSemester(), g.getAcademicYear());
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private int exportFinancial(Writer out, int threads) throws Exception {
+        FinancialDAO financialDAO = new FinancialDAO();
+        List<List<FinancialRecord>> chunks = SimsCli.inParallel(new StudentDAO().getAllStudents(),
+                STUDENTS_PER_CHUNK, threads, chunk -> {
+                    List<FinancialRecord> records = new ArrayList<>();
+                    for (Student student : chunk) {
+                        records.addAll(financialDAO.getFinancialRecordsByStudent(student.getStudentId()));
+                    }
+                    return records;
+                });
+
+        Csv.writeRow(out, "financial_id", "student_id", "transaction_type", "amount", "description",
+                "transaction_date", "due_date", "status", "payment_method", "payment_date", "receipt_number");
+        int rows = 0;
+        for (List<FinancialRecord> records : chunks) {
+            for (FinancialRecord r : records) {
+                Csv.writeRow(out, r.getFinancialId(), r.getStudentId(), r.getTransactionType(), r.getAmount(),
+                        r.getDescription(), r.getTransactionDate(), r.getDueDate(), r.getStatus(),
+                        r.getPaymentMethod(), r.getPaymentDate(), r.getReceiptNumber());
+                rows++;
+            }
+        }
+        return rows;
+    }
+}
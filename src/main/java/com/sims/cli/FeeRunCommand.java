@@ -0,0 +1,95 @@
+package com.sims.cli;
+
+import com.sims.dao.FinancialDAO;
+import com.sims.dao.StudentDAO;
+import com.sims.models.FinancialRecord;
+import com.sims.models.Student;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Charge one fee to every active student
+ * Safe to re-run: students who already have a fee with the same description are skipped, so
+ * an interrupted run can simply be started again.
+ */
+class FeeRunCommand implements Command {
+    private static final int STUDENTS_PER_CHUNK = 200;
+
+    @Override
+    public String name() {
+        return "fee-run";
+    }
+
+    @Override
+    public String usage() {
+        return "--amount X --description D [--due DATE] [--date DATE] [--dry-run] [--threads N]"
+                + "  charge a fee to all active students";
+    }
+
+    @Override
+    public int run(CliOptions options) throws Exception {
+        BigDecimal amount;
+        try {
+            amount = new BigDecimal(options.require("--amount"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Expected an amount for --amount");
+        }
+        if (amount.signum() <= 0) {
+            throw new IllegalArgumentException("--amount must be positive");
+        }
+        String description = options.require("--description");
+        LocalDate date = options.getDate("--date", LocalDate.now());
+        LocalDate dueDate = options.getDate("--due", null);
+        boolean dryRun = options.has("--dry-run");
+        int threads = options.threads();
+
+        List<Student> active = new ArrayList<>();
+        for (Student student : new StudentDAO().getAllStudents()) {
+            if (student.getStatus() == Student.Status.ACTIVE) {
+                active.add(student);
+            }
+        }
+
+        FinancialDAO financialDAO = new FinancialDAO();
+        List<int[]> results = SimsCli.inParallel(active, STUDENTS_PER_CHUNK, threads, chunk -> {
+            List<FinancialRecord> fees = new ArrayList<>();
+            for (Student student : chunk) {
+                if (!alreadyCharged(financialDAO, student.getStudentId(), description)) {
+                    FinancialRecord fee = new FinancialRecord(student.getStudentId(),
+                            FinancialRecord.TransactionType.FEE, amount, description, date);
+                    fee.setDueDate(dueDate);
+                    fees.add(fee);
+                }
+            }
+            if (!dryRun) {
+                financialDAO.createFinancialRecords(fees);
+            }
+            return new int[]{fees.size(), chunk.size() - fees.size()};
+        });
+
+        int charged = 0;
+        int skipped = 0;
+        for (int[] result : results) {
+            charged += result[0];
+            skipped += result[1];
+        }
+        System.err.println((dryRun ? "Dry run: would charge " : "Charged ") + charged + " students "
+                + amount + " for '" + description + "', " + skipped + " already charged");
+        return 0;
+    }
+
+    private static boolean alreadyCharged(FinancialDAO financialDAO, int studentId, String description)
+            throws SQLException {
+        for (FinancialRecord record : financialDAO.getFinancialRecordsByStudent(studentId)) {
+            if (record.getTransactionType() == FinancialRecord.TransactionType.FEE
+                    && description.equals(record.getDescription())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,63 @@
+package com.sims.cli;
+
+import com.sims.dao.GradeDAO;
+import com.sims.dao.StudentDAO;
+import com.sims.models.Student;
+
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compute every student's GPA for one term on --threads workers and write it as CSV
+ * GPAs are derived from grades on demand and not stored, so this produces a report rather than
+ * updating rows; students whose GPA is zero (no grades in the term) are left out.
+ */
+class GpaCommand implements Command {
+    private static final int STUDENTS_PER_CHUNK = 50;
+
+    @Override
+    public String name() {
+        return "gpa";
+    }
+
+    @Override
+    public String usage() {
+        return "--semester S --year Y [--out FILE] [--threads N]  GPA report for one term";
+    }
+
+    @Override
+    public int run(CliOptions options) throws Exception {
+        String semester = options.require("--semester");
+        String academicYear = options.require("--year");
+        int threads = options.threads();
+
+        GradeDAO gradeDAO = new GradeDAO();
+        List<List<Object[]>> chunks = SimsCli.inParallel(new StudentDAO().getAllStudents(), STUDENTS_PER_CHUNK,
+                threads, chunk -> {
+                    List<Object[]> rows = new ArrayList<>();
+                    for (Student student : chunk) {
+                        BigDecimal gpa = gradeDAO.calculateGPA(student.getStudentId(), semester, academicYear);
+                        if (gpa != null && gpa.signum() > 0) {
+                            rows.add(new Object[]{student.getStudentId(), student.getStudentCode(),
+                                    student.getFullName(), gpa});
+                        }
+                    }
+                    return rows;
+                });
+
+        int count = 0;
+        try (Writer out = SimsCli.openOutput(options)) {
+            Csv.writeRow(out, "student_id", "student_code", "name", "gpa");
+            for (List<Object[]> rows : chunks) {
+                for (Object[] row : rows) {
+                    Csv.writeRow(out, row);
+                    count++;
+                }
+            }
+        }
+        System.err.println("Computed GPA for " + count + " students (" + semester + " " + academicYear + ")");
+        return 0;
+    }
+}
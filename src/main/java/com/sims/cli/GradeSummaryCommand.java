@@ -0,0 +1,97 @@
+package com.sims.cli;
+
+import com.sims.analytics.GradeColumns;
+import com.sims.analytics.GradeStatistics;
+import com.sims.dao.CourseDAO;
+import com.sims.dao.GradeDAO;
+import com.sims.models.Course;
+
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntFunction;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Summarize grade percentages by course, assessment type or term and write them as CSV
+ * Grades are streamed once into a columnar store and aggregated there in parallel, so a whole
+ * term costs one query however many groups there are.
+ */
+class GradeSummaryCommand implements Command {
+    @Override
+    public String name() {
+        return "grade-summary";
+    }
+
+    @Override
+    public String usage() {
+        return "[--semester S --year Y] [--course ID] [--type T] [--by course|assessment|term] [--out FILE]" +
+               "  grade percentages per group";
+    }
+
+    @Override
+    public int run(CliOptions options) throws Exception {
+        String semester = options.get("--semester", null);
+        String academicYear = options.get("--year", null);
+        if ((semester == null) != (academicYear == null)) {
+            throw new IllegalArgumentException("--semester and --year go together");
+        }
+        String by = options.get("--by", "course");
+
+        GradeColumns.Filter filter = GradeColumns.Filter.all();
+        int courseId = options.getInt("--course", 0);
+        if (courseId > 0) {
+            filter = filter.course(courseId);
+        }
+        String assessmentType = options.get("--type", null);
+        if (assessmentType != null) {
+            filter = filter.assessmentType(assessmentType);
+        }
+
+        long start = System.nanoTime();
+        GradeColumns columns = new GradeDAO().loadGradeColumns(semester, academicYear);
+        System.err.printf("Loaded %s in %.1f s%n", columns, (System.nanoTime() - start) / 1e9);
+
+        IntUnaryOperator key;
+        IntFunction<String> label;
+        switch (by) {
+            case "course":
+                key = columns::getCourseId;
+                Map<Integer, String> courseCodes = new HashMap<>();
+                for (Course course : new CourseDAO().getAllCourses()) {
+                    courseCodes.put(course.getCourseId(), course.getCourseCode());
+                }
+                label = group -> courseCodes.getOrDefault(group, String.valueOf(group));
+                break;
+            case "assessment":
+                key = columns::getAssessmentTypeKey;
+                label = columns::getAssessmentTypeOfKey;
+                break;
+            case "term":
+                key = columns::getTermKey;
+                label = columns::getTermOfKey;
+                break;
+            default:
+                throw new IllegalArgumentException("--by must be course, assessment or term: " + by);
+        }
+
+        Map<String, GradeStatistics> groups = new TreeMap<>();
+        GradeStatistics.byGroup(columns, key, filter).forEach(
+                (group, summary) -> groups.put(String.valueOf(label.apply(group)), summary));
+
+        try (Writer out = SimsCli.openOutput(options)) {
+            Csv.writeRow(out, by, "grades", "mean_percentage", "stddev", "min_percentage", "median_percentage",
+                    "max_percentage");
+            for (Map.Entry<String, GradeStatistics> group : groups.entrySet()) {
+                GradeStatistics statistics = group.getValue();
+                Csv.writeRow(out, group.getKey(), statistics.getCount(), String.format("%.2f", statistics.getMean()),
+                        String.format("%.2f", statistics.getStandardDeviation()),
+                        String.format("%.2f", statistics.getMin()), String.format("%.2f", statistics.getMedian()),
+                        String.format("%.2f", statistics.getMax()));
+            }
+        }
+        System.err.println("Summarized " + groups.size() + " groups");
+        return 0;
+    }
+}
@@ -0,0 +1,150 @@
+package com.sims.cli;
+
+import com.sims.dao.StudentDAO;
+import com.sims.models.Student;
+
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk-create students from a CSV file with a header row
+ * Every row is validated before anything is written; with --skip-invalid bad rows are reported
+ * and left out, otherwise any bad row aborts the import. Valid rows are inserted in batches of
+ * --batch students, one transaction per batch, on --threads workers.
+ */
+class ImportStudentsCommand implements Command {
+    private static final List<String> REQUIRED_COLUMNS = Arrays.asList(
+            "student_code", "first_name", "last_name", "date_of_birth", "gender", "enrollment_date");
+
+    @Override
+    public String name() {
+        return "import-students";
+    }
+
+    @Override
+    public String usage() {
+        return "FILE [--skip-invalid] [--dry-run] [--batch N] [--threads N]  create students from CSV";
+    }
+
+    @Override
+    public int run(CliOptions options) throws Exception {
+        if (options.positional().size() != 1) {
+            throw new IllegalArgumentException("Expected one CSV file to import");
+        }
+        int batchSize = options.getInt("--batch", 500);
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("--batch must be at least 1");
+        }
+        int threads = options.threads();
+
+        List<Student> students = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        read(options.positional().get(0), students, errors);
+        for (String error : errors) {
+            System.err.println(error);
+        }
+        if (!errors.isEmpty() && !options.has("--skip-invalid")) {
+            System.err.println(errors.size() + " invalid rows, nothing imported (use --skip-invalid to import the rest)");
+            return 1;
+        }
+        if (options.has("--dry-run")) {
+            System.err.println("Dry run: " + students.size() + " students would be imported, "
+                    + errors.size() + " rows skipped");
+            return 0;
+        }
+
+        StudentDAO studentDAO = new StudentDAO();
+        List<Integer> created = SimsCli.inParallel(students, batchSize, threads,
+                chunk -> studentDAO.createStudents(new ArrayList<>(chunk)).size());
+        int total = 0;
+        for (int count : created) {
+            total += count;
+        }
+        System.err.println("Imported " + total + " students, " + errors.size() + " rows skipped");
+        return 0;
+    }
+
+    private void read(String file, List<Student> students, List<String> errors) throws Exception {
+        try (BufferedReader in = Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8)) {
+            List<String> header = Csv.readRow(in);
+            if (header == null) {
+                throw new IllegalArgumentException("Empty file: " + file);
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            for (String column : REQUIRED_COLUMNS) {
+                if (!columns.containsKey(column)) {
+                    throw new IllegalArgumentException("Missing column " + column + " in " + file);
+                }
+            }
+
+            Set<String> codes = new HashSet<>();
+            int line = 1;
+            List<String> row;
+            while ((row = Csv.readRow(in)) != null) {
+                line++;
+                if (row.size() == 1 && row.get(0).trim().isEmpty()) {
+                    continue;
+                }
+                try {
+                    Student student = toStudent(row, columns);
+                    if (!codes.add(student.getStudentCode())) {
+                        throw new IllegalArgumentException("duplicate student_code " + student.getStudentCode());
+                    }
+                    students.add(student);
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    errors.add(file + ":" + line + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private Student toStudent(List<String> row, Map<String, Integer> columns) {
+        Student student = new Student(
+                required(row, columns, "student_code"),
+                required(row, columns, "first_name"),
+                required(row, columns, "last_name"),
+                LocalDate.parse(required(row, columns, "date_of_birth")),
+                Student.Gender.valueOf(required(row, columns, "gender").toUpperCase(Locale.ROOT)),
+                optional(row, columns, "email"),
+                optional(row, columns, "phone"),
+                optional(row, columns, "address"),
+                LocalDate.parse(required(row, columns, "enrollment_date")));
+        String status = optional(row, columns, "status");
+        if (status != null) {
+            student.setStatus(Student.Status.valueOf(status.toUpperCase(Locale.ROOT)));
+        }
+        return student;
+    }
+
+    private static String required(List<String> row, Map<String, Integer> columns, String column) {
+        String value = optional(row, columns, column);
+        if (value == null) {
+            throw new IllegalArgumentException("missing " + column);
+        }
+        return value;
+    }
+
+    private static String optional(List<String> row, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= row.size()) {
+            return null;
+        }
+        String value = row.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,31 @@
+package com.sims.cli;
+
+import com.sims.database.MigrationRunner;
+
+/**
+ * Apply pending schema migrations, or list them with "info"
+ */
+class MigrateCommand implements Command {
+    @Override
+    public String name() {
+        return "migrate";
+    }
+
+    @Override
+    public String usage() {
+        return "[info]  apply pending schema migrations, or list them";
+    }
+
+    @Override
+    public int run(CliOptions options) throws Exception {
+        MigrationRunner runner = new MigrationRunner();
+        if (options.positional().contains("info")) {
+            for (String line : runner.info()) {
+                System.out.println(line);
+            }
+        } else {
+            runner.migrate();
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,162 @@
+package com.sims.cli;
+
+import com.sims.database.DatabaseConnection;
+import com.sims.metrics.FlightEvents;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless command line for unattended batch work (imports, exports, GPA and grade reports, fee runs)
+ * Reached through "Main <command> ..." or directly. Nothing here touches AWT or Swing, so it
+ * starts quickly and runs on servers without a display. Parallel commands split their work into
+ * chunks processed by --threads workers, each on its own pooled connection.
+ *
+ * Exit codes: 0 success, 1 the work failed, 2 bad usage.
+ */
+public final class SimsCli {
+    private static final List<Command> COMMANDS = Arrays.asList(
+            new ExportCommand(),
+            new ImportStudentsCommand(),
+            new GpaCommand(),
+            new GradeSummaryCommand(),
+            new FeeRunCommand(),
+            new MigrateCommand());
+    private static final Set<String> FLAGS = new HashSet<>(Arrays.asList("--dry-run", "--skip-invalid"));
+
+    /**
+     * Work applied to one chunk of items on a worker thread
+     */
+    interface ChunkTask<T, R> {
+        R apply(List<T> chunk) throws Exception;
+    }
+
+    private SimsCli() {}
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * Run one command line and return its exit code
+     */
+    public static int run(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        // Batch jobs must see the database or fail, never the desktop client's offline copy
+        System.setProperty("sims.offline", "false");
+        if (args.length == 0 || "help".equals(args[0]) || "--help".equals(args[0])) {
+            printUsage(args.length == 0 ? System.err : System.out);
+            return args.length == 0 ? 2 : 0;
+        }
+        Command command = find(args[0]);
+        if (command == null) {
+            System.err.println("Unknown command: " + args[0]);
+            printUsage(System.err);
+            return 2;
+        }
+
+        FlightEvents.startRecordingIfRequested();
+        long start = System.nanoTime();
+        try {
+            int exitCode = command.run(CliOptions.parse(args, 1, FLAGS));
+            System.err.printf("%s finished in %.1f s%n", command.name(), (System.nanoTime() - start) / 1e9);
+            return exitCode;
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: " + command.name() + " " + command.usage());
+            return 2;
+        } catch (Exception e) {
+            System.err.println(command.name() + " failed: " + e.getMessage());
+            return 1;
+        } finally {
+            DatabaseConnection.closeConnection();
+        }
+    }
+
+    private static Command find(String name) {
+        for (Command command : COMMANDS) {
+            if (command.name().equals(name)) {
+                return command;
+            }
+        }
+        return null;
+    }
+
+    private static void printUsage(PrintStream out) {
+        out.println("Usage: <command> [options]");
+        out.println("Commands:");
+        for (Command command : COMMANDS) {
+            out.println("  " + command.name() + " " + command.usage());
+        }
+        out.println("Parallel commands accept --threads N (default: processors, at most -Dsims.db.poolSize).");
+    }
+
+    /**
+     * Open --out for writing, or standard output when it is absent or "-"
+     */
+    static Writer openOutput(CliOptions options) throws IOException {
+        String file = options.get("--out", "-");
+        if ("-".equals(file)) {
+            return new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8)) {
+                @Override
+                public void close() throws IOException {
+                    flush();
+                }
+            };
+        }
+        return Files.newBufferedWriter(Paths.get(file), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Process items in chunks on a fixed pool of workers
+     * @return one result per chunk, in input order
+     * @throws Exception the first failure, after the remaining chunks are cancelled
+     */
+    static <T, R> List<R> inParallel(List<T> items, int chunkSize, int threads, ChunkTask<T, R> task)
+            throws Exception {
+        List<R> results = new ArrayList<>();
+        if (items.isEmpty()) {
+            return results;
+        }
+        AtomicInteger workerNumber = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "cli-worker-" + workerNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<R>> futures = new ArrayList<>();
+            for (int from = 0; from < items.size(); from += chunkSize) {
+                List<T> chunk = items.subList(from, Math.min(from + chunkSize, items.size()));
+                futures.add(workers.submit(() -> task.apply(chunk)));
+            }
+            for (Future<R> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    throw cause instanceof Exception ? (Exception) cause : e;
+                }
+            }
+            return results;
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+}
@@ -1,21 +1,38 @@
 package com.sims.dao;
 
 import com.sims.database.DatabaseConnection;
+import com.sims.events.AttendanceRecorded;
+import com.sims.events.EventBus;
+import com.sims.mapping.EnumLookup;
 import com.sims.models.Attendance;
+import com.sims.models.AttendanceRowMapper;
+import com.sims.models.AttendanceSheetEntry;
+import com.sims.models.ChangeRecord;
+import com.sims.models.Student;
+import com.sims.offline.LocalStore;
+import com.sims.offline.OfflineMode;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Data Access Object for Attendance operations
  * Optimized queries with indexed columns
  */
 public class AttendanceDAO {
+    private static final int BULK_MERGE_THRESHOLD = 1000;
+    private static final int STAGING_ROWS_PER_INSERT = 500;
+    private static final EnumLookup<Attendance.AttendanceStatus> STATUS_LOOKUP =
+            EnumLookup.of(Attendance.AttendanceStatus.class);
     
     /**
      * Get attendance by student and course with date range
@@ -39,8 +56,9 @@ public class AttendanceDAO {
             pstmt.setDate(4, java.sql.Date.valueOf(endDate));
             
             try (ResultSet rs = pstmt.executeQuery()) {
+                AttendanceRowMapper mapper = new AttendanceRowMapper(rs);
                 while (rs.next()) {
-                    attendanceList.add(mapResultSetToAttendance(rs));
+                    attendanceList.add(mapper.map(rs));
                 }
             }
         }
@@ -49,8 +67,17 @@ public class AttendanceDAO {
     
     /**
      * Get attendance for a course on a specific date
+     * While offline: the marks last seen for that date plus the journaled ones
      */
     public List<Attendance> getAttendanceByCourseAndDate(int courseId, LocalDate date) throws SQLException {
+        try {
+            return loadAttendanceByCourseAndDate(courseId, date);
+        } catch (SQLException e) {
+            return OfflineMode.fallback(e, () -> OfflineMode.getAttendance(courseId, date));
+        }
+    }
+
+    private List<Attendance> loadAttendanceByCourseAndDate(int courseId, LocalDate date) throws SQLException {
         List<Attendance> attendanceList = new ArrayList<>();
         String sql = "SELECT attendance_id, student_id, course_id, attendance_date, status, remarks, recorded_by " +
                      "FROM attendance " +
@@ -64,14 +91,80 @@ public class AttendanceDAO {
             pstmt.setDate(2, java.sql.Date.valueOf(date));
             
             try (ResultSet rs = pstmt.executeQuery()) {
+                AttendanceRowMapper mapper = new AttendanceRowMapper(rs);
                 while (rs.next()) {
-                    attendanceList.add(mapResultSetToAttendance(rs));
+                    attendanceList.add(mapper.map(rs));
                 }
             }
         }
         return attendanceList;
     }
     
+    /**
+     * Get the attendance sheet for a course on a specific date
+     * Loads the enrolled roster and any attendance already recorded for that date in one query.
+     * The sheet is remembered in the LocalStore and served from there while offline.
+     */
+    public List<AttendanceSheetEntry> getAttendanceSheet(int courseId, LocalDate date) throws SQLException {
+        List<AttendanceSheetEntry> sheet;
+        try {
+            sheet = loadAttendanceSheet(courseId, date);
+        } catch (SQLException e) {
+            return OfflineMode.fallback(e, () -> OfflineMode.getAttendanceSheet(courseId, date));
+        }
+        if (OfflineMode.isEnabled()) {
+            LocalStore.getDefault().putSheet(courseId, date, sheet);
+        }
+        return sheet;
+    }
+
+    private List<AttendanceSheetEntry> loadAttendanceSheet(int courseId, LocalDate date) throws SQLException {
+        List<AttendanceSheetEntry> sheet = new ArrayList<>();
+        String sql = "SELECT s.student_id, s.student_code, s.first_name, s.last_name, " +
+                     "a.attendance_id, a.status, a.remarks, a.recorded_by " +
+                     "FROM course_enrollments ce " +
+                     "INNER JOIN students s ON ce.student_id = s.student_id " +
+                     "LEFT JOIN attendance a ON a.student_id = ce.student_id " +
+                     "AND a.course_id = ce.course_id AND a.attendance_date = ? " +
+                     "WHERE ce.course_id = ? AND ce.status = 'ENROLLED' " +
+                     "ORDER BY s.student_code";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setDate(1, java.sql.Date.valueOf(date));
+            pstmt.setInt(2, courseId);
+
+            // Both joined tables have student_id and status columns, so read by position in the select list
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Student student = new Student();
+                    student.setStudentId(rs.getInt(1));
+                    student.setStudentCode(rs.getString(2));
+                    student.setFirstName(rs.getString(3));
+                    student.setLastName(rs.getString(4));
+
+                    Attendance attendance = null;
+                    int attendanceId = rs.getInt(5);
+                    if (!rs.wasNull()) {
+                        attendance = new Attendance(student.getStudentId(), courseId, date,
+                                STATUS_LOOKUP.get(rs.getString(6)));
+                        attendance.setAttendanceId(attendanceId);
+                        attendance.setRemarks(rs.getString(7));
+
+                        int recordedBy = rs.getInt(8);
+                        if (!rs.wasNull()) {
+                            attendance.setRecordedBy(recordedBy);
+                        }
+                    }
+
+                    sheet.add(new AttendanceSheetEntry(student, attendance));
+                }
+            }
+        }
+        return sheet;
+    }
+
     /**
      * Calculate attendance percentage for a student in a course
      * Optimized aggregate query
@@ -98,13 +191,30 @@ public class AttendanceDAO {
     }
     
     /**
-     * Record attendance (batch insert for multiple students)
+     * Record attendance for one student; journaled while offline
+     * A mark without remarks or recorder keeps the ones already stored for it.
      */
     public boolean recordAttendance(Attendance attendance) throws SQLException {
+        List<Attendance> attendanceList = Collections.singletonList(attendance);
+        boolean recorded;
+        try {
+            recorded = writeAttendance(attendance);
+        } catch (SQLException e) {
+            return journalAttendance(e, attendanceList);
+        }
+        if (recorded && OfflineMode.isEnabled()) {
+            LocalStore.getDefault().putMarks(attendanceList);
+        }
+        return recorded;
+    }
+
+    private boolean writeAttendance(Attendance attendance) throws SQLException {
         String sql = "INSERT INTO attendance (student_id, course_id, attendance_date, status, remarks, recorded_by) " +
                      "VALUES (?, ?, ?, ?, ?, ?) " +
-                     "ON DUPLICATE KEY UPDATE status = ?, remarks = ?, recorded_by = ?";
+                     "ON DUPLICATE KEY UPDATE status = ?, remarks = COALESCE(?, remarks), " +
+                     "recorded_by = COALESCE(?, recorded_by)";
         
+        int rowsAffected;
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
@@ -118,71 +228,187 @@ public class AttendanceDAO {
             pstmt.setString(8, attendance.getRemarks());
             pstmt.setObject(9, attendance.getRecordedBy(), java.sql.Types.INTEGER);
             
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
+            conn.setAutoCommit(false);
+            try {
+                rowsAffected = pstmt.executeUpdate();
+                if (rowsAffected > 0) {
+                    ChangeLogDAO.recordChange(conn, ChangeRecord.EntityType.ATTENDANCE, attendance.getCourseId(),
+                            ChangeRecord.Operation.UPDATE);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        if (rowsAffected > 0) {
+            EventBus.getDefault().publish(new AttendanceRecorded(Collections.singletonList(attendance)));
         }
+        return rowsAffected > 0;
     }
     
     /**
      * Batch record attendance for multiple students
+     * Large batches are routed through the set-based bulk merge; journaled while offline.
+     * A mark without remarks or recorder keeps the ones already stored for it.
      */
     public boolean batchRecordAttendance(List<Attendance> attendanceList) throws SQLException {
+        try {
+            return writeAttendance(attendanceList);
+        } catch (SQLException e) {
+            return journalAttendance(e, attendanceList);
+        }
+    }
+
+    /**
+     * Batch record attendance without the offline journal, for callers that keep their own journal
+     * @throws SQLException if the database cannot be reached, also while working offline
+     */
+    public boolean writeAttendance(List<Attendance> attendanceList) throws SQLException {
+        boolean recorded = attendanceList.size() >= BULK_MERGE_THRESHOLD
+                ? bulkMergeAttendance(attendanceList) > 0
+                : writeAttendanceBatch(attendanceList);
+        if (recorded && OfflineMode.isEnabled()) {
+            LocalStore.getDefault().putMarks(attendanceList);
+        }
+        return recorded;
+    }
+
+    /**
+     * Append marks that could not be written to the offline journal, or rethrow
+     */
+    private boolean journalAttendance(SQLException e, List<Attendance> attendanceList) throws SQLException {
+        boolean journaled = OfflineMode.fallback(e, () -> OfflineMode.journalAttendance(attendanceList));
+        EventBus.getDefault().publish(new AttendanceRecorded(attendanceList));
+        return journaled;
+    }
+
+    private boolean writeAttendanceBatch(List<Attendance> attendanceList) throws SQLException {
         String sql = "INSERT INTO attendance (student_id, course_id, attendance_date, status, remarks, recorded_by) " +
                      "VALUES (?, ?, ?, ?, ?, ?) " +
-                     "ON DUPLICATE KEY UPDATE status = ?, remarks = ?";
+                     "ON DUPLICATE KEY UPDATE status = ?, remarks = COALESCE(?, remarks), " +
+                     "recorded_by = COALESCE(?, recorded_by)";
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             conn.setAutoCommit(false);
-            
-            for (Attendance attendance : attendanceList) {
-                pstmt.setInt(1, attendance.getStudentId());
-                pstmt.setInt(2, attendance.getCourseId());
-                pstmt.setDate(3, java.sql.Date.valueOf(attendance.getAttendanceDate()));
-                pstmt.setString(4, attendance.getStatus().name());
-                pstmt.setString(5, attendance.getRemarks());
-                pstmt.setObject(6, attendance.getRecordedBy(), java.sql.Types.INTEGER);
-                pstmt.setString(7, attendance.getStatus().name());
-                pstmt.setString(8, attendance.getRemarks());
-                pstmt.addBatch();
-            }
-            
-            int[] results = pstmt.executeBatch();
-            conn.commit();
-            conn.setAutoCommit(true);
-            
-            return results.length > 0;
-        } catch (SQLException e) {
-            try (Connection conn = DatabaseConnection.getConnection()) {
+            try {
+                for (Attendance attendance : attendanceList) {
+                    pstmt.setInt(1, attendance.getStudentId());
+                    pstmt.setInt(2, attendance.getCourseId());
+                    pstmt.setDate(3, java.sql.Date.valueOf(attendance.getAttendanceDate()));
+                    pstmt.setString(4, attendance.getStatus().name());
+                    pstmt.setString(5, attendance.getRemarks());
+                    pstmt.setObject(6, attendance.getRecordedBy(), java.sql.Types.INTEGER);
+                    pstmt.setString(7, attendance.getStatus().name());
+                    pstmt.setString(8, attendance.getRemarks());
+                    pstmt.setObject(9, attendance.getRecordedBy(), java.sql.Types.INTEGER);
+                    pstmt.addBatch();
+                }
+                
+                int[] results = pstmt.executeBatch();
+                recordCourseChanges(conn, attendanceList);
+                conn.commit();
+                EventBus.getDefault().publish(new AttendanceRecorded(attendanceList));
+                
+                return results.length > 0;
+            } catch (SQLException e) {
+                // Roll back on this connection; a pooled connection obtained afterwards is a different one
                 conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
             }
-            throw e;
         }
     }
     
     /**
-     * Map ResultSet to Attendance object
+     * Bulk upsert attendance (e.g. a week of marks for a department)
+     * Rows are loaded into a session-local staging table with multi-row inserts and then
+     * merged into attendance with a single INSERT ... SELECT ... ON DUPLICATE KEY UPDATE
+     * on the unique (student_id, course_id, attendance_date) key.
+     * @return number of rows affected by the merge
      */
-    private Attendance mapResultSetToAttendance(ResultSet rs) throws SQLException {
-        Attendance attendance = new Attendance();
-        attendance.setAttendanceId(rs.getInt("attendance_id"));
-        attendance.setStudentId(rs.getInt("student_id"));
-        attendance.setCourseId(rs.getInt("course_id"));
-        
-        java.sql.Date date = rs.getDate("attendance_date");
-        if (date != null) {
-            attendance.setAttendanceDate(date.toLocalDate());
+    public int bulkMergeAttendance(List<Attendance> attendanceList) throws SQLException {
+        if (attendanceList.isEmpty()) {
+            return 0;
         }
-        
-        attendance.setStatus(Attendance.AttendanceStatus.valueOf(rs.getString("status")));
-        attendance.setRemarks(rs.getString("remarks"));
-        
-        int recordedBy = rs.getInt("recorded_by");
-        if (!rs.wasNull()) {
-            attendance.setRecordedBy(recordedBy);
+
+        String createStaging = "CREATE TEMPORARY TABLE IF NOT EXISTS attendance_staging (" +
+                               "student_id INT NOT NULL, course_id INT NOT NULL, attendance_date DATE NOT NULL, " +
+                               "status ENUM('PRESENT', 'ABSENT', 'LATE', 'EXCUSED') NOT NULL, " +
+                               "remarks TEXT, recorded_by INT) ENGINE=InnoDB";
+        String mergeSql = "INSERT INTO attendance (student_id, course_id, attendance_date, status, remarks, recorded_by) " +
+                          "SELECT s.student_id, s.course_id, s.attendance_date, s.status, s.remarks, s.recorded_by " +
+                          "FROM attendance_staging s " +
+                          "ON DUPLICATE KEY UPDATE status = s.status, remarks = COALESCE(s.remarks, attendance.remarks), " +
+                          "recorded_by = COALESCE(s.recorded_by, attendance.recorded_by)";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute(createStaging);
+            stmt.execute("TRUNCATE TABLE attendance_staging");
+
+            conn.setAutoCommit(false);
+            try {
+                for (int from = 0; from < attendanceList.size(); from += STAGING_ROWS_PER_INSERT) {
+                    List<Attendance> chunk = attendanceList.subList(from,
+                            Math.min(from + STAGING_ROWS_PER_INSERT, attendanceList.size()));
+                    insertStagingChunk(conn, chunk);
+                }
+
+                int rowsAffected = stmt.executeUpdate(mergeSql);
+                recordCourseChanges(conn, attendanceList);
+                conn.commit();
+                EventBus.getDefault().publish(new AttendanceRecorded(attendanceList));
+                return rowsAffected;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+                stmt.execute("DROP TEMPORARY TABLE IF EXISTS attendance_staging");
+            }
+        }
+    }
+
+    /**
+     * Append one change log entry per course touched by a batch (attendance changes are keyed by course)
+     */
+    private void recordCourseChanges(Connection conn, List<Attendance> attendanceList) throws SQLException {
+        Set<Integer> courseIds = new LinkedHashSet<>();
+        for (Attendance attendance : attendanceList) {
+            courseIds.add(attendance.getCourseId());
+        }
+        for (int courseId : courseIds) {
+            ChangeLogDAO.recordChange(conn, ChangeRecord.EntityType.ATTENDANCE, courseId, ChangeRecord.Operation.UPDATE);
+        }
+    }
+
+    /**
+     * Insert one chunk of rows into the staging table with a single multi-row INSERT
+     */
+    private void insertStagingChunk(Connection conn, List<Attendance> chunk) throws SQLException {
+        StringBuilder sql = new StringBuilder("INSERT INTO attendance_staging " +
+                "(student_id, course_id, attendance_date, status, remarks, recorded_by) VALUES ");
+        for (int i = 0; i < chunk.size(); i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?, ?)");
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (Attendance attendance : chunk) {
+                pstmt.setInt(index++, attendance.getStudentId());
+                pstmt.setInt(index++, attendance.getCourseId());
+                pstmt.setDate(index++, java.sql.Date.valueOf(attendance.getAttendanceDate()));
+                pstmt.setString(index++, attendance.getStatus().name());
+                pstmt.setString(index++, attendance.getRemarks());
+                pstmt.setObject(index++, attendance.getRecordedBy(), java.sql.Types.INTEGER);
+            }
+            pstmt.executeUpdate();
         }
-        
-        return attendance;
     }
 }
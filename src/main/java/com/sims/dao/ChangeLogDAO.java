@@ -0,0 +1,154 @@
+package com.sims.dao;
+
+import com.sims.database.DatabaseConnection;
+import com.sims.models.ChangeRecord;
+import com.sims.models.ChangeRecordRowMapper;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Data Access Object for the change_log table
+ * DAO mutations append a row on the same connection; clients poll for rows after the last id they saw
+ */
+public class ChangeLogDAO {
+    /** Identifies this process so it can skip its own changes when polling */
+    public static final String CLIENT_ID = UUID.randomUUID().toString();
+
+    /** MySQL error code for "Table doesn't exist" */
+    private static final int ER_NO_SUCH_TABLE = 1146;
+
+    private static volatile boolean warned;
+
+    /**
+     * Append a change on the connection used for the mutation
+     * A missing change_log table (migration not applied) is reported once and otherwise ignored,
+     * so writes keep working on databases that have not been migrated yet.
+     * @throws SQLException any other failure; inside a transaction the mutation is rolled back with it
+     */
+    static void recordChange(Connection conn, ChangeRecord.EntityType entityType, int entityId,
+                             ChangeRecord.Operation operation) throws SQLException {
+        String sql = "INSERT INTO change_log (entity_type, entity_id, operation, client_id) VALUES (?, ?, ?, ?)";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, entityType.name());
+            pstmt.setInt(2, entityId);
+            pstmt.setString(3, operation.name());
+            pstmt.setString(4, CLIENT_ID);
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            if (e.getErrorCode() != ER_NO_SUCH_TABLE) {
+                throw e;
+            }
+            if (!warned) {
+                warned = true;
+                System.err.println("Change log unavailable, other clients will not see changes immediately: " +
+                        e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Get the id of the newest change (starting point for polling)
+     */
+    public long getLatestChangeId() throws SQLException {
+        String sql = "SELECT COALESCE(MAX(change_id), 0) FROM change_log";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+
+            return rs.next() ? rs.getLong(1) : 0L;
+        }
+    }
+
+    /**
+     * Get the id of the oldest change still in the table, or 0 if it is empty
+     * Older changes have been purged.
+     */
+    public long getOldestChangeId() throws SQLException {
+        String sql = "SELECT COALESCE(MIN(change_id), 0) FROM change_log";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+
+            return rs.next() ? rs.getLong(1) : 0L;
+        }
+    }
+
+    /**
+     * Get the changes with the given ids that exist now (ids skipped by earlier polls)
+     */
+    public List<ChangeRecord> getChanges(Collection<Long> changeIds) throws SQLException {
+        List<ChangeRecord> changes = new ArrayList<>();
+        if (changeIds.isEmpty()) {
+            return changes;
+        }
+        String sql = "SELECT change_id, entity_type, entity_id, operation, client_id " +
+                     "FROM change_log WHERE change_id IN (" +
+                     String.join(", ", Collections.nCopies(changeIds.size(), "?")) + ") ORDER BY change_id";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            int index = 1;
+            for (Long changeId : changeIds) {
+                pstmt.setLong(index++, changeId);
+            }
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                ChangeRecordRowMapper mapper = new ChangeRecordRowMapper(rs);
+                while (rs.next()) {
+                    changes.add(mapper.map(rs));
+                }
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Get changes after the given id (primary key range scan)
+     */
+    public List<ChangeRecord> getChangesSince(long changeId, int limit) throws SQLException {
+        List<ChangeRecord> changes = new ArrayList<>();
+        String sql = "SELECT change_id, entity_type, entity_id, operation, client_id " +
+                     "FROM change_log WHERE change_id > ? ORDER BY change_id LIMIT ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setLong(1, changeId);
+            pstmt.setInt(2, limit);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                ChangeRecordRowMapper mapper = new ChangeRecordRowMapper(rs);
+                while (rs.next()) {
+                    changes.add(mapper.map(rs));
+                }
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Delete changes older than the given number of hours
+     */
+    public int purgeOlderThan(int hours) throws SQLException {
+        String sql = "DELETE FROM change_log WHERE changed_at < NOW() - INTERVAL ? HOUR";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, hours);
+            return pstmt.executeUpdate();
+        }
+    }
+}
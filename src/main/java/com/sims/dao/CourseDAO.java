@@ -1,24 +1,61 @@
 package com.sims.dao;
 
+import com.sims.cache.CacheStats;
+import com.sims.cache.QueryCache;
+import com.sims.cache.ReferenceSnapshot;
 import com.sims.database.DatabaseConnection;
+import com.sims.events.CourseCreated;
+import com.sims.events.CourseUpdated;
+import com.sims.events.EventBus;
+import com.sims.events.StudentEnrolled;
+import com.sims.models.ChangeRecord;
 import com.sims.models.Course;
+import com.sims.models.CourseRowMapper;
+import com.sims.models.Student;
+import com.sims.offline.LocalStore;
+import com.sims.offline.OfflineMode;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object for Course operations
+ * Course reads are served from a shared TTL/LRU cache of copies; createCourse and updateCourse invalidate it
  */
 public class CourseDAO {
+    private static final long CACHE_TTL_SECONDS = Long.getLong("sims.cache.courses.ttlSeconds", 300L);
+    private static final QueryCache<String, List<Course>> COURSE_LIST_CACHE =
+            new QueryCache<>("courses.all", CACHE_TTL_SECONDS, 1, CourseDAO::copyCourses);
+    private static final QueryCache<Integer, Course> COURSE_BY_ID_CACHE =
+            new QueryCache<>("courses.byId", CACHE_TTL_SECONDS, 1000, Course::new);
+    private static final String INSERT_SQL =
+            "INSERT INTO courses (course_code, course_name, description, credits, " +
+            "instructor_id, semester, academic_year, status) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
     
     /**
-     * Get all active courses
+     * Get all active courses (cached or from the reference snapshot; from the LocalStore while offline)
      */
     public List<Course> getAllCourses() throws SQLException {
+        ReferenceSnapshot snapshot = ReferenceSnapshot.getCurrent();
+        if (snapshot != null) {
+            return snapshot.getCourses();
+        }
+        try {
+            return COURSE_LIST_CACHE.get("all", this::loadAllCourses);
+        } catch (SQLException e) {
+            return OfflineMode.fallback(e, () -> LocalStore.getDefault().getCourses());
+        }
+    }
+
+    private List<Course> loadAllCourses() throws SQLException {
         List<Course> courses = new ArrayList<>();
         String sql = "SELECT course_id, course_code, course_name, description, credits, " +
                      "instructor_id, semester, academic_year, status " +
@@ -28,17 +65,29 @@ public class CourseDAO {
              PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
+            CourseRowMapper mapper = new CourseRowMapper(rs);
             while (rs.next()) {
-                courses.add(mapResultSetToCourse(rs));
+                courses.add(mapper.map(rs));
             }
         }
+        if (OfflineMode.isEnabled()) {
+            LocalStore.getDefault().putCourses(courses);
+        }
         return courses;
     }
     
     /**
-     * Get course by ID
+     * Get course by ID (cached)
      */
     public Course getCourseById(int courseId) throws SQLException {
+        return COURSE_BY_ID_CACHE.get(courseId, () -> loadCourseById(courseId));
+    }
+
+    private Course loadCourseById(int courseId) throws SQLException {
+        ReferenceSnapshot snapshot = ReferenceSnapshot.getCurrent();
+        if (snapshot != null) {
+            return snapshot.getCourse(courseId);
+        }
         String sql = "SELECT course_id, course_code, course_name, description, credits, " +
                      "instructor_id, semester, academic_year, status " +
                      "FROM courses WHERE course_id = ?";
@@ -50,7 +99,7 @@ public class CourseDAO {
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToCourse(rs);
+                    return new CourseRowMapper(rs).map(rs);
                 }
             }
         }
@@ -61,6 +110,10 @@ public class CourseDAO {
      * Get courses by student ID (with enrollment join for performance)
      */
     public List<Course> getCoursesByStudentId(int studentId) throws SQLException {
+        ReferenceSnapshot snapshot = ReferenceSnapshot.getCurrent();
+        if (snapshot != null) {
+            return snapshot.getCoursesOfStudent(studentId);
+        }
         List<Course> courses = new ArrayList<>();
         String sql = "SELECT c.course_id, c.course_code, c.course_name, c.description, c.credits, " +
                      "c.instructor_id, c.semester, c.academic_year, c.status " +
@@ -75,8 +128,9 @@ public class CourseDAO {
             pstmt.setInt(1, studentId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
+                CourseRowMapper mapper = new CourseRowMapper(rs);
                 while (rs.next()) {
-                    courses.add(mapResultSetToCourse(rs));
+                    courses.add(mapper.map(rs));
                 }
             }
         }
@@ -85,27 +139,92 @@ public class CourseDAO {
     
     /**
      * Create new course
+     * Every column Course maps is bound from the entity except the id, so unlike grades there is
+     * nothing else to read back; created_at is not part of the model.
+     * @return the same course with its generated id set
      */
-    public boolean createCourse(Course course) throws SQLException {
-        String sql = "INSERT INTO courses (course_code, course_name, description, credits, " +
-                     "instructor_id, semester, academic_year, status) " +
-                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
-        
+    public Course createCourse(Course course) throws SQLException {
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
             
-            pstmt.setString(1, course.getCourseCode());
-            pstmt.setString(2, course.getCourseName());
-            pstmt.setString(3, course.getDescription());
-            pstmt.setInt(4, course.getCredits());
-            pstmt.setObject(5, course.getInstructorId(), java.sql.Types.INTEGER);
-            pstmt.setString(6, course.getSemester());
-            pstmt.setString(7, course.getAcademicYear());
-            pstmt.setString(8, course.getStatus().name());
+            bindInsert(pstmt, course);
+            conn.setAutoCommit(false);
+            try {
+                pstmt.executeUpdate();
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        course.setCourseId(keys.getInt(1));
+                    }
+                }
+                ChangeLogDAO.recordChange(conn, ChangeRecord.EntityType.COURSE, course.getCourseId(),
+                        ChangeRecord.Operation.INSERT);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } finally {
+            COURSE_LIST_CACHE.invalidateAll();
+        }
+        EventBus.getDefault().publish(new CourseCreated(course));
+        return course;
+    }
+
+    /**
+     * Create several courses in one transaction
+     * @return the same courses with their generated ids set, in input order
+     */
+    public List<Course> createCourses(List<Course> courses) throws SQLException {
+        if (courses.isEmpty()) {
+            return courses;
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
             
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
+            conn.setAutoCommit(false);
+            try {
+                for (Course course : courses) {
+                    bindInsert(pstmt, course);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    for (int i = 0; i < courses.size() && keys.next(); i++) {
+                        courses.get(i).setCourseId(keys.getInt(1));
+                    }
+                }
+                for (Course course : courses) {
+                    ChangeLogDAO.recordChange(conn, ChangeRecord.EntityType.COURSE, course.getCourseId(),
+                            ChangeRecord.Operation.INSERT);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } finally {
+            COURSE_LIST_CACHE.invalidateAll();
         }
+        for (Course course : courses) {
+            EventBus.getDefault().publish(new CourseCreated(course));
+        }
+        return courses;
+    }
+
+    private void bindInsert(PreparedStatement pstmt, Course course) throws SQLException {
+        pstmt.setString(1, course.getCourseCode());
+        pstmt.setString(2, course.getCourseName());
+        pstmt.setString(3, course.getDescription());
+        pstmt.setInt(4, course.getCredits());
+        pstmt.setObject(5, course.getInstructorId(), java.sql.Types.INTEGER);
+        pstmt.setString(6, course.getSemester());
+        pstmt.setString(7, course.getAcademicYear());
+        pstmt.setString(8, course.getStatus().name());
     }
     
     /**
@@ -116,6 +235,7 @@ public class CourseDAO {
                      "instructor_id = ?, semester = ?, academic_year = ?, status = ? " +
                      "WHERE course_id = ?";
         
+        int rowsAffected;
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
@@ -128,9 +248,28 @@ public class CourseDAO {
             pstmt.setString(7, course.getStatus().name());
             pstmt.setInt(8, course.getCourseId());
             
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
+            conn.setAutoCommit(false);
+            try {
+                rowsAffected = pstmt.executeUpdate();
+                if (rowsAffected > 0) {
+                    ChangeLogDAO.recordChange(conn, ChangeRecord.EntityType.COURSE, course.getCourseId(),
+                            ChangeRecord.Operation.UPDATE);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } finally {
+            COURSE_BY_ID_CACHE.invalidate(course.getCourseId());
+            COURSE_LIST_CACHE.invalidateAll();
+        }
+        if (rowsAffected > 0) {
+            EventBus.getDefault().publish(new CourseUpdated(course));
         }
+        return rowsAffected > 0;
     }
     
     /**
@@ -141,37 +280,116 @@ public class CourseDAO {
                      "VALUES (?, ?, CURDATE(), 'ENROLLED') " +
                      "ON DUPLICATE KEY UPDATE status = 'ENROLLED'";
         
+        int rowsAffected;
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, studentId);
             pstmt.setInt(2, courseId);
             
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
+            conn.setAutoCommit(false);
+            try {
+                rowsAffected = pstmt.executeUpdate();
+                if (rowsAffected > 0) {
+                    // Enrollment changes are keyed by course so rosters can be refreshed
+                    ChangeLogDAO.recordChange(conn, ChangeRecord.EntityType.ENROLLMENT, courseId,
+                            ChangeRecord.Operation.INSERT);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         }
+        if (rowsAffected > 0) {
+            EventBus.getDefault().publish(new StudentEnrolled(studentId, courseId));
+        }
+        return rowsAffected > 0;
     }
     
     /**
-     * Map ResultSet to Course object
+     * Get the enrolled students of every active course, keyed by course id, ordered by student code
+     * Only the columns shown on an attendance sheet are loaded (for the offline LocalStore).
      */
-    private Course mapResultSetToCourse(ResultSet rs) throws SQLException {
-        Course course = new Course();
-        course.setCourseId(rs.getInt("course_id"));
-        course.setCourseCode(rs.getString("course_code"));
-        course.setCourseName(rs.getString("course_name"));
-        course.setDescription(rs.getString("description"));
-        course.setCredits(rs.getInt("credits"));
-        
-        int instructorId = rs.getInt("instructor_id");
-        if (!rs.wasNull()) {
-            course.setInstructorId(instructorId);
+    public Map<Integer, List<Student>> getActiveRosters() throws SQLException {
+        Map<Integer, List<Student>> rosters = new LinkedHashMap<>();
+        ReferenceSnapshot snapshot = ReferenceSnapshot.getCurrent();
+        if (snapshot != null) {
+            for (Course course : snapshot.getCourses()) {
+                List<Student> roster = snapshot.getRoster(course.getCourseId());
+                if (course.getStatus() == Course.Status.ACTIVE && !roster.isEmpty()) {
+                    rosters.put(course.getCourseId(), roster);
+                }
+            }
+            return rosters;
         }
-        
-        course.setSemester(rs.getString("semester"));
-        course.setAcademicYear(rs.getString("academic_year"));
-        course.setStatus(Course.Status.valueOf(rs.getString("status")));
-        
-        return course;
+        String sql = "SELECT ce.course_id, s.student_id, s.student_code, s.first_name, s.last_name " +
+                     "FROM course_enrollments ce " +
+                     "INNER JOIN courses c ON ce.course_id = c.course_id " +
+                     "INNER JOIN students s ON ce.student_id = s.student_id " +
+                     "WHERE ce.status = 'ENROLLED' AND c.status = 'ACTIVE' " +
+                     "ORDER BY ce.course_id, s.student_code";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+
+            while (rs.next()) {
+                Student student = new Student();
+                student.setStudentId(rs.getInt("student_id"));
+                student.setStudentCode(rs.getString("student_code"));
+                student.setFirstName(rs.getString("first_name"));
+                student.setLastName(rs.getString("last_name"));
+                rosters.computeIfAbsent(rs.getInt("course_id"), id -> new ArrayList<>()).add(student);
+            }
+        }
+        return rosters;
+    }
+
+    /**
+     * Get the ids of the students enrolled in each course, keyed by course id (for the reference snapshot)
+     */
+    public Map<Integer, List<Integer>> getEnrollments() throws SQLException {
+        Map<Integer, List<Integer>> enrollments = new LinkedHashMap<>();
+        String sql = "SELECT course_id, student_id FROM course_enrollments WHERE status = 'ENROLLED' " +
+                     "ORDER BY course_id";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql);
+             ResultSet rs = pstmt.executeQuery()) {
+
+            while (rs.next()) {
+                enrollments.computeIfAbsent(rs.getInt(1), id -> new ArrayList<>()).add(rs.getInt(2));
+            }
+        }
+        return enrollments;
+    }
+
+    private static List<Course> copyCourses(List<Course> courses) {
+        List<Course> copies = new ArrayList<>(courses.size());
+        for (Course course : courses) {
+            copies.add(new Course(course));
+        }
+        return copies;
+    }
+
+    /**
+     * Drop a course from the local caches (changed by another client)
+     */
+    public static void invalidateCachedCourse(int courseId) {
+        COURSE_BY_ID_CACHE.invalidate(courseId);
+        COURSE_LIST_CACHE.invalidateAll();
+    }
+
+    /**
+     * Get hit/miss statistics of the course caches
+     */
+    public static List<CacheStats> getCacheStats() {
+        List<CacheStats> stats = new ArrayList<>();
+        stats.add(COURSE_LIST_CACHE.getStats());
+        stats.add(COURSE_BY_ID_CACHE.getStats());
+        return stats;
     }
 }
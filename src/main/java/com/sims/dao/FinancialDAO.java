@@ -1,13 +1,19 @@
 package com.sims.dao;
 
 import com.sims.database.DatabaseConnection;
+import com.sims.events.EventBus;
+import com.sims.events.FinancialRecordCreated;
+import com.sims.events.PaymentPosted;
+import com.sims.models.ChangeRecord;
 import com.sims.models.FinancialRecord;
+import com.sims.models.FinancialRecordRowMapper;
 
 import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -17,6 +23,10 @@ import java.util.List;
  * Optimized queries with proper indexing
  */
 public class FinancialDAO {
+    private static final String INSERT_SQL =
+            "INSERT INTO financial_records (student_id, transaction_type, amount, description, " +
+            "transaction_date, due_date, status, payment_method, payment_date, receipt_number, recorded_by) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
     
     /**
      * Get all financial records for a student
@@ -36,8 +46,9 @@ public class FinancialDAO {
             pstmt.setInt(1, studentId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
+                FinancialRecordRowMapper mapper = new FinancialRecordRowMapper(rs);
                 while (rs.next()) {
-                    records.add(mapResultSetToFinancialRecord(rs));
+                    records.add(mapper.map(rs));
                 }
             }
         }
@@ -62,8 +73,9 @@ public class FinancialDAO {
             pstmt.setInt(1, studentId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
+                FinancialRecordRowMapper mapper = new FinancialRecordRowMapper(rs);
                 while (rs.next()) {
-                    records.add(mapResultSetToFinancialRecord(rs));
+                    records.add(mapper.map(rs));
                 }
             }
         }
@@ -99,30 +111,89 @@ public class FinancialDAO {
     
     /**
      * Create financial record
+     * @return the same record with its generated id set
      */
-    public boolean createFinancialRecord(FinancialRecord record) throws SQLException {
-        String sql = "INSERT INTO financial_records (student_id, transaction_type, amount, description, " +
-                     "transaction_date, due_date, status, payment_method, payment_date, receipt_number, recorded_by) " +
-                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        
+    public FinancialRecord createFinancialRecord(FinancialRecord record) throws SQLException {
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
             
-            pstmt.setInt(1, record.getStudentId());
-            pstmt.setString(2, record.getTransactionType().name());
-            pstmt.setBigDecimal(3, record.getAmount());
-            pstmt.setString(4, record.getDescription());
-            pstmt.setDate(5, java.sql.Date.valueOf(record.getTransactionDate()));
-            pstmt.setObject(6, record.getDueDate() != null ? java.sql.Date.valueOf(record.getDueDate()) : null, java.sql.Types.DATE);
-            pstmt.setString(7, record.getStatus().name());
-            pstmt.setString(8, record.getPaymentMethod());
-            pstmt.setObject(9, record.getPaymentDate() != null ? java.sql.Date.valueOf(record.getPaymentDate()) : null, java.sql.Types.DATE);
-            pstmt.setString(10, record.getReceiptNumber());
-            pstmt.setObject(11, record.getRecordedBy(), java.sql.Types.INTEGER);
+            bindInsert(pstmt, record);
+            conn.setAutoCommit(false);
+            try {
+                pstmt.executeUpdate();
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        record.setFinancialId(keys.getInt(1));
+                    }
+                }
+                ChangeLogDAO.recordChange(conn, ChangeRecord.EntityType.FINANCIAL_RECORD, record.getFinancialId(),
+                        ChangeRecord.Operation.INSERT);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        EventBus.getDefault().publish(new FinancialRecordCreated(record));
+        return record;
+    }
+
+    /**
+     * Create several financial records (e.g. term fees for a cohort) in one transaction
+     * @return the same records with their generated ids set, in input order
+     */
+    public List<FinancialRecord> createFinancialRecords(List<FinancialRecord> records) throws SQLException {
+        if (records.isEmpty()) {
+            return records;
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
             
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
+            conn.setAutoCommit(false);
+            try {
+                for (FinancialRecord record : records) {
+                    bindInsert(pstmt, record);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    for (int i = 0; i < records.size() && keys.next(); i++) {
+                        records.get(i).setFinancialId(keys.getInt(1));
+                    }
+                }
+                for (FinancialRecord record : records) {
+                    ChangeLogDAO.recordChange(conn, ChangeRecord.EntityType.FINANCIAL_RECORD, record.getFinancialId(),
+                            ChangeRecord.Operation.INSERT);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         }
+        for (FinancialRecord record : records) {
+            EventBus.getDefault().publish(new FinancialRecordCreated(record));
+        }
+        return records;
+    }
+
+    private void bindInsert(PreparedStatement pstmt, FinancialRecord record) throws SQLException {
+        pstmt.setInt(1, record.getStudentId());
+        pstmt.setString(2, record.getTransactionType().name());
+        pstmt.setBigDecimal(3, record.getAmount());
+        pstmt.setString(4, record.getDescription());
+        pstmt.setDate(5, java.sql.Date.valueOf(record.getTransactionDate()));
+        pstmt.setObject(6, record.getDueDate() != null ? java.sql.Date.valueOf(record.getDueDate()) : null, java.sql.Types.DATE);
+        pstmt.setString(7, record.getStatus().name());
+        pstmt.setString(8, record.getPaymentMethod());
+        pstmt.setObject(9, record.getPaymentDate() != null ? java.sql.Date.valueOf(record.getPaymentDate()) : null, java.sql.Types.DATE);
+        pstmt.setString(10, record.getReceiptNumber());
+        pstmt.setObject(11, record.getRecordedBy(), java.sql.Types.INTEGER);
     }
     
     /**
@@ -134,6 +205,7 @@ public class FinancialDAO {
                      "payment_date = ?, receipt_number = ? " +
                      "WHERE financial_id = ?";
         
+        int rowsAffected;
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
@@ -143,47 +215,25 @@ public class FinancialDAO {
             pstmt.setString(4, receiptNumber);
             pstmt.setInt(5, financialId);
             
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
-        }
-    }
-    
-    /**
-     * Map ResultSet to FinancialRecord object
-     */
-    private FinancialRecord mapResultSetToFinancialRecord(ResultSet rs) throws SQLException {
-        FinancialRecord record = new FinancialRecord();
-        record.setFinancialId(rs.getInt("financial_id"));
-        record.setStudentId(rs.getInt("student_id"));
-        record.setTransactionType(FinancialRecord.TransactionType.valueOf(rs.getString("transaction_type")));
-        record.setAmount(rs.getBigDecimal("amount"));
-        record.setDescription(rs.getString("description"));
-        
-        java.sql.Date transactionDate = rs.getDate("transaction_date");
-        if (transactionDate != null) {
-            record.setTransactionDate(transactionDate.toLocalDate());
-        }
-        
-        java.sql.Date dueDate = rs.getDate("due_date");
-        if (dueDate != null) {
-            record.setDueDate(dueDate.toLocalDate());
+            conn.setAutoCommit(false);
+            try {
+                rowsAffected = pstmt.executeUpdate();
+                if (rowsAffected > 0) {
+                    ChangeLogDAO.recordChange(conn, ChangeRecord.EntityType.FINANCIAL_RECORD, financialId,
+                            ChangeRecord.Operation.UPDATE);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         }
-        
-        record.setStatus(FinancialRecord.PaymentStatus.valueOf(rs.getString("status")));
-        record.setPaymentMethod(rs.getString("payment_method"));
-        
-        java.sql.Date paymentDate = rs.getDate("payment_date");
-        if (paymentDate != null) {
-            record.setPaymentDate(paymentDate.toLocalDate());
+        if (rowsAffected > 0) {
+            EventBus.getDefault().publish(new PaymentPosted(financialId, status, paymentMethod, paymentDate,
+                    receiptNumber));
         }
-        
-        record.setReceiptNumber(rs.getString("receipt_number"));
-        
-        int recordedBy = rs.getInt("recorded_by");
-        if (!rs.wasNull()) {
-            record.setRecordedBy(recordedBy);
-        }
-        
-        return record;
+        return rowsAffected > 0;
     }
 }
@@ -1,26 +1,50 @@
 package com.sims.dao;
 
+import com.sims.analytics.GradeColumns;
 import com.sims.database.DatabaseConnection;
+import com.sims.events.EventBus;
+import com.sims.events.GradeRecorded;
+import com.sims.events.GradeUpdated;
+import com.sims.models.ChangeRecord;
 import com.sims.models.Grade;
+import com.sims.models.GradeRowMapper;
+import com.sims.offline.OfflineMode;
 
 import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data Access Object for Grade operations
  * Optimized queries with proper indexing
  */
 public class GradeDAO {
+    private static final String INSERT_SQL =
+            "INSERT INTO grades (student_id, course_id, assessment_type, assessment_name, " +
+            "marks_obtained, total_marks, grade_letter, semester, academic_year, recorded_by) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
     
     /**
      * Get grades by student and course
+     * While offline only the grades recorded offline are available
      */
     public List<Grade> getGradesByStudentAndCourse(int studentId, int courseId) throws SQLException {
+        try {
+            return loadGradesByStudentAndCourse(studentId, courseId);
+        } catch (SQLException e) {
+            return OfflineMode.fallback(e, () -> OfflineMode.getPendingGrades(studentId, courseId));
+        }
+    }
+
+    private List<Grade> loadGradesByStudentAndCourse(int studentId, int courseId) throws SQLException {
         List<Grade> grades = new ArrayList<>();
         String sql = "SELECT grade_id, student_id, course_id, assessment_type, assessment_name, " +
                      "marks_obtained, total_marks, percentage, grade_letter, semester, academic_year, " +
@@ -36,8 +60,9 @@ public class GradeDAO {
             pstmt.setInt(2, courseId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
+                GradeRowMapper mapper = new GradeRowMapper(rs);
                 while (rs.next()) {
-                    grades.add(mapResultSetToGrade(rs));
+                    grades.add(mapper.map(rs));
                 }
             }
         }
@@ -62,8 +87,9 @@ public class GradeDAO {
             pstmt.setInt(1, studentId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
+                GradeRowMapper mapper = new GradeRowMapper(rs);
                 while (rs.next()) {
-                    grades.add(mapResultSetToGrade(rs));
+                    grades.add(mapper.map(rs));
                 }
             }
         }
@@ -97,31 +123,184 @@ public class GradeDAO {
         }
         return BigDecimal.ZERO;
     }
-    
+
+    /**
+     * Load grades into a columnar store for analytics, for one term or (both null) all terms
+     * Rows are streamed from the server instead of buffered, so only the columns are held in memory.
+     */
+    public GradeColumns loadGradeColumns(String semester, String academicYear) throws SQLException {
+        boolean oneTerm = semester != null || academicYear != null;
+        String sql = "SELECT grade_id, student_id, course_id, assessment_type, marks_obtained, total_marks, " +
+                     "semester, academic_year " +
+                     "FROM grades" +
+                     (oneTerm ? " WHERE semester = ? AND academic_year = ?" : "");
+        GradeColumns.Builder builder = new GradeColumns.Builder();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                     ResultSet.CONCUR_READ_ONLY)) {
+
+            // Connector/J streams row by row only for this fetch size
+            pstmt.setFetchSize(Integer.MIN_VALUE);
+            if (oneTerm) {
+                pstmt.setString(1, semester);
+                pstmt.setString(2, academicYear);
+            }
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    builder.add(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getString(4),
+                            GradeColumns.hundredths(rs.getBigDecimal(5)),
+                            GradeColumns.hundredths(rs.getBigDecimal(6)),
+                            rs.getString(7), rs.getString(8));
+                }
+            }
+        }
+        return builder.build();
+    }
+
     /**
      * Record grade
+     * While offline the grade is journaled and gets a temporary negative id instead.
+     * @return the same grade with its generated id and the database-computed percentage and created_at
      */
-    public boolean recordGrade(Grade grade) throws SQLException {
-        String sql = "INSERT INTO grades (student_id, course_id, assessment_type, assessment_name, " +
-                     "marks_obtained, total_marks, grade_letter, semester, academic_year, recorded_by) " +
-                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        
+    public Grade recordGrade(Grade grade) throws SQLException {
+        try {
+            insertGrade(grade);
+        } catch (SQLException e) {
+            OfflineMode.fallback(e, () -> OfflineMode.journalGrades(Collections.singletonList(grade)));
+        }
+        EventBus.getDefault().publish(new GradeRecorded(grade));
+        return grade;
+    }
+
+    private void insertGrade(Grade grade) throws SQLException {
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
             
-            pstmt.setInt(1, grade.getStudentId());
-            pstmt.setInt(2, grade.getCourseId());
-            pstmt.setString(3, grade.getAssessmentType());
-            pstmt.setString(4, grade.getAssessmentName());
-            pstmt.setBigDecimal(5, grade.getMarksObtained());
-            pstmt.setBigDecimal(6, grade.getTotalMarks());
-            pstmt.setString(7, grade.getGradeLetter());
-            pstmt.setString(8, grade.getSemester());
-            pstmt.setString(9, grade.getAcademicYear());
-            pstmt.setObject(10, grade.getRecordedBy(), java.sql.Types.INTEGER);
+            bindInsert(pstmt, grade);
+            conn.setAutoCommit(false);
+            try {
+                pstmt.executeUpdate();
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        grade.setGradeId(keys.getInt(1));
+                    }
+                }
+                loadComputedColumns(conn, Collections.singletonList(grade));
+                ChangeLogDAO.recordChange(conn, ChangeRecord.EntityType.GRADE, grade.getGradeId(),
+                        ChangeRecord.Operation.INSERT);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Record several grades (e.g. one assessment for a whole course) in one transaction
+     * While offline the grades are journaled and get temporary negative ids instead.
+     * @return the same grades with generated ids and database-computed columns, in input order
+     */
+    public List<Grade> recordGrades(List<Grade> grades) throws SQLException {
+        if (grades.isEmpty()) {
+            return grades;
+        }
+
+        try {
+            insertGrades(grades);
+        } catch (SQLException e) {
+            OfflineMode.fallback(e, () -> OfflineMode.journalGrades(grades));
+        }
+        for (Grade grade : grades) {
+            EventBus.getDefault().publish(new GradeRecorded(grade));
+        }
+        return grades;
+    }
+
+    private void insertGrades(List<Grade> grades) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
             
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
+            conn.setAutoCommit(false);
+            try {
+                for (Grade grade : grades) {
+                    bindInsert(pstmt, grade);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    for (int i = 0; i < grades.size() && keys.next(); i++) {
+                        grades.get(i).setGradeId(keys.getInt(1));
+                    }
+                }
+                loadComputedColumns(conn, grades);
+                for (Grade grade : grades) {
+                    ChangeLogDAO.recordChange(conn, ChangeRecord.EntityType.GRADE, grade.getGradeId(),
+                            ChangeRecord.Operation.INSERT);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private void bindInsert(PreparedStatement pstmt, Grade grade) throws SQLException {
+        pstmt.setInt(1, grade.getStudentId());
+        pstmt.setInt(2, grade.getCourseId());
+        pstmt.setString(3, grade.getAssessmentType());
+        pstmt.setString(4, grade.getAssessmentName());
+        pstmt.setBigDecimal(5, grade.getMarksObtained());
+        pstmt.setBigDecimal(6, grade.getTotalMarks());
+        pstmt.setString(7, grade.getGradeLetter());
+        pstmt.setString(8, grade.getSemester());
+        pstmt.setString(9, grade.getAcademicYear());
+        pstmt.setObject(10, grade.getRecordedBy(), java.sql.Types.INTEGER);
+    }
+
+    /**
+     * Read the generated percentage and created_at of freshly inserted grades
+     * One primary key range scan on the inserting connection, so it also sees uncommitted rows
+     */
+    private void loadComputedColumns(Connection conn, List<Grade> grades) throws SQLException {
+        Map<Integer, Grade> byId = new HashMap<>();
+        int minId = Integer.MAX_VALUE;
+        int maxId = Integer.MIN_VALUE;
+        for (Grade grade : grades) {
+            if (grade.getGradeId() > 0) {
+                byId.put(grade.getGradeId(), grade);
+                minId = Math.min(minId, grade.getGradeId());
+                maxId = Math.max(maxId, grade.getGradeId());
+            }
+        }
+        if (byId.isEmpty()) {
+            return;
+        }
+
+        String sql = "SELECT grade_id, percentage, created_at FROM grades WHERE grade_id BETWEEN ? AND ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, minId);
+            pstmt.setInt(2, maxId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    Grade grade = byId.get(rs.getInt("grade_id"));
+                    if (grade == null) {
+                        continue;
+                    }
+                    grade.setPercentage(rs.getBigDecimal("percentage"));
+                    java.sql.Date createdAt = rs.getDate("created_at");
+                    if (createdAt != null) {
+                        grade.setCreatedAt(createdAt.toLocalDate());
+                    }
+                }
+            }
         }
     }
     
@@ -133,6 +312,7 @@ public class GradeDAO {
                      "marks_obtained = ?, total_marks = ?, grade_letter = ? " +
                      "WHERE grade_id = ?";
         
+        int rowsAffected;
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
@@ -143,36 +323,24 @@ public class GradeDAO {
             pstmt.setString(5, grade.getGradeLetter());
             pstmt.setInt(6, grade.getGradeId());
             
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
-        }
-    }
-    
-    /**
-     * Map ResultSet to Grade object
-     */
-    private Grade mapResultSetToGrade(ResultSet rs) throws SQLException {
-        Grade grade = new Grade();
-        grade.setGradeId(rs.getInt("grade_id"));
-        grade.setStudentId(rs.getInt("student_id"));
-        grade.setCourseId(rs.getInt("course_id"));
-        grade.setAssessmentType(rs.getString("assessment_type"));
-        grade.setAssessmentName(rs.getString("assessment_name"));
-        grade.setMarksObtained(rs.getBigDecimal("marks_obtained"));
-        grade.setTotalMarks(rs.getBigDecimal("total_marks"));
-        grade.setSemester(rs.getString("semester"));
-        grade.setAcademicYear(rs.getString("academic_year"));
-        
-        int recordedBy = rs.getInt("recorded_by");
-        if (!rs.wasNull()) {
-            grade.setRecordedBy(recordedBy);
+            conn.setAutoCommit(false);
+            try {
+                rowsAffected = pstmt.executeUpdate();
+                if (rowsAffected > 0) {
+                    ChangeLogDAO.recordChange(conn, ChangeRecord.EntityType.GRADE, grade.getGradeId(),
+                            ChangeRecord.Operation.UPDATE);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         }
-        
-        java.sql.Date createdAt = rs.getDate("created_at");
-        if (createdAt != null) {
-            grade.setCreatedAt(createdAt.toLocalDate());
+        if (rowsAffected > 0) {
+            EventBus.getDefault().publish(new GradeUpdated(grade));
         }
-        
-        return grade;
+        return rowsAffected > 0;
     }
 }
@@ -1,12 +1,24 @@
 package com.sims.dao;
 
+import com.sims.cache.CacheStats;
+import com.sims.cache.ReferenceSnapshot;
+import com.sims.cache.StudentCache;
 import com.sims.database.DatabaseConnection;
+import com.sims.events.EventBus;
+import com.sims.events.StudentCreated;
+import com.sims.events.StudentDeleted;
+import com.sims.events.StudentUpdated;
+import com.sims.models.ChangeRecord;
 import com.sims.models.Student;
+import com.sims.models.StudentRowMapper;
+import com.sims.offline.LocalStore;
+import com.sims.offline.OfflineMode;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
@@ -14,46 +26,85 @@ import java.util.List;
 /**
  * Data Access Object for Student operations
  * Optimized queries with proper indexing
+ * Lookups by id and code go through a shared write-through entity cache
  */
 public class StudentDAO {
+    private static final StudentCache STUDENT_CACHE =
+            new StudentCache("students", Integer.getInteger("sims.cache.students.maxSize", 10000));
+    private static final String INSERT_SQL =
+            "INSERT INTO students (user_id, student_code, first_name, last_name, " +
+            "date_of_birth, gender, email, phone, address, enrollment_date, status) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
     
     /**
      * Get all students with pagination support
-     * Optimized with indexed columns
+     * Optimized with indexed columns; served from the reference snapshot when one is installed,
+     * and while offline, the students on the stored course rosters
      */
     public List<Student> getAllStudents() throws SQLException {
+        ReferenceSnapshot snapshot = ReferenceSnapshot.getCurrent();
+        if (snapshot != null) {
+            return snapshot.getStudents();
+        }
+        try {
+            return loadAllStudents();
+        } catch (SQLException e) {
+            return OfflineMode.fallback(e, () -> LocalStore.getDefault().getRosterStudents());
+        }
+    }
+
+    private List<Student> loadAllStudents() throws SQLException {
         List<Student> students = new ArrayList<>();
         String sql = "SELECT student_id, user_id, student_code, first_name, last_name, " +
                      "date_of_birth, gender, email, phone, address, enrollment_date, status " +
                      "FROM students ORDER BY student_code";
+        long mutationCount = STUDENT_CACHE.getMutationCount();
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql);
              ResultSet rs = pstmt.executeQuery()) {
             
+            StudentRowMapper mapper = new StudentRowMapper(rs);
             while (rs.next()) {
-                students.add(mapResultSetToStudent(rs));
+                students.add(mapper.map(rs));
             }
         }
+        STUDENT_CACHE.putAllIfUnchanged(students, mutationCount);
         return students;
     }
     
     /**
-     * Get student by ID
+     * Get student by ID (cached)
      */
     public Student getStudentById(int studentId) throws SQLException {
+        return STUDENT_CACHE.getById(studentId, () -> loadStudentById(studentId));
+    }
+
+    private Student loadStudentById(int studentId) throws SQLException {
+        ReferenceSnapshot snapshot = ReferenceSnapshot.getCurrent();
+        if (snapshot != null) {
+            return snapshot.getStudent(studentId);
+        }
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return readStudent(conn, studentId);
+        }
+    }
+
+    /**
+     * Read one student row on the given connection, so a transaction sees its own writes
+     */
+    private Student readStudent(Connection conn, int studentId) throws SQLException {
         String sql = "SELECT student_id, user_id, student_code, first_name, last_name, " +
                      "date_of_birth, gender, email, phone, address, enrollment_date, status " +
                      "FROM students WHERE student_id = ?";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, studentId);
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToStudent(rs);
+                    return new StudentRowMapper(rs).map(rs);
                 }
             }
         }
@@ -61,9 +112,17 @@ public class StudentDAO {
     }
     
     /**
-     * Get student by student code (indexed column for fast lookup)
+     * Get student by student code (indexed column for fast lookup, cached)
      */
     public Student getStudentByCode(String studentCode) throws SQLException {
+        return STUDENT_CACHE.getByCode(studentCode, () -> loadStudentByCode(studentCode));
+    }
+
+    private Student loadStudentByCode(String studentCode) throws SQLException {
+        ReferenceSnapshot snapshot = ReferenceSnapshot.getCurrent();
+        if (snapshot != null) {
+            return snapshot.getStudentByCode(studentCode);
+        }
         String sql = "SELECT student_id, user_id, student_code, first_name, last_name, " +
                      "date_of_birth, gender, email, phone, address, enrollment_date, status " +
                      "FROM students WHERE student_code = ?";
@@ -75,7 +134,7 @@ public class StudentDAO {
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    return mapResultSetToStudent(rs);
+                    return new StudentRowMapper(rs).map(rs);
                 }
             }
         }
@@ -91,6 +150,7 @@ public class StudentDAO {
                      "date_of_birth, gender, email, phone, address, enrollment_date, status " +
                      "FROM students WHERE first_name LIKE ? OR last_name LIKE ? " +
                      "ORDER BY first_name, last_name";
+        long mutationCount = STUDENT_CACHE.getMutationCount();
         
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -100,50 +160,119 @@ public class StudentDAO {
             pstmt.setString(2, searchPattern);
             
             try (ResultSet rs = pstmt.executeQuery()) {
+                StudentRowMapper mapper = new StudentRowMapper(rs);
                 while (rs.next()) {
-                    students.add(mapResultSetToStudent(rs));
+                    students.add(mapper.map(rs));
                 }
             }
         }
+        STUDENT_CACHE.putAllIfUnchanged(students, mutationCount);
         return students;
     }
     
     /**
      * Create new student
+     * Every column Student maps is bound from the entity except the id, so unlike grades there is
+     * nothing else to read back; created_at and updated_at are not part of the model.
+     * @return the same student with its generated id set (also placed in the cache)
      */
-    public boolean createStudent(Student student) throws SQLException {
-        String sql = "INSERT INTO students (user_id, student_code, first_name, last_name, " +
-                     "date_of_birth, gender, email, phone, address, enrollment_date, status) " +
-                     "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        
+    public Student createStudent(Student student) throws SQLException {
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
             
-            pstmt.setObject(1, student.getUserId(), java.sql.Types.INTEGER);
-            pstmt.setString(2, student.getStudentCode());
-            pstmt.setString(3, student.getFirstName());
-            pstmt.setString(4, student.getLastName());
-            pstmt.setDate(5, java.sql.Date.valueOf(student.getDateOfBirth()));
-            pstmt.setString(6, student.getGender().name());
-            pstmt.setString(7, student.getEmail());
-            pstmt.setString(8, student.getPhone());
-            pstmt.setString(9, student.getAddress());
-            pstmt.setDate(10, java.sql.Date.valueOf(student.getEnrollmentDate()));
-            pstmt.setString(11, student.getStatus().name());
+            bindInsert(pstmt, student);
+            conn.setAutoCommit(false);
+            try {
+                pstmt.executeUpdate();
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        student.setStudentId(keys.getInt(1));
+                    }
+                }
+                ChangeLogDAO.recordChange(conn, ChangeRecord.EntityType.STUDENT, student.getStudentId(),
+                        ChangeRecord.Operation.INSERT);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+        STUDENT_CACHE.put(student);
+        EventBus.getDefault().publish(new StudentCreated(student));
+        return student;
+    }
+
+    /**
+     * Create several students in one transaction
+     * @return the same students with their generated ids set, in input order
+     */
+    public List<Student> createStudents(List<Student> students) throws SQLException {
+        if (students.isEmpty()) {
+            return students;
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
             
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
+            conn.setAutoCommit(false);
+            try {
+                for (Student student : students) {
+                    bindInsert(pstmt, student);
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    for (int i = 0; i < students.size() && keys.next(); i++) {
+                        students.get(i).setStudentId(keys.getInt(1));
+                    }
+                }
+                for (Student student : students) {
+                    ChangeLogDAO.recordChange(conn, ChangeRecord.EntityType.STUDENT, student.getStudentId(),
+                            ChangeRecord.Operation.INSERT);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         }
+        for (Student student : students) {
+            STUDENT_CACHE.put(student);
+            EventBus.getDefault().publish(new StudentCreated(student));
+        }
+        return students;
+    }
+
+    private void bindInsert(PreparedStatement pstmt, Student student) throws SQLException {
+        pstmt.setObject(1, student.getUserId(), java.sql.Types.INTEGER);
+        pstmt.setString(2, student.getStudentCode());
+        pstmt.setString(3, student.getFirstName());
+        pstmt.setString(4, student.getLastName());
+        pstmt.setDate(5, java.sql.Date.valueOf(student.getDateOfBirth()));
+        pstmt.setString(6, student.getGender().name());
+        pstmt.setString(7, student.getEmail());
+        pstmt.setString(8, student.getPhone());
+        pstmt.setString(9, student.getAddress());
+        pstmt.setDate(10, java.sql.Date.valueOf(student.getEnrollmentDate()));
+        pstmt.setString(11, student.getStatus().name());
     }
     
     /**
      * Update student information
+     * Only the name, date of birth, gender, contact details and status are written; the cache and
+     * the StudentUpdated event get the row as stored, not the caller's object.
      */
     public boolean updateStudent(Student student) throws SQLException {
         String sql = "UPDATE students SET first_name = ?, last_name = ?, date_of_birth = ?, " +
                      "gender = ?, email = ?, phone = ?, address = ?, status = ? " +
                      "WHERE student_id = ?";
         
+        int rowsAffected;
+        Student stored = null;
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
@@ -157,9 +286,29 @@ public class StudentDAO {
             pstmt.setString(8, student.getStatus().name());
             pstmt.setInt(9, student.getStudentId());
             
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
+            conn.setAutoCommit(false);
+            try {
+                rowsAffected = pstmt.executeUpdate();
+                if (rowsAffected > 0) {
+                    stored = readStudent(conn, student.getStudentId());
+                    ChangeLogDAO.recordChange(conn, ChangeRecord.EntityType.STUDENT, student.getStudentId(),
+                            ChangeRecord.Operation.UPDATE);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         }
+        if (stored != null) {
+            STUDENT_CACHE.put(stored);
+            EventBus.getDefault().publish(new StudentUpdated(stored));
+        } else {
+            STUDENT_CACHE.evict(student.getStudentId());
+        }
+        return rowsAffected > 0;
     }
     
     /**
@@ -168,49 +317,46 @@ public class StudentDAO {
     public boolean deleteStudent(int studentId) throws SQLException {
         String sql = "DELETE FROM students WHERE student_id = ?";
         
+        int rowsAffected;
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             
             pstmt.setInt(1, studentId);
             
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
+            conn.setAutoCommit(false);
+            try {
+                rowsAffected = pstmt.executeUpdate();
+                if (rowsAffected > 0) {
+                    ChangeLogDAO.recordChange(conn, ChangeRecord.EntityType.STUDENT, studentId,
+                            ChangeRecord.Operation.DELETE);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } finally {
+            STUDENT_CACHE.evict(studentId);
+        }
+        if (rowsAffected > 0) {
+            EventBus.getDefault().publish(new StudentDeleted(studentId));
         }
+        return rowsAffected > 0;
     }
     
     /**
-     * Map ResultSet to Student object
+     * Drop a student from the local cache (changed by another client)
      */
-    private Student mapResultSetToStudent(ResultSet rs) throws SQLException {
-        Student student = new Student();
-        student.setStudentId(rs.getInt("student_id"));
-        
-        int userId = rs.getInt("user_id");
-        if (!rs.wasNull()) {
-            student.setUserId(userId);
-        }
-        
-        student.setStudentCode(rs.getString("student_code"));
-        student.setFirstName(rs.getString("first_name"));
-        student.setLastName(rs.getString("last_name"));
-        
-        java.sql.Date dob = rs.getDate("date_of_birth");
-        if (dob != null) {
-            student.setDateOfBirth(dob.toLocalDate());
-        }
-        
-        student.setGender(Student.Gender.valueOf(rs.getString("gender")));
-        student.setEmail(rs.getString("email"));
-        student.setPhone(rs.getString("phone"));
-        student.setAddress(rs.getString("address"));
-        
-        java.sql.Date enrollmentDate = rs.getDate("enrollment_date");
-        if (enrollmentDate != null) {
-            student.setEnrollmentDate(enrollmentDate.toLocalDate());
-        }
-        
-        student.setStatus(Student.Status.valueOf(rs.getString("status")));
-        
-        return student;
+    public static void invalidateCachedStudent(int studentId) {
+        STUDENT_CACHE.evict(studentId);
+    }
+
+    /**
+     * Get hit/miss statistics of the student cache
+     */
+    public static CacheStats getCacheStats() {
+        return STUDENT_CACHE.getStats();
     }
 }
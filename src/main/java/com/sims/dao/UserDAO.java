@@ -1,12 +1,19 @@
 package com.sims.dao;
 
 import com.sims.database.DatabaseConnection;
+import com.sims.events.EventBus;
+import com.sims.events.UserCreated;
+import com.sims.models.ChangeRecord;
 import com.sims.models.User;
+import com.sims.models.UserRowMapper;
+import com.sims.offline.LocalStore;
+import com.sims.offline.OfflineMode;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 
 /**
  * Data Access Object for User operations
@@ -16,9 +23,23 @@ public class UserDAO {
     
     /**
      * Authenticate user by username and password
-     * Optimized query with indexed username column
+     * Optimized query with indexed username column. A successful sign-in is remembered in the
+     * LocalStore so the same user can sign in while offline.
      */
     public User authenticate(String username, String password) throws SQLException {
+        User user;
+        try {
+            user = checkPassword(username, password);
+        } catch (SQLException e) {
+            return OfflineMode.fallback(e, () -> LocalStore.getDefault().authenticate(username, password));
+        }
+        if (user != null && OfflineMode.isEnabled()) {
+            LocalStore.getDefault().putCredentials(user, password);
+        }
+        return user;
+    }
+
+    private User checkPassword(String username, String password) throws SQLException {
         String sql = "SELECT user_id, username, password, role, email FROM users WHERE username = ? AND password = ?";
         
         try (Connection conn = DatabaseConnection.getConnection();
@@ -29,13 +50,7 @@ public class UserDAO {
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    User user = new User();
-                    user.setUserId(rs.getInt("user_id"));
-                    user.setUsername(rs.getString("username"));
-                    user.setPassword(rs.getString("password"));
-                    user.setRole(User.Role.valueOf(rs.getString("role")));
-                    user.setEmail(rs.getString("email"));
-                    return user;
+                    return new UserRowMapper(rs).map(rs);
                 }
             }
         }
@@ -55,13 +70,7 @@ public class UserDAO {
             
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    User user = new User();
-                    user.setUserId(rs.getInt("user_id"));
-                    user.setUsername(rs.getString("username"));
-                    user.setPassword(rs.getString("password"));
-                    user.setRole(User.Role.valueOf(rs.getString("role")));
-                    user.setEmail(rs.getString("email"));
-                    return user;
+                    return new UserRowMapper(rs).map(rs);
                 }
             }
         }
@@ -70,20 +79,38 @@ public class UserDAO {
     
     /**
      * Create new user
+     * @return the same user with its generated id set
      */
-    public boolean createUser(User user) throws SQLException {
+    public User createUser(User user) throws SQLException {
         String sql = "INSERT INTO users (username, password, role, email) VALUES (?, ?, ?, ?)";
         
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
             
             pstmt.setString(1, user.getUsername());
             pstmt.setString(2, user.getPassword());
             pstmt.setString(3, user.getRole().name());
             pstmt.setString(4, user.getEmail());
             
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
+            conn.setAutoCommit(false);
+            try {
+                pstmt.executeUpdate();
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        user.setUserId(keys.getInt(1));
+                    }
+                }
+                ChangeLogDAO.recordChange(conn, ChangeRecord.EntityType.USER, user.getUserId(),
+                        ChangeRecord.Operation.INSERT);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
         }
+        EventBus.getDefault().publish(new UserCreated(user));
+        return user;
     }
 }
@@ -0,0 +1,343 @@
+package com.sims.database;
+
+import com.sims.metrics.LatencyHistogram;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed-size JDBC connection pool
+ * Connections handed out are proxies whose close() returns the physical connection to the pool,
+ * so DAO code keeps its try-with-resources blocks. A connection returned mid-transaction is
+ * rolled back and reset to auto-commit. Idle connections are checked with isValid() before reuse
+ * once they have been idle for a while.
+ */
+public class ConnectionPool implements ConnectionPoolMBean {
+    private static final long VALIDATE_AFTER_IDLE_MS = 30_000L;
+
+    /**
+     * Physical connection and when it was last returned
+     */
+    private static class PooledConnection {
+        private final Connection physical;
+        private long returnedAt;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.returnedAt = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Opens a new physical connection
+     */
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+
+    private final ConnectionFactory factory;
+    private final int maxSize;
+    private final long acquireTimeoutMs;
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final LatencyHistogram acquireTime = new LatencyHistogram();
+    private int total;
+    private int waiting;
+    private long created;
+    private long timeouts;
+    private boolean shutdown;
+
+    public ConnectionPool(ConnectionFactory factory, int maxSize, long acquireTimeoutMs) {
+        this.factory = factory;
+        this.maxSize = Math.max(1, maxSize);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+    }
+
+    /**
+     * Borrow a connection, waiting up to the acquire timeout when all are in use
+     */
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        PooledConnection pooled = null;
+        while (pooled == null) {
+            boolean open = false;
+            synchronized (this) {
+                long deadline = start + TimeUnit.MILLISECONDS.toNanos(acquireTimeoutMs);
+                while (!shutdown && idle.isEmpty() && total >= maxSize) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        timeouts++;
+                        throw new SQLException("Timed out after " + acquireTimeoutMs +
+                                " ms waiting for a database connection (" + maxSize + " in use)");
+                    }
+                    waiting++;
+                    try {
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new SQLException("Interrupted while waiting for a database connection", e);
+                    } finally {
+                        waiting--;
+                    }
+                }
+                if (shutdown) {
+                    throw new SQLException("Connection pool is shut down");
+                }
+                if (!idle.isEmpty()) {
+                    pooled = idle.pop();
+                } else {
+                    total++;
+                    open = true;
+                }
+            }
+
+            if (open) {
+                pooled = openPhysical();
+            } else if (System.currentTimeMillis() - pooled.returnedAt > VALIDATE_AFTER_IDLE_MS
+                    && !isValid(pooled.physical)) {
+                discard(pooled);
+                pooled = null;
+            }
+        }
+        acquireTime.record(System.nanoTime() - start);
+        return wrap(pooled);
+    }
+
+    /**
+     * Open connections up front, in parallel, until at least count are idle (bounded by the pool size)
+     * Lets startup pay for the driver handshakes while nothing is waiting on them.
+     * @return the number of connections opened
+     * @throws SQLException the first failure; connections that did open are kept
+     */
+    public int prefill(int count) throws SQLException {
+        int toOpen;
+        synchronized (this) {
+            toOpen = shutdown ? 0 : Math.min(count - idle.size(), maxSize - total);
+            if (toOpen <= 0) {
+                return 0;
+            }
+            total += toOpen;
+        }
+
+        ExecutorService openers = Executors.newFixedThreadPool(toOpen, r -> {
+            Thread thread = new Thread(r, "pool-prefill");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<PooledConnection>> futures = new ArrayList<>();
+            for (int i = 0; i < toOpen; i++) {
+                futures.add(openers.submit(this::openPhysical));
+            }
+            // Every reserved slot must end up idle or released, so wait out interrupts
+            int opened = 0;
+            boolean interrupted = false;
+            SQLException failure = null;
+            for (Future<PooledConnection> future : futures) {
+                while (true) {
+                    try {
+                        release(future.get());
+                        opened++;
+                        break;
+                    } catch (ExecutionException e) {
+                        if (failure == null) {
+                            failure = e.getCause() instanceof SQLException ? (SQLException) e.getCause()
+                                    : new SQLException("Failed to open a pooled connection", e.getCause());
+                        }
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return opened;
+        } finally {
+            openers.shutdown();
+        }
+    }
+
+    private PooledConnection openPhysical() throws SQLException {
+        try {
+            Connection physical = factory.open();
+            synchronized (this) {
+                created++;
+            }
+            return new PooledConnection(physical);
+        } catch (SQLException | RuntimeException e) {
+            synchronized (this) {
+                total--;
+                notifyAll();
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isValid(Connection physical) {
+        try {
+            return physical.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private Connection wrap(PooledConnection pooled) {
+        boolean[] closed = {false};
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            if (!closed[0]) {
+                                closed[0] = true;
+                                release(pooled);
+                            }
+                            return null;
+                        case "isClosed":
+                            return closed[0] || pooled.physical.isClosed();
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return "PooledConnection[" + pooled.physical + "]";
+                        default:
+                            if (closed[0]) {
+                                throw new SQLException("Connection is closed");
+                            }
+                            try {
+                                return method.invoke(pooled.physical, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                    }
+                });
+    }
+
+    /**
+     * Return a connection; one left in a transaction is rolled back first
+     */
+    private void release(PooledConnection pooled) {
+        try {
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            discard(pooled);
+            return;
+        }
+
+        boolean close;
+        synchronized (this) {
+            close = shutdown;
+            if (!shutdown) {
+                pooled.returnedAt = System.currentTimeMillis();
+                idle.push(pooled);
+                notifyAll();
+            }
+        }
+        if (close) {
+            discard(pooled);
+        }
+    }
+
+    private void discard(PooledConnection pooled) {
+        synchronized (this) {
+            total--;
+            notifyAll();
+        }
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Close idle connections and refuse further borrows; borrowed ones are closed when returned
+     */
+    public void shutdown() {
+        Deque<PooledConnection> toClose;
+        synchronized (this) {
+            shutdown = true;
+            toClose = new ArrayDeque<>(idle);
+            idle.clear();
+            notifyAll();
+        }
+        for (PooledConnection pooled : toClose) {
+            discard(pooled);
+        }
+    }
+
+    @Override
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    @Override
+    public synchronized int getActiveCount() {
+        return total - idle.size();
+    }
+
+    @Override
+    public synchronized int getIdleCount() {
+        return idle.size();
+    }
+
+    @Override
+    public synchronized int getWaitingCount() {
+        return waiting;
+    }
+
+    @Override
+    public synchronized long getCreatedCount() {
+        return created;
+    }
+
+    @Override
+    public synchronized long getTimeoutCount() {
+        return timeouts;
+    }
+
+    @Override
+    public long getAcquireCount() {
+        return acquireTime.getCount();
+    }
+
+    @Override
+    public double getAcquireMeanMillis() {
+        return acquireTime.getMeanNanos() / 1e6;
+    }
+
+    @Override
+    public double getAcquireP99Millis() {
+        return acquireTime.getValueAtPercentile(99) / 1e6;
+    }
+
+    @Override
+    public double getAcquireMaxMillis() {
+        return acquireTime.getMaxNanos() / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("pool: active=%d idle=%d waiting=%d max=%d created=%d timeouts=%d acquire %s",
+                getActiveCount(), getIdleCount(), getWaitingCount(), maxSize, getCreatedCount(),
+                getTimeoutCount(), acquireTime.summary());
+    }
+}
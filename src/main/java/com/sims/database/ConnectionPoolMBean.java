@@ -0,0 +1,26 @@
+package com.sims.database;
+
+/**
+ * JMX view of the connection pool (com.sims:type=ConnectionPool)
+ */
+public interface ConnectionPoolMBean {
+    int getMaxSize();
+
+    int getActiveCount();
+
+    int getIdleCount();
+
+    int getWaitingCount();
+
+    long getCreatedCount();
+
+    long getTimeoutCount();
+
+    long getAcquireCount();
+
+    double getAcquireMeanMillis();
+
+    double getAcquireP99Millis();
+
+    double getAcquireMaxMillis();
+}
@@ -1,50 +1,148 @@
 package com.sims.database;
 
+import com.sims.metrics.QueryMetrics;
+import com.sims.offline.OfflineMode;
+
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.function.UnaryOperator;
 
 /**
  * Database connection manager using JDBC
- * Implements singleton pattern for connection pooling
+ * Hands out connections from a shared pool (-Dsims.db.poolSize, default 8; callers close them to
+ * return them) instrumented by QueryMetrics. Pool state is published as com.sims:type=ConnectionPool;
+ * slow statements are written to the SlowQueryLog. While working offline (see OfflineMode)
+ * getConnection() fails straight away with SQLState 08003.
  */
 public class DatabaseConnection {
-    private static final String URL = "jdbc:mysql://localhost:3306/student_management?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true";
+    private static final String URL = "jdbc:mysql://localhost:3306/student_management?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true" +
+            "&connectTimeout=" + Integer.getInteger("sims.db.connectTimeoutMs", 10_000);
     private static final String USERNAME = "root";
     private static final String PASSWORD = "";
-    private static Connection connection = null;
+    private static final int POOL_SIZE = Integer.getInteger("sims.db.poolSize", 8);
+    private static final long ACQUIRE_TIMEOUT_MS = Long.getLong("sims.db.acquireTimeoutMs", 30_000L);
+    private static final LatencyInjector LATENCY_INJECTOR = createLatencyInjector();
+    private static volatile ConnectionPool pool = null;
+    private static volatile UnaryOperator<Connection> connectionWrapper = null;
 
     /**
      * Get database connection
-     * @return Connection object
+     * @return Connection object; close it to return it to the pool
      * @throws SQLException if connection fails
      */
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            try {
-                Class.forName("com.mysql.cj.jdbc.Driver");
-                connection = DriverManager.getConnection(URL, USERNAME, PASSWORD);
-                System.out.println("Database connection established successfully!");
-            } catch (ClassNotFoundException e) {
-                throw new SQLException("MySQL JDBC Driver not found!", e);
-            } catch (SQLException e) {
-                throw new SQLException("Failed to connect to database: " + e.getMessage(), e);
+        OfflineMode.checkOnline();
+        Connection connection = QueryMetrics.instrument(getPool().getConnection());
+        UnaryOperator<Connection> wrapper = connectionWrapper;
+        return wrapper != null ? wrapper.apply(connection) : connection;
+    }
+
+    private static ConnectionPool getPool() {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DatabaseConnection.class) {
+                if (pool == null) {
+                    pool = new ConnectionPool(DatabaseConnection::openPooledConnection, POOL_SIZE, ACQUIRE_TIMEOUT_MS);
+                    QueryMetrics.registerMBean("com.sims:type=ConnectionPool", pool);
+                    SlowQueryLog.installIfEnabled();
+                }
+                current = pool;
             }
         }
-        return connection;
+        return current;
+    }
+
+    private static Connection openPooledConnection() throws SQLException {
+        Connection connection = openConnection(null);
+        return LATENCY_INJECTOR != null ? LATENCY_INJECTOR.wrap(connection) : connection;
+    }
+
+    /**
+     * Testing aid: -Dsims.db.faults slows down and fails pooled statements (see LatencyInjector)
+     */
+    private static LatencyInjector createLatencyInjector() {
+        String faults = System.getProperty("sims.db.faults");
+        if (faults == null || faults.trim().isEmpty()) {
+            return null;
+        }
+        LatencyInjector injector = LatencyInjector.parse(faults);
+        System.err.println("WARNING: injecting database faults: " + faults);
+        return injector;
     }
 
     /**
-     * Close database connection
+     * Open up to count pooled connections in parallel ahead of first use (startup warmup)
+     * @return the number of connections opened
+     * @throws SQLException if a connection cannot be opened
      */
-    public static void closeConnection() {
+    public static int prefillPool(int count) throws SQLException {
+        return getPool().prefill(count);
+    }
+
+    /**
+     * Get the fault injector selected by -Dsims.db.faults, or null when none is configured
+     */
+    public static LatencyInjector getLatencyInjector() {
+        return LATENCY_INJECTOR;
+    }
+
+    /**
+     * Get the pool statistics, or null before the first connection is requested
+     */
+    public static ConnectionPoolMBean getPoolStats() {
+        return pool;
+    }
+
+    /**
+     * Open a dedicated connection that is not shared with the DAOs; the caller closes it
+     * @param urlOptions extra JDBC URL parameters (e.g. "rewriteBatchedStatements=true"), or null
+     * @return Connection object
+     * @throws SQLException if connection fails
+     */
+    public static Connection openConnection(String urlOptions) throws SQLException {
+        loadDriver();
         try {
-            if (connection != null && !connection.isClosed()) {
-                connection.close();
-                System.out.println("Database connection closed.");
-            }
+            String url = urlOptions == null || urlOptions.isEmpty() ? URL : URL + "&" + urlOptions;
+            return DriverManager.getConnection(url, USERNAME, PASSWORD);
         } catch (SQLException e) {
-            System.err.println("Error closing database connection: " + e.getMessage());
+            throw new SQLException("Failed to connect to database: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Load and register the MySQL driver; cheap after the first call
+     * @throws SQLException if the driver is not on the classpath
+     */
+    public static void loadDriver() throws SQLException {
+        try {
+            Class.forName("com.mysql.cj.jdbc.Driver");
+        } catch (ClassNotFoundException e) {
+            throw new SQLException("MySQL JDBC Driver not found!", e);
+        }
+    }
+
+    /**
+     * Install a wrapper applied to every connection handed out (null to remove)
+     * Used by diagnostic tools to observe the statements issued by the DAOs.
+     */
+    public static void setConnectionWrapper(UnaryOperator<Connection> wrapper) {
+        connectionWrapper = wrapper;
+    }
+
+    /**
+     * Close all pooled database connections
+     */
+    public static void closeConnection() {
+        ConnectionPool current;
+        synchronized (DatabaseConnection.class) {
+            current = pool;
+            pool = null;
+        }
+        if (current != null) {
+            SlowQueryLog.shutdownIfStarted();
+            current.shutdown();
+            System.out.println("Database connections closed.");
         }
     }
 
@@ -53,8 +151,7 @@ public class DatabaseConnection {
      * @return true if connection successful
      */
     public static boolean testConnection() {
-        try {
-            Connection conn = getConnection();
+        try (Connection conn = getConnection()) {
             return conn != null && !conn.isClosed();
         } catch (SQLException e) {
             System.err.println("Connection test failed: " + e.getMessage());
@@ -0,0 +1,254 @@
+package com.sims.database;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JDBC wrapper that slows down and fails statements on purpose
+ * For checking how the UI and background paths cope with a slow or flaky database without
+ * needing one; never enable it in production. Selected with -Dsims.db.faults, for example
+ *   -Dsims.db.faults="select=80ms~40ms; write=200ms,fail=5%; batch=1s; commit=50ms"
+ *
+ * Each statement type takes a base latency, an optional ~jitter (uniform, plus or minus) and an
+ * optional failure rate. Types: select, write (INSERT/UPDATE/DELETE/REPLACE), batch
+ * (executeBatch), commit, connect (opening a pooled connection) and other. Failures are thrown
+ * before the statement reaches the server, as a communication error (SQLState 08S01).
+ */
+public class LatencyInjector {
+    /**
+     * Kinds of database work that can be slowed down separately
+     */
+    public enum StatementType {
+        SELECT, WRITE, BATCH, COMMIT, CONNECT, OTHER
+    }
+
+    private static class Profile {
+        private final long latencyNanos;
+        private final long jitterNanos;
+        private final double failureRate;
+
+        Profile(long latencyNanos, long jitterNanos, double failureRate) {
+            this.latencyNanos = latencyNanos;
+            this.jitterNanos = jitterNanos;
+            this.failureRate = failureRate;
+        }
+    }
+
+    private final String spec;
+    private final Map<StatementType, Profile> profiles = new EnumMap<>(StatementType.class);
+    private final AtomicLong delays = new AtomicLong();
+    private final AtomicLong delayNanos = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+
+    private LatencyInjector(String spec) {
+        this.spec = spec;
+    }
+
+    /**
+     * Parse a fault specification such as "select=80ms~40ms; write=200ms,fail=5%"
+     * @throws IllegalArgumentException if the specification is malformed
+     */
+    public static LatencyInjector parse(String spec) {
+        LatencyInjector injector = new LatencyInjector(spec.trim());
+        for (String entry : spec.split(";")) {
+            entry = entry.trim();
+            if (entry.isEmpty()) {
+                continue;
+            }
+            int equals = entry.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Expected type=latency in '" + entry + "'");
+            }
+            StatementType type;
+            try {
+                type = StatementType.valueOf(entry.substring(0, equals).trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown statement type in '" + entry + "'");
+            }
+
+            long latency = 0;
+            long jitter = 0;
+            double failureRate = 0;
+            for (String part : entry.substring(equals + 1).split(",")) {
+                part = part.trim();
+                if (part.startsWith("fail=")) {
+                    failureRate = parseRate(part.substring(5).trim());
+                } else if (!part.isEmpty()) {
+                    int tilde = part.indexOf('~');
+                    latency = parseDuration(tilde >= 0 ? part.substring(0, tilde) : part);
+                    jitter = tilde >= 0 ? parseDuration(part.substring(tilde + 1)) : 0;
+                }
+            }
+            injector.profiles.put(type, new Profile(latency, jitter, failureRate));
+        }
+        return injector;
+    }
+
+    private static long parseDuration(String text) {
+        String value = text.trim().toLowerCase(Locale.ROOT);
+        try {
+            if (value.endsWith("ms")) {
+                return TimeUnit.MICROSECONDS.toNanos(
+                        Math.round(Double.parseDouble(value.substring(0, value.length() - 2)) * 1000));
+            }
+            if (value.endsWith("s")) {
+                return TimeUnit.MILLISECONDS.toNanos(
+                        Math.round(Double.parseDouble(value.substring(0, value.length() - 1)) * 1000));
+            }
+            return TimeUnit.MILLISECONDS.toNanos(Long.parseLong(value));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad duration '" + text + "'");
+        }
+    }
+
+    private static double parseRate(String text) {
+        try {
+            double rate = text.endsWith("%")
+                    ? Double.parseDouble(text.substring(0, text.length() - 1)) / 100
+                    : Double.parseDouble(text);
+            if (rate < 0 || rate > 1) {
+                throw new IllegalArgumentException("Failure rate out of range '" + text + "'");
+            }
+            return rate;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad failure rate '" + text + "'");
+        }
+    }
+
+    /**
+     * Classify a statement by its first keyword
+     */
+    static StatementType typeOf(String sql) {
+        if (sql == null) {
+            return StatementType.OTHER;
+        }
+        String trimmed = sql.trim();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        switch (trimmed.substring(0, end).toUpperCase(Locale.ROOT)) {
+            case "SELECT":
+            case "WITH":
+                return StatementType.SELECT;
+            case "INSERT":
+            case "UPDATE":
+            case "DELETE":
+            case "REPLACE":
+                return StatementType.WRITE;
+            default:
+                return StatementType.OTHER;
+        }
+    }
+
+    /**
+     * Delay, and possibly fail, one unit of work of the given type
+     */
+    public void apply(StatementType type) throws SQLException {
+        Profile profile = profiles.get(type);
+        if (profile == null) {
+            return;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long nanos = profile.latencyNanos;
+        if (profile.jitterNanos > 0) {
+            nanos += random.nextLong(-profile.jitterNanos, profile.jitterNanos + 1);
+        }
+        if (nanos > 0) {
+            delays.incrementAndGet();
+            delayNanos.addAndGet(nanos);
+            try {
+                TimeUnit.NANOSECONDS.sleep(nanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted during injected latency", "08S01", e);
+            }
+        }
+        if (profile.failureRate > 0 && random.nextDouble() < profile.failureRate) {
+            failures.incrementAndGet();
+            throw new SQLException("Injected failure for " + type.name().toLowerCase(Locale.ROOT) + " statement",
+                    "08S01");
+        }
+    }
+
+    /**
+     * Wrap a freshly opened connection, applying the connect profile first
+     */
+    public Connection wrap(Connection connection) throws SQLException {
+        try {
+            apply(StatementType.CONNECT);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    String name = method.getName();
+                    if ("commit".equals(name)) {
+                        apply(StatementType.COMMIT);
+                    }
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement) {
+                        String sql = args != null && args.length > 0 && args[0] instanceof String
+                                ? (String) args[0] : null;
+                        return wrapStatement((Statement) result, sql);
+                    }
+                    return result;
+                });
+    }
+
+    private Statement wrapStatement(Statement statement, String preparedSql) {
+        Class<?> type = statement instanceof CallableStatement ? CallableStatement.class
+                : statement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+        return (Statement) Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if ("executeBatch".equals(name) || "executeLargeBatch".equals(name)) {
+                        apply(StatementType.BATCH);
+                    } else if (name.startsWith("execute")) {
+                        String sql = args != null && args.length > 0 && args[0] instanceof String
+                                ? (String) args[0] : preparedSql;
+                        apply(typeOf(sql));
+                    }
+                    return invoke(statement, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    public long getDelayCount() {
+        return delays.get();
+    }
+
+    public double getTotalDelayMillis() {
+        return delayNanos.get() / 1e6;
+    }
+
+    public long getFailureCount() {
+        return failures.get();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("LatencyInjector[%s] delays=%d (%.0f ms) failures=%d",
+                spec, getDelayCount(), getTotalDelayMillis(), getFailureCount());
+    }
+}
@@ -0,0 +1,360 @@
+package com.sims.database;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Versioned schema migration runner
+ * Applies classpath scripts named database/migrations/V<version>__<description>.sql in order
+ * and records each one in the schema_version table with a CRC32 checksum.
+ *
+ * A database created from schema.sql records the version it corresponds to; a database
+ * created before schema_version existed is baselined at version 1. ALTER TABLE statements
+ * written with ALGORITHM=INPLACE, LOCK=NONE run online, and fall back to a regular
+ * (copying) ALTER when the server cannot perform that change in place.
+ */
+public class MigrationRunner {
+    private static final String MIGRATIONS_PATH = "database/migrations";
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+    private static final Pattern ONLINE_CLAUSE =
+            Pattern.compile(",\\s*ALGORITHM\\s*=\\s*INPLACE\\s*,\\s*LOCK\\s*=\\s*NONE\\s*$", Pattern.CASE_INSENSITIVE);
+    private static final String LOCK_NAME = "sims_schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+    private static final int ER_ALTER_OPERATION_NOT_SUPPORTED = 1845;
+    private static final int ER_ALTER_OPERATION_NOT_SUPPORTED_REASON = 1846;
+
+    /**
+     * Migration script found on the classpath
+     */
+    public static class Migration {
+        private final int version;
+        private final String description;
+        private final String script;
+        private final String sql;
+        private final long checksum;
+
+        Migration(int version, String description, String script, String sql) {
+            this.version = version;
+            this.description = description;
+            this.script = script;
+            this.sql = sql;
+            CRC32 crc = new CRC32();
+            crc.update(sql.replace("\r\n", "\n").getBytes(StandardCharsets.UTF_8));
+            this.checksum = crc.getValue();
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public String getScript() {
+            return script;
+        }
+
+        public long getChecksum() {
+            return checksum;
+        }
+    }
+
+    /**
+     * Apply all pending migrations
+     * @return number of migrations applied
+     * @throws SQLException if a migration fails or an applied script was modified
+     */
+    public int migrate() throws SQLException {
+        List<Migration> migrations = loadMigrations();
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            acquireLock(conn);
+            try {
+                ensureVersionTable(conn);
+                Map<Integer, Long> applied = getAppliedVersions(conn);
+                validate(migrations, applied);
+
+                int count = 0;
+                for (Migration migration : migrations) {
+                    if (applied.containsKey(migration.getVersion())) {
+                        continue;
+                    }
+                    apply(conn, migration);
+                    count++;
+                }
+                System.out.println(count == 0 ? "Schema is up to date." : "Applied " + count + " migration(s).");
+                return count;
+            } finally {
+                releaseLock(conn);
+            }
+        }
+    }
+
+    /**
+     * Describe every known migration and whether it has been applied
+     */
+    public List<String> info() throws SQLException {
+        List<Migration> migrations = loadMigrations();
+        List<String> lines = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            Map<Integer, Long> applied = hasTable(conn, "schema_version")
+                    ? getAppliedVersions(conn) : Collections.<Integer, Long>emptyMap();
+            for (Migration migration : migrations) {
+                lines.add(String.format("V%-4d %-40s %s", migration.getVersion(), migration.getDescription(),
+                        applied.containsKey(migration.getVersion()) ? "APPLIED" : "PENDING"));
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Load migration scripts from the classpath, ordered by version
+     */
+    public List<Migration> loadMigrations() throws SQLException {
+        URL url = MigrationRunner.class.getClassLoader().getResource(MIGRATIONS_PATH);
+        if (url == null) {
+            return Collections.emptyList();
+        }
+
+        TreeMap<Integer, Migration> migrations = new TreeMap<>();
+        try {
+            URI uri = url.toURI();
+            if ("jar".equals(uri.getScheme())) {
+                FileSystem fileSystem;
+                try {
+                    fileSystem = FileSystems.getFileSystem(uri);
+                } catch (FileSystemNotFoundException e) {
+                    fileSystem = FileSystems.newFileSystem(uri, Collections.<String, Object>emptyMap());
+                }
+                collectMigrations(fileSystem.getPath(MIGRATIONS_PATH), migrations);
+            } else {
+                collectMigrations(Paths.get(uri), migrations);
+            }
+        } catch (IOException | URISyntaxException e) {
+            throw new SQLException("Unable to read migration scripts: " + e.getMessage(), e);
+        }
+        return new ArrayList<>(migrations.values());
+    }
+
+    private void collectMigrations(Path directory, TreeMap<Integer, Migration> migrations)
+            throws IOException, SQLException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "V*__*.sql")) {
+            for (Path path : stream) {
+                String fileName = path.getFileName().toString();
+                Matcher matcher = SCRIPT_NAME.matcher(fileName);
+                if (!matcher.matches()) {
+                    continue;
+                }
+                int version = Integer.parseInt(matcher.group(1));
+                if (migrations.containsKey(version)) {
+                    throw new SQLException("Duplicate migration version " + version + ": " + fileName);
+                }
+                String sql = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+                migrations.put(version, new Migration(version, matcher.group(2).replace('_', ' '), fileName, sql));
+            }
+        }
+    }
+
+    private void validate(List<Migration> migrations, Map<Integer, Long> applied) throws SQLException {
+        for (Migration migration : migrations) {
+            Long checksum = applied.get(migration.getVersion());
+            // Versions recorded by schema.sql or the baseline have no checksum
+            if (checksum != null && checksum != migration.getChecksum()) {
+                throw new SQLException("Checksum mismatch for applied migration " + migration.getScript() +
+                        "; applied scripts must not be edited");
+            }
+        }
+    }
+
+    private void apply(Connection conn, Migration migration) throws SQLException {
+        System.out.println("Applying migration " + migration.getScript() + "...");
+        long start = System.currentTimeMillis();
+
+        try (Statement stmt = conn.createStatement()) {
+            for (String statement : splitStatements(migration.sql)) {
+                executeDdl(stmt, statement);
+            }
+        } catch (SQLException e) {
+            throw new SQLException("Migration " + migration.getScript() + " failed: " + e.getMessage(), e);
+        }
+
+        String sql = "INSERT INTO schema_version (version, description, script, checksum, execution_ms) " +
+                     "VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, migration.getVersion());
+            pstmt.setString(2, migration.getDescription());
+            pstmt.setString(3, migration.getScript());
+            pstmt.setLong(4, migration.getChecksum());
+            pstmt.setLong(5, System.currentTimeMillis() - start);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Execute a statement, retrying online ALTERs without the online clause when the server refuses it
+     */
+    private void executeDdl(Statement stmt, String statement) throws SQLException {
+        try {
+            stmt.execute(statement);
+        } catch (SQLException e) {
+            Matcher matcher = ONLINE_CLAUSE.matcher(statement);
+            boolean notSupportedOnline = e.getErrorCode() == ER_ALTER_OPERATION_NOT_SUPPORTED
+                    || e.getErrorCode() == ER_ALTER_OPERATION_NOT_SUPPORTED_REASON;
+            if (!notSupportedOnline || !matcher.find()) {
+                throw e;
+            }
+            System.out.println("Online DDL not supported, falling back to a locking ALTER: " + e.getMessage());
+            stmt.execute(matcher.replaceFirst(""));
+        }
+    }
+
+    private void ensureVersionTable(Connection conn) throws SQLException {
+        if (hasTable(conn, "schema_version")) {
+            return;
+        }
+        boolean existingSchema = hasTable(conn, "students");
+
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                         "version INT PRIMARY KEY, " +
+                         "description VARCHAR(200) NOT NULL, " +
+                         "script VARCHAR(200) NOT NULL, " +
+                         "checksum BIGINT, " +
+                         "execution_ms BIGINT, " +
+                         "installed_on TIMESTAMP DEFAULT CURRENT_TIMESTAMP" +
+                         ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4");
+            if (existingSchema) {
+                // Created from schema.sql before versioning was introduced
+                stmt.execute("INSERT INTO schema_version (version, description, script) " +
+                             "VALUES (1, 'baseline schema', 'schema.sql')");
+            }
+        }
+    }
+
+    private Map<Integer, Long> getAppliedVersions(Connection conn) throws SQLException {
+        Map<Integer, Long> applied = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version, checksum FROM schema_version")) {
+            while (rs.next()) {
+                long checksum = rs.getLong("checksum");
+                applied.put(rs.getInt("version"), rs.wasNull() ? null : checksum);
+            }
+        }
+        return applied;
+    }
+
+    private boolean hasTable(Connection conn, String table) throws SQLException {
+        DatabaseMetaData metaData = conn.getMetaData();
+        try (ResultSet rs = metaData.getTables(conn.getCatalog(), null, table, new String[]{"TABLE"})) {
+            return rs.next();
+        }
+    }
+
+    private void acquireLock(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Another client is migrating the schema");
+                }
+            }
+        }
+    }
+
+    private void releaseLock(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            pstmt.setString(1, LOCK_NAME);
+            pstmt.executeQuery().close();
+        }
+    }
+
+    /**
+     * Split a script into statements on semicolons outside quotes, dropping -- comments
+     */
+    static List<String> splitStatements(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inQuote = false;
+
+        for (String line : script.split("\r?\n")) {
+            if (!inQuote && line.trim().startsWith("--")) {
+                continue;
+            }
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (c == '\'') {
+                    inQuote = !inQuote;
+                }
+                if (c == ';' && !inQuote) {
+                    addStatement(statements, current);
+                } else {
+                    current.append(c);
+                }
+            }
+            current.append('\n');
+        }
+        addStatement(statements, current);
+        return statements;
+    }
+
+    private static void addStatement(List<String> statements, StringBuilder current) {
+        String statement = current.toString().trim();
+        if (!statement.isEmpty()) {
+            statements.add(statement);
+        }
+        current.setLength(0);
+    }
+
+    /**
+     * Command line entry point: migrate (default) or info
+     */
+    public static void main(String[] args) {
+        String command = args.length > 0 ? args[0] : "migrate";
+        MigrationRunner runner = new MigrationRunner();
+        try {
+            if ("info".equals(command)) {
+                for (String line : runner.info()) {
+                    System.out.println(line);
+                }
+            } else if ("migrate".equals(command)) {
+                runner.migrate();
+            } else {
+                System.err.println("Usage: MigrationRunner [migrate|info]");
+                System.exit(2);
+            }
+        } catch (SQLException e) {
+            System.err.println("Migration failed: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            DatabaseConnection.closeConnection();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.sims.database;
+
+import java.time.LocalDateTime;
+
+/**
+ * One slow statement as written to the slow-query log (parameters already redacted)
+ */
+public class SlowQueryEntry {
+    private final LocalDateTime time;
+    private final double durationMillis;
+    private final long rows;
+    private final String caller;
+    private final String threadName;
+    private final String sql;
+    private final String parameters;
+    private final String plan;
+    private final String error;
+
+    public SlowQueryEntry(LocalDateTime time, double durationMillis, long rows, String caller, String threadName,
+                          String sql, String parameters, String plan, String error) {
+        this.time = time;
+        this.durationMillis = durationMillis;
+        this.rows = rows;
+        this.caller = caller;
+        this.threadName = threadName;
+        this.sql = sql;
+        this.parameters = parameters;
+        this.plan = plan;
+        this.error = error;
+    }
+
+    public LocalDateTime getTime() {
+        return time;
+    }
+
+    public double getDurationMillis() {
+        return durationMillis;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public String getCaller() {
+        return caller;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public String getParameters() {
+        return parameters;
+    }
+
+    /**
+     * EXPLAIN output, or null when plans are not captured
+     */
+    public String getPlan() {
+        return plan;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Multi-line form used in the log file and the viewer
+     */
+    public String format() {
+        StringBuilder text = new StringBuilder();
+        text.append(time).append(String.format(" %.1f ms rows=%d ", durationMillis, rows))
+            .append(caller).append(" [").append(threadName).append("]\n");
+        text.append("  SQL: ").append(sql).append('\n');
+        if (parameters != null && !parameters.isEmpty()) {
+            text.append("  Params: ").append(parameters).append('\n');
+        }
+        if (error != null) {
+            text.append("  Error: ").append(error).append('\n');
+        }
+        if (plan != null) {
+            for (String line : plan.split("\n")) {
+                text.append("  Plan: ").append(line).append('\n');
+            }
+        }
+        return text.toString();
+    }
+}
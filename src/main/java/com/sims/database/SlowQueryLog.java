@@ -0,0 +1,256 @@
+package com.sims.database;
+
+import com.sims.metrics.QueryMetrics;
+import com.sims.metrics.RotatingLogFile;
+import com.sims.metrics.SlowStatementListener;
+import com.sims.metrics.StatementSample;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.Temporal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Slow-query log
+ * Statements slower than -Dsims.slowQuery.thresholdMs (default 500, 0 disables) are written by a
+ * background thread to a rotating file (-Dsims.slowQuery.file, default logs/slow-query.log, rotated
+ * at -Dsims.slowQuery.maxFileKb, keeping -Dsims.slowQuery.files old files) and kept in memory for
+ * the dashboard viewer.
+ *
+ * Parameters (-Dsims.slowQuery.parameters): "redacted" (default) masks strings and dates and keeps
+ * numbers, "full" logs every value including passwords, "off" logs none. With
+ * -Dsims.slowQuery.explain=true the statement is re-explained on a dedicated connection with its
+ * real parameters; EXPLAIN does not execute writes.
+ */
+public class SlowQueryLog implements SlowStatementListener {
+    private static final long THRESHOLD_MS = Long.getLong("sims.slowQuery.thresholdMs", 500L);
+    private static final String FILE = System.getProperty("sims.slowQuery.file", "logs/slow-query.log");
+    private static final long MAX_FILE_BYTES = Long.getLong("sims.slowQuery.maxFileKb", 1024L) * 1024;
+    private static final int KEEP_FILES = Integer.getInteger("sims.slowQuery.files", 5);
+    private static final String PARAMETERS = System.getProperty("sims.slowQuery.parameters", "redacted");
+    private static final boolean EXPLAIN = Boolean.getBoolean("sims.slowQuery.explain");
+    private static final int RECENT_ENTRIES = 200;
+    private static final int QUEUE_SIZE = 1000;
+
+    private static SlowQueryLog instance;
+
+    private final ThreadPoolExecutor writer;
+    private final RotatingLogFile file;
+    private final Deque<SlowQueryEntry> recent = new ArrayDeque<>();
+    private final AtomicLong dropped = new AtomicLong();
+    private Connection explainConnection;
+
+    private SlowQueryLog() {
+        this.file = new RotatingLogFile(FILE, MAX_FILE_BYTES, KEEP_FILES);
+        this.writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_SIZE), r -> {
+                    Thread thread = new Thread(r, "slow-query-log");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Start logging slow statements unless disabled
+     */
+    public static synchronized void installIfEnabled() {
+        if (instance == null && THRESHOLD_MS > 0 && QueryMetrics.isEnabled()) {
+            instance = new SlowQueryLog();
+            QueryMetrics.setSlowStatementListener(THRESHOLD_MS, instance);
+        }
+    }
+
+    /**
+     * Stop logging, writing out what is queued; called when the pool is closed
+     */
+    public static synchronized void shutdownIfStarted() {
+        if (instance != null) {
+            QueryMetrics.setSlowStatementListener(0, null);
+            instance.writer.shutdown();
+            try {
+                instance.writer.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            instance.closeExplainConnection();
+            instance = null;
+        }
+    }
+
+    /**
+     * Most recent entries, newest first (empty when the log is disabled)
+     */
+    public static List<SlowQueryEntry> getRecentEntries() {
+        SlowQueryLog log = instance;
+        if (log == null) {
+            return new ArrayList<>();
+        }
+        synchronized (log.recent) {
+            return new ArrayList<>(log.recent);
+        }
+    }
+
+    public static void clearRecentEntries() {
+        SlowQueryLog log = instance;
+        if (log != null) {
+            synchronized (log.recent) {
+                log.recent.clear();
+            }
+        }
+    }
+
+    public static boolean isEnabled() {
+        return instance != null;
+    }
+
+    public static long getThresholdMillis() {
+        return THRESHOLD_MS;
+    }
+
+    /**
+     * Location of the current log file
+     */
+    public static String getFile() {
+        return FILE;
+    }
+
+    @Override
+    public void onSlowStatement(StatementSample sample) {
+        try {
+            writer.execute(() -> record(sample));
+        } catch (RejectedExecutionException e) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private void record(StatementSample sample) {
+        String sql = sample.getSql() != null ? sample.getSql().replaceAll("\\s+", " ").trim() : "(unknown)";
+        if (sample.getBatchSize() > 0) {
+            sql += " [batch of " + sample.getBatchSize() + ", parameters of last row]";
+        }
+        String plan = EXPLAIN && sample.getError() == null ? explain(sample) : null;
+        SlowQueryEntry entry = new SlowQueryEntry(
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(sample.getTimestamp()), ZoneId.systemDefault()),
+                sample.getDurationNanos() / 1e6, sample.getRows(), sample.getCaller(), sample.getThreadName(),
+                sql, formatParameters(sample.getParameters()), plan, sample.getError());
+
+        synchronized (recent) {
+            recent.addFirst(entry);
+            while (recent.size() > RECENT_ENTRIES) {
+                recent.removeLast();
+            }
+        }
+
+        String text = entry.format();
+        long lost = dropped.getAndSet(0);
+        if (lost > 0) {
+            text = "(" + lost + " slow queries dropped, log queue full)\n" + text;
+        }
+        try {
+            file.append(text);
+        } catch (IOException e) {
+            System.err.println("Could not write slow-query log " + FILE + ": " + e.getMessage());
+        }
+    }
+
+    private static String formatParameters(Object[] parameters) {
+        if ("off".equals(PARAMETERS) || parameters == null || parameters.length == 0) {
+            return null;
+        }
+        boolean full = "full".equals(PARAMETERS);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < parameters.length; i++) {
+            if (i > 0) {
+                text.append(", ");
+            }
+            text.append(i + 1).append('=').append(formatValue(parameters[i], full));
+        }
+        return text.toString();
+    }
+
+    private static String formatValue(Object value, boolean full) {
+        if (value == null) {
+            return "NULL";
+        }
+        if (value instanceof Number || value instanceof Boolean) {
+            return value.toString();
+        }
+        if (full) {
+            return "'" + value + "'";
+        }
+        if (value instanceof Date || value instanceof Temporal) {
+            return "<date>";
+        }
+        if (value instanceof CharSequence) {
+            return "<string(" + ((CharSequence) value).length() + ")>";
+        }
+        return "<" + value.getClass().getSimpleName() + ">";
+    }
+
+    /**
+     * Tabular EXPLAIN of the statement with its real parameters; runs on the log thread
+     */
+    private String explain(StatementSample sample) {
+        String sql = sample.getSql();
+        if (sql == null || !sql.trim().toUpperCase().matches("^(SELECT|INSERT|UPDATE|DELETE|REPLACE)\\b.*")) {
+            return null;
+        }
+        try {
+            if (explainConnection == null || explainConnection.isClosed()) {
+                explainConnection = DatabaseConnection.openConnection(null);
+            }
+            try (PreparedStatement pstmt = explainConnection.prepareStatement("EXPLAIN " + sql)) {
+                Object[] parameters = sample.getParameters();
+                for (int i = 0; i < parameters.length; i++) {
+                    pstmt.setObject(i + 1, parameters[i]);
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    ResultSetMetaData metaData = rs.getMetaData();
+                    StringBuilder plan = new StringBuilder();
+                    while (rs.next()) {
+                        if (plan.length() > 0) {
+                            plan.append('\n');
+                        }
+                        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                            Object value = rs.getObject(i);
+                            if (value != null) {
+                                plan.append(metaData.getColumnLabel(i)).append('=').append(value).append(' ');
+                            }
+                        }
+                    }
+                    return plan.toString().trim();
+                }
+            }
+        } catch (SQLException e) {
+            closeExplainConnection();
+            return "EXPLAIN failed: " + e.getMessage();
+        }
+    }
+
+    private void closeExplainConnection() {
+        if (explainConnection != null) {
+            try {
+                explainConnection.close();
+            } catch (SQLException e) {
+                System.err.println("Error closing EXPLAIN connection: " + e.getMessage());
+            }
+            explainConnection = null;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.sims.events;
+
+import com.sims.models.Attendance;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Published after one or more attendance marks are written
+ */
+public class AttendanceRecorded extends DomainEvent {
+    private final List<Attendance> attendanceList;
+
+    public AttendanceRecorded(List<Attendance> attendanceList) {
+        this.attendanceList = Collections.unmodifiableList(new ArrayList<>(attendanceList));
+    }
+
+    public List<Attendance> getAttendanceList() {
+        return attendanceList;
+    }
+
+    @Override
+    public String toString() {
+        return "AttendanceRecorded{count=" + attendanceList.size() + "}";
+    }
+}
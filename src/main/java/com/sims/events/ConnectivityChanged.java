@@ -0,0 +1,50 @@
+package com.sims.events;
+
+/**
+ * Published when the client starts working offline, and again when it is back online
+ * The online event reports what the replay of the offline journal did.
+ */
+public class ConnectivityChanged extends DomainEvent {
+    private final boolean offline;
+    private final int pendingWrites;
+    private final int replayedWrites;
+    private final int conflicts;
+
+    public ConnectivityChanged(boolean offline, int pendingWrites, int replayedWrites, int conflicts) {
+        this.offline = offline;
+        this.pendingWrites = pendingWrites;
+        this.replayedWrites = replayedWrites;
+        this.conflicts = conflicts;
+    }
+
+    public boolean isOffline() {
+        return offline;
+    }
+
+    /**
+     * Writes still waiting in the offline journal
+     */
+    public int getPendingWrites() {
+        return pendingWrites;
+    }
+
+    /**
+     * Journaled writes applied to the database by the replay
+     */
+    public int getReplayedWrites() {
+        return replayedWrites;
+    }
+
+    /**
+     * Journaled writes dropped by the replay because the database had changed underneath them
+     */
+    public int getConflicts() {
+        return conflicts;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectivityChanged{offline=" + offline + ", pending=" + pendingWrites +
+               ", replayed=" + replayedWrites + ", conflicts=" + conflicts + "}";
+    }
+}
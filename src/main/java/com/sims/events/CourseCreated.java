@@ -0,0 +1,13 @@
+package com.sims.events;
+
+import com.sims.models.Course;
+
+/**
+ * Published after a course is created
+ */
+public class CourseCreated extends EntityEvent<Course> {
+
+    public CourseCreated(Course entity) {
+        super(entity);
+    }
+}
@@ -0,0 +1,13 @@
+package com.sims.events;
+
+import com.sims.models.Course;
+
+/**
+ * Published after a course is updated
+ */
+public class CourseUpdated extends EntityEvent<Course> {
+
+    public CourseUpdated(Course entity) {
+        super(entity);
+    }
+}
@@ -0,0 +1,12 @@
+package com.sims.events;
+
+/**
+ * Base class of events published on the EventBus after a successful mutation
+ */
+public abstract class DomainEvent {
+    private final long timestamp = System.currentTimeMillis();
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+}
@@ -0,0 +1,21 @@
+package com.sims.events;
+
+/**
+ * Event carrying the entity affected by a mutation
+ */
+public abstract class EntityEvent<T> extends DomainEvent {
+    private final T entity;
+
+    protected EntityEvent(T entity) {
+        this.entity = entity;
+    }
+
+    public T getEntity() {
+        return entity;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{" + entity + "}";
+    }
+}
@@ -0,0 +1,155 @@
+package com.sims.events;
+
+import com.sims.metrics.Tracer;
+
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * In-process event bus for domain events published by the DAOs
+ * Subscriber lists are copy-on-write, so publishing never takes a lock. Subscribing to a
+ * superclass (e.g. DomainEvent) receives every subclass event. Each subscriber chooses how it
+ * is called: on the publishing thread, on a single background thread in publish order, or
+ * on the Swing event dispatch thread.
+ */
+public class EventBus {
+    private static final EventBus DEFAULT = new EventBus();
+    private static volatile EventBus current = DEFAULT;
+
+    /**
+     * How a subscriber is invoked
+     */
+    public enum Delivery {
+        SYNC, ASYNC, EDT
+    }
+
+    /**
+     * Handle returned by subscribe; call unsubscribe when the subscriber goes away
+     */
+    public interface Subscription {
+        void unsubscribe();
+    }
+
+    private static class Subscriber<T> {
+        private final Delivery delivery;
+        private final Consumer<? super T> handler;
+
+        Subscriber(Delivery delivery, Consumer<? super T> handler) {
+            this.delivery = delivery;
+            this.handler = handler;
+        }
+    }
+
+    private final ConcurrentHashMap<Class<?>, CopyOnWriteArrayList<Subscriber<?>>> subscribers =
+            new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Class<?>, List<Class<?>>> hierarchies = new ConcurrentHashMap<>();
+    private volatile ExecutorService asyncExecutor;
+
+    /**
+     * Shared application bus
+     */
+    public static EventBus getDefault() {
+        return current;
+    }
+
+    /**
+     * Replace the bus returned by getDefault (null to restore the shared bus)
+     * Only for standalone tools that drive the DAOs without touching data, to keep their events from
+     * subscribers; they put back the bus they replaced in a finally block.
+     */
+    public static void setDefault(EventBus bus) {
+        current = bus != null ? bus : DEFAULT;
+    }
+
+    /**
+     * Subscribe to events of the given type and its subclasses
+     */
+    public <T extends DomainEvent> Subscription subscribe(Class<T> eventType, Delivery delivery,
+                                                          Consumer<? super T> handler) {
+        Subscriber<T> subscriber = new Subscriber<>(delivery, handler);
+        CopyOnWriteArrayList<Subscriber<?>> list =
+                subscribers.computeIfAbsent(eventType, type -> new CopyOnWriteArrayList<>());
+        list.add(subscriber);
+        return () -> list.remove(subscriber);
+    }
+
+    /**
+     * Deliver an event to every matching subscriber
+     */
+    public void publish(DomainEvent event) {
+        for (Class<?> type : hierarchyOf(event.getClass())) {
+            List<Subscriber<?>> list = subscribers.get(type);
+            if (list == null) {
+                continue;
+            }
+            for (Subscriber<?> subscriber : list) {
+                dispatch(subscriber, event);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void dispatch(Subscriber<T> subscriber, DomainEvent event) {
+        Runnable call = () -> {
+            try {
+                subscriber.handler.accept((T) event);
+            } catch (RuntimeException e) {
+                System.err.println("Event subscriber failed for " + event + ": " + e.getMessage());
+            }
+        };
+
+        // Deferred subscribers stay part of the publishing action's trace
+        switch (subscriber.delivery) {
+            case ASYNC:
+                getAsyncExecutor().execute(Tracer.wrap(taskName(event), call));
+                break;
+            case EDT:
+                if (SwingUtilities.isEventDispatchThread()) {
+                    call.run();
+                } else {
+                    SwingUtilities.invokeLater(Tracer.wrap(taskName(event), call));
+                }
+                break;
+            default:
+                call.run();
+                break;
+        }
+    }
+
+    private static String taskName(DomainEvent event) {
+        return "event " + event.getClass().getSimpleName();
+    }
+
+    private List<Class<?>> hierarchyOf(Class<?> eventClass) {
+        return hierarchies.computeIfAbsent(eventClass, type -> {
+            List<Class<?>> types = new ArrayList<>();
+            for (Class<?> c = type; c != null && DomainEvent.class.isAssignableFrom(c); c = c.getSuperclass()) {
+                types.add(c);
+            }
+            return types;
+        });
+    }
+
+    private ExecutorService getAsyncExecutor() {
+        ExecutorService executor = asyncExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                if (asyncExecutor == null) {
+                    asyncExecutor = Executors.newSingleThreadExecutor(r -> {
+                        Thread thread = new Thread(r, "event-bus-async");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+                executor = asyncExecutor;
+            }
+        }
+        return executor;
+    }
+}
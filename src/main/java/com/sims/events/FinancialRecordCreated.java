@@ -0,0 +1,13 @@
+package com.sims.events;
+
+import com.sims.models.FinancialRecord;
+
+/**
+ * Published after a financial transaction is recorded
+ */
+public class FinancialRecordCreated extends EntityEvent<FinancialRecord> {
+
+    public FinancialRecordCreated(FinancialRecord entity) {
+        super(entity);
+    }
+}
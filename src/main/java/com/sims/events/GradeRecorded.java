@@ -0,0 +1,13 @@
+package com.sims.events;
+
+import com.sims.models.Grade;
+
+/**
+ * Published after a grade is recorded
+ */
+public class GradeRecorded extends EntityEvent<Grade> {
+
+    public GradeRecorded(Grade entity) {
+        super(entity);
+    }
+}
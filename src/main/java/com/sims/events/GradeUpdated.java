@@ -0,0 +1,13 @@
+package com.sims.events;
+
+import com.sims.models.Grade;
+
+/**
+ * Published after a grade is updated
+ */
+public class GradeUpdated extends EntityEvent<Grade> {
+
+    public GradeUpdated(Grade entity) {
+        super(entity);
+    }
+}
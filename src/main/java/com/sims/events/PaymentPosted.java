@@ -0,0 +1,50 @@
+package com.sims.events;
+
+import com.sims.models.FinancialRecord;
+
+import java.time.LocalDate;
+
+/**
+ * Published after a payment is recorded against a financial record
+ */
+public class PaymentPosted extends DomainEvent {
+    private final int financialId;
+    private final FinancialRecord.PaymentStatus status;
+    private final String paymentMethod;
+    private final LocalDate paymentDate;
+    private final String receiptNumber;
+
+    public PaymentPosted(int financialId, FinancialRecord.PaymentStatus status, String paymentMethod,
+                         LocalDate paymentDate, String receiptNumber) {
+        this.financialId = financialId;
+        this.status = status;
+        this.paymentMethod = paymentMethod;
+        this.paymentDate = paymentDate;
+        this.receiptNumber = receiptNumber;
+    }
+
+    public int getFinancialId() {
+        return financialId;
+    }
+
+    public FinancialRecord.PaymentStatus getStatus() {
+        return status;
+    }
+
+    public String getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public LocalDate getPaymentDate() {
+        return paymentDate;
+    }
+
+    public String getReceiptNumber() {
+        return receiptNumber;
+    }
+
+    @Override
+    public String toString() {
+        return "PaymentPosted{financialId=" + financialId + ", status=" + status + "}";
+    }
+}
@@ -0,0 +1,23 @@
+package com.sims.events;
+
+import com.sims.models.ChangeRecord;
+
+/**
+ * Published when the change log poller sees a mutation made by another client
+ */
+public class RemoteChange extends DomainEvent {
+    private final ChangeRecord change;
+
+    public RemoteChange(ChangeRecord change) {
+        this.change = change;
+    }
+
+    public ChangeRecord getChange() {
+        return change;
+    }
+
+    @Override
+    public String toString() {
+        return "RemoteChange{" + change + "}";
+    }
+}
@@ -0,0 +1,13 @@
+package com.sims.events;
+
+import com.sims.models.Student;
+
+/**
+ * Published after a student is created
+ */
+public class StudentCreated extends EntityEvent<Student> {
+
+    public StudentCreated(Student entity) {
+        super(entity);
+    }
+}
@@ -0,0 +1,21 @@
+package com.sims.events;
+
+/**
+ * Published after a student is deleted
+ */
+public class StudentDeleted extends DomainEvent {
+    private final int studentId;
+
+    public StudentDeleted(int studentId) {
+        this.studentId = studentId;
+    }
+
+    public int getStudentId() {
+        return studentId;
+    }
+
+    @Override
+    public String toString() {
+        return "StudentDeleted{studentId=" + studentId + "}";
+    }
+}
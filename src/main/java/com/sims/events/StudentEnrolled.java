@@ -0,0 +1,27 @@
+package com.sims.events;
+
+/**
+ * Published after a student is enrolled in a course
+ */
+public class StudentEnrolled extends DomainEvent {
+    private final int studentId;
+    private final int courseId;
+
+    public StudentEnrolled(int studentId, int courseId) {
+        this.studentId = studentId;
+        this.courseId = courseId;
+    }
+
+    public int getStudentId() {
+        return studentId;
+    }
+
+    public int getCourseId() {
+        return courseId;
+    }
+
+    @Override
+    public String toString() {
+        return "StudentEnrolled{studentId=" + studentId + ", courseId=" + courseId + "}";
+    }
+}
@@ -0,0 +1,13 @@
+package com.sims.events;
+
+import com.sims.models.Student;
+
+/**
+ * Published after a student is updated
+ */
+public class StudentUpdated extends EntityEvent<Student> {
+
+    public StudentUpdated(Student entity) {
+        super(entity);
+    }
+}
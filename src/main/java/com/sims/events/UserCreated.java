@@ -0,0 +1,13 @@
+package com.sims.events;
+
+import com.sims.models.User;
+
+/**
+ * Published after a user account is created
+ */
+public class UserCreated extends EntityEvent<User> {
+
+    public UserCreated(User entity) {
+        super(entity);
+    }
+}
@@ -0,0 +1,38 @@
+package com.sims.mapping;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Name to constant table for an enum, built once and shared by generated row mappers
+ * Behaves like Enum.valueOf but without the reflective lookup and exception setup per call.
+ */
+public final class EnumLookup<E extends Enum<E>> {
+    private final Class<E> type;
+    private final Map<String, E> byName = new HashMap<>();
+
+    private EnumLookup(Class<E> type) {
+        this.type = type;
+        for (E constant : type.getEnumConstants()) {
+            byName.put(constant.name(), constant);
+        }
+    }
+
+    public static <E extends Enum<E>> EnumLookup<E> of(Class<E> type) {
+        return new EnumLookup<>(type);
+    }
+
+    /**
+     * Get the constant with the given name, or null for a null column value
+     */
+    public E get(String name) {
+        if (name == null) {
+            return null;
+        }
+        E constant = byName.get(name);
+        if (constant == null) {
+            throw new IllegalArgumentException("No enum constant " + type.getCanonicalName() + "." + name);
+        }
+        return constant;
+    }
+}
@@ -0,0 +1,17 @@
+package com.sims.mapping;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a model class for which a RowMapper is generated at compile time
+ * The generated class is named {@code <Model>RowMapper} and placed in the model's package.
+ * Every field with a matching public setter is mapped from the column named after the field
+ * in snake_case (studentId -> student_id); columns missing from a result set are skipped.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface RowMapped {
+}
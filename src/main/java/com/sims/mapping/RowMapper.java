@@ -0,0 +1,13 @@
+package com.sims.mapping;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps the current row of a ResultSet to an object
+ * Generated implementations resolve column indexes once, when they are created for a result set,
+ * so create one mapper per ResultSet and reuse it for every row.
+ */
+public interface RowMapper<T> {
+    T map(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,327 @@
+package com.sims.mapping.processor;
+
+import com.sims.mapping.RowMapped;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates a {@code <Model>RowMapper} for every class annotated with {@link RowMapped}
+ * The generated mapper looks up column indexes once from the ResultSetMetaData, then reads each
+ * row by index: enums go through a shared EnumLookup table and dates are read with
+ * getObject(index, LocalDate.class), so no java.sql.Date is allocated per row.
+ */
+@SupportedAnnotationTypes("com.sims.mapping.RowMapped")
+public class RowMapperProcessor extends AbstractProcessor {
+
+    /**
+     * A mapped field: the column it comes from and how to read it
+     */
+    private static class MappedField {
+        private final String name;
+        private final String column;
+        private final String setter;
+        private final TypeMirror type;
+        private final ValueKind kind;
+
+        MappedField(String name, String setter, TypeMirror type, ValueKind kind) {
+            this.name = name;
+            this.column = toColumnName(name);
+            this.setter = setter;
+            this.type = type;
+            this.kind = kind;
+        }
+
+        String indexField() {
+            return name + "Column";
+        }
+
+        String lookupField() {
+            return column.toUpperCase() + "_LOOKUP";
+        }
+    }
+
+    private enum ValueKind {
+        PRIMITIVE, BOXED, REFERENCE, TEMPORAL, ENUM
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(RowMapped.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@RowMapped can only be applied to classes");
+                continue;
+            }
+            TypeElement model = (TypeElement) element;
+            List<MappedField> fields = collectFields(model);
+            if (fields != null) {
+                writeMapper(model, fields);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Collect the fields that have a public setter; returns null if any of them cannot be mapped
+     */
+    private List<MappedField> collectFields(TypeElement model) {
+        boolean hasDefaultConstructor = false;
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(model.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                hasDefaultConstructor = true;
+            }
+        }
+        if (!hasDefaultConstructor) {
+            error(model, "@RowMapped class needs a public no-argument constructor");
+            return null;
+        }
+
+        List<ExecutableElement> methods = ElementFilter.methodsIn(model.getEnclosedElements());
+        List<MappedField> fields = new ArrayList<>();
+        boolean valid = true;
+        for (VariableElement field : ElementFilter.fieldsIn(model.getEnclosedElements())) {
+            if (field.getModifiers().contains(Modifier.STATIC)) {
+                continue;
+            }
+            String name = field.getSimpleName().toString();
+            String setter = "set" + Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            if (!hasSetter(methods, setter, field.asType())) {
+                continue;
+            }
+            ValueKind kind = kindOf(field.asType());
+            if (kind == null) {
+                error(field, "Unsupported type for a mapped field: " + field.asType());
+                valid = false;
+                continue;
+            }
+            fields.add(new MappedField(name, setter, field.asType(), kind));
+        }
+        return valid ? fields : null;
+    }
+
+    private boolean hasSetter(List<ExecutableElement> methods, String setter, TypeMirror type) {
+        for (ExecutableElement method : methods) {
+            if (method.getSimpleName().contentEquals(setter)
+                    && method.getModifiers().contains(Modifier.PUBLIC)
+                    && method.getParameters().size() == 1
+                    && processingEnv.getTypeUtils().isSameType(method.getParameters().get(0).asType(), type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ValueKind kindOf(TypeMirror type) {
+        switch (type.getKind()) {
+            case INT:
+            case LONG:
+            case DOUBLE:
+            case BOOLEAN:
+                return ValueKind.PRIMITIVE;
+            case DECLARED:
+                break;
+            default:
+                return null;
+        }
+        Element element = ((DeclaredType) type).asElement();
+        if (element.getKind() == ElementKind.ENUM) {
+            return ValueKind.ENUM;
+        }
+        switch (type.toString()) {
+            case "java.lang.Integer":
+            case "java.lang.Long":
+            case "java.lang.Double":
+            case "java.lang.Boolean":
+                return ValueKind.BOXED;
+            case "java.lang.String":
+            case "java.math.BigDecimal":
+                return ValueKind.REFERENCE;
+            case "java.time.LocalDate":
+            case "java.time.LocalDateTime":
+            case "java.time.LocalTime":
+                return ValueKind.TEMPORAL;
+            default:
+                return null;
+        }
+    }
+
+    private void writeMapper(TypeElement model, List<MappedField> fields) {
+        String packageName = processingEnv.getElementUtils().getPackageOf(model).getQualifiedName().toString();
+        String modelName = model.getSimpleName().toString();
+        String mapperName = modelName + "RowMapper";
+
+        StringBuilder src = new StringBuilder();
+        src.append("package ").append(packageName).append(";\n\n");
+        src.append("import com.sims.mapping.EnumLookup;\n");
+        src.append("import com.sims.mapping.RowMapper;\n\n");
+        src.append("import java.sql.ResultSet;\n");
+        src.append("import java.sql.ResultSetMetaData;\n");
+        src.append("import java.sql.SQLException;\n");
+        src.append("import java.util.Locale;\n\n");
+        src.append("/**\n");
+        src.append(" * Row mapper for ").append(modelName).append(", generated by RowMapperProcessor (do not edit)\n");
+        src.append(" */\n");
+        src.append("public final class ").append(mapperName).append(" implements RowMapper<")
+           .append(modelName).append("> {\n");
+
+        for (MappedField field : fields) {
+            if (field.kind == ValueKind.ENUM) {
+                src.append("    private static final EnumLookup<").append(field.type).append("> ")
+                   .append(field.lookupField()).append(" =\n            EnumLookup.of(")
+                   .append(field.type).append(".class);\n");
+            }
+        }
+        for (MappedField field : fields) {
+            src.append("    private final int ").append(field.indexField()).append(";\n");
+        }
+
+        // Constructor: resolve column indexes from the result set metadata
+        src.append("\n    /**\n     * Resolve column indexes for this result set (first column with a matching label wins)\n     */\n");
+        src.append("    public ").append(mapperName).append("(ResultSet rs) throws SQLException {\n");
+        for (MappedField field : fields) {
+            src.append("        int ").append(field.name).append(" = 0;\n");
+        }
+        src.append("        ResultSetMetaData metaData = rs.getMetaData();\n");
+        src.append("        for (int i = 1; i <= metaData.getColumnCount(); i++) {\n");
+        src.append("            switch (metaData.getColumnLabel(i).toLowerCase(Locale.ROOT)) {\n");
+        for (MappedField field : fields) {
+            src.append("                case \"").append(field.column).append("\":\n");
+            src.append("                    if (").append(field.name).append(" == 0) {\n");
+            src.append("                        ").append(field.name).append(" = i;\n");
+            src.append("                    }\n");
+            src.append("                    break;\n");
+        }
+        src.append("                default:\n");
+        src.append("                    break;\n");
+        src.append("            }\n");
+        src.append("        }\n");
+        for (MappedField field : fields) {
+            src.append("        this.").append(field.indexField()).append(" = ").append(field.name).append(";\n");
+        }
+        src.append("    }\n\n");
+
+        // map(): read each present column by index
+        src.append("    @Override\n");
+        src.append("    public ").append(modelName).append(" map(ResultSet rs) throws SQLException {\n");
+        src.append("        ").append(modelName).append(" entity = new ").append(modelName).append("();\n");
+        for (MappedField field : fields) {
+            src.append("        if (").append(field.indexField()).append(" > 0) {\n");
+            appendRead(src, field);
+            src.append("        }\n");
+        }
+        src.append("        return entity;\n");
+        src.append("    }\n");
+        src.append("}\n");
+
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(packageName + "." + mapperName, model);
+            try (Writer writer = file.openWriter()) {
+                writer.write(src.toString());
+            }
+        } catch (IOException e) {
+            error(model, "Could not write " + mapperName + ": " + e.getMessage());
+        }
+    }
+
+    private void appendRead(StringBuilder src, MappedField field) {
+        String index = field.indexField();
+        String set = "entity." + field.setter;
+        switch (field.kind) {
+            case PRIMITIVE:
+                src.append("            ").append(set).append("(rs.").append(getter(field.type.getKind()))
+                   .append("(").append(index).append("));\n");
+                break;
+            case BOXED: {
+                TypeKind primitive = processingEnv.getTypeUtils().unboxedType(field.type).getKind();
+                src.append("            ").append(primitive.name().toLowerCase()).append(" value = rs.")
+                   .append(getter(primitive)).append("(").append(index).append(");\n");
+                src.append("            if (!rs.wasNull()) {\n");
+                src.append("                ").append(set).append("(value);\n");
+                src.append("            }\n");
+                break;
+            }
+            case REFERENCE:
+                src.append("            ").append(field.type).append(" value = rs.")
+                   .append(field.type.toString().equals("java.lang.String") ? "getString" : "getBigDecimal")
+                   .append("(").append(index).append(");\n");
+                appendSetIfNotNull(src, set);
+                break;
+            case TEMPORAL:
+                src.append("            ").append(field.type).append(" value = rs.getObject(").append(index)
+                   .append(", ").append(field.type).append(".class);\n");
+                appendSetIfNotNull(src, set);
+                break;
+            case ENUM:
+                src.append("            ").append(field.type).append(" value = ").append(field.lookupField())
+                   .append(".get(rs.getString(").append(index).append("));\n");
+                appendSetIfNotNull(src, set);
+                break;
+            default:
+                throw new IllegalStateException(field.kind.name());
+        }
+    }
+
+    private static void appendSetIfNotNull(StringBuilder src, String set) {
+        src.append("            if (value != null) {\n");
+        src.append("                ").append(set).append("(value);\n");
+        src.append("            }\n");
+    }
+
+    private static String getter(TypeKind kind) {
+        switch (kind) {
+            case INT:
+                return "getInt";
+            case LONG:
+                return "getLong";
+            case DOUBLE:
+                return "getDouble";
+            case BOOLEAN:
+                return "getBoolean";
+            default:
+                throw new IllegalArgumentException(kind.name());
+        }
+    }
+
+    /**
+     * studentId -> student_id
+     */
+    static String toColumnName(String fieldName) {
+        StringBuilder column = new StringBuilder();
+        for (char c : fieldName.toCharArray()) {
+            if (Character.isUpperCase(c)) {
+                column.append('_').append(Character.toLowerCase(c));
+            } else {
+                column.append(c);
+            }
+        }
+        return column.toString();
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,37 @@
+package com.sims.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one JDBC statement issued by a DAO method
+ * Spans the execution; for queries it is committed once the result set is closed, with the rows read.
+ */
+@Name("com.sims.DaoStatement")
+@Label("DAO Statement")
+@Category({"SIMS", "Database"})
+@Description("JDBC statement executed on behalf of a DAO method")
+@StackTrace(false)
+class DaoStatementEvent extends jdk.jfr.Event {
+    @Label("DAO Class")
+    String daoClass;
+
+    @Label("DAO Method")
+    String daoMethod;
+
+    @Label("SQL")
+    String sql;
+
+    @Label("Rows")
+    @Description("Rows read from the result set, or rows affected by an update or batch")
+    long rows;
+
+    @Label("Batch Size")
+    int batchSize;
+
+    @Label("Failed")
+    boolean failed;
+}
@@ -0,0 +1,137 @@
+package com.sims.metrics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.text.ParseException;
+
+/**
+ * Java Flight Recorder events for DAO statements and UI actions
+ * Events cost next to nothing unless a recording is running. On runtimes without jdk.jfr
+ * (Java 8 before 8u262) everything here is a no-op; callers hold events as plain Objects so the
+ * event classes are never loaded there. Disable with -Dsims.jfr.enabled=false.
+ *
+ * -Dsims.jfr.recording=&lt;file.jfr&gt; starts a recording with the bundled profile (jfr/sims.jfc)
+ * at launch and writes it when the application exits.
+ */
+public final class FlightEvents {
+    private static final String PROFILE = "/jfr/sims.jfc";
+    private static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("sims.jfr.enabled", "true")) && jfrAvailable();
+
+    private FlightEvents() {}
+
+    private static boolean jfrAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Start a DAO statement event, or null when no recording wants it
+     */
+    static Object beginStatement() {
+        if (!ENABLED) {
+            return null;
+        }
+        DaoStatementEvent event = new DaoStatementEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Mark the end of the execution; the event is committed by commitStatement, for queries once
+     * the rows have been read
+     */
+    static void endStatement(Object event) {
+        if (event != null) {
+            ((DaoStatementEvent) event).end();
+        }
+    }
+
+    static void commitStatement(Object event, String caller, String sql, long rows, int batchSize, boolean failed) {
+        if (event == null) {
+            return;
+        }
+        DaoStatementEvent statement = (DaoStatementEvent) event;
+        if (statement.shouldCommit()) {
+            int dot = caller.indexOf('.');
+            statement.daoClass = dot > 0 ? caller.substring(0, dot) : caller;
+            statement.daoMethod = dot > 0 ? caller.substring(dot + 1) : "";
+            statement.sql = sql;
+            statement.rows = rows;
+            statement.batchSize = batchSize;
+            statement.failed = failed;
+            statement.commit();
+        }
+    }
+
+    /**
+     * Start a UI action event, or null when no recording wants it
+     */
+    public static Object beginUiAction() {
+        if (!ENABLED) {
+            return null;
+        }
+        UiActionEvent event = new UiActionEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    public static void commitUiAction(Object event, String panel, String action, String component) {
+        if (event == null) {
+            return;
+        }
+        UiActionEvent uiAction = (UiActionEvent) event;
+        uiAction.end();
+        if (uiAction.shouldCommit()) {
+            uiAction.panel = panel;
+            uiAction.action = action;
+            uiAction.component = component;
+            uiAction.commit();
+        }
+    }
+
+    /**
+     * Start a recording with the bundled profile when -Dsims.jfr.recording is set
+     */
+    public static void startRecordingIfRequested() {
+        String destination = System.getProperty("sims.jfr.recording");
+        if (destination == null || destination.isEmpty() || !ENABLED) {
+            return;
+        }
+        try (InputStream in = FlightEvents.class.getResourceAsStream(PROFILE)) {
+            if (in == null) {
+                System.err.println("Flight recorder profile " + PROFILE + " not found");
+                return;
+            }
+            Configuration configuration = Configuration.create(new InputStreamReader(in, StandardCharsets.UTF_8));
+            Recording recording = new Recording(configuration);
+            recording.setName("SIMS");
+            recording.setToDisk(true);
+            recording.setDestination(Paths.get(destination));
+            recording.start();
+            System.out.println("Flight recording started; written to " + destination + " at exit");
+        } catch (IOException | ParseException | RuntimeException e) {
+            System.err.println("Could not start flight recording: " + e.getMessage());
+        }
+    }
+}
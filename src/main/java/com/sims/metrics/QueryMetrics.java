@@ -0,0 +1,392 @@
+package com.sims.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-query JDBC instrumentation
+ * Connections from DatabaseConnection are wrapped so every statement execution is timed and
+ * counted under the DAO class and method that prepared it (e.g. StudentDAO.getStudentById).
+ * Rows are counted as result sets are read, or from update counts. Each key is published as
+ * an MBean under com.sims:type=Query.
+ *
+ * The caller is resolved once per prepared statement from the stack, not per execution.
+ * Statements over a threshold can be handed to a SlowStatementListener with their SQL and
+ * bound parameters. Every statement is also a DAO Statement event in flight recordings
+ * (see FlightEvents) and a child span of the user action being traced, if any (see Tracer).
+ * Disable with -Dsims.metrics.enabled=false.
+ */
+public class QueryMetrics {
+    private static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("sims.metrics.enabled", "true"));
+    private static final String DAO_PACKAGE = "com.sims.dao.";
+    private static final String APP_PACKAGE = "com.sims.";
+    private static final String METRICS_PACKAGE = "com.sims.metrics.";
+
+    private static final ConcurrentHashMap<String, QueryStats> STATS = new ConcurrentHashMap<>();
+
+    private static volatile SlowStatementListener slowListener;
+    private static volatile long slowThresholdNanos = Long.MAX_VALUE;
+
+    private QueryMetrics() {}
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Report statements slower than the threshold to a listener (null to stop)
+     * Bound parameters are only captured while a listener is installed.
+     */
+    public static void setSlowStatementListener(long thresholdMillis, SlowStatementListener listener) {
+        slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        slowListener = listener;
+    }
+
+    /**
+     * Wrap a connection so the statements it creates are measured
+     */
+    public static Connection instrument(Connection connection) {
+        if (!ENABLED) {
+            return connection;
+        }
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof Statement) {
+                        Class<?> type = result instanceof CallableStatement ? CallableStatement.class
+                                : result instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                        String sql = type == Statement.class ? null : (String) args[0];
+                        StatementState state = new StatementState(statsFor(callerKey()), sql);
+                        return instrumentStatement((Statement) result, type, state);
+                    }
+                    return result;
+                });
+    }
+
+    /**
+     * Per-statement bookkeeping: SQL, bound parameters and a slow query waiting for its row count
+     */
+    private static class StatementState {
+        private final QueryStats stats;
+        private final String sql;
+        private Object[] parameters = new Object[0];
+        private int boundCount;
+        private int batchRows;
+        private PendingResult pending;
+
+        StatementState(QueryStats stats, String sql) {
+            this.stats = stats;
+            this.sql = sql;
+        }
+
+        void bind(int index, Object value) {
+            if (index < 1) {
+                return;
+            }
+            if (index > parameters.length) {
+                parameters = Arrays.copyOf(parameters, Math.max(index, parameters.length * 2));
+            }
+            parameters[index - 1] = value;
+            boundCount = Math.max(boundCount, index);
+        }
+
+        void clear() {
+            parameters = new Object[0];
+            boundCount = 0;
+        }
+
+        Object[] parameterSnapshot() {
+            return Arrays.copyOf(parameters, boundCount);
+        }
+    }
+
+    /**
+     * Query whose rows are still being read: a slow sample and/or a flight recorder event
+     */
+    private static class PendingResult {
+        private final long timestamp;
+        private final String sql;
+        private final Object[] parameters;
+        private final long durationNanos;
+        private final String threadName;
+        private final boolean slow;
+        private final Object event;
+        private final Span span;
+        private long rows;
+
+        PendingResult(long timestamp, String sql, Object[] parameters, long durationNanos, boolean slow,
+                      Object event, Span span) {
+            this.timestamp = timestamp;
+            this.sql = sql;
+            this.parameters = parameters;
+            this.durationNanos = durationNanos;
+            this.threadName = Thread.currentThread().getName();
+            this.slow = slow;
+            this.event = event;
+            this.span = span;
+        }
+    }
+
+    private static Object instrumentStatement(Statement statement, Class<?> type, StatementState state) {
+        return Proxy.newProxyInstance(Statement.class.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if (!name.startsWith("execute")) {
+                        if (slowListener != null) {
+                            captureParameters(state, name, args);
+                        }
+                        if ("close".equals(name)) {
+                            flushPending(state);
+                        }
+                        return invoke(statement, method, args);
+                    }
+
+                    String sql = args != null && args.length > 0 && args[0] instanceof String
+                            ? (String) args[0] : state.sql;
+                    int batchRows = state.batchRows;
+                    state.batchRows = 0;
+                    Object event = FlightEvents.beginStatement();
+                    Span span = Tracer.startStatement(state.stats.getKey());
+                    long timestamp = System.currentTimeMillis();
+                    long start = System.nanoTime();
+                    Object result;
+                    try {
+                        result = invoke(statement, method, args);
+                    } catch (SQLException e) {
+                        FlightEvents.endStatement(event);
+                        state.stats.recordError();
+                        FlightEvents.commitStatement(event, state.stats.getKey(), sql, 0, batchRows, true);
+                        if (span != null) {
+                            span.setError(e.getMessage());
+                            endSpan(span, state, sql, 0, batchRows);
+                        }
+                        reportIfSlow(state, timestamp, sql, batchRows, System.nanoTime() - start, 0, e.getMessage());
+                        throw e;
+                    }
+                    long elapsed = System.nanoTime() - start;
+                    FlightEvents.endStatement(event);
+
+                    if (result instanceof ResultSet) {
+                        state.stats.recordExecution(elapsed, 0);
+                        flushPending(state);
+                        boolean slow = slowListener != null && elapsed >= slowThresholdNanos;
+                        if (slow || event != null || span != null) {
+                            state.pending = new PendingResult(timestamp, sql,
+                                    slow ? state.parameterSnapshot() : null, elapsed, slow, event, span);
+                        }
+                        return countRows((ResultSet) result, state);
+                    }
+                    long rows = rowCount(result, statement);
+                    state.stats.recordExecution(elapsed, rows);
+                    FlightEvents.commitStatement(event, state.stats.getKey(), sql, rows, batchRows, false);
+                    if (span != null) {
+                        endSpan(span, state, sql, rows, batchRows);
+                    }
+                    reportIfSlow(state, timestamp, sql, batchRows, elapsed, rows, null);
+                    return result;
+                });
+    }
+
+    private static void captureParameters(StatementState state, String name, Object[] args) {
+        if ("addBatch".equals(name) && (args == null || args.length == 0)) {
+            state.batchRows++;
+        } else if ("clearParameters".equals(name)) {
+            state.clear();
+        } else if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+            state.bind((Integer) args[0], "setNull".equals(name) ? null : args[1]);
+        }
+    }
+
+    private static void reportIfSlow(StatementState state, long timestamp, String sql, int batchRows,
+                                     long elapsed, long rows, String error) {
+        SlowStatementListener listener = slowListener;
+        if (listener != null && elapsed >= slowThresholdNanos) {
+            listener.onSlowStatement(new StatementSample(timestamp, state.stats.getKey(), sql,
+                    state.parameterSnapshot(), batchRows, elapsed, rows, Thread.currentThread().getName(), error));
+        }
+    }
+
+    /**
+     * Report a query once its result set is closed (or its statement, if the result set was not)
+     */
+    private static void flushPending(StatementState state) {
+        PendingResult pending = state.pending;
+        if (pending == null) {
+            return;
+        }
+        state.pending = null;
+        FlightEvents.commitStatement(pending.event, state.stats.getKey(), pending.sql, pending.rows, 0, false);
+        if (pending.span != null) {
+            endSpan(pending.span, state, pending.sql, pending.rows, 0);
+        }
+        SlowStatementListener listener = slowListener;
+        if (pending.slow && listener != null) {
+            listener.onSlowStatement(new StatementSample(pending.timestamp, state.stats.getKey(), pending.sql,
+                    pending.parameters, 0, pending.durationNanos, pending.rows, pending.threadName, null));
+        }
+    }
+
+    /**
+     * Finish a trace span for a statement; queries end once their rows have been read
+     */
+    private static void endSpan(Span span, StatementState state, String sql, long rows, int batchRows) {
+        String key = state.stats.getKey();
+        int dot = key.indexOf('.');
+        span.setAttribute("db.system", "mysql")
+            .setAttribute("db.statement", sql)
+            .setAttribute("code.namespace", dot > 0 ? key.substring(0, dot) : key)
+            .setAttribute("code.function", dot > 0 ? key.substring(dot + 1) : null)
+            .setAttribute("sims.rows", rows);
+        if (batchRows > 0) {
+            span.setAttribute("sims.batch_size", batchRows);
+        }
+        span.end();
+    }
+
+    private static ResultSet countRows(ResultSet resultSet, StatementState state) {
+        PendingResult pending = state.pending;
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[] {ResultSet.class}, (proxy, method, args) -> {
+                    Object result = invoke(resultSet, method, args);
+                    String name = method.getName();
+                    if (Boolean.TRUE.equals(result) && "next".equals(name)) {
+                        state.stats.recordRows(1);
+                        if (pending != null) {
+                            pending.rows++;
+                        }
+                    } else if ("close".equals(name) && pending != null && state.pending == pending) {
+                        flushPending(state);
+                    }
+                    return result;
+                });
+    }
+
+    private static long rowCount(Object result, Statement statement) throws SQLException {
+        if (result instanceof Integer || result instanceof Long) {
+            return ((Number) result).longValue();
+        }
+        if (result instanceof int[]) {
+            long rows = 0;
+            for (int count : (int[]) result) {
+                rows += Math.max(count, 0);
+            }
+            return rows;
+        }
+        if (result instanceof long[]) {
+            long rows = 0;
+            for (long count : (long[]) result) {
+                rows += Math.max(count, 0);
+            }
+            return rows;
+        }
+        if (Boolean.FALSE.equals(result)) {
+            return Math.max(statement.getUpdateCount(), 0);
+        }
+        return 0;
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * DAO class and method on the stack, else the first application frame outside the JDBC layer
+     */
+    static String callerKey() {
+        StackTraceElement fallback = null;
+        for (StackTraceElement frame : new Throwable().getStackTrace()) {
+            String className = frame.getClassName();
+            if (className.startsWith(DAO_PACKAGE)) {
+                return keyOf(frame);
+            }
+            if (fallback == null && className.startsWith(APP_PACKAGE)
+                    && !className.startsWith(METRICS_PACKAGE)
+                    && !className.startsWith("com.sims.database.ConnectionPool")
+                    && !className.startsWith("com.sims.database.DatabaseConnection")) {
+                fallback = frame;
+            }
+        }
+        return fallback != null ? keyOf(fallback) : "other";
+    }
+
+    private static String keyOf(StackTraceElement frame) {
+        String className = frame.getClassName();
+        String simpleName = className.substring(className.lastIndexOf('.') + 1);
+        int nested = simpleName.indexOf('$');
+        if (nested >= 0) {
+            simpleName = simpleName.substring(0, nested);
+        }
+        // lambda$getStudentById$0 -> getStudentById
+        String method = frame.getMethodName();
+        if (method.startsWith("lambda$")) {
+            int end = method.indexOf('$', 7);
+            method = method.substring(7, end > 7 ? end : method.length());
+        }
+        return simpleName + "." + method;
+    }
+
+    private static QueryStats statsFor(String key) {
+        QueryStats stats = STATS.get(key);
+        if (stats == null) {
+            QueryStats created = new QueryStats(key);
+            stats = STATS.putIfAbsent(key, created);
+            if (stats == null) {
+                stats = created;
+                registerMBean("com.sims:type=Query,name=" + ObjectName.quote(key), created);
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Statistics of every DAO method seen so far, busiest (by total time) first
+     */
+    public static List<QueryStats> getAllStats() {
+        List<QueryStats> stats = new ArrayList<>(STATS.values());
+        stats.sort((a, b) -> Double.compare(b.getTotalMillis(), a.getTotalMillis()));
+        return stats;
+    }
+
+    public static void resetAll() {
+        for (QueryStats stats : STATS.values()) {
+            stats.reset();
+        }
+    }
+
+    /**
+     * Register an MBean with the platform server; failures are reported and ignored
+     */
+    public static void registerMBean(String objectName, Object mbean) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(objectName);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(mbean, name);
+        } catch (JMException e) {
+            System.err.println("Could not register MBean " + objectName + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.sims.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency, row and error counts of the statements issued by one DAO method
+ */
+public class QueryStats implements QueryStatsMBean {
+    private final String key;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    QueryStats(String key) {
+        this.key = key;
+    }
+
+    /**
+     * DAO class and method, e.g. StudentDAO.getStudentById
+     */
+    public String getKey() {
+        return key;
+    }
+
+    void recordExecution(long nanos, long rowCount) {
+        latency.record(nanos);
+        if (rowCount > 0) {
+            rows.addAndGet(rowCount);
+        }
+    }
+
+    void recordRows(long rowCount) {
+        rows.addAndGet(rowCount);
+    }
+
+    void recordError() {
+        errors.incrementAndGet();
+    }
+
+    @Override
+    public long getExecutions() {
+        return latency.getCount();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.get();
+    }
+
+    @Override
+    public long getRows() {
+        return rows.get();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return latency.getMeanNanos() / 1e6;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return latency.getValueAtPercentile(50) / 1e6;
+    }
+
+    @Override
+    public double getP90Millis() {
+        return latency.getValueAtPercentile(90) / 1e6;
+    }
+
+    @Override
+    public double getP99Millis() {
+        return latency.getValueAtPercentile(99) / 1e6;
+    }
+
+    @Override
+    public double getP999Millis() {
+        return latency.getValueAtPercentile(99.9) / 1e6;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return latency.getMaxNanos() / 1e6;
+    }
+
+    /**
+     * Total time spent in this method's statements
+     */
+    public double getTotalMillis() {
+        return getMeanMillis() * getExecutions();
+    }
+
+    @Override
+    public void reset() {
+        latency.reset();
+        rows.set(0L);
+        errors.set(0L);
+    }
+}
@@ -0,0 +1,26 @@
+package com.sims.metrics;
+
+/**
+ * JMX view of the statements issued by one DAO method (com.sims:type=Query,name=...)
+ */
+public interface QueryStatsMBean {
+    long getExecutions();
+
+    long getErrors();
+
+    long getRows();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP90Millis();
+
+    double getP99Millis();
+
+    double getP999Millis();
+
+    double getMaxMillis();
+
+    void reset();
+}
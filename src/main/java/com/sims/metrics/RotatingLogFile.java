@@ -0,0 +1,65 @@
+package com.sims.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Append-only text file rotated by size
+ * log -> log.1 -> ... -> log.N, dropping the oldest. Not thread-safe; each log has a single writer thread.
+ */
+public class RotatingLogFile {
+    private final Path file;
+    private final long maxBytes;
+    private final int keepFiles;
+
+    public RotatingLogFile(String file, long maxBytes, int keepFiles) {
+        this.file = Paths.get(file);
+        this.maxBytes = maxBytes;
+        this.keepFiles = keepFiles;
+    }
+
+    public Path getPath() {
+        return file;
+    }
+
+    /**
+     * Append text, rotating first if it would take the file past its size limit
+     */
+    public void append(String text) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        if (Files.exists(file) && Files.size(file) + text.length() > maxBytes) {
+            rotate();
+        }
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            out.write(text);
+        }
+    }
+
+    private void rotate() throws IOException {
+        if (keepFiles <= 0) {
+            Files.deleteIfExists(file);
+            return;
+        }
+        Files.deleteIfExists(numbered(keepFiles));
+        for (int i = keepFiles - 1; i >= 0; i--) {
+            Path newer = i == 0 ? file : numbered(i);
+            if (Files.exists(newer)) {
+                Files.move(newer, numbered(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    private Path numbered(int index) {
+        return Paths.get(file + "." + index);
+    }
+}
@@ -0,0 +1,9 @@
+package com.sims.metrics;
+
+/**
+ * Receives statements that ran longer than the slow-statement threshold
+ * Called on the thread that executed the statement, so implementations should hand off quickly.
+ */
+public interface SlowStatementListener {
+    void onSlowStatement(StatementSample sample);
+}
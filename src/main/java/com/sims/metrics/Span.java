@@ -0,0 +1,155 @@
+package com.sims.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One timed unit of work in a trace: a user action, a background task or a JDBC statement
+ * Created by Tracer; attributes and events may be added until end() is called.
+ */
+public class Span {
+    /**
+     * What the span represents
+     */
+    public enum Kind {
+        ACTION, TASK, STATEMENT
+    }
+
+    /**
+     * Point in time inside a span, e.g. a modal dialog being opened
+     */
+    public static class Event {
+        private final long offsetNanos;
+        private final String name;
+
+        Event(long offsetNanos, String name) {
+            this.offsetNanos = offsetNanos;
+            this.name = name;
+        }
+
+        /**
+         * Nanoseconds since the start of the span
+         */
+        public long getOffsetNanos() {
+            return offsetNanos;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private final Trace trace;
+    private final long spanId;
+    private final Span parent;
+    private final String name;
+    private final Kind kind;
+    private final String threadName;
+    private final long startEpochNanos;
+    private final long startNanoTime;
+    private final Map<String, Object> attributes = new LinkedHashMap<>();
+    private final List<Event> events = new ArrayList<>();
+    private volatile long durationNanos = -1;
+    private String error;
+
+    Span(Trace trace, Span parent, String name, Kind kind) {
+        this.trace = trace;
+        this.spanId = ThreadLocalRandom.current().nextLong();
+        this.parent = parent;
+        this.name = name;
+        this.kind = kind;
+        this.threadName = Thread.currentThread().getName();
+        this.startNanoTime = System.nanoTime();
+        this.startEpochNanos = trace.toEpochNanos(startNanoTime);
+    }
+
+    public synchronized Span setAttribute(String key, Object value) {
+        if (value != null) {
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    public synchronized void addEvent(String eventName) {
+        events.add(new Event(System.nanoTime() - startNanoTime, eventName));
+    }
+
+    public synchronized void setError(String message) {
+        this.error = message != null ? message : "error";
+    }
+
+    /**
+     * Finish the span; later calls are ignored
+     */
+    public void end() {
+        synchronized (this) {
+            if (durationNanos >= 0) {
+                return;
+            }
+            durationNanos = System.nanoTime() - startNanoTime;
+        }
+        trace.spanEnded(this);
+    }
+
+    public Trace getTrace() {
+        return trace;
+    }
+
+    public long getSpanId() {
+        return spanId;
+    }
+
+    public Span getParent() {
+        return parent;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    public long getStartEpochNanos() {
+        return startEpochNanos;
+    }
+
+    /**
+     * Duration in nanoseconds, or -1 while the span is open
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public synchronized Map<String, Object> getAttributes() {
+        return Collections.unmodifiableMap(new LinkedHashMap<>(attributes));
+    }
+
+    public synchronized List<Event> getEvents() {
+        return Collections.unmodifiableList(new ArrayList<>(events));
+    }
+
+    public synchronized String getError() {
+        return error;
+    }
+
+    /**
+     * Nesting depth, 0 for the root
+     */
+    public int getDepth() {
+        int depth = 0;
+        for (Span span = parent; span != null; span = span.parent) {
+            depth++;
+        }
+        return depth;
+    }
+}
@@ -0,0 +1,83 @@
+package com.sims.metrics;
+
+/**
+ * One statement execution captured by QueryMetrics
+ */
+public class StatementSample {
+    private final long timestamp;
+    private final String caller;
+    private final String sql;
+    private final Object[] parameters;
+    private final int batchSize;
+    private final long durationNanos;
+    private final long rows;
+    private final String threadName;
+    private final String error;
+
+    StatementSample(long timestamp, String caller, String sql, Object[] parameters, int batchSize,
+                    long durationNanos, long rows, String threadName, String error) {
+        this.timestamp = timestamp;
+        this.caller = caller;
+        this.sql = sql;
+        this.parameters = parameters;
+        this.batchSize = batchSize;
+        this.durationNanos = durationNanos;
+        this.rows = rows;
+        this.threadName = threadName;
+        this.error = error;
+    }
+
+    /**
+     * Wall-clock start time in epoch milliseconds
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * DAO class and method that prepared the statement
+     */
+    public String getCaller() {
+        return caller;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * Bound parameters by position (index 0 is parameter 1); for a batch, those of the last row
+     */
+    public Object[] getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Rows in the batch, or 0 for a single execution
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * Rows read from the result set, or rows affected
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    public String getThreadName() {
+        return threadName;
+    }
+
+    /**
+     * Error message if the statement failed, else null
+     */
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,106 @@
+package com.sims.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * All spans caused by one user action
+ * The trace is complete once the root and every span or background task started under it have
+ * ended; it is then handed to Tracer for the recent-trace list and the export file.
+ */
+public class Trace {
+    private final long traceIdHigh;
+    private final long traceIdLow;
+    private final long epochNanosAtStart;
+    private final long nanoTimeAtStart;
+    private final AtomicInteger open = new AtomicInteger();
+    private final List<Span> spans = new ArrayList<>();
+    private Span root;
+
+    Trace() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        this.traceIdHigh = random.nextLong();
+        this.traceIdLow = random.nextLong();
+        this.epochNanosAtStart = System.currentTimeMillis() * 1_000_000L;
+        this.nanoTimeAtStart = System.nanoTime();
+    }
+
+    /**
+     * Create a span in this trace; the first one becomes the root
+     */
+    Span newSpan(Span parent, String name, Span.Kind kind) {
+        open.incrementAndGet();
+        Span span = new Span(this, parent, name, kind);
+        synchronized (this) {
+            if (root == null) {
+                root = span;
+            }
+        }
+        return span;
+    }
+
+    /**
+     * Keep the trace open for a background task that has been queued but not started
+     */
+    void taskQueued() {
+        open.incrementAndGet();
+    }
+
+    void taskDone() {
+        if (open.decrementAndGet() == 0) {
+            Tracer.traceCompleted(this);
+        }
+    }
+
+    void spanEnded(Span span) {
+        synchronized (this) {
+            spans.add(span);
+        }
+        if (open.decrementAndGet() == 0) {
+            Tracer.traceCompleted(this);
+        }
+    }
+
+    long toEpochNanos(long nanoTime) {
+        return epochNanosAtStart + (nanoTime - nanoTimeAtStart);
+    }
+
+    /**
+     * 32 hex digits, as used by OpenTelemetry
+     */
+    public String getTraceId() {
+        return String.format("%016x%016x", traceIdHigh, traceIdLow);
+    }
+
+    public synchronized Span getRoot() {
+        return root;
+    }
+
+    /**
+     * Ended spans, ordered by start time
+     */
+    public List<Span> getSpans() {
+        List<Span> copy;
+        synchronized (this) {
+            copy = new ArrayList<>(spans);
+        }
+        copy.sort((a, b) -> Long.compare(a.getStartEpochNanos(), b.getStartEpochNanos()));
+        return Collections.unmodifiableList(copy);
+    }
+
+    /**
+     * Number of JDBC statements in the trace
+     */
+    public int getStatementCount() {
+        int count = 0;
+        for (Span span : getSpans()) {
+            if (span.getKind() == Span.Kind.STATEMENT) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
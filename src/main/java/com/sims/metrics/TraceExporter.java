@@ -0,0 +1,167 @@
+package com.sims.metrics;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes completed traces as OTLP/JSON lines (the OpenTelemetry file exporter format)
+ * Each line is an ExportTraceServiceRequest that an OpenTelemetry Collector (otlpjsonfile
+ * receiver) or Jaeger can import. Formatting and writing happen on one background thread.
+ */
+class TraceExporter {
+    private static final int QUEUE_SIZE = 1000;
+    private static final int KIND_INTERNAL = 1;
+    private static final int KIND_CLIENT = 3;
+    private static final int STATUS_ERROR = 2;
+
+    private final RotatingLogFile file;
+    private final ThreadPoolExecutor writer;
+
+    TraceExporter(RotatingLogFile file) {
+        this.file = file;
+        this.writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_SIZE), r -> {
+                    Thread thread = new Thread(r, "trace-exporter");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    void export(Trace trace) {
+        try {
+            writer.execute(() -> {
+                try {
+                    file.append(toJson(trace) + "\n");
+                } catch (IOException e) {
+                    System.err.println("Could not write trace file " + file.getPath() + ": " + e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Queue full or shut down: the trace is still in the in-memory list
+        }
+    }
+
+    void shutdown() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static String toJson(Trace trace) {
+        StringBuilder json = new StringBuilder(1024);
+        json.append("{\"resourceSpans\":[{\"resource\":{\"attributes\":[");
+        attribute(json, "service.name", "sims");
+        json.append("]},\"scopeSpans\":[{\"scope\":{\"name\":\"com.sims\"},\"spans\":[");
+        String traceId = trace.getTraceId();
+        boolean first = true;
+        for (Span span : trace.getSpans()) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            appendSpan(json, traceId, span);
+        }
+        json.append("]}]}]}");
+        return json.toString();
+    }
+
+    private static void appendSpan(StringBuilder json, String traceId, Span span) {
+        long start = span.getStartEpochNanos();
+        json.append("{\"traceId\":\"").append(traceId)
+            .append("\",\"spanId\":\"").append(hex(span.getSpanId())).append('"');
+        if (span.getParent() != null) {
+            json.append(",\"parentSpanId\":\"").append(hex(span.getParent().getSpanId())).append('"');
+        }
+        json.append(",\"name\":");
+        string(json, span.getName());
+        json.append(",\"kind\":").append(span.getKind() == Span.Kind.STATEMENT ? KIND_CLIENT : KIND_INTERNAL)
+            .append(",\"startTimeUnixNano\":\"").append(start)
+            .append("\",\"endTimeUnixNano\":\"").append(start + Math.max(span.getDurationNanos(), 0))
+            .append("\",\"attributes\":[");
+        attribute(json, "thread.name", span.getThreadName());
+        for (Map.Entry<String, Object> entry : span.getAttributes().entrySet()) {
+            json.append(',');
+            attribute(json, entry.getKey(), entry.getValue());
+        }
+        json.append(']');
+        if (!span.getEvents().isEmpty()) {
+            json.append(",\"events\":[");
+            boolean first = true;
+            for (Span.Event event : span.getEvents()) {
+                if (!first) {
+                    json.append(',');
+                }
+                first = false;
+                json.append("{\"timeUnixNano\":\"").append(start + event.getOffsetNanos()).append("\",\"name\":");
+                string(json, event.getName());
+                json.append('}');
+            }
+            json.append(']');
+        }
+        if (span.getError() != null) {
+            json.append(",\"status\":{\"code\":").append(STATUS_ERROR).append(",\"message\":");
+            string(json, span.getError());
+            json.append('}');
+        }
+        json.append('}');
+    }
+
+    private static void attribute(StringBuilder json, String key, Object value) {
+        json.append("{\"key\":");
+        string(json, key);
+        json.append(",\"value\":{");
+        if (value instanceof Integer || value instanceof Long) {
+            json.append("\"intValue\":\"").append(value).append('"');
+        } else if (value instanceof Number) {
+            json.append("\"doubleValue\":").append(value);
+        } else if (value instanceof Boolean) {
+            json.append("\"boolValue\":").append(value);
+        } else {
+            json.append("\"stringValue\":");
+            string(json, String.valueOf(value));
+        }
+        json.append("}}");
+    }
+
+    private static void string(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+
+    private static String hex(long id) {
+        return String.format("%016x", id);
+    }
+}
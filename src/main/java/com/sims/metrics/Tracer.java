@@ -0,0 +1,167 @@
+package com.sims.metrics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Lightweight action tracing
+ * Every user action opens a root span (see UiActionMonitor) and each JDBC statement issued while it
+ * is current becomes a child span, so one trace shows every query behind a click. The current span
+ * is thread-local; work handed to another thread keeps its trace when the task is wrapped with
+ * wrap(). Statements outside any action are not traced.
+ *
+ * Completed traces are kept in memory for the Action Traces view and appended to
+ * -Dsims.trace.file (default logs/traces.jsonl, empty to disable) as OpenTelemetry OTLP/JSON,
+ * one trace per line. Disable tracing with -Dsims.trace.enabled=false.
+ */
+public final class Tracer {
+    private static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("sims.trace.enabled", "true"));
+    private static final String FILE = System.getProperty("sims.trace.file", "logs/traces.jsonl");
+    private static final long MAX_FILE_BYTES = Long.getLong("sims.trace.maxFileKb", 4096L) * 1024;
+    private static final int KEEP_FILES = Integer.getInteger("sims.trace.files", 3);
+    private static final int RECENT_TRACES = 100;
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+    private static final Deque<Trace> RECENT = new ArrayDeque<>();
+    private static final Scope NO_SCOPE = () -> { };
+
+    private static TraceExporter exporter;
+
+    /**
+     * Restores the previous current span when closed
+     */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private Tracer() {}
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * The span current on this thread, or null
+     */
+    public static Span current() {
+        return ENABLED ? CURRENT.get() : null;
+    }
+
+    /**
+     * Start a user action span: a new trace, or a child when another action is already running
+     * (e.g. a click in a modal dialog opened by that action). Null when tracing is disabled.
+     */
+    public static Span startAction(String name) {
+        if (!ENABLED) {
+            return null;
+        }
+        Span parent = CURRENT.get();
+        Trace trace = parent != null ? parent.getTrace() : new Trace();
+        return trace.newSpan(parent, name, Span.Kind.ACTION);
+    }
+
+    /**
+     * Start a statement span under the current span, or return null outside any trace
+     */
+    static Span startStatement(String name) {
+        Span parent = current();
+        return parent != null ? parent.getTrace().newSpan(parent, name, Span.Kind.STATEMENT) : null;
+    }
+
+    /**
+     * Make a span current on this thread until the returned scope is closed
+     */
+    public static Scope activate(Span span) {
+        if (span == null) {
+            return NO_SCOPE;
+        }
+        Span previous = CURRENT.get();
+        CURRENT.set(span);
+        return () -> {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        };
+    }
+
+    /**
+     * Carry the current trace to a task run on another thread
+     * The task runs in its own span under the span current now; the trace stays open until it has run.
+     */
+    public static Runnable wrap(String name, Runnable task) {
+        Span parent = current();
+        if (parent == null) {
+            return task;
+        }
+        Trace trace = parent.getTrace();
+        trace.taskQueued();
+        return () -> {
+            Span span = trace.newSpan(parent, name, Span.Kind.TASK);
+            Scope scope = activate(span);
+            try {
+                task.run();
+            } finally {
+                scope.close();
+                span.end();
+                trace.taskDone();
+            }
+        };
+    }
+
+    static void traceCompleted(Trace trace) {
+        synchronized (RECENT) {
+            RECENT.addFirst(trace);
+            while (RECENT.size() > RECENT_TRACES) {
+                RECENT.removeLast();
+            }
+        }
+        if (!FILE.isEmpty()) {
+            getExporter().export(trace);
+        }
+    }
+
+    private static synchronized TraceExporter getExporter() {
+        if (exporter == null) {
+            exporter = new TraceExporter(new RotatingLogFile(FILE, MAX_FILE_BYTES, KEEP_FILES));
+        }
+        return exporter;
+    }
+
+    /**
+     * Completed traces, newest first
+     */
+    public static List<Trace> getRecentTraces() {
+        synchronized (RECENT) {
+            return new ArrayList<>(RECENT);
+        }
+    }
+
+    public static void clearRecentTraces() {
+        synchronized (RECENT) {
+            RECENT.clear();
+        }
+    }
+
+    /**
+     * Location of the export file, or null when export is disabled
+     */
+    public static String getFile() {
+        return FILE.isEmpty() ? null : FILE;
+    }
+
+    /**
+     * Write out traces still queued for export; called from the shutdown hook
+     */
+    public static synchronized void shutdownIfStarted() {
+        if (exporter != null) {
+            exporter.shutdown();
+            exporter = null;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.sims.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for a user action handled on the event dispatch thread
+ * Statements issued while the action runs appear as DAO Statement events nested inside it on the
+ * same thread.
+ */
+@Name("com.sims.UiAction")
+@Label("UI Action")
+@Category({"SIMS", "UI"})
+@Description("Click or key press handled by a com.sims.ui panel, including the work it did on the EDT")
+@StackTrace(false)
+class UiActionEvent extends jdk.jfr.Event {
+    @Label("Panel")
+    String panel;
+
+    @Label("Action")
+    String action;
+
+    @Label("Component")
+    String component;
+}
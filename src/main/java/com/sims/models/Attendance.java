@@ -1,10 +1,13 @@
 package com.sims.models;
 
+import com.sims.mapping.RowMapped;
+
 import java.time.LocalDate;
 
 /**
  * Attendance model representing student attendance records
  */
+@RowMapped
 public class Attendance {
     private int attendanceId;
     private int studentId;
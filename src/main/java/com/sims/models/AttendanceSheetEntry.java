@@ -0,0 +1,46 @@
+package com.sims.models;
+
+/**
+ * Attendance sheet row pairing an enrolled student with the attendance
+ * already recorded for the selected date (null if none has been recorded)
+ */
+public class AttendanceSheetEntry {
+    private Student student;
+    private Attendance attendance;
+
+    public AttendanceSheetEntry() {}
+
+    public AttendanceSheetEntry(Student student, Attendance attendance) {
+        this.student = student;
+        this.attendance = attendance;
+    }
+
+    // Getters and Setters
+    public Student getStudent() {
+        return student;
+    }
+
+    public void setStudent(Student student) {
+        this.student = student;
+    }
+
+    public Attendance getAttendance() {
+        return attendance;
+    }
+
+    public void setAttendance(Attendance attendance) {
+        this.attendance = attendance;
+    }
+
+    public boolean isRecorded() {
+        return attendance != null;
+    }
+
+    @Override
+    public String toString() {
+        return "AttendanceSheetEntry{" +
+                "student=" + (student != null ? student.getStudentCode() : null) +
+                ", status=" + (attendance != null ? attendance.getStatus() : null) +
+                '}';
+    }
+}
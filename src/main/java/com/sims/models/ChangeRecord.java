@@ -0,0 +1,82 @@
+package com.sims.models;
+
+import com.sims.mapping.RowMapped;
+
+/**
+ * Change log entry describing a mutation made by any client
+ */
+@RowMapped
+public class ChangeRecord {
+    private long changeId;
+    private EntityType entityType;
+    private int entityId;
+    private Operation operation;
+    private String clientId;
+
+    public enum EntityType {
+        STUDENT, COURSE, ENROLLMENT, ATTENDANCE, GRADE, FINANCIAL_RECORD, USER
+    }
+
+    public enum Operation {
+        INSERT, UPDATE, DELETE
+    }
+
+    public ChangeRecord() {}
+
+    public ChangeRecord(EntityType entityType, int entityId, Operation operation) {
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.operation = operation;
+    }
+
+    // Getters and Setters
+    public long getChangeId() {
+        return changeId;
+    }
+
+    public void setChangeId(long changeId) {
+        this.changeId = changeId;
+    }
+
+    public EntityType getEntityType() {
+        return entityType;
+    }
+
+    public void setEntityType(EntityType entityType) {
+        this.entityType = entityType;
+    }
+
+    public int getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(int entityId) {
+        this.entityId = entityId;
+    }
+
+    public Operation getOperation() {
+        return operation;
+    }
+
+    public void setOperation(Operation operation) {
+        this.operation = operation;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public void setClientId(String clientId) {
+        this.clientId = clientId;
+    }
+
+    @Override
+    public String toString() {
+        return "ChangeRecord{" +
+                "changeId=" + changeId +
+                ", entityType=" + entityType +
+                ", entityId=" + entityId +
+                ", operation=" + operation +
+                '}';
+    }
+}
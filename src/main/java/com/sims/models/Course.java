@@ -1,8 +1,11 @@
 package com.sims.models;
 
+import com.sims.mapping.RowMapped;
+
 /**
  * Course model representing course information
  */
+@RowMapped
 public class Course {
     private int courseId;
     private String courseCode;
@@ -31,6 +34,21 @@ public class Course {
         this.status = Status.ACTIVE;
     }
 
+    /**
+     * Copy constructor
+     */
+    public Course(Course other) {
+        this.courseId = other.courseId;
+        this.courseCode = other.courseCode;
+        this.courseName = other.courseName;
+        this.description = other.description;
+        this.credits = other.credits;
+        this.instructorId = other.instructorId;
+        this.semester = other.semester;
+        this.academicYear = other.academicYear;
+        this.status = other.status;
+    }
+
     // Getters and Setters
     public int getCourseId() {
         return courseId;
@@ -1,11 +1,14 @@
 package com.sims.models;
 
+import com.sims.mapping.RowMapped;
+
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 /**
  * Financial record model representing student financial transactions
  */
+@RowMapped
 public class FinancialRecord {
     private int financialId;
     private int studentId;
@@ -1,11 +1,14 @@
 package com.sims.models;
 
+import com.sims.mapping.RowMapped;
+
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 /**
  * Grade model representing student grades and assessments
  */
+@RowMapped
 public class Grade {
     private int gradeId;
     private int studentId;
@@ -117,6 +120,15 @@ public class Grade {
         return percentage;
     }
 
+    /**
+     * Set the percentage computed by the database (grades.percentage is a generated column)
+     * The grade letter is derived from it again, so the two always agree.
+     */
+    public void setPercentage(BigDecimal percentage) {
+        this.percentage = percentage;
+        this.gradeLetter = percentage != null ? calculateGradeLetter(percentage) : null;
+    }
+
     public String getGradeLetter() {
         return gradeLetter;
     }
@@ -1,10 +1,13 @@
 package com.sims.models;
 
+import com.sims.mapping.RowMapped;
+
 import java.time.LocalDate;
 
 /**
  * Student model representing student information
  */
+@RowMapped
 public class Student {
     private int studentId;
     private Integer userId;
@@ -43,6 +46,24 @@ public class Student {
         this.status = Status.ACTIVE;
     }
 
+    /**
+     * Copy constructor
+     */
+    public Student(Student other) {
+        this.studentId = other.studentId;
+        this.userId = other.userId;
+        this.studentCode = other.studentCode;
+        this.firstName = other.firstName;
+        this.lastName = other.lastName;
+        this.dateOfBirth = other.dateOfBirth;
+        this.gender = other.gender;
+        this.email = other.email;
+        this.phone = other.phone;
+        this.address = other.address;
+        this.enrollmentDate = other.enrollmentDate;
+        this.status = other.status;
+    }
+
     // Getters and Setters
     public int getStudentId() {
         return studentId;
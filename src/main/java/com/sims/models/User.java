@@ -1,8 +1,11 @@
 package com.sims.models;
 
+import com.sims.mapping.RowMapped;
+
 /**
  * User model for authentication and role management
  */
+@RowMapped
 public class User {
     private int userId;
     private String username;
@@ -0,0 +1,390 @@
+package com.sims.offline;
+
+import com.sims.models.Attendance;
+import com.sims.models.AttendanceSheetEntry;
+import com.sims.models.Course;
+import com.sims.models.Student;
+import com.sims.models.User;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Local copy of the reference data needed to work without the database
+ * Holds the course list, the enrolled roster of each course, the attendance marks last seen
+ * for each (course, date) sheet and salted password hashes of users who signed in online.
+ * The DAOs write through to it on successful reads; each data set is one tab-separated file
+ * in -Dsims.offline.dir (default ~/.sims/offline), rewritten atomically on a background thread.
+ */
+public class LocalStore {
+    private static final int MARK_RETENTION_DAYS = 31;
+    private static final int HASH_ITERATIONS = 20000;
+    private static final String NO_MARK = "";
+
+    private static LocalStore instance;
+
+    private final Path directory;
+    private final ExecutorService writer;
+    private final List<Course> courses = new ArrayList<>();
+    private final Map<Integer, List<Student>> rosters = new LinkedHashMap<>();
+    private final Map<String, Map<Integer, String>> marks = new TreeMap<>();
+    private final Map<String, String[]> credentials = new LinkedHashMap<>();
+
+    private LocalStore(Path directory) {
+        this.directory = directory;
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "local-store");
+            thread.setDaemon(true);
+            return thread;
+        });
+        load();
+    }
+
+    /**
+     * Get the shared store, reading its files on first use
+     */
+    public static synchronized LocalStore getDefault() {
+        if (instance == null) {
+            String defaultDir = Paths.get(System.getProperty("user.home"), ".sims", "offline").toString();
+            instance = new LocalStore(Paths.get(System.getProperty("sims.offline.dir", defaultDir)));
+        }
+        return instance;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Check if there is enough stored to start without the database (a course list and a known user)
+     */
+    public synchronized boolean canWorkOffline() {
+        return !courses.isEmpty() && !credentials.isEmpty();
+    }
+
+    /**
+     * Replace the stored course list
+     */
+    public synchronized void putCourses(List<Course> latest) {
+        courses.clear();
+        courses.addAll(latest);
+        scheduleSave("courses.tsv", this::encodeCourses);
+    }
+
+    /**
+     * Get the stored course list, or null if none was ever stored
+     */
+    public synchronized List<Course> getCourses() {
+        return courses.isEmpty() ? null : new ArrayList<>(courses);
+    }
+
+    /**
+     * Replace the stored rosters of the given courses
+     */
+    public synchronized void putRosters(Map<Integer, List<Student>> latest) {
+        for (Map.Entry<Integer, List<Student>> roster : latest.entrySet()) {
+            rosters.put(roster.getKey(), new ArrayList<>(roster.getValue()));
+        }
+        scheduleSave("rosters.tsv", this::encodeRosters);
+    }
+
+    /**
+     * Get the stored roster of a course, or null if it was never stored
+     */
+    public synchronized List<Student> getRoster(int courseId) {
+        List<Student> roster = rosters.get(courseId);
+        return roster != null ? new ArrayList<>(roster) : null;
+    }
+
+    /**
+     * Get every student on a stored roster, ordered by student code, or null if no roster is stored
+     */
+    public synchronized List<Student> getRosterStudents() {
+        if (rosters.isEmpty()) {
+            return null;
+        }
+        Map<String, Student> byCode = new TreeMap<>();
+        for (List<Student> roster : rosters.values()) {
+            for (Student student : roster) {
+                byCode.putIfAbsent(student.getStudentCode(), student);
+            }
+        }
+        return new ArrayList<>(byCode.values());
+    }
+
+    /**
+     * Remember an attendance sheet read from the database: its roster and the marks it held
+     */
+    public synchronized void putSheet(int courseId, LocalDate date, List<AttendanceSheetEntry> sheet) {
+        List<Student> roster = new ArrayList<>();
+        Map<Integer, String> sheetMarks = new HashMap<>();
+        for (AttendanceSheetEntry entry : sheet) {
+            roster.add(entry.getStudent());
+            Attendance attendance = entry.getAttendance();
+            sheetMarks.put(entry.getStudent().getStudentId(),
+                    attendance != null ? attendance.getStatus().name() : NO_MARK);
+        }
+        rosters.put(courseId, roster);
+        marks.put(sheetKey(courseId, date), sheetMarks);
+        scheduleSave("rosters.tsv", this::encodeRosters);
+        scheduleSave("marks.tsv", this::encodeMarks);
+    }
+
+    /**
+     * Remember marks now known to be in the database (written online or replayed)
+     * Only sheets seen before are updated, so unknown sheets stay unknown.
+     */
+    public synchronized void putMarks(List<Attendance> attendanceList) {
+        boolean changed = false;
+        for (Attendance attendance : attendanceList) {
+            Map<Integer, String> sheetMarks = marks.get(sheetKey(attendance.getCourseId(),
+                    attendance.getAttendanceDate()));
+            if (sheetMarks != null) {
+                sheetMarks.put(attendance.getStudentId(), attendance.getStatus().name());
+                changed = true;
+            }
+        }
+        if (changed) {
+            scheduleSave("marks.tsv", this::encodeMarks);
+        }
+    }
+
+    /**
+     * Get the status last seen in the database for each student on a sheet ("" for no mark),
+     * or null if the sheet was never read online
+     */
+    public synchronized Map<Integer, String> getMarks(int courseId, LocalDate date) {
+        Map<Integer, String> sheetMarks = marks.get(sheetKey(courseId, date));
+        return sheetMarks != null ? new HashMap<>(sheetMarks) : null;
+    }
+
+    /**
+     * Store a salted hash of a password that was just accepted by the database
+     */
+    public synchronized void putCredentials(User user, String password) {
+        byte[] salt = new byte[16];
+        new SecureRandom().nextBytes(salt);
+        Base64.Encoder base64 = Base64.getEncoder();
+        credentials.put(user.getUsername(), new String[]{
+            user.getUsername(),
+            String.valueOf(user.getUserId()),
+            user.getRole().name(),
+            user.getEmail() != null ? user.getEmail() : "",
+            base64.encodeToString(salt),
+            base64.encodeToString(hash(password, salt))
+        });
+        scheduleSave("users.tsv", this::encodeCredentials);
+    }
+
+    /**
+     * Check a password against the stored hash
+     * @return the user (without password) if it matches, null otherwise
+     */
+    public User authenticate(String username, String password) {
+        String[] fields;
+        synchronized (this) {
+            fields = credentials.get(username);
+        }
+        if (fields == null) {
+            return null;
+        }
+        Base64.Decoder base64 = Base64.getDecoder();
+        byte[] expected = base64.decode(fields[5]);
+        if (!MessageDigest.isEqual(expected, hash(password, base64.decode(fields[4])))) {
+            return null;
+        }
+        return new User(Integer.parseInt(fields[1]), fields[0], null, User.Role.valueOf(fields[2]),
+                fields[3].isEmpty() ? null : fields[3]);
+    }
+
+    private static byte[] hash(String password, byte[] salt) {
+        try {
+            PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, HASH_ITERATIONS, 256);
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String sheetKey(int courseId, LocalDate date) {
+        return date + ":" + courseId;
+    }
+
+    // ---- Persistence ----
+
+    /**
+     * Rewrite one file from a snapshot taken now; the write itself happens on the store thread
+     */
+    private void scheduleSave(String fileName, Supplier<List<String>> encoder) {
+        List<String> lines = encoder.get();
+        writer.execute(() -> {
+            try {
+                Files.createDirectories(directory);
+                Path target = directory.resolve(fileName);
+                Path tempPath = directory.resolve(fileName + ".tmp");
+                Files.write(tempPath, lines, StandardCharsets.UTF_8);
+                Files.move(tempPath, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                System.err.println("Could not save offline " + fileName + ": " + e.getMessage());
+            }
+        });
+    }
+
+    private List<String> encodeCourses() {
+        List<String> lines = new ArrayList<>();
+        for (Course course : courses) {
+            lines.add(join(course.getCourseId(), encode(course.getCourseCode()), encode(course.getCourseName()),
+                    encode(course.getDescription()), course.getCredits(),
+                    course.getInstructorId() != null ? course.getInstructorId() : "",
+                    encode(course.getSemester()), encode(course.getAcademicYear()),
+                    course.getStatus() != null ? course.getStatus().name() : ""));
+        }
+        return lines;
+    }
+
+    private List<String> encodeRosters() {
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<Integer, List<Student>> roster : rosters.entrySet()) {
+            for (Student student : roster.getValue()) {
+                lines.add(join(roster.getKey(), student.getStudentId(), encode(student.getStudentCode()),
+                        encode(student.getFirstName()), encode(student.getLastName())));
+            }
+        }
+        return lines;
+    }
+
+    private List<String> encodeMarks() {
+        // Keys start with the date, so old sheets are at the front
+        String oldest = LocalDate.now().minusDays(MARK_RETENTION_DAYS).toString();
+        marks.keySet().removeIf(key -> key.compareTo(oldest) < 0);
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, Map<Integer, String>> sheet : marks.entrySet()) {
+            for (Map.Entry<Integer, String> mark : sheet.getValue().entrySet()) {
+                lines.add(join(sheet.getKey(), mark.getKey(), mark.getValue()));
+            }
+        }
+        return lines;
+    }
+
+    private List<String> encodeCredentials() {
+        List<String> lines = new ArrayList<>();
+        for (String[] fields : credentials.values()) {
+            String[] encoded = fields.clone();
+            encoded[0] = encode(fields[0]);
+            encoded[3] = encode(fields[3]);
+            lines.add(String.join("\t", encoded));
+        }
+        return lines;
+    }
+
+    private void load() {
+        for (String[] fields : read("courses.tsv", 9)) {
+            Course course = new Course();
+            course.setCourseId(Integer.parseInt(fields[0]));
+            course.setCourseCode(decode(fields[1]));
+            course.setCourseName(decode(fields[2]));
+            course.setDescription(decode(fields[3]));
+            course.setCredits(Integer.parseInt(fields[4]));
+            course.setInstructorId(fields[5].isEmpty() ? null : Integer.valueOf(fields[5]));
+            course.setSemester(decode(fields[6]));
+            course.setAcademicYear(decode(fields[7]));
+            course.setStatus(fields[8].isEmpty() ? null : Course.Status.valueOf(fields[8]));
+            courses.add(course);
+        }
+        for (String[] fields : read("rosters.tsv", 5)) {
+            Student student = new Student();
+            student.setStudentId(Integer.parseInt(fields[1]));
+            student.setStudentCode(decode(fields[2]));
+            student.setFirstName(decode(fields[3]));
+            student.setLastName(decode(fields[4]));
+            rosters.computeIfAbsent(Integer.parseInt(fields[0]), id -> new ArrayList<>()).add(student);
+        }
+        for (String[] fields : read("marks.tsv", 3)) {
+            marks.computeIfAbsent(fields[0], key -> new HashMap<>()).put(Integer.parseInt(fields[1]), fields[2]);
+        }
+        for (String[] fields : read("users.tsv", 6)) {
+            fields[0] = decode(fields[0]);
+            fields[3] = decode(fields[3]);
+            credentials.put(fields[0], fields);
+        }
+    }
+
+    /**
+     * Read a file into rows of exactly the given number of fields; a damaged file is reported and skipped
+     */
+    private List<String[]> read(String fileName, int fieldCount) {
+        List<String[]> rows = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(directory.resolve(fileName), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t", -1);
+                if (fields.length != fieldCount) {
+                    throw new IOException("unexpected line '" + line + "'");
+                }
+                rows.add(fields);
+            }
+        } catch (NoSuchFileException e) {
+            return Collections.emptyList();
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring offline " + fileName + ": " + e.getMessage());
+            return Collections.emptyList();
+        }
+        return rows;
+    }
+
+    private static String join(Object... fields) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                line.append('\t');
+            }
+            line.append(fields[i]);
+        }
+        return line.toString();
+    }
+
+    /**
+     * URL-encode a free-text field so it cannot contain tabs or line breaks; null becomes ""
+     */
+    static String encode(String value) {
+        try {
+            return value != null ? URLEncoder.encode(value, "UTF-8") : "";
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static String decode(String value) {
+        try {
+            return value.isEmpty() ? null : URLDecoder.decode(value, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,560 @@
+package com.sims.offline;
+
+import com.sims.dao.AttendanceDAO;
+import com.sims.dao.GradeDAO;
+import com.sims.database.DatabaseConnection;
+import com.sims.events.ConnectivityChanged;
+import com.sims.events.EventBus;
+import com.sims.models.Attendance;
+import com.sims.models.AttendanceSheetEntry;
+import com.sims.models.Grade;
+import com.sims.models.Student;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offline mode: keeps attendance and grading going while the database is unreachable
+ * When a DAO call fails with a connection error, reads of courses, rosters and attendance sheets
+ * are served from the LocalStore and attendance marks and new grades are appended to a
+ * WriteJournal instead. Further database calls fail fast until a background probe
+ * (every -Dsims.offline.reconnectSeconds, default 15) can connect again; the journal is then
+ * replayed in batches of -Dsims.offline.replayBatchSize (default 200) before going back online.
+ *
+ * Replay keeps whatever the database holds when it changed while the client was offline: a mark
+ * is only applied if the database still has the status the user was looking at (or no mark, for a
+ * sheet never read online), and a grade is only inserted if the same assessment was not recorded
+ * meanwhile. Dropped writes are appended
+ * to conflicts.log next to the journal. Disabled with -Dsims.offline=false.
+ */
+public final class OfflineMode {
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("sims.offline", "true"));
+    private static final long RECONNECT_SECONDS = Long.getLong("sims.offline.reconnectSeconds", 15L);
+    private static final int REPLAY_BATCH_SIZE = Integer.getInteger("sims.offline.replayBatchSize", 200);
+
+    /**
+     * Local fallback for a failed database call; returns null when it cannot help either
+     */
+    public interface LocalSource<T> {
+        T get() throws SQLException;
+    }
+
+    /**
+     * What replay does with one offline mark
+     */
+    enum MarkOutcome {
+        /** The database already holds the offline status */
+        ALREADY_APPLIED,
+        APPLY,
+        /** Somebody else changed the mark meanwhile; the database value is kept */
+        CONFLICT
+    }
+
+    /**
+     * What one replay of the journal did
+     */
+    private static class ReplayTotals {
+        private int replayed;
+        private int conflicts;
+    }
+
+    // The reconnect thread is the only one allowed through to the database while offline
+    private static final ThreadLocal<Boolean> RECONNECTING = ThreadLocal.withInitial(() -> false);
+
+    private static volatile boolean offline;
+    private static WriteJournal journal;
+    private static ScheduledExecutorService reconnector;
+    private static ScheduledFuture<?> probe;
+
+    private OfflineMode() {
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    public static boolean isOffline() {
+        return offline;
+    }
+
+    /**
+     * Fail fast instead of waiting for a connect timeout while offline
+     * @throws SQLException with SQLState 08003 if the database is known to be unreachable
+     */
+    public static void checkOnline() throws SQLException {
+        if (offline && !RECONNECTING.get()) {
+            throw new SQLException("Working offline: the database is not reachable", "08003");
+        }
+    }
+
+    /**
+     * Check if an exception, or one it wraps, is a connection failure (SQLState class 08)
+     */
+    public static boolean isConnectionFailure(SQLException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException) {
+                String state = ((SQLException) cause).getSQLState();
+                if (state != null && state.startsWith("08")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Answer a failed database call locally
+     * Switches to offline mode if the local source has an answer.
+     * @return what the local source returned
+     * @throws SQLException the original exception if it is not a connection failure or the
+     *         local source returns null
+     */
+    public static <T> T fallback(SQLException e, LocalSource<T> local) throws SQLException {
+        if (!ENABLED || RECONNECTING.get() || !(offline || isConnectionFailure(e))) {
+            throw e;
+        }
+        T result = local.get();
+        if (result == null) {
+            throw e;
+        }
+        enter(e);
+        return result;
+    }
+
+    /**
+     * Switch to offline mode and start probing for the database
+     */
+    public static synchronized void enter(SQLException cause) {
+        if (offline || !ENABLED) {
+            return;
+        }
+        offline = true;
+        System.err.println("Working offline, database unreachable: " + cause.getMessage());
+        probe = getReconnector().scheduleWithFixedDelay(OfflineMode::reconnect, RECONNECT_SECONDS,
+                RECONNECT_SECONDS, TimeUnit.SECONDS);
+        EventBus.getDefault().publish(new ConnectivityChanged(true, getPendingCount(), 0, 0));
+    }
+
+    /**
+     * Replay a journal left by a previous offline session, in the background
+     */
+    public static synchronized void replayPendingIfAny() {
+        if (ENABLED && getPendingCount() > 0) {
+            getReconnector().execute(OfflineMode::reconnect);
+        }
+    }
+
+    /**
+     * Stop probing; the journal is kept for the next start
+     */
+    public static synchronized void shutdownIfStarted() {
+        if (reconnector != null) {
+            reconnector.shutdownNow();
+            reconnector = null;
+        }
+    }
+
+    /**
+     * Number of journaled writes not yet replayed
+     */
+    public static synchronized int getPendingCount() {
+        if (journal == null && !Files.exists(getJournalPath())) {
+            return 0;
+        }
+        try {
+            return getJournal().size();
+        } catch (IOException e) {
+            System.err.println("Cannot read offline journal: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private static Path getJournalPath() {
+        return LocalStore.getDefault().getDirectory().resolve("journal.log");
+    }
+
+    private static synchronized WriteJournal getJournal() throws IOException {
+        if (journal == null) {
+            journal = new WriteJournal(getJournalPath());
+        }
+        return journal;
+    }
+
+    private static ScheduledExecutorService getReconnector() {
+        if (reconnector == null) {
+            reconnector = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(() -> {
+                    RECONNECTING.set(true);
+                    r.run();
+                }, "offline-reconnect");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return reconnector;
+    }
+
+    // ---- Local reads ----
+
+    /**
+     * Build an attendance sheet from the stored roster, the marks last seen and the journaled marks
+     * @return the sheet, or null if the course roster was never stored
+     */
+    public static List<AttendanceSheetEntry> getAttendanceSheet(int courseId, LocalDate date) {
+        List<Student> roster = LocalStore.getDefault().getRoster(courseId);
+        if (roster == null) {
+            return null;
+        }
+        Map<Integer, Attendance> marks = getMarks(courseId, date);
+        List<AttendanceSheetEntry> sheet = new ArrayList<>();
+        for (Student student : roster) {
+            sheet.add(new AttendanceSheetEntry(student, marks.get(student.getStudentId())));
+        }
+        return sheet;
+    }
+
+    /**
+     * Get the marks for a course and date as last seen, with journaled marks applied
+     * @return the marks, or null if the course roster was never stored
+     */
+    public static List<Attendance> getAttendance(int courseId, LocalDate date) {
+        if (LocalStore.getDefault().getRoster(courseId) == null) {
+            return null;
+        }
+        return new ArrayList<>(getMarks(courseId, date).values());
+    }
+
+    private static Map<Integer, Attendance> getMarks(int courseId, LocalDate date) {
+        Map<Integer, Attendance> marks = new LinkedHashMap<>();
+        Map<Integer, String> seen = LocalStore.getDefault().getMarks(courseId, date);
+        if (seen != null) {
+            for (Map.Entry<Integer, String> mark : seen.entrySet()) {
+                if (!mark.getValue().isEmpty()) {
+                    marks.put(mark.getKey(), new Attendance(mark.getKey(), courseId, date,
+                            Attendance.AttendanceStatus.valueOf(mark.getValue())));
+                }
+            }
+        }
+        for (WriteJournal.Entry entry : getEntriesQuietly()) {
+            Attendance attendance = entry.getAttendance();
+            if (attendance != null && attendance.getCourseId() == courseId
+                    && attendance.getAttendanceDate().equals(date)) {
+                marks.put(attendance.getStudentId(), attendance);
+            }
+        }
+        return marks;
+    }
+
+    /**
+     * Get journaled grades of a student in a course, with temporary negative ids
+     */
+    public static List<Grade> getPendingGrades(int studentId, int courseId) {
+        List<Grade> grades = new ArrayList<>();
+        for (WriteJournal.Entry entry : getEntriesQuietly()) {
+            Grade grade = entry.getGrade();
+            if (grade != null && grade.getStudentId() == studentId && grade.getCourseId() == courseId) {
+                grade.setGradeId((int) -entry.getSequence());
+                grades.add(grade);
+            }
+        }
+        return grades;
+    }
+
+    private static List<WriteJournal.Entry> getEntriesQuietly() {
+        try {
+            return getPendingCount() > 0 ? getJournal().getEntries() : new ArrayList<>();
+        } catch (IOException e) {
+            System.err.println("Cannot read offline journal: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    // ---- Journaled writes ----
+
+    /**
+     * Journal attendance marks, each with the status the user saw before changing it
+     * @return true once the marks are on disk
+     */
+    public static Boolean journalAttendance(List<Attendance> attendanceList) throws SQLException {
+        try {
+            WriteJournal current = getJournal();
+            synchronized (current) {
+                Map<String, String> pendingBases = new HashMap<>();
+                for (WriteJournal.Entry entry : current.getEntries()) {
+                    if (entry.getAttendance() != null) {
+                        pendingBases.putIfAbsent(key(entry.getAttendance()), entry.getBaseStatus());
+                    }
+                }
+                List<String> bases = new ArrayList<>();
+                for (Attendance attendance : attendanceList) {
+                    String base = pendingBases.get(key(attendance));
+                    if (base == null) {
+                        Map<Integer, String> seen = LocalStore.getDefault().getMarks(attendance.getCourseId(),
+                                attendance.getAttendanceDate());
+                        base = seen != null && seen.containsKey(attendance.getStudentId())
+                                ? seen.get(attendance.getStudentId()) : WriteJournal.UNKNOWN_BASE;
+                    }
+                    bases.add(base);
+                }
+                current.appendAttendance(attendanceList, bases);
+            }
+            return Boolean.TRUE;
+        } catch (IOException e) {
+            throw new SQLException("Could not save attendance offline: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Journal new grades, giving each a temporary negative id until it is replayed
+     * @return the same grades
+     */
+    public static List<Grade> journalGrades(List<Grade> grades) throws SQLException {
+        try {
+            List<WriteJournal.Entry> entries = getJournal().appendGrades(grades);
+            for (WriteJournal.Entry entry : entries) {
+                entry.getGrade().setGradeId((int) -entry.getSequence());
+            }
+            return grades;
+        } catch (IOException e) {
+            throw new SQLException("Could not save grades offline: " + e.getMessage(), e);
+        }
+    }
+
+    private static String key(Attendance attendance) {
+        return attendance.getStudentId() + ":" + attendance.getCourseId() + ":" + attendance.getAttendanceDate();
+    }
+
+    // ---- Reconnect and replay ----
+
+    /**
+     * Runs on the reconnect thread: once the database answers, replay the journal and go back online
+     */
+    private static void reconnect() {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (!conn.isValid(2)) {
+                return;
+            }
+        } catch (SQLException e) {
+            return;
+        }
+
+        ReplayTotals totals = new ReplayTotals();
+        try {
+            replay(totals);
+            synchronized (OfflineMode.class) {
+                offline = false;
+                if (probe != null) {
+                    probe.cancel(false);
+                    probe = null;
+                }
+            }
+            // Marks journaled while the flag was being switched
+            replay(totals);
+        } catch (SQLException | IOException e) {
+            System.err.println("Offline journal replay stopped, " + getPendingCount() + " writes kept: "
+                    + e.getMessage());
+            if (!offline) {
+                enter(e instanceof SQLException ? (SQLException) e : new SQLException(e));
+            }
+            return;
+        }
+        System.out.println("Back online: replayed " + totals.replayed + " offline writes, "
+                + totals.conflicts + " conflicts.");
+        EventBus.getDefault().publish(new ConnectivityChanged(false, getPendingCount(), totals.replayed,
+                totals.conflicts));
+    }
+
+    /**
+     * Replay the whole journal in batches, removing each batch from the journal once applied
+     * Repeated marks for the same student, course and date are coalesced: the first one's base
+     * is checked against the database and the last one's status is written.
+     */
+    private static void replay(ReplayTotals totals) throws SQLException, IOException {
+        WriteJournal current = getJournal();
+        List<List<WriteJournal.Entry>> batch = new ArrayList<>();
+        for (List<WriteJournal.Entry> unit : groupUnits(current.getEntries())) {
+            batch.add(unit);
+            if (batch.size() == REPLAY_BATCH_SIZE) {
+                replayBatch(current, batch, totals);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            replayBatch(current, batch, totals);
+        }
+    }
+
+    /**
+     * Group journal entries into replay units, in journal order: every mark for one student, course
+     * and date is one unit, and each grade is a unit of its own
+     */
+    static List<List<WriteJournal.Entry>> groupUnits(List<WriteJournal.Entry> entries) {
+        Map<String, List<WriteJournal.Entry>> units = new LinkedHashMap<>();
+        for (WriteJournal.Entry entry : entries) {
+            String unit = entry.getAttendance() != null ? key(entry.getAttendance()) : "grade:" + entry.getSequence();
+            units.computeIfAbsent(unit, k -> new ArrayList<>()).add(entry);
+        }
+        return new ArrayList<>(units.values());
+    }
+
+    private static void replayBatch(WriteJournal current, List<List<WriteJournal.Entry>> batch,
+                                    ReplayTotals totals) throws SQLException, IOException {
+        List<Long> sequences = new ArrayList<>();
+        List<WriteJournal.Entry[]> marks = new ArrayList<>();
+        List<Grade> grades = new ArrayList<>();
+        for (List<WriteJournal.Entry> unit : batch) {
+            for (WriteJournal.Entry entry : unit) {
+                sequences.add(entry.getSequence());
+            }
+            WriteJournal.Entry first = unit.get(0);
+            if (first.getGrade() != null) {
+                grades.add(first.getGrade());
+            } else {
+                marks.add(new WriteJournal.Entry[]{first, unit.get(unit.size() - 1)});
+            }
+        }
+
+        List<String> conflicts = new ArrayList<>();
+        totals.replayed += replayAttendance(marks, conflicts);
+        totals.replayed += replayGrades(grades, conflicts);
+        totals.conflicts += conflicts.size();
+        if (!conflicts.isEmpty()) {
+            Files.write(LocalStore.getDefault().getDirectory().resolve("conflicts.log"), conflicts,
+                    StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        current.remove(sequences);
+    }
+
+    /**
+     * Apply marks whose base still matches the database; pairs are (first, last) journaled entry
+     * @return the number of marks written
+     */
+    private static int replayAttendance(List<WriteJournal.Entry[]> marks, List<String> conflicts)
+            throws SQLException {
+        AttendanceDAO attendanceDAO = new AttendanceDAO();
+        Map<String, Map<Integer, String>> statusBySheet = new HashMap<>();
+        List<Attendance> toApply = new ArrayList<>();
+        for (WriteJournal.Entry[] pair : marks) {
+            Attendance attendance = pair[1].getAttendance();
+            String sheet = attendance.getCourseId() + ":" + attendance.getAttendanceDate();
+            Map<Integer, String> statuses = statusBySheet.get(sheet);
+            if (statuses == null) {
+                statuses = new HashMap<>();
+                for (Attendance stored : attendanceDAO.getAttendanceByCourseAndDate(attendance.getCourseId(),
+                        attendance.getAttendanceDate())) {
+                    statuses.put(stored.getStudentId(), stored.getStatus().name());
+                }
+                statusBySheet.put(sheet, statuses);
+            }
+
+            String now = statuses.getOrDefault(attendance.getStudentId(), "");
+            String base = pair[0].getBaseStatus();
+            MarkOutcome outcome = decideMark(base, now, attendance.getStatus().name());
+            if (outcome == MarkOutcome.APPLY) {
+                toApply.add(attendance);
+            } else if (outcome == MarkOutcome.CONFLICT) {
+                conflicts.add(LocalDateTime.now() + "\tattendance student=" + attendance.getStudentId()
+                        + " course=" + attendance.getCourseId() + " date=" + attendance.getAttendanceDate()
+                        + " offline=" + attendance.getStatus() + " seen=" + describe(base)
+                        + " kept=" + describe(now));
+            }
+        }
+        if (!toApply.isEmpty()) {
+            attendanceDAO.batchRecordAttendance(toApply);
+        }
+        return toApply.size();
+    }
+
+    /**
+     * Decide what replay does with a mark
+     * @param base status the user saw before changing the mark: "" for none, or UNKNOWN_BASE
+     * @param now status in the database now, "" for none
+     * @param offlineStatus status set while offline
+     */
+    static MarkOutcome decideMark(String base, String now, String offlineStatus) {
+        if (now.equals(offlineStatus)) {
+            return MarkOutcome.ALREADY_APPLIED;
+        }
+        // Nothing can be overwritten when the database has no mark yet
+        if (now.equals(base) || (now.isEmpty() && WriteJournal.UNKNOWN_BASE.equals(base))) {
+            return MarkOutcome.APPLY;
+        }
+        return MarkOutcome.CONFLICT;
+    }
+
+    /**
+     * Insert grades unless the same assessment was recorded meanwhile
+     * @return the number of grades inserted
+     */
+    private static int replayGrades(List<Grade> grades, List<String> conflicts) throws SQLException {
+        GradeDAO gradeDAO = new GradeDAO();
+        Map<String, List<Grade>> recorded = new HashMap<>();
+        List<Grade> toInsert = new ArrayList<>();
+        for (Grade grade : grades) {
+            String pair = grade.getStudentId() + ":" + grade.getCourseId();
+            List<Grade> existing = recorded.get(pair);
+            if (existing == null) {
+                existing = gradeDAO.getGradesByStudentAndCourse(grade.getStudentId(), grade.getCourseId());
+                recorded.put(pair, existing);
+            }
+
+            Grade match = findSameAssessment(existing, grade);
+            if (match == null) {
+                grade.setGradeId(0);
+                toInsert.add(grade);
+            } else if (!sameMarks(match, grade)) {
+                conflicts.add(LocalDateTime.now() + "\tgrade student=" + grade.getStudentId()
+                        + " course=" + grade.getCourseId() + " assessment=" + grade.getAssessmentName()
+                        + " offline=" + grade.getMarksObtained() + "/" + grade.getTotalMarks()
+                        + " kept=" + match.getMarksObtained() + "/" + match.getTotalMarks());
+            }
+        }
+        gradeDAO.recordGrades(toInsert);
+        return toInsert.size();
+    }
+
+    /**
+     * Find a recorded grade for the same assessment type, name, semester and year
+     * @return the match, or null if the assessment was not recorded
+     */
+    static Grade findSameAssessment(List<Grade> recorded, Grade grade) {
+        for (Grade other : recorded) {
+            if (Objects.equals(other.getAssessmentType(), grade.getAssessmentType())
+                    && Objects.equals(other.getAssessmentName(), grade.getAssessmentName())
+                    && Objects.equals(other.getSemester(), grade.getSemester())
+                    && Objects.equals(other.getAcademicYear(), grade.getAcademicYear())) {
+                return other;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Check if two grades carry the same marks (a replayed duplicate rather than a conflict)
+     */
+    static boolean sameMarks(Grade recorded, Grade grade) {
+        return recorded.getMarksObtained().compareTo(grade.getMarksObtained()) == 0
+                && recorded.getTotalMarks().compareTo(grade.getTotalMarks()) == 0;
+    }
+
+    private static String describe(String status) {
+        return status.isEmpty() ? "none" : WriteJournal.UNKNOWN_BASE.equals(status) ? "unknown" : status;
+    }
+}
@@ -0,0 +1,248 @@
+package com.sims.offline;
+
+import com.sims.models.Attendance;
+import com.sims.models.Grade;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Append-only journal of writes made while offline
+ * Each entry is one tab-separated line, forced to disk before the write is acknowledged.
+ * Attendance entries carry the status the user was looking at when they changed the mark
+ * (the base), so replay can tell a mark changed by somebody else in the meantime.
+ * Replayed entries are removed by rewriting the journal with what is left. A last line without
+ * its newline was cut short by a crash and is dropped when the journal is loaded.
+ */
+class WriteJournal {
+    /**
+     * Base status of a mark on a sheet that was never read online
+     */
+    static final String UNKNOWN_BASE = "?";
+
+    /**
+     * One journaled write: either an attendance mark or a new grade
+     */
+    static class Entry {
+        private final long sequence;
+        private final Attendance attendance;
+        private final String baseStatus;
+        private final Grade grade;
+
+        private Entry(long sequence, Attendance attendance, String baseStatus, Grade grade) {
+            this.sequence = sequence;
+            this.attendance = attendance;
+            this.baseStatus = baseStatus;
+            this.grade = grade;
+        }
+
+        long getSequence() {
+            return sequence;
+        }
+
+        /**
+         * The mark, or null for a grade entry
+         */
+        Attendance getAttendance() {
+            return attendance;
+        }
+
+        /**
+         * Status name last seen in the database, "" for no mark, or UNKNOWN_BASE
+         */
+        String getBaseStatus() {
+            return baseStatus;
+        }
+
+        /**
+         * The grade, or null for an attendance entry
+         */
+        Grade getGrade() {
+            return grade;
+        }
+    }
+
+    private final Path path;
+    private final List<Entry> entries = new ArrayList<>();
+    private FileChannel channel;
+    private long nextSequence = 1;
+
+    WriteJournal(Path path) throws IOException {
+        this.path = path;
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        load();
+        this.channel = open();
+    }
+
+    /**
+     * Durably append attendance marks with their base statuses (parallel lists)
+     */
+    synchronized List<Entry> appendAttendance(List<Attendance> attendanceList, List<String> baseStatuses)
+            throws IOException {
+        List<Entry> appended = new ArrayList<>();
+        for (int i = 0; i < attendanceList.size(); i++) {
+            appended.add(new Entry(nextSequence++, attendanceList.get(i), baseStatuses.get(i), null));
+        }
+        write(appended);
+        return appended;
+    }
+
+    /**
+     * Durably append new grades
+     */
+    synchronized List<Entry> appendGrades(List<Grade> grades) throws IOException {
+        List<Entry> appended = new ArrayList<>();
+        for (Grade grade : grades) {
+            appended.add(new Entry(nextSequence++, null, null, grade));
+        }
+        write(appended);
+        return appended;
+    }
+
+    private void write(List<Entry> appended) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (Entry entry : appended) {
+            lines.append(encode(entry)).append('\n');
+        }
+        channel.write(ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8)));
+        channel.force(false);
+        entries.addAll(appended);
+    }
+
+    /**
+     * Get the pending entries in the order they were written
+     */
+    synchronized List<Entry> getEntries() {
+        return new ArrayList<>(entries);
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Drop replayed entries and rewrite the journal with the rest
+     */
+    synchronized void remove(Collection<Long> sequences) throws IOException {
+        Set<Long> removed = new HashSet<>(sequences);
+        if (!entries.removeIf(entry -> removed.contains(entry.getSequence()))) {
+            return;
+        }
+        channel.close();
+        rewrite();
+        channel = open();
+    }
+
+    /**
+     * Replace the journal file with the pending entries
+     */
+    private void rewrite() throws IOException {
+        Path tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+        List<String> lines = new ArrayList<>();
+        for (Entry entry : entries) {
+            lines.add(encode(entry));
+        }
+        Files.write(tempPath, lines, StandardCharsets.UTF_8);
+        Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void load() throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        String content = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        // A torn last line may still parse with a field cut short, so it is dropped either way
+        int complete = content.lastIndexOf('\n') + 1;
+        for (String line : content.substring(0, complete).split("\n")) {
+            Entry entry = decode(line);
+            if (entry != null) {
+                entries.add(entry);
+                nextSequence = Math.max(nextSequence, entry.getSequence() + 1);
+            }
+        }
+        if (complete < content.length()) {
+            // Otherwise the next append would continue the torn line
+            rewrite();
+        }
+    }
+
+    private FileChannel open() throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static String encode(Entry entry) {
+        if (entry.getAttendance() != null) {
+            Attendance attendance = entry.getAttendance();
+            return "A\t" + entry.getSequence() + "\t" +
+                   attendance.getStudentId() + "\t" +
+                   attendance.getCourseId() + "\t" +
+                   attendance.getAttendanceDate() + "\t" +
+                   attendance.getStatus().name() + "\t" +
+                   entry.getBaseStatus() + "\t" +
+                   (attendance.getRecordedBy() != null ? attendance.getRecordedBy() : "") + "\t" +
+                   LocalStore.encode(attendance.getRemarks());
+        }
+        Grade grade = entry.getGrade();
+        return "G\t" + entry.getSequence() + "\t" +
+               grade.getStudentId() + "\t" +
+               grade.getCourseId() + "\t" +
+               LocalStore.encode(grade.getAssessmentType()) + "\t" +
+               LocalStore.encode(grade.getAssessmentName()) + "\t" +
+               grade.getMarksObtained().toPlainString() + "\t" +
+               grade.getTotalMarks().toPlainString() + "\t" +
+               LocalStore.encode(grade.getSemester()) + "\t" +
+               LocalStore.encode(grade.getAcademicYear()) + "\t" +
+               (grade.getRecordedBy() != null ? grade.getRecordedBy() : "");
+    }
+
+    private static Entry decode(String line) {
+        String[] fields = line.split("\t", -1);
+        try {
+            if ("A".equals(fields[0]) && fields.length == 9) {
+                Attendance attendance = new Attendance(
+                    Integer.parseInt(fields[2]),
+                    Integer.parseInt(fields[3]),
+                    LocalDate.parse(fields[4]),
+                    Attendance.AttendanceStatus.valueOf(fields[5])
+                );
+                if (!fields[7].isEmpty()) {
+                    attendance.setRecordedBy(Integer.parseInt(fields[7]));
+                }
+                attendance.setRemarks(LocalStore.decode(fields[8]));
+                return new Entry(Long.parseLong(fields[1]), attendance, fields[6], null);
+            }
+            if ("G".equals(fields[0]) && fields.length == 11) {
+                Grade grade = new Grade(
+                    Integer.parseInt(fields[2]),
+                    Integer.parseInt(fields[3]),
+                    LocalStore.decode(fields[4]),
+                    LocalStore.decode(fields[5]),
+                    new BigDecimal(fields[6]),
+                    new BigDecimal(fields[7]),
+                    LocalStore.decode(fields[8]),
+                    LocalStore.decode(fields[9])
+                );
+                if (!fields[10].isEmpty()) {
+                    grade.setRecordedBy(Integer.parseInt(fields[10]));
+                }
+                return new Entry(Long.parseLong(fields[1]), null, null, grade);
+            }
+        } catch (RuntimeException e) {
+            // Fall through: torn write from a crash mid-append
+        }
+        return null;
+    }
+}
@@ -0,0 +1,343 @@
+package com.sims.services;
+
+import com.sims.dao.AttendanceDAO;
+import com.sims.metrics.Tracer;
+import com.sims.models.Attendance;
+import com.sims.models.AttendanceSheetEntry;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind buffer for attendance marks
+ * Marks are appended to a local journal (forced to disk) and acknowledged immediately,
+ * then flushed to the database in coalesced batches by a background thread.
+ * Only the latest mark per (student, course, date) is kept, matching the upsert key.
+ *
+ * Enabled with -Dsims.attendance.writeBehind=true; the journal location defaults to
+ * ~/.sims/attendance-journal.log and can be changed with -Dsims.attendance.journal.
+ */
+public class AttendanceWriteBuffer {
+    private static final boolean ENABLED = Boolean.getBoolean("sims.attendance.writeBehind");
+    private static final long FLUSH_INTERVAL_MS = Long.getLong("sims.attendance.flushIntervalMs", 5000L);
+    private static final int FLUSH_BATCH_SIZE = Integer.getInteger("sims.attendance.flushBatchSize", 500);
+    private static final long MAX_BACKOFF_MS = 5 * 60 * 1000L;
+    private static final long SHUTDOWN_TIMEOUT_MS = 10000L;
+
+    private static AttendanceWriteBuffer instance;
+
+    private final AttendanceDAO attendanceDAO;
+    private final Path journalPath;
+    private final Map<String, Attendance> pending = new LinkedHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    private FileChannel journal;
+    private long nextAttemptAt;
+    private long backoffMs;
+    private boolean flushScheduled;
+
+    private AttendanceWriteBuffer(AttendanceDAO attendanceDAO, Path journalPath) throws IOException {
+        this.attendanceDAO = attendanceDAO;
+        this.journalPath = journalPath;
+        Files.createDirectories(journalPath.toAbsolutePath().getParent());
+        replayJournal();
+        this.journal = openJournal();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "attendance-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, FLUSH_INTERVAL_MS, FLUSH_INTERVAL_MS,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Check if write-behind mode is enabled for this process
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Get the shared buffer, starting it (and replaying any journal left by a previous run) on first use
+     */
+    public static synchronized AttendanceWriteBuffer getInstance() throws IOException {
+        if (instance == null) {
+            instance = new AttendanceWriteBuffer(new AttendanceDAO(), getJournalPath());
+        }
+        return instance;
+    }
+
+    /**
+     * Start the buffer at startup when write-behind is enabled, or when a previous run left marks in
+     * the journal (e.g. it crashed, or was run with write-behind and then without), so they are flushed
+     * without waiting for the next attendance save
+     */
+    public static void startIfNeeded() {
+        try {
+            Path journalPath = getJournalPath();
+            // The journal is kept, empty, once everything in it has been written
+            if (!ENABLED && (!Files.exists(journalPath) || Files.size(journalPath) == 0)) {
+                return;
+            }
+            getInstance();
+        } catch (IOException e) {
+            System.err.println("Attendance journal could not be replayed: " + e.getMessage());
+        }
+    }
+
+    private static Path getJournalPath() {
+        String defaultJournal = Paths.get(System.getProperty("user.home"), ".sims",
+                "attendance-journal.log").toString();
+        return Paths.get(System.getProperty("sims.attendance.journal", defaultJournal));
+    }
+
+    /**
+     * Drain the buffer if it was started; called from the shutdown hook
+     */
+    public static synchronized void shutdownIfStarted() {
+        if (instance != null) {
+            instance.shutdown();
+            instance = null;
+        }
+    }
+
+    /**
+     * Accept attendance marks: journal them durably and queue them for the next flush
+     */
+    public synchronized void submit(List<Attendance> attendanceList) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (Attendance attendance : attendanceList) {
+            lines.append(encode(attendance)).append('\n');
+        }
+        journal.write(ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8)));
+        journal.force(false);
+
+        for (Attendance attendance : attendanceList) {
+            pending.put(key(attendance), attendance);
+        }
+
+        if (pending.size() >= FLUSH_BATCH_SIZE && !flushScheduled) {
+            flushScheduled = true;
+            scheduler.execute(Tracer.wrap("attendance flush", this::flushQuietly));
+        }
+    }
+
+    /**
+     * Show marks still waiting to be flushed on a sheet read from the database
+     * Without this a sheet reopened before the flush shows the stored marks, and saving it again
+     * would overwrite the pending ones. Like the upsert, a pending mark without remarks or recorder
+     * keeps the stored ones. Does nothing unless the buffer was started.
+     */
+    public static void overlayPending(int courseId, LocalDate date, List<AttendanceSheetEntry> sheet) {
+        AttendanceWriteBuffer buffer;
+        synchronized (AttendanceWriteBuffer.class) {
+            buffer = instance;
+        }
+        if (buffer == null) {
+            return;
+        }
+
+        Map<Integer, Attendance> marks = new HashMap<>();
+        synchronized (buffer) {
+            for (Attendance attendance : buffer.pending.values()) {
+                if (attendance.getCourseId() == courseId && date.equals(attendance.getAttendanceDate())) {
+                    marks.put(attendance.getStudentId(), attendance);
+                }
+            }
+        }
+        for (AttendanceSheetEntry entry : sheet) {
+            Attendance mark = marks.get(entry.getStudent().getStudentId());
+            if (mark == null) {
+                continue;
+            }
+            Attendance stored = entry.getAttendance();
+            Attendance shown = new Attendance(mark.getStudentId(), courseId, date, mark.getStatus());
+            shown.setRemarks(mark.getRemarks() != null || stored == null ? mark.getRemarks() : stored.getRemarks());
+            shown.setRecordedBy(mark.getRecordedBy() != null || stored == null
+                    ? mark.getRecordedBy() : stored.getRecordedBy());
+            if (stored != null) {
+                shown.setAttendanceId(stored.getAttendanceId());
+            }
+            entry.setAttendance(shown);
+        }
+    }
+
+    /**
+     * Number of marks accepted but not yet written to the database
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Write all pending marks to the database in one batch
+     * Marks re-submitted while the batch was in flight stay queued for the next flush, and a batch
+     * that was not written stays queued whole.
+     */
+    public void flush() throws SQLException, IOException {
+        Map<String, Attendance> batch;
+        synchronized (this) {
+            flushScheduled = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new LinkedHashMap<>(pending);
+        }
+
+        // Not batchRecordAttendance: offline, the marks must stay here rather than move to the offline journal
+        if (!attendanceDAO.writeAttendance(new ArrayList<>(batch.values()))) {
+            throw new SQLException("Attendance batch of " + batch.size() + " marks was not written");
+        }
+
+        synchronized (this) {
+            for (Map.Entry<String, Attendance> entry : batch.entrySet()) {
+                pending.remove(entry.getKey(), entry.getValue());
+            }
+            compactJournal();
+        }
+    }
+
+    /**
+     * Stop the background thread and make a final attempt to drain the buffer
+     * Anything that cannot be written stays in the journal and is flushed after the next start.
+     */
+    public void shutdown() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (SQLException | IOException e) {
+            System.err.println("Attendance buffer not fully drained, " + getPendingCount() +
+                    " marks kept in journal: " + e.getMessage());
+        }
+        synchronized (this) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                System.err.println("Error closing attendance journal: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Scheduled flush with exponential backoff while the database is failing
+     */
+    private void flushQuietly() {
+        long now = System.currentTimeMillis();
+        if (now < nextAttemptAt) {
+            return;
+        }
+        try {
+            flush();
+            backoffMs = 0;
+            nextAttemptAt = 0;
+        } catch (SQLException | IOException e) {
+            backoffMs = backoffMs == 0 ? FLUSH_INTERVAL_MS : Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            nextAttemptAt = now + backoffMs;
+            System.err.println("Attendance flush failed, retrying in " + backoffMs + " ms: " + e.getMessage());
+        }
+    }
+
+    private void replayJournal() throws IOException {
+        if (!Files.exists(journalPath)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(journalPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Attendance attendance = decode(line);
+                if (attendance != null) {
+                    pending.put(key(attendance), attendance);
+                }
+            }
+        }
+        if (!pending.isEmpty()) {
+            System.out.println("Replaying " + pending.size() + " attendance marks from journal.");
+        }
+    }
+
+    /**
+     * Rewrite the journal so it only holds marks that are still pending
+     */
+    private void compactJournal() throws IOException {
+        Path tempPath = journalPath.resolveSibling(journalPath.getFileName() + ".tmp");
+        List<String> lines = new ArrayList<>();
+        for (Attendance attendance : pending.values()) {
+            lines.add(encode(attendance));
+        }
+        Files.write(tempPath, lines, StandardCharsets.UTF_8);
+        journal.close();
+        Files.move(tempPath, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        journal = openJournal();
+    }
+
+    private FileChannel openJournal() throws IOException {
+        return FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    private static String key(Attendance attendance) {
+        return attendance.getStudentId() + ":" + attendance.getCourseId() + ":" + attendance.getAttendanceDate();
+    }
+
+    private static String encode(Attendance attendance) {
+        try {
+            return attendance.getStudentId() + "\t" +
+                   attendance.getCourseId() + "\t" +
+                   attendance.getAttendanceDate() + "\t" +
+                   attendance.getStatus().name() + "\t" +
+                   (attendance.getRecordedBy() != null ? attendance.getRecordedBy() : "") + "\t" +
+                   (attendance.getRemarks() != null ? URLEncoder.encode(attendance.getRemarks(), "UTF-8") : "");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Attendance decode(String line) {
+        String[] fields = line.split("\t", -1);
+        if (fields.length != 6) {
+            // Torn write from a crash mid-append
+            return null;
+        }
+        try {
+            Attendance attendance = new Attendance(
+                Integer.parseInt(fields[0]),
+                Integer.parseInt(fields[1]),
+                LocalDate.parse(fields[2]),
+                Attendance.AttendanceStatus.valueOf(fields[3])
+            );
+            if (!fields[4].isEmpty()) {
+                attendance.setRecordedBy(Integer.parseInt(fields[4]));
+            }
+            if (!fields[5].isEmpty()) {
+                attendance.setRemarks(URLDecoder.decode(fields[5], "UTF-8"));
+            }
+            return attendance;
+        } catch (RuntimeException | UnsupportedEncodingException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.sims.services;
+
+import com.sims.cache.CacheRegistry;
+import com.sims.cache.ReferenceSnapshot;
+import com.sims.dao.ChangeLogDAO;
+import com.sims.dao.CourseDAO;
+import com.sims.dao.StudentDAO;
+import com.sims.events.EventBus;
+import com.sims.events.RemoteChange;
+import com.sims.models.ChangeRecord;
+import com.sims.offline.OfflineMode;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Polls the change_log table for mutations made by other clients
+ * Each poll is a primary key range scan after the last change id seen. Changes to students and
+ * courses invalidate the local DAO caches; every change is then published on the EventBus as a
+ * RemoteChange so open panels can refresh.
+ *
+ * Ids are taken in insert order but commit in commit order, so a change written inside a long
+ * transaction can appear after higher ids were already polled. Skipped ids are therefore kept and
+ * looked up again on every poll until they appear or -Dsims.changeLog.gapTimeoutSeconds (default
+ * 600) passes. An id still missing after that belongs to a rolled-back transaction (AUTO_INCREMENT
+ * values are never reused) and is dropped. Changes purged before they were polled (after a long
+ * pause or offline period) make every local cache reload.
+ *
+ * The poll interval is set with -Dsims.changeLog.pollSeconds (default 5, 0 disables polling).
+ * Polls are skipped while working offline.
+ */
+public class ChangeLogPoller {
+    private static final long POLL_SECONDS = Long.getLong("sims.changeLog.pollSeconds", 5L);
+    private static final int PAGE_SIZE = 500;
+    private static final int RETENTION_HOURS = 24;
+    private static final long PURGE_INTERVAL_MS = 60 * 60 * 1000L;
+    private static final long GAP_TIMEOUT_MS = Long.getLong("sims.changeLog.gapTimeoutSeconds", 600L) * 1000L;
+    /**
+     * More skipped ids than this are not tracked one by one; the caches are cleared instead
+     */
+    private static final int MAX_TRACKED_GAPS = 10_000;
+    private static final int GAP_LOOKUP_SIZE = 500;
+
+    private static ChangeLogPoller instance;
+
+    private final ChangeLogDAO changeLogDAO;
+    private final LongSupplier clock;
+    private ScheduledExecutorService scheduler;
+    private long lastChangeId;
+    private long lastPurgeAt;
+    /** Ids below lastChangeId not seen yet, with the time the gap was found */
+    private final Map<Long, Long> missingSince = new LinkedHashMap<>();
+
+    /**
+     * Start from the latest change; nothing is polled until start is called
+     * @param clock current time in milliseconds, used to expire skipped ids
+     */
+    ChangeLogPoller(ChangeLogDAO changeLogDAO, LongSupplier clock) throws SQLException {
+        this.changeLogDAO = changeLogDAO;
+        this.clock = clock;
+        this.lastChangeId = changeLogDAO.getLatestChangeId();
+        this.lastPurgeAt = clock.getAsLong();
+    }
+
+    private void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "change-log-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::pollQuietly, POLL_SECONDS, POLL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Start polling unless disabled; a database without the change_log table is reported and skipped
+     */
+    public static synchronized void startIfEnabled() {
+        if (instance != null || POLL_SECONDS <= 0) {
+            return;
+        }
+        try {
+            instance = new ChangeLogPoller(new ChangeLogDAO(), System::currentTimeMillis);
+            instance.start();
+        } catch (SQLException e) {
+            System.err.println("Change log polling disabled: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stop polling if it was started; called from the shutdown hook
+     */
+    public static synchronized void shutdownIfStarted() {
+        if (instance != null) {
+            instance.scheduler.shutdownNow();
+            instance = null;
+        }
+    }
+
+    private void pollQuietly() {
+        if (OfflineMode.isOffline()) {
+            return;
+        }
+        try {
+            poll();
+            if (clock.getAsLong() - lastPurgeAt > PURGE_INTERVAL_MS) {
+                lastPurgeAt = clock.getAsLong();
+                changeLogDAO.purgeOlderThan(RETENTION_HOURS);
+            }
+        } catch (SQLException e) {
+            System.err.println("Change log poll failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Apply every change recorded since the last poll
+     */
+    void poll() throws SQLException {
+        long oldest = changeLogDAO.getOldestChangeId();
+        if (oldest > lastChangeId + 1) {
+            invalidateAll("changes after " + lastChangeId + " were purged before they were polled");
+            if (oldest - lastChangeId - 1 <= MAX_TRACKED_GAPS) {
+                // Some of these ids may belong to transactions still open rather than purged rows
+                noteSkipped(oldest);
+            }
+            lastChangeId = oldest - 1;
+        }
+        retryMissing();
+
+        List<ChangeRecord> changes;
+        do {
+            changes = changeLogDAO.getChangesSince(lastChangeId, PAGE_SIZE);
+            for (ChangeRecord change : changes) {
+                noteSkipped(change.getChangeId());
+                lastChangeId = change.getChangeId();
+                applyUnlessOwn(change);
+            }
+        } while (changes.size() == PAGE_SIZE);
+    }
+
+    /**
+     * Remember the ids between the last change seen and the next one; they may still commit
+     */
+    private void noteSkipped(long changeId) {
+        long skipped = changeId - lastChangeId - 1;
+        if (skipped <= 0) {
+            return;
+        }
+        if (missingSince.size() + skipped > MAX_TRACKED_GAPS) {
+            invalidateAll(skipped + " change ids skipped after " + lastChangeId);
+            return;
+        }
+        long now = clock.getAsLong();
+        for (long missing = lastChangeId + 1; missing < changeId; missing++) {
+            missingSince.put(missing, now);
+        }
+    }
+
+    /**
+     * Apply skipped changes that have committed since; drop those older than the timeout as rolled back
+     */
+    private void retryMissing() throws SQLException {
+        if (missingSince.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(missingSince.keySet());
+        for (int from = 0; from < ids.size(); from += GAP_LOOKUP_SIZE) {
+            List<Long> lookup = ids.subList(from, Math.min(from + GAP_LOOKUP_SIZE, ids.size()));
+            for (ChangeRecord change : changeLogDAO.getChanges(lookup)) {
+                missingSince.remove(change.getChangeId());
+                applyUnlessOwn(change);
+            }
+        }
+
+        // Gaps are tracked in the order they were found, so the expired ones come first
+        long expiredBefore = clock.getAsLong() - GAP_TIMEOUT_MS;
+        for (Iterator<Long> foundAt = missingSince.values().iterator(); foundAt.hasNext(); ) {
+            if (foundAt.next() >= expiredBefore) {
+                break;
+            }
+            foundAt.remove();
+        }
+    }
+
+    /**
+     * Changes may have been missed: drop every cached entity and stop serving the reference snapshot
+     */
+    private void invalidateAll(String reason) {
+        System.err.println("Clearing local caches: " + reason);
+        missingSince.clear();
+        CacheRegistry.invalidateAll();
+        ReferenceSnapshot.markStale();
+    }
+
+    private void applyUnlessOwn(ChangeRecord change) {
+        if (!ChangeLogDAO.CLIENT_ID.equals(change.getClientId())) {
+            apply(change);
+        }
+    }
+
+    private void apply(ChangeRecord change) {
+        switch (change.getEntityType()) {
+            case STUDENT:
+                StudentDAO.invalidateCachedStudent(change.getEntityId());
+                break;
+            case COURSE:
+                CourseDAO.invalidateCachedCourse(change.getEntityId());
+                break;
+            default:
+                break;
+        }
+        EventBus.getDefault().publish(new RemoteChange(change));
+    }
+}
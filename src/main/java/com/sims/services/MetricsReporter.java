@@ -0,0 +1,102 @@
+package com.sims.services;
+
+import com.sims.cache.CacheRegistry;
+import com.sims.cache.CacheStats;
+import com.sims.database.ConnectionPoolMBean;
+import com.sims.database.DatabaseConnection;
+import com.sims.metrics.QueryMetrics;
+import com.sims.metrics.QueryStats;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodic text dump of query, connection pool and cache statistics
+ * The same figures are always available over JMX (com.sims:type=Query and
+ * com.sims:type=ConnectionPool); the dump is for machines without a JMX console.
+ *
+ * Enabled with -Dsims.metrics.dumpSeconds (default 0, off). Dumps go to standard output, or are
+ * appended to -Dsims.metrics.dumpFile when set. A final dump is written at shutdown.
+ */
+public class MetricsReporter {
+    private static final long DUMP_SECONDS = Long.getLong("sims.metrics.dumpSeconds", 0L);
+    private static final String DUMP_FILE = System.getProperty("sims.metrics.dumpFile");
+
+    private static MetricsReporter instance;
+
+    private final ScheduledExecutorService scheduler;
+
+    private MetricsReporter() {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(MetricsReporter::dumpQuietly, DUMP_SECONDS, DUMP_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Start periodic dumps unless disabled
+     */
+    public static synchronized void startIfEnabled() {
+        if (instance == null && DUMP_SECONDS > 0) {
+            instance = new MetricsReporter();
+        }
+    }
+
+    /**
+     * Stop dumping and write a final report if it was started; called from the shutdown hook
+     */
+    public static synchronized void shutdownIfStarted() {
+        if (instance != null) {
+            instance.scheduler.shutdownNow();
+            instance = null;
+            dumpQuietly();
+        }
+    }
+
+    private static void dumpQuietly() {
+        try {
+            if (DUMP_FILE != null) {
+                try (PrintWriter out = new PrintWriter(new OutputStreamWriter(
+                        new FileOutputStream(DUMP_FILE, true), StandardCharsets.UTF_8))) {
+                    dump(out);
+                }
+            } else {
+                PrintWriter out = new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+                dump(out);
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Metrics dump failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Write the current statistics, busiest queries first
+     */
+    public static void dump(PrintWriter out) {
+        out.println("=== SIMS metrics " + LocalDateTime.now().withNano(0) + " ===");
+        ConnectionPoolMBean pool = DatabaseConnection.getPoolStats();
+        if (pool != null) {
+            out.println(pool);
+        }
+        out.printf("%-48s %8s %6s %9s %9s %9s %9s %9s %11s%n",
+                "query", "count", "errors", "rows", "mean ms", "p50 ms", "p99 ms", "max ms", "total ms");
+        for (QueryStats stats : QueryMetrics.getAllStats()) {
+            out.printf("%-48s %8d %6d %9d %9.2f %9.2f %9.2f %9.2f %11.1f%n", stats.getKey(),
+                    stats.getExecutions(), stats.getErrors(), stats.getRows(), stats.getMeanMillis(),
+                    stats.getP50Millis(), stats.getP99Millis(), stats.getMaxMillis(), stats.getTotalMillis());
+        }
+        for (CacheStats stats : CacheRegistry.getAllStats()) {
+            out.println(stats);
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,264 @@
+package com.sims.services;
+
+import com.sims.cache.ReferenceSnapshot;
+import com.sims.dao.ChangeLogDAO;
+import com.sims.dao.CourseDAO;
+import com.sims.dao.StudentDAO;
+import com.sims.events.ConnectivityChanged;
+import com.sims.events.CourseCreated;
+import com.sims.events.CourseUpdated;
+import com.sims.events.DomainEvent;
+import com.sims.events.EventBus;
+import com.sims.events.RemoteChange;
+import com.sims.events.StudentCreated;
+import com.sims.events.StudentDeleted;
+import com.sims.events.StudentEnrolled;
+import com.sims.events.StudentUpdated;
+import com.sims.models.ChangeRecord;
+import com.sims.models.Course;
+import com.sims.models.Student;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the memory-mapped ReferenceSnapshot in step with the database
+ * At startup the newest snapshot file is mapped and installed straight away, so the first
+ * student and course pickers are filled from disk. In the background the change log is then
+ * checked for student, course and enrollment changes made since the snapshot was written;
+ * if there are any (or the snapshot is older than the change log retention) the snapshot is
+ * taken out of service and rebuilt. Later changes, local or seen by the ChangeLogPoller, do the
+ * same after -Dsims.snapshot.rebuildDelaySeconds (default 30) so bursts cost one rebuild.
+ *
+ * Snapshots are kept in -Dsims.snapshot.dir (default ~/.sims/snapshot); each rebuild writes a
+ * new file, because a mapped file cannot be replaced on every platform. Disabled with
+ * -Dsims.snapshot=false.
+ */
+public class SnapshotRefresher {
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("sims.snapshot", "true"));
+    private static final long REBUILD_DELAY_SECONDS = Long.getLong("sims.snapshot.rebuildDelaySeconds", 30L);
+    private static final long MAX_AGE_MS = TimeUnit.HOURS.toMillis(12);
+    private static final int CHANGE_PAGE_SIZE = 500;
+    private static final String FILE_PREFIX = "reference-";
+    private static final String FILE_SUFFIX = ".snap";
+
+    private static SnapshotRefresher instance;
+
+    private final Path directory;
+    private final ScheduledExecutorService scheduler;
+    private final List<EventBus.Subscription> subscriptions = new ArrayList<>();
+    private ReferenceSnapshot snapshot;
+    private boolean rebuildScheduled;
+
+    private SnapshotRefresher(Path directory) {
+        this.directory = directory;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "snapshot-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Install the newest snapshot on disk and start keeping it fresh, unless disabled
+     */
+    public static synchronized void startIfEnabled() {
+        if (instance != null || !ENABLED) {
+            return;
+        }
+        String defaultDir = Paths.get(System.getProperty("user.home"), ".sims", "snapshot").toString();
+        instance = new SnapshotRefresher(Paths.get(System.getProperty("sims.snapshot.dir", defaultDir)));
+        instance.start();
+    }
+
+    /**
+     * Stop refreshing if it was started; the installed snapshot stays in use
+     */
+    public static synchronized void shutdownIfStarted() {
+        if (instance != null) {
+            for (EventBus.Subscription subscription : instance.subscriptions) {
+                subscription.unsubscribe();
+            }
+            instance.scheduler.shutdownNow();
+            instance = null;
+        }
+    }
+
+    private void start() {
+        long generation = ReferenceSnapshot.getGeneration();
+        Path newest = findNewest();
+        if (newest != null) {
+            try {
+                ReferenceSnapshot loaded = ReferenceSnapshot.open(newest);
+                if (ReferenceSnapshot.install(loaded, generation)) {
+                    snapshot = loaded;
+                    System.out.println("Loaded " + loaded);
+                }
+            } catch (IOException e) {
+                System.err.println("Ignoring reference snapshot: " + e.getMessage());
+            }
+        }
+
+        EventBus bus = EventBus.getDefault();
+        Class<?>[] changes = {StudentCreated.class, StudentUpdated.class, StudentDeleted.class,
+                CourseCreated.class, CourseUpdated.class, StudentEnrolled.class};
+        for (Class<?> type : changes) {
+            subscriptions.add(bus.subscribe(type.asSubclass(DomainEvent.class), EventBus.Delivery.SYNC,
+                    event -> changed()));
+        }
+        subscriptions.add(bus.subscribe(RemoteChange.class, EventBus.Delivery.SYNC, event -> {
+            if (affectsSnapshot(event.getChange())) {
+                changed();
+            }
+        }));
+        subscriptions.add(bus.subscribe(ConnectivityChanged.class, EventBus.Delivery.ASYNC, event -> {
+            if (!event.isOffline()) {
+                scheduler.execute(this::checkQuietly);
+            }
+        }));
+        scheduler.execute(this::checkQuietly);
+    }
+
+    /**
+     * A student, course or enrollment changed: stop serving the snapshot and rebuild it soon
+     */
+    private void changed() {
+        ReferenceSnapshot.markStale();
+        synchronized (this) {
+            if (rebuildScheduled) {
+                return;
+            }
+            rebuildScheduled = true;
+        }
+        scheduler.schedule(this::rebuildQuietly, REBUILD_DELAY_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private static boolean affectsSnapshot(ChangeRecord change) {
+        switch (change.getEntityType()) {
+            case STUDENT:
+            case COURSE:
+            case ENROLLMENT:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Rebuild unless the snapshot is known to match the database
+     */
+    private void checkQuietly() {
+        try {
+            if (snapshot == null || System.currentTimeMillis() - snapshot.getCreatedAt() > MAX_AGE_MS
+                    || changedSince(snapshot.getLastChangeId())) {
+                ReferenceSnapshot.markStale();
+                rebuild();
+            }
+        } catch (SQLException | IOException e) {
+            System.err.println("Reference snapshot check failed: " + e.getMessage());
+        }
+    }
+
+    private boolean changedSince(long changeId) throws SQLException {
+        ChangeLogDAO changeLogDAO = new ChangeLogDAO();
+        List<ChangeRecord> changes;
+        do {
+            changes = changeLogDAO.getChangesSince(changeId, CHANGE_PAGE_SIZE);
+            for (ChangeRecord change : changes) {
+                if (affectsSnapshot(change)) {
+                    return true;
+                }
+                changeId = change.getChangeId();
+            }
+        } while (changes.size() == CHANGE_PAGE_SIZE);
+        return false;
+    }
+
+    private void rebuildQuietly() {
+        synchronized (this) {
+            rebuildScheduled = false;
+        }
+        try {
+            rebuild();
+        } catch (SQLException | IOException e) {
+            System.err.println("Reference snapshot rebuild failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Read students, courses and enrollments, write them to a new file and install it
+     * The change log position is read first, so changes made during the reads trigger another rebuild.
+     */
+    private void rebuild() throws SQLException, IOException {
+        long generation = ReferenceSnapshot.getGeneration();
+        long start = System.nanoTime();
+        long lastChangeId;
+        try {
+            lastChangeId = new ChangeLogDAO().getLatestChangeId();
+        } catch (SQLException e) {
+            // No change log: the snapshot is rebuilt at every start
+            lastChangeId = 0;
+        }
+        List<Student> students = new StudentDAO().getAllStudents();
+        List<Course> courses = new CourseDAO().getAllCourses();
+        Map<Integer, List<Integer>> enrollments = new CourseDAO().getEnrollments();
+
+        Files.createDirectories(directory);
+        String name = FILE_PREFIX + System.currentTimeMillis();
+        Path tempPath = directory.resolve(name + ".tmp");
+        Path file = directory.resolve(name + FILE_SUFFIX);
+        ReferenceSnapshot.write(tempPath, lastChangeId, students, courses, enrollments);
+        Files.move(tempPath, file, StandardCopyOption.ATOMIC_MOVE);
+
+        ReferenceSnapshot built = ReferenceSnapshot.open(file);
+        snapshot = built;
+        boolean installed = ReferenceSnapshot.install(built, generation);
+        System.out.printf("Rebuilt %s in %d ms%s%n", built,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), installed ? "" : " (already stale)");
+        deleteOlderThan(file);
+    }
+
+    private Path findNewest() {
+        Path newest = null;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                if (newest == null || file.getFileName().toString().compareTo(newest.getFileName().toString()) > 0) {
+                    newest = file;
+                }
+            }
+        } catch (IOException e) {
+            // No snapshot directory yet
+        }
+        return newest;
+    }
+
+    /**
+     * Remove superseded snapshots; files still mapped by this or another client are retried next time
+     */
+    private void deleteOlderThan(Path keep) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*")) {
+            for (Path file : files) {
+                if (!file.equals(keep) && file.getFileName().toString().compareTo(keep.getFileName().toString()) < 0) {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException e) {
+                        // Still mapped (Windows); removed after a later rebuild
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Could not clean up reference snapshots: " + e.getMessage());
+        }
+    }
+}
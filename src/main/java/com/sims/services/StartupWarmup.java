@@ -0,0 +1,217 @@
+package com.sims.services;
+
+import com.sims.dao.AttendanceDAO;
+import com.sims.dao.CourseDAO;
+import com.sims.dao.FinancialDAO;
+import com.sims.dao.GradeDAO;
+import com.sims.dao.StudentDAO;
+import com.sims.dao.UserDAO;
+import com.sims.database.DatabaseConnection;
+import com.sims.database.MigrationRunner;
+import com.sims.events.EventBus;
+import com.sims.offline.LocalStore;
+import com.sims.offline.OfflineMode;
+
+import java.lang.management.ManagementFactory;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Startup pipeline: warms the database and data layer in the background while the splash is up
+ * Background phases, on two startup threads:
+ *   driver          load the MySQL driver
+ *   data classes    initialize the DAOs, their caches and generated row mappers
+ *   pool            open -Dsims.startup.connections pooled connections in parallel (default 3),
+ *                   after driver
+ *   migrate         apply pending schema migrations when -Dsims.migrate=true, after pool
+ *   reference data  load the course list into CourseDAO's cache, after migrate
+ *   offline store   refresh the course rosters kept for offline mode, after reference data
+ * The caller times its own foreground phases (look and feel, login window, ...) with record().
+ * finish() prints every phase relative to JVM start once the background work is done.
+ */
+public class StartupWarmup {
+    private static final int CONNECTIONS = Integer.getInteger("sims.startup.connections", 3);
+
+    /**
+     * Work done in one phase
+     */
+    private interface Step {
+        void run() throws Exception;
+    }
+
+    /**
+     * One timed phase
+     */
+    private static class Phase {
+        private final String name;
+        private final String thread;
+        private final long startNanos;
+        private final long endNanos;
+
+        Phase(String name, String thread, long startNanos, long endNanos) {
+            this.name = name;
+            this.thread = thread;
+            this.startNanos = startNanos;
+            this.endNanos = endNanos;
+        }
+    }
+
+    private final long jvmStartNanos;
+    private final Consumer<String> status;
+    private final List<Phase> phases = new ArrayList<>();
+    private final ExecutorService workers;
+    private final CompletableFuture<Void> connection;
+    private final CompletableFuture<Void> migration;
+    private final CompletableFuture<Void> background;
+
+    private StartupWarmup(long mainStartNanos, Consumer<String> status) {
+        long sinceJvmStartMillis = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        this.jvmStartNanos = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(sinceJvmStartMillis);
+        this.status = status;
+        record("jvm", jvmStartNanos, mainStartNanos, "launcher");
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(2, r -> {
+            Thread thread = new Thread(r, "startup-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.connection = CompletableFuture
+                .runAsync(timed("driver", "Loading database driver...", DatabaseConnection::loadDriver), workers)
+                .thenRunAsync(timed("pool", "Connecting to database...",
+                        () -> DatabaseConnection.prefillPool(CONNECTIONS)), workers);
+        this.migration = connection.thenRunAsync(timed("migrate", "Applying schema migrations...", () -> {
+            if (Boolean.getBoolean("sims.migrate")) {
+                new MigrationRunner().migrate();
+            }
+        }), workers);
+        CompletableFuture<Void> referenceData = migration.thenRunAsync(
+                timed("reference data", "Loading courses...", () -> new CourseDAO().getAllCourses()), workers);
+        CompletableFuture<Void> offlineStore = referenceData.thenRunAsync(timed("offline store", null, () -> {
+            if (OfflineMode.isEnabled()) {
+                LocalStore.getDefault().putRosters(new CourseDAO().getActiveRosters());
+            }
+        }), workers);
+        CompletableFuture<Void> dataClasses = CompletableFuture.runAsync(
+                timed("data classes", null, StartupWarmup::initializeDataClasses), workers);
+        this.background = CompletableFuture.allOf(offlineStore, dataClasses);
+    }
+
+    /**
+     * Start the background phases
+     * @param mainStartNanos System.nanoTime() on entry to main, to time JVM startup
+     * @param status receives progress messages from the startup threads
+     */
+    public static StartupWarmup start(long mainStartNanos, Consumer<String> status) {
+        return new StartupWarmup(mainStartNanos, status);
+    }
+
+    private static void initializeDataClasses() throws ClassNotFoundException {
+        Class<?>[] classes = {StudentDAO.class, CourseDAO.class, GradeDAO.class, AttendanceDAO.class,
+                FinancialDAO.class, UserDAO.class, AuthService.class, EventBus.class};
+        for (Class<?> type : classes) {
+            Class.forName(type.getName(), true, type.getClassLoader());
+        }
+    }
+
+    private Runnable timed(String name, String message, Step step) {
+        return () -> {
+            if (message != null) {
+                status.accept(message);
+            }
+            long start = System.nanoTime();
+            try {
+                step.run();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            } finally {
+                record(name, start);
+            }
+        };
+    }
+
+    /**
+     * Wait until pooled connections are open
+     * @throws SQLException if the database cannot be reached
+     */
+    public void awaitConnection() throws SQLException {
+        await(connection);
+    }
+
+    /**
+     * Wait until migrations requested with -Dsims.migrate are applied
+     * @throws SQLException if a migration fails
+     */
+    public void awaitMigration() throws SQLException {
+        await(migration);
+    }
+
+    private static void await(CompletableFuture<Void> phase) throws SQLException {
+        try {
+            phase.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            throw new SQLException("Startup failed: " + cause, cause);
+        }
+    }
+
+    /**
+     * Record a phase that started at startNanos and ends now, on the current thread
+     */
+    public void record(String name, long startNanos) {
+        record(name, startNanos, System.nanoTime(), Thread.currentThread().getName());
+    }
+
+    private synchronized void record(String name, long startNanos, long endNanos, String thread) {
+        phases.add(new Phase(name, thread, startNanos, endNanos));
+    }
+
+    /**
+     * Print the phase report once the background phases are done, then stop the startup threads
+     * Failures of the background-only phases are reported but otherwise harmless: the caches
+     * they fill are loaded again on first use.
+     */
+    public void finish() {
+        background.whenComplete((result, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                System.err.println("Startup warmup failed: " + cause.getMessage());
+            }
+            System.out.print(report());
+            workers.shutdown();
+        });
+    }
+
+    /**
+     * Phases recorded so far, in start order, in milliseconds since JVM start
+     */
+    public synchronized String report() {
+        List<Phase> sorted = new ArrayList<>(phases);
+        sorted.sort(Comparator.comparingLong((Phase phase) -> phase.startNanos));
+        StringBuilder text = new StringBuilder("Startup phases (ms since JVM start):\n");
+        text.append(String.format("  %-16s %7s %7s %7s  %s%n", "phase", "start", "end", "took", "thread"));
+        for (Phase phase : sorted) {
+            text.append(String.format("  %-16s %7d %7d %7d  %s%n", phase.name, millis(phase.startNanos),
+                    millis(phase.endNanos), TimeUnit.NANOSECONDS.toMillis(phase.endNanos - phase.startNanos),
+                    phase.thread));
+        }
+        return text.toString();
+    }
+
+    private long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos - jvmStartNanos);
+    }
+}
@@ -0,0 +1,135 @@
+package com.sims.tools;
+
+import com.sims.cli.SimsCli;
+import com.sims.dao.UserDAO;
+import com.sims.models.User;
+import com.sims.services.AuthService;
+import com.sims.services.StartupWarmup;
+import com.sims.ui.AttendanceManagementFrame;
+import com.sims.ui.CourseManagementFrame;
+import com.sims.ui.DashboardFrame;
+import com.sims.ui.FinancialManagementFrame;
+import com.sims.ui.GradeManagementFrame;
+import com.sims.ui.LoginFrame;
+import com.sims.ui.SplashWindow;
+import com.sims.ui.StudentManagementFrame;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowEvent;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Training run for the class-data-sharing archive built by the "cds" Maven profile
+ * Walks the startup, login and dashboard flows so that the classes they load end up in the
+ * archive written by -XX:ArchiveClassesAtExit. With a display it shows the splash and the login
+ * window, then opens a dashboard as an administrator and clicks every menu item. Without one
+ * (a headless build machine) it builds the management panels on their own instead, which still
+ * covers most of the Swing and application classes. A database is used when one is reachable;
+ * otherwise the DAO calls fail and the resulting error dialogs are closed.
+ *
+ * Must be run with the same class path the launcher uses: java -cp sims.jar com.sims.tools.CdsTraining
+ */
+public class CdsTraining {
+    private static final long SETTLE_MS = 500;
+
+    public static void main(String[] args) throws Exception {
+        long start = System.nanoTime();
+        boolean headless = GraphicsEnvironment.isHeadless();
+        closeDialogsAsTheyOpen(headless);
+
+        SplashWindow splash = headless ? null : SplashWindow.showLater();
+        StartupWarmup warmup = StartupWarmup.start(start, status -> { });
+        UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+        try {
+            warmup.awaitConnection();
+        } catch (SQLException e) {
+            System.err.println("Training without a database: " + e.getMessage());
+        }
+        DashboardFrame.preloadClasses();
+
+        AuthService authService = new AuthService(new TrainingUserDAO());
+        authService.login("admin", "admin123");
+        if (headless) {
+            SwingUtilities.invokeAndWait(() -> buildPanels(authService));
+        } else {
+            SwingUtilities.invokeAndWait(() -> {
+                LoginFrame login = new LoginFrame();
+                login.setVisible(true);
+                splash.close();
+                login.dispose();
+            });
+            SwingUtilities.invokeAndWait(() -> openDashboard(authService));
+        }
+        Thread.sleep(SETTLE_MS);
+
+        // The command line shares the archive with the desktop client
+        Class.forName(SimsCli.class.getName());
+
+        System.out.printf("CDS training run finished in %d ms (%s)%n",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), headless ? "headless" : "with display");
+        System.exit(0);
+    }
+
+    /**
+     * Signs in as the real user when the database is up, otherwise as a stand-in administrator
+     */
+    private static class TrainingUserDAO extends UserDAO {
+        @Override
+        public User authenticate(String username, String password) {
+            try {
+                User user = super.authenticate(username, password);
+                if (user != null) {
+                    return user;
+                }
+            } catch (SQLException e) {
+                // No database: fall through to the stand-in
+            }
+            return new User(0, username, null, User.Role.ADMIN, null);
+        }
+    }
+
+    private static void openDashboard(AuthService authService) {
+        DashboardFrame dashboard = new DashboardFrame(authService);
+        dashboard.setVisible(true);
+        JMenuBar menuBar = dashboard.getJMenuBar();
+        for (int i = 0; i < menuBar.getMenuCount(); i++) {
+            JMenu menu = menuBar.getMenu(i);
+            for (int j = 0; j < menu.getItemCount(); j++) {
+                JMenuItem item = menu.getItem(j);
+                if (item != null) {
+                    item.doClick(0);
+                }
+            }
+        }
+        dashboard.dispose();
+    }
+
+    private static void buildPanels(AuthService authService) {
+        List<Function<AuthService, JComponent>> panels = Arrays.asList(StudentManagementFrame::new,
+                CourseManagementFrame::new, AttendanceManagementFrame::new, GradeManagementFrame::new,
+                FinancialManagementFrame::new);
+        for (Function<AuthService, JComponent> panel : panels) {
+            try {
+                panel.apply(authService);
+            } catch (HeadlessException e) {
+                // An error dialog without a database; the panel's classes are loaded by now
+            }
+        }
+    }
+
+    private static void closeDialogsAsTheyOpen(boolean headless) {
+        if (headless) {
+            return;
+        }
+        Toolkit.getDefaultToolkit().addAWTEventListener(event -> {
+            if (event.getID() == WindowEvent.WINDOW_OPENED && event.getSource() instanceof Dialog) {
+                SwingUtilities.invokeLater(((Dialog) event.getSource())::dispose);
+            }
+        }, AWTEvent.WINDOW_EVENT_MASK);
+    }
+}
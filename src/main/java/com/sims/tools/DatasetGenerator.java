@@ -0,0 +1,596 @@
+package com.sims.tools;
+
+import com.sims.database.DatabaseConnection;
+import com.sims.models.Grade;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Synthetic dataset generator
+ * Populates users, students, courses, enrollments, attendance, grades and financial records
+ * at a configurable scale, e.g. 100k students and 20M attendance rows. Rows are written with
+ * batched inserts on dedicated connections, one transaction per chunk of students, with
+ * chunks generated in parallel.
+ *
+ * The data is deterministic for a given seed and scale: every chunk draws from its own
+ * random stream derived from the seed, so the thread count does not change the rows
+ * generated (only the order in which they receive their auto-increment ids).
+ * Distributions: course popularity is Zipf-like, each student has an ability that drives
+ * their marks (normal around it) and an attendance propensity, and a minority of students
+ * carry scholarships or overdue fees.
+ *
+ * Rows are inserted directly rather than through the DAOs, so no change_log entries or
+ * domain events are produced. Run against an empty schema; existing rows are left alone
+ * but codes and usernames are prefixed to avoid clashing with the seed data.
+ *
+ * Usage: DatasetGenerator [--students N] [--courses N] [--courses-per-student N]
+ *        [--class-days N] [--seed N] [--threads N] [--batch N] [--chunk N]
+ */
+public class DatasetGenerator {
+    private static final String SEMESTER = "FALL";
+    private static final String ACADEMIC_YEAR = "2023-2024";
+    private static final LocalDate TERM_START = LocalDate.of(2023, 9, 4);
+    private static final String CODE_PREFIX = "G";
+    private static final BigDecimal FEE_PER_CREDIT = new BigDecimal("350.00");
+
+    private static final String[] FIRST_NAMES = {
+        "James", "Mary", "Robert", "Patricia", "John", "Jennifer", "Michael", "Linda", "David", "Elizabeth",
+        "William", "Barbara", "Richard", "Susan", "Joseph", "Jessica", "Thomas", "Sarah", "Charles", "Karen",
+        "Wei", "Aisha", "Mohammed", "Priya", "Hiroshi", "Sofia", "Mateo", "Fatima", "Olga", "Kwame",
+        "Liam", "Emma", "Noah", "Olivia", "Arjun", "Mei", "Lucas", "Amara", "Diego", "Ingrid"
+    };
+    private static final String[] LAST_NAMES = {
+        "Smith", "Johnson", "Williams", "Brown", "Jones", "Garcia", "Miller", "Davis", "Rodriguez", "Martinez",
+        "Hernandez", "Lopez", "Gonzalez", "Wilson", "Anderson", "Thomas", "Taylor", "Moore", "Jackson", "Martin",
+        "Lee", "Chen", "Kumar", "Patel", "Nguyen", "Kim", "Okafor", "Silva", "Ivanova", "Tanaka",
+        "Schmidt", "Rossi", "Dubois", "Novak", "Haddad", "Mensah", "Larsen", "Cohen", "Singh", "Walker"
+    };
+    private static final String[] SUBJECTS = {
+        "CS", "MATH", "ENG", "PHYS", "CHEM", "BIO", "HIST", "ECON", "PSY", "ART", "MUS", "PHIL", "STAT", "LAW"
+    };
+    private static final String[] STREETS = {"Main St", "Oak Ave", "Pine Rd", "Maple Dr", "Cedar Ln", "Elm St"};
+    // Assessment type, name and total marks given to every enrollment
+    private static final String[][] ASSESSMENTS = {
+        {"QUIZ", "Quiz 1", "20"}, {"QUIZ", "Quiz 2", "20"}, {"ASSIGNMENT", "Assignment 1", "50"},
+        {"EXAM", "Midterm", "100"}, {"EXAM", "Final", "100"}
+    };
+
+    private static final String USER_SQL =
+            "INSERT INTO users (username, password, role, email) VALUES (?, ?, ?, ?)";
+    private static final String STUDENT_SQL =
+            "INSERT INTO students (user_id, student_code, first_name, last_name, " +
+            "date_of_birth, gender, email, phone, address, enrollment_date, status) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String COURSE_SQL =
+            "INSERT INTO courses (course_code, course_name, description, credits, " +
+            "instructor_id, semester, academic_year, status) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String ENROLLMENT_SQL =
+            "INSERT INTO course_enrollments (student_id, course_id, enrollment_date, status) VALUES (?, ?, ?, ?)";
+    private static final String ATTENDANCE_SQL =
+            "INSERT INTO attendance (student_id, course_id, attendance_date, status, recorded_by) VALUES (?, ?, ?, ?, ?)";
+    private static final String GRADE_SQL =
+            "INSERT INTO grades (student_id, course_id, assessment_type, assessment_name, " +
+            "marks_obtained, total_marks, grade_letter, semester, academic_year, recorded_by) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String FINANCIAL_SQL =
+            "INSERT INTO financial_records (student_id, transaction_type, amount, description, " +
+            "transaction_date, due_date, status, payment_method, payment_date, receipt_number, recorded_by) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private int students = 100_000;
+    private int courses = 2_000;
+    private int coursesPerStudent = 5;
+    private int classDays = 40;
+    private long seed = 42L;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int batchSize = 1_000;
+    private int chunkSize = 500;
+
+    private int[] courseIds;
+    private int[] courseCredits;
+    private int[] instructorIds;
+    private int[] courseInstructors;
+    private double[] coursePopularity;
+    private List<LocalDate> classDates;
+
+    private final AtomicLong insertedRows = new AtomicLong();
+    private final AtomicLong completedStudents = new AtomicLong();
+
+    /**
+     * Generate the whole dataset
+     */
+    public void generate() throws SQLException, InterruptedException {
+        long start = System.nanoTime();
+        classDates = classDates(TERM_START, classDays);
+
+        try (Connection conn = openConnection()) {
+            createCourses(conn);
+        }
+
+        int chunks = (students + chunkSize - 1) / chunkSize;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                int first = chunk * chunkSize;
+                int last = Math.min(students, first + chunkSize);
+                int chunkIndex = chunk;
+                futures.add(executor.submit(() -> {
+                    generateChunk(chunkIndex, first, last);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    throw cause instanceof SQLException ? (SQLException) cause
+                            : new SQLException("Chunk generation failed: " + cause.getMessage(), cause);
+                }
+                report(start);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        System.out.printf("Generated %d students and %d rows in %.1f s%n", students, insertedRows.get(),
+                (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Teachers and courses are created up front on one connection; students refer to their ids
+     */
+    private void createCourses(Connection conn) throws SQLException {
+        SplittableRandom random = new SplittableRandom(seed);
+        int teachers = Math.max(1, courses / 3);
+        instructorIds = new int[teachers];
+        courseIds = new int[courses];
+        courseCredits = new int[courses];
+        courseInstructors = new int[courses];
+
+        conn.setAutoCommit(false);
+        try {
+            try (PreparedStatement pstmt = conn.prepareStatement(USER_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (int i = 0; i < teachers; i++) {
+                    String username = String.format("%steacher%05d", CODE_PREFIX.toLowerCase(), i + 1);
+                    pstmt.setString(1, username);
+                    pstmt.setString(2, "teacher123");
+                    pstmt.setString(3, "TEACHER");
+                    pstmt.setString(4, username + "@school.edu");
+                    pstmt.addBatch();
+                }
+                executeBatch(pstmt, teachers, instructorIds);
+            }
+
+            try (PreparedStatement pstmt = conn.prepareStatement(COURSE_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (int i = 0; i < courses; i++) {
+                    String subject = SUBJECTS[i % SUBJECTS.length];
+                    int level = 100 + (i / SUBJECTS.length * 10) % 400;
+                    courseCredits[i] = 2 + random.nextInt(4);
+                    courseInstructors[i] = instructorIds[random.nextInt(teachers)];
+                    pstmt.setString(1, String.format("%s%s%d-%04d", CODE_PREFIX, subject, level, i + 1));
+                    pstmt.setString(2, subject + " " + level + " Section " + (i / SUBJECTS.length + 1));
+                    pstmt.setString(3, "Generated course");
+                    pstmt.setInt(4, courseCredits[i]);
+                    pstmt.setInt(5, courseInstructors[i]);
+                    pstmt.setString(6, SEMESTER);
+                    pstmt.setString(7, ACADEMIC_YEAR);
+                    pstmt.setString(8, random.nextInt(20) == 0 ? "INACTIVE" : "ACTIVE");
+                    pstmt.addBatch();
+                }
+                executeBatch(pstmt, courses, courseIds);
+            }
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        }
+
+        // Zipf-like popularity (s = 1), shuffled so popular courses are spread across subjects
+        coursePopularity = new double[courses];
+        double total = 0;
+        int[] rank = shuffledRange(courses, random);
+        for (int i = 0; i < courses; i++) {
+            total += 1.0 / (rank[i] + 1);
+            coursePopularity[i] = total;
+        }
+        for (int i = 0; i < courses; i++) {
+            coursePopularity[i] /= total;
+        }
+    }
+
+    /**
+     * Generate students [first, last) with all of their dependent rows in one transaction
+     */
+    private void generateChunk(int chunkIndex, int first, int last) throws SQLException {
+        SplittableRandom random = new SplittableRandom(seed * 31 + chunkIndex + 1);
+        int count = last - first;
+        int[] userIds = new int[count];
+        int[] studentIds = new int[count];
+        double[] ability = new double[count];
+        double[] attendanceRate = new double[count];
+        int[][] enrolled = new int[count][];
+
+        try (Connection conn = openConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement users = conn.prepareStatement(USER_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                    for (int i = 0; i < count; i++) {
+                        String username = String.format("%sstu%07d", CODE_PREFIX.toLowerCase(), first + i + 1);
+                        users.setString(1, username);
+                        users.setString(2, "student123");
+                        users.setString(3, "STUDENT");
+                        users.setString(4, username + "@student.edu");
+                        users.addBatch();
+                    }
+                    executeBatch(users, count, userIds);
+                }
+
+                try (PreparedStatement pstmt = conn.prepareStatement(STUDENT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                    for (int i = 0; i < count; i++) {
+                        bindStudent(pstmt, random, first + i, userIds[i]);
+                        pstmt.addBatch();
+                        ability[i] = clamp(gaussian(random, 0.72, 0.12), 0.25, 0.99);
+                        attendanceRate[i] = clamp(gaussian(random, 0.88, 0.08), 0.4, 1.0);
+                        enrolled[i] = pickCourses(random);
+                    }
+                    executeBatch(pstmt, count, studentIds);
+                }
+
+                try (PreparedStatement enrollments = conn.prepareStatement(ENROLLMENT_SQL);
+                     PreparedStatement attendance = conn.prepareStatement(ATTENDANCE_SQL);
+                     PreparedStatement grades = conn.prepareStatement(GRADE_SQL);
+                     PreparedStatement financial = conn.prepareStatement(FINANCIAL_SQL)) {
+                    Batcher batcher = new Batcher();
+                    for (int i = 0; i < count; i++) {
+                        int credits = 0;
+                        for (int course : enrolled[i]) {
+                            credits += courseCredits[course];
+                            enrollments.setInt(1, studentIds[i]);
+                            enrollments.setInt(2, courseIds[course]);
+                            enrollments.setDate(3, java.sql.Date.valueOf(TERM_START.minusDays(7)));
+                            enrollments.setString(4, "ENROLLED");
+                            batcher.add(enrollments);
+
+                            addAttendance(attendance, batcher, random, studentIds[i], course, attendanceRate[i]);
+                            addGrades(grades, batcher, random, studentIds[i], course, ability[i]);
+                        }
+                        addFinancialRecords(financial, batcher, random, studentIds[i], credits, first + i);
+                    }
+                    batcher.flush(enrollments, attendance, grades, financial);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+        completedStudents.addAndGet(count);
+    }
+
+    private void bindStudent(PreparedStatement pstmt, SplittableRandom random, int index, int userId)
+            throws SQLException {
+        String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        // Ages 17-26, skewed towards first-years
+        int age = 17 + (int) Math.min(9, Math.abs(gaussian(random, 0, 2.5)));
+        LocalDate dob = TERM_START.minusYears(age).minusDays(random.nextInt(365));
+        int roll = random.nextInt(100);
+
+        pstmt.setInt(1, userId);
+        pstmt.setString(2, String.format("%sSTU%07d", CODE_PREFIX, index + 1));
+        pstmt.setString(3, firstName);
+        pstmt.setString(4, lastName);
+        pstmt.setDate(5, java.sql.Date.valueOf(dob));
+        pstmt.setString(6, roll < 49 ? "FEMALE" : roll < 97 ? "MALE" : "OTHER");
+        pstmt.setString(7, (firstName + "." + lastName + (index + 1)).toLowerCase() + "@student.edu");
+        pstmt.setString(8, String.format("555%07d", random.nextInt(10_000_000)));
+        pstmt.setString(9, (1 + random.nextInt(999)) + " " + STREETS[random.nextInt(STREETS.length)] + ", City");
+        pstmt.setDate(10, java.sql.Date.valueOf(TERM_START.minusYears(Math.min(age - 17, 4)).withDayOfMonth(1)));
+        roll = random.nextInt(100);
+        pstmt.setString(11, roll < 90 ? "ACTIVE" : roll < 95 ? "INACTIVE" : roll < 99 ? "GRADUATED" : "SUSPENDED");
+    }
+
+    private void addAttendance(PreparedStatement pstmt, Batcher batcher, SplittableRandom random,
+                               int studentId, int course, double attendanceRate) throws SQLException {
+        for (LocalDate date : classDates) {
+            double roll = random.nextDouble();
+            String status;
+            if (roll < attendanceRate) {
+                status = "PRESENT";
+            } else if (roll < attendanceRate + (1 - attendanceRate) * 0.4) {
+                status = "LATE";
+            } else if (roll < attendanceRate + (1 - attendanceRate) * 0.55) {
+                status = "EXCUSED";
+            } else {
+                status = "ABSENT";
+            }
+            pstmt.setInt(1, studentId);
+            pstmt.setInt(2, courseIds[course]);
+            pstmt.setDate(3, java.sql.Date.valueOf(date));
+            pstmt.setString(4, status);
+            pstmt.setInt(5, courseInstructors[course]);
+            batcher.add(pstmt);
+        }
+    }
+
+    private void addGrades(PreparedStatement pstmt, Batcher batcher, SplittableRandom random,
+                           int studentId, int course, double ability) throws SQLException {
+        for (String[] assessment : ASSESSMENTS) {
+            BigDecimal total = new BigDecimal(assessment[2]);
+            double fraction = clamp(gaussian(random, ability, 0.10), 0.0, 1.0);
+            BigDecimal marks = total.multiply(BigDecimal.valueOf(fraction)).setScale(2, RoundingMode.HALF_UP);
+            // The model computes the letter the same way the application does
+            Grade grade = new Grade(studentId, courseIds[course], assessment[0], assessment[1], marks, total,
+                    SEMESTER, ACADEMIC_YEAR);
+
+            pstmt.setInt(1, studentId);
+            pstmt.setInt(2, courseIds[course]);
+            pstmt.setString(3, assessment[0]);
+            pstmt.setString(4, assessment[1]);
+            pstmt.setBigDecimal(5, marks);
+            pstmt.setBigDecimal(6, total);
+            pstmt.setString(7, grade.getGradeLetter());
+            pstmt.setString(8, SEMESTER);
+            pstmt.setString(9, ACADEMIC_YEAR);
+            pstmt.setInt(10, courseInstructors[course]);
+            batcher.add(pstmt);
+        }
+    }
+
+    private void addFinancialRecords(PreparedStatement pstmt, Batcher batcher, SplittableRandom random,
+                                     int studentId, int credits, int index) throws SQLException {
+        BigDecimal tuition = FEE_PER_CREDIT.multiply(BigDecimal.valueOf(credits));
+        LocalDate billed = TERM_START.minusDays(14);
+        LocalDate due = TERM_START.plusDays(30);
+        int roll = random.nextInt(100);
+        // 80% paid in full, 12% pending, 8% overdue
+        String feeStatus = roll < 80 ? "PAID" : roll < 92 ? "PENDING" : "OVERDUE";
+        LocalDate paidOn = "PAID".equals(feeStatus) ? billed.plusDays(random.nextInt(40)) : null;
+
+        bindFinancial(pstmt, studentId, "FEE", tuition, "Tuition " + SEMESTER + " " + ACADEMIC_YEAR,
+                billed, due, feeStatus, null, paidOn, null);
+        batcher.add(pstmt);
+
+        if (paidOn != null) {
+            bindFinancial(pstmt, studentId, "PAYMENT", tuition, "Tuition payment", paidOn, null, "PAID",
+                    random.nextBoolean() ? "CARD" : "BANK_TRANSFER", paidOn, String.format("RCP%08d", index + 1));
+            batcher.add(pstmt);
+        }
+        if (random.nextInt(100) < 15) {
+            BigDecimal award = tuition.multiply(BigDecimal.valueOf(0.25 + random.nextInt(4) * 0.25))
+                    .setScale(2, RoundingMode.HALF_UP);
+            bindFinancial(pstmt, studentId, "SCHOLARSHIP", award, "Merit scholarship", billed, null, "PAID",
+                    null, billed, null);
+            batcher.add(pstmt);
+        }
+        if ("OVERDUE".equals(feeStatus)) {
+            bindFinancial(pstmt, studentId, "PENALTY", new BigDecimal("50.00"), "Late payment fee",
+                    due.plusDays(1), due.plusDays(30), "PENDING", null, null, null);
+            batcher.add(pstmt);
+        }
+    }
+
+    private static void bindFinancial(PreparedStatement pstmt, int studentId, String type, BigDecimal amount,
+                                      String description, LocalDate transactionDate, LocalDate dueDate,
+                                      String status, String paymentMethod, LocalDate paymentDate,
+                                      String receiptNumber) throws SQLException {
+        pstmt.setInt(1, studentId);
+        pstmt.setString(2, type);
+        pstmt.setBigDecimal(3, amount);
+        pstmt.setString(4, description);
+        pstmt.setDate(5, java.sql.Date.valueOf(transactionDate));
+        pstmt.setDate(6, dueDate != null ? java.sql.Date.valueOf(dueDate) : null);
+        pstmt.setString(7, status);
+        pstmt.setString(8, paymentMethod);
+        pstmt.setDate(9, paymentDate != null ? java.sql.Date.valueOf(paymentDate) : null);
+        pstmt.setString(10, receiptNumber);
+        pstmt.setNull(11, Types.INTEGER);
+    }
+
+    /**
+     * Distinct courses for one student, drawn by popularity
+     */
+    private int[] pickCourses(SplittableRandom random) {
+        int wanted = Math.min(courses, Math.max(1, coursesPerStudent + random.nextInt(3) - 1));
+        int[] picked = new int[wanted];
+        int n = 0;
+        while (n < wanted) {
+            int course = pickCourse(random.nextDouble());
+            boolean duplicate = false;
+            for (int i = 0; i < n; i++) {
+                duplicate |= picked[i] == course;
+            }
+            if (!duplicate) {
+                picked[n++] = course;
+            }
+        }
+        return picked;
+    }
+
+    private int pickCourse(double roll) {
+        int low = 0;
+        int high = courses - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (coursePopularity[mid] < roll) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Batches rows per statement and sends them every batchSize rows
+     */
+    private class Batcher {
+        private final Map<PreparedStatement, Integer> pending = new IdentityHashMap<>();
+
+        void add(PreparedStatement pstmt) throws SQLException {
+            pstmt.addBatch();
+            int rows = pending.merge(pstmt, 1, Integer::sum);
+            if (rows >= batchSize) {
+                pstmt.executeBatch();
+                insertedRows.addAndGet(rows);
+                pending.put(pstmt, 0);
+            }
+        }
+
+        void flush(PreparedStatement... statements) throws SQLException {
+            for (PreparedStatement pstmt : statements) {
+                Integer rows = pending.get(pstmt);
+                if (rows != null && rows > 0) {
+                    pstmt.executeBatch();
+                    insertedRows.addAndGet(rows);
+                    pending.put(pstmt, 0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Execute a batch and collect its generated keys in input order
+     */
+    private void executeBatch(PreparedStatement pstmt, int rows, int[] ids) throws SQLException {
+        pstmt.executeBatch();
+        try (ResultSet keys = pstmt.getGeneratedKeys()) {
+            int i = 0;
+            while (i < rows && keys.next()) {
+                ids[i++] = keys.getInt(1);
+            }
+            if (i < rows) {
+                throw new SQLException("Expected " + rows + " generated keys but got " + i);
+            }
+        }
+        insertedRows.addAndGet(rows);
+    }
+
+    private void report(long start) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d/%d students, %d rows, %.0f rows/s%n", completedStudents.get(), students,
+                insertedRows.get(), insertedRows.get() / Math.max(seconds, 0.001));
+    }
+
+    private static Connection openConnection() throws SQLException {
+        return DatabaseConnection.openConnection("rewriteBatchedStatements=true");
+    }
+
+    /**
+     * The first n weekdays from the start date
+     */
+    private static List<LocalDate> classDates(LocalDate start, int n) {
+        List<LocalDate> dates = new ArrayList<>(n);
+        for (LocalDate date = start; dates.size() < n; date = date.plusDays(1)) {
+            if (date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                dates.add(date);
+            }
+        }
+        return dates;
+    }
+
+    private static int[] shuffledRange(int n, SplittableRandom random) {
+        int[] values = new int[n];
+        for (int i = 0; i < n; i++) {
+            values[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+        return values;
+    }
+
+    /**
+     * Normal sample (Box-Muller)
+     */
+    private static double gaussian(SplittableRandom random, double mean, double stdDev) {
+        double u1 = 1.0 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return mean + stdDev * Math.sqrt(-2.0 * Math.log(u1)) * Math.cos(2.0 * Math.PI * u2);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    public static void main(String[] args) {
+        DatasetGenerator generator = new DatasetGenerator();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                long value = Long.parseLong(args[++i]);
+                switch (option) {
+                    case "--students":
+                        generator.students = (int) value;
+                        break;
+                    case "--courses":
+                        generator.courses = (int) value;
+                        break;
+                    case "--courses-per-student":
+                        generator.coursesPerStudent = (int) value;
+                        break;
+                    case "--class-days":
+                        generator.classDays = (int) value;
+                        break;
+                    case "--seed":
+                        generator.seed = value;
+                        break;
+                    case "--threads":
+                        generator.threads = (int) value;
+                        break;
+                    case "--batch":
+                        generator.batchSize = (int) value;
+                        break;
+                    case "--chunk":
+                        generator.chunkSize = (int) value;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + option);
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println("Usage: DatasetGenerator [--students N] [--courses N] [--courses-per-student N] " +
+                    "[--class-days N] [--seed N] [--threads N] [--batch N] [--chunk N]");
+            System.exit(2);
+        }
+
+        long attendanceRows = (long) generator.students * generator.coursesPerStudent * generator.classDays;
+        System.out.printf("Generating %d students, %d courses, ~%d attendance rows (seed %d, %d threads)%n",
+                generator.students, generator.courses, attendanceRows, generator.seed, generator.threads);
+        try {
+            generator.generate();
+            System.exit(0);
+        } catch (SQLException e) {
+            System.err.println("Dataset generation failed: " + e.getMessage());
+            System.exit(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,485 @@
+package com.sims.tools;
+
+import com.sims.cache.CacheRegistry;
+import com.sims.dao.AttendanceDAO;
+import com.sims.dao.CourseDAO;
+import com.sims.dao.FinancialDAO;
+import com.sims.dao.GradeDAO;
+import com.sims.dao.StudentDAO;
+import com.sims.dao.UserDAO;
+import com.sims.database.DatabaseConnection;
+import com.sims.events.EventBus;
+import com.sims.models.Attendance;
+import com.sims.models.Course;
+import com.sims.models.FinancialRecord;
+import com.sims.models.Grade;
+import com.sims.models.Student;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Query plan advisor
+ * Drives every DAO method against a seeded database, captures the SQL and bound parameters
+ * each one issues, and runs EXPLAIN FORMAT=JSON on them. Full table scans, filesorts and
+ * temporary tables are flagged with a suggested index.
+ *
+ * Writes are captured in dry-run mode: INSERT/UPDATE/DELETE statements are explained but
+ * never executed. Their events go to a private bus and the caches are cleared after every call,
+ * so entities that were never written reach no subscriber or cache. The report omits cost and
+ * row estimates so it can be diffed between releases.
+ *
+ * Usage: QueryPlanAdvisor [report-file] [--fail-on-warnings]
+ */
+public class QueryPlanAdvisor {
+    private static final Pattern TABLE_ACCESS = Pattern.compile(
+            "\"table_name\"\\s*:\\s*\"(\\w+)\"\\s*,\\s*\"access_type\"\\s*:\\s*\"(\\w+)\"" +
+            "(?:[^{}]*?\"key\"\\s*:\\s*\"(\\w+)\")?");
+    private static final Pattern FILESORT = Pattern.compile("\"using_filesort\"\\s*:\\s*true");
+    private static final Pattern TEMPORARY = Pattern.compile("\"using_temporary_table\"\\s*:\\s*true");
+    private static final Pattern PREDICATE = Pattern.compile(
+            "(?:\\b(\\w+)\\.)?(\\w+)\\s*(=|!=|<|>|LIKE|BETWEEN|IN)\\s*", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ORDER_BY = Pattern.compile("ORDER BY\\s+(.+?)(?:\\s+LIMIT\\b|$)",
+            Pattern.CASE_INSENSITIVE);
+
+    /**
+     * DAO call driven by the advisor
+     */
+    private interface DaoCall {
+        void run() throws Exception;
+    }
+
+    /**
+     * Statement captured from a DAO call
+     */
+    private static class CapturedStatement {
+        private final String sql;
+        private final Map<Integer, Object> parameters = new TreeMap<>();
+
+        CapturedStatement(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    /**
+     * Plan analysis for one statement
+     */
+    public static class PlanFinding {
+        private final String source;
+        private final String sql;
+        private final List<String> accessPaths = new ArrayList<>();
+        private final List<String> warnings = new ArrayList<>();
+        private final List<String> suggestions = new ArrayList<>();
+
+        PlanFinding(String source, String sql) {
+            this.source = source;
+            this.sql = sql;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public List<String> getWarnings() {
+            return warnings;
+        }
+
+        public List<String> getSuggestions() {
+            return suggestions;
+        }
+    }
+
+    private final Map<String, DaoCall> calls = new LinkedHashMap<>();
+    private List<CapturedStatement> captured = new ArrayList<>();
+
+    /**
+     * Capture the statements of every registered DAO call and explain them
+     */
+    public List<PlanFinding> analyze() throws SQLException {
+        registerCalls();
+
+        Map<String, List<CapturedStatement>> statementsBySource = new LinkedHashMap<>();
+        EventBus previousBus = EventBus.getDefault();
+        DatabaseConnection.setConnectionWrapper(this::capture);
+        EventBus.setDefault(new EventBus());
+        try {
+            for (Map.Entry<String, DaoCall> call : calls.entrySet()) {
+                captured = new ArrayList<>();
+                // Cached reads would otherwise never reach the database
+                CacheRegistry.invalidateAll();
+                try {
+                    call.getValue().run();
+                } catch (Exception e) {
+                    System.err.println(call.getKey() + " failed during capture: " + e.getMessage());
+                } finally {
+                    // Drop whatever a dry-run write put in the caches
+                    CacheRegistry.invalidateAll();
+                }
+                statementsBySource.put(call.getKey(), captured);
+            }
+        } finally {
+            EventBus.setDefault(previousBus);
+            DatabaseConnection.setConnectionWrapper(null);
+        }
+
+        List<PlanFinding> findings = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            for (Map.Entry<String, List<CapturedStatement>> entry : statementsBySource.entrySet()) {
+                Set<String> seen = new LinkedHashSet<>();
+                for (CapturedStatement statement : entry.getValue()) {
+                    if (seen.add(statement.sql)) {
+                        findings.add(explain(conn, entry.getKey(), statement));
+                    }
+                }
+            }
+        }
+        return findings;
+    }
+
+    /**
+     * Register the DAO methods to drive, using ids and entities sampled from the seeded database
+     */
+    private void registerCalls() throws SQLException {
+        StudentDAO studentDAO = new StudentDAO();
+        CourseDAO courseDAO = new CourseDAO();
+        AttendanceDAO attendanceDAO = new AttendanceDAO();
+        GradeDAO gradeDAO = new GradeDAO();
+        FinancialDAO financialDAO = new FinancialDAO();
+        UserDAO userDAO = new UserDAO();
+
+        List<Student> students = studentDAO.getAllStudents();
+        List<Course> courses = courseDAO.getAllCourses();
+        if (students.isEmpty() || courses.isEmpty()) {
+            throw new SQLException("The advisor needs a seeded database with at least one student and course");
+        }
+        Student student = students.get(0);
+        Course course = courses.get(0);
+        int studentId = student.getStudentId();
+        int courseId = course.getCourseId();
+        LocalDate today = LocalDate.now();
+
+        Grade grade = new Grade(studentId, courseId, "EXAM", "Advisor", new BigDecimal("50"),
+                new BigDecimal("100"), course.getSemester(), course.getAcademicYear());
+        FinancialRecord record = new FinancialRecord(studentId, FinancialRecord.TransactionType.FEE,
+                new BigDecimal("100.00"), "Advisor", today);
+        Attendance attendance = new Attendance(studentId, courseId, today, Attendance.AttendanceStatus.PRESENT);
+        List<Attendance> attendanceList = new ArrayList<>();
+        attendanceList.add(attendance);
+
+        calls.put("StudentDAO.getAllStudents", studentDAO::getAllStudents);
+        calls.put("StudentDAO.getStudentById", () -> studentDAO.getStudentById(studentId));
+        calls.put("StudentDAO.getStudentByCode", () -> studentDAO.getStudentByCode(student.getStudentCode()));
+        calls.put("StudentDAO.searchStudentsByName", () -> studentDAO.searchStudentsByName(student.getFirstName()));
+        calls.put("StudentDAO.createStudent", () -> studentDAO.createStudent(student));
+        calls.put("StudentDAO.updateStudent", () -> studentDAO.updateStudent(student));
+        calls.put("StudentDAO.deleteStudent", () -> studentDAO.deleteStudent(studentId));
+
+        calls.put("CourseDAO.getAllCourses", courseDAO::getAllCourses);
+        calls.put("CourseDAO.getCourseById", () -> courseDAO.getCourseById(courseId));
+        calls.put("CourseDAO.getCoursesByStudentId", () -> courseDAO.getCoursesByStudentId(studentId));
+        calls.put("CourseDAO.createCourse", () -> courseDAO.createCourse(course));
+        calls.put("CourseDAO.updateCourse", () -> courseDAO.updateCourse(course));
+        calls.put("CourseDAO.enrollStudent", () -> courseDAO.enrollStudent(studentId, courseId));
+
+        calls.put("AttendanceDAO.getAttendanceByStudentAndCourse",
+                () -> attendanceDAO.getAttendanceByStudentAndCourse(studentId, courseId, today.minusDays(30), today));
+        calls.put("AttendanceDAO.getAttendanceByCourseAndDate",
+                () -> attendanceDAO.getAttendanceByCourseAndDate(courseId, today));
+        calls.put("AttendanceDAO.getAttendanceSheet", () -> attendanceDAO.getAttendanceSheet(courseId, today));
+        calls.put("AttendanceDAO.getAttendancePercentage",
+                () -> attendanceDAO.getAttendancePercentage(studentId, courseId));
+        calls.put("AttendanceDAO.recordAttendance", () -> attendanceDAO.recordAttendance(attendance));
+        calls.put("AttendanceDAO.batchRecordAttendance", () -> attendanceDAO.batchRecordAttendance(attendanceList));
+
+        calls.put("GradeDAO.getGradesByStudentAndCourse", () -> gradeDAO.getGradesByStudentAndCourse(studentId, courseId));
+        calls.put("GradeDAO.getGradesByStudent", () -> gradeDAO.getGradesByStudent(studentId));
+        calls.put("GradeDAO.calculateGPA",
+                () -> gradeDAO.calculateGPA(studentId, course.getSemester(), course.getAcademicYear()));
+        calls.put("GradeDAO.recordGrade", () -> gradeDAO.recordGrade(grade));
+        calls.put("GradeDAO.updateGrade", () -> gradeDAO.updateGrade(grade));
+
+        calls.put("FinancialDAO.getFinancialRecordsByStudent", () -> financialDAO.getFinancialRecordsByStudent(studentId));
+        calls.put("FinancialDAO.getPendingPayments", () -> financialDAO.getPendingPayments(studentId));
+        calls.put("FinancialDAO.getTotalBalance", () -> financialDAO.getTotalBalance(studentId));
+        calls.put("FinancialDAO.createFinancialRecord", () -> financialDAO.createFinancialRecord(record));
+        calls.put("FinancialDAO.updatePaymentStatus", () -> financialDAO.updatePaymentStatus(
+                record.getFinancialId(), FinancialRecord.PaymentStatus.PAID, "CASH", today, "ADVISOR"));
+
+        calls.put("UserDAO.authenticate", () -> userDAO.authenticate("admin", "admin123"));
+        calls.put("UserDAO.getUserById", () -> userDAO.getUserById(1));
+    }
+
+    /**
+     * Run EXPLAIN FORMAT=JSON for a captured statement and flag expensive access paths
+     */
+    private PlanFinding explain(Connection conn, String source, CapturedStatement statement) {
+        PlanFinding finding = new PlanFinding(source, statement.sql.replaceAll("\\s+", " ").trim());
+
+        String json;
+        try (PreparedStatement pstmt = conn.prepareStatement("EXPLAIN FORMAT=JSON " + statement.sql)) {
+            for (Map.Entry<Integer, Object> parameter : statement.parameters.entrySet()) {
+                pstmt.setObject(parameter.getKey(), parameter.getValue());
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                json = rs.next() ? rs.getString(1) : "";
+            }
+        } catch (SQLException e) {
+            finding.warnings.add("NOT_EXPLAINABLE " + e.getMessage());
+            return finding;
+        }
+
+        Matcher access = TABLE_ACCESS.matcher(json);
+        while (access.find()) {
+            String table = access.group(1);
+            String accessType = access.group(2);
+            String key = access.group(3) != null ? access.group(3) : "-";
+            finding.accessPaths.add(table + ": access=" + accessType + " key=" + key);
+            if ("ALL".equals(accessType) || "index".equals(accessType)) {
+                finding.warnings.add("FULL_SCAN " + table + ("index".equals(accessType) ? " (full index scan)" : ""));
+                suggestFilterIndex(finding, statement, table);
+            }
+        }
+        if (FILESORT.matcher(json).find()) {
+            finding.warnings.add("FILESORT");
+            suggestSortIndex(finding);
+        }
+        if (TEMPORARY.matcher(json).find()) {
+            finding.warnings.add("TEMPORARY_TABLE");
+        }
+        return finding;
+    }
+
+    private void suggestFilterIndex(PlanFinding finding, CapturedStatement statement, String table) {
+        String where = clause(finding.sql, "WHERE");
+        if (where.isEmpty()) {
+            return;
+        }
+        boolean leadingWildcard = statement.parameters.values().stream()
+                .anyMatch(value -> value instanceof String && ((String) value).startsWith("%"));
+
+        List<String> columns = new ArrayList<>();
+        Matcher matcher = PREDICATE.matcher(where);
+        while (matcher.find()) {
+            String column = matcher.group(2);
+            if ("LIKE".equalsIgnoreCase(matcher.group(3)) && leadingWildcard) {
+                finding.suggestions.add("LIKE with a leading wildcard on " + column +
+                        " cannot use a B-tree index; consider a FULLTEXT index or prefix search");
+            } else if (!columns.contains(column)) {
+                columns.add(column);
+            }
+        }
+        if (!columns.isEmpty()) {
+            finding.suggestions.add("CREATE INDEX idx_" + table + "_" + String.join("_", columns) +
+                    " ON " + table + " (" + String.join(", ", columns) + ")");
+        }
+    }
+
+    private void suggestSortIndex(PlanFinding finding) {
+        Matcher orderBy = ORDER_BY.matcher(finding.sql);
+        if (orderBy.find()) {
+            finding.suggestions.add("extend an index on the filter columns with the sort columns (" +
+                    orderBy.group(1).replaceAll("(?i)\\s+(ASC|DESC)", "") + ") to avoid the filesort");
+        }
+    }
+
+    private static String clause(String sql, String keyword) {
+        int start = sql.toUpperCase().indexOf(keyword + " ");
+        if (start < 0) {
+            return "";
+        }
+        String rest = sql.substring(start + keyword.length());
+        String upper = rest.toUpperCase();
+        int end = rest.length();
+        for (String terminator : new String[]{" ORDER BY ", " GROUP BY ", " LIMIT ", " ON DUPLICATE "}) {
+            int index = upper.indexOf(terminator);
+            if (index >= 0 && index < end) {
+                end = index;
+            }
+        }
+        return rest.substring(0, end);
+    }
+
+    /**
+     * Wrap a connection so statements are recorded and writes are not executed
+     */
+    private Connection capture(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    Object result = invoke(connection, method, args);
+                    if (result instanceof PreparedStatement && args != null && args[0] instanceof String) {
+                        return captureStatement((PreparedStatement) result, new CapturedStatement((String) args[0]));
+                    }
+                    if (result instanceof Statement && !(result instanceof PreparedStatement)) {
+                        return captureStatement((Statement) result, null);
+                    }
+                    return result;
+                });
+    }
+
+    private Statement captureStatement(Statement statement, CapturedStatement prepared) {
+        Class<?> type = prepared != null ? PreparedStatement.class : Statement.class;
+        InvocationHandler handler = (proxy, method, args) -> {
+            String name = method.getName();
+            if (prepared != null && name.startsWith("set") && args != null && args.length >= 2
+                    && args[0] instanceof Integer) {
+                // setNull's second argument is the SQL type, not the value
+                prepared.parameters.put((Integer) args[0], name.equals("setNull") ? null : args[1]);
+            }
+            if (name.equals("addBatch") && prepared != null) {
+                record(prepared);
+                return null;
+            }
+            if (name.equals("executeBatch")) {
+                return new int[]{1};
+            }
+            if (name.equals("getGeneratedKeys")) {
+                // Writes never run, so there are no keys to ask the driver for
+                return noGeneratedKeys();
+            }
+            if (name.startsWith("execute")) {
+                CapturedStatement current = prepared;
+                if (current == null && args != null && args[0] instanceof String) {
+                    current = new CapturedStatement((String) args[0]);
+                }
+                if (current != null) {
+                    record(current);
+                    if (!isQuery(current.sql)) {
+                        // Dry run: report success without touching the data
+                        return name.equals("execute") ? (Object) Boolean.FALSE : (Object) 1;
+                    }
+                }
+            }
+            return invoke(statement, method, args);
+        };
+        return (Statement) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    /**
+     * Empty result set standing in for the generated keys of a dry-run write
+     */
+    private static ResultSet noGeneratedKeys() {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "next":
+                            return false;
+                        case "close":
+                            return null;
+                        case "isClosed":
+                            return false;
+                        default:
+                            throw new SQLException("No generated keys in a dry run: " + method.getName());
+                    }
+                });
+    }
+
+    private void record(CapturedStatement statement) {
+        String verb = statement.sql.trim().split("\\s+", 2)[0].toUpperCase();
+        boolean explainable = verb.equals("SELECT") || verb.equals("INSERT") || verb.equals("UPDATE")
+                || verb.equals("DELETE") || verb.equals("REPLACE");
+        if (explainable && !captured.contains(statement)) {
+            captured.add(statement);
+        }
+    }
+
+    private static boolean isQuery(String sql) {
+        return sql.trim().toUpperCase().startsWith("SELECT");
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Render findings as a stable, diffable text report
+     */
+    public static void writeReport(List<PlanFinding> findings, PrintWriter out) {
+        int flagged = 0;
+        out.println("Query Plan Report");
+        out.println("=================");
+        for (PlanFinding finding : findings) {
+            out.println();
+            out.println(finding.source);
+            out.println("  SQL: " + finding.sql);
+            for (String accessPath : finding.accessPaths) {
+                out.println("  " + accessPath);
+            }
+            for (String warning : finding.warnings) {
+                out.println("  ! " + warning);
+            }
+            for (String suggestion : finding.suggestions) {
+                out.println("  > " + suggestion);
+            }
+            if (!finding.warnings.isEmpty()) {
+                flagged++;
+            }
+        }
+        out.println();
+        out.println(findings.size() + " statements analyzed, " + flagged + " flagged");
+        out.flush();
+    }
+
+    public static void main(String[] args) {
+        String reportFile = null;
+        boolean failOnWarnings = false;
+        for (String arg : args) {
+            if ("--fail-on-warnings".equals(arg)) {
+                failOnWarnings = true;
+            } else {
+                reportFile = arg;
+            }
+        }
+
+        try {
+            List<PlanFinding> findings = new QueryPlanAdvisor().analyze();
+            if (reportFile != null) {
+                try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(reportFile),
+                        StandardCharsets.UTF_8))) {
+                    writeReport(findings, out);
+                }
+                System.out.println("Query plan report written to " + reportFile);
+            } else {
+                writeReport(findings, new PrintWriter(System.out));
+            }
+
+            boolean flagged = findings.stream().anyMatch(f -> !f.getWarnings().isEmpty());
+            System.exit(failOnWarnings && flagged ? 1 : 0);
+        } catch (SQLException | IOException e) {
+            System.err.println("Query plan analysis failed: " + e.getMessage());
+            System.exit(2);
+        } finally {
+            DatabaseConnection.closeConnection();
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package com.sims.tools;
+
+import com.sims.dao.AttendanceDAO;
+import com.sims.dao.CourseDAO;
+import com.sims.dao.FinancialDAO;
+import com.sims.dao.GradeDAO;
+import com.sims.dao.StudentDAO;
+import com.sims.database.DatabaseConnection;
+import com.sims.database.LatencyInjector;
+import com.sims.metrics.LatencyHistogram;
+import com.sims.services.AuthService;
+import com.sims.ui.AttendanceManagementFrame;
+import com.sims.ui.CourseManagementFrame;
+import com.sims.ui.FinancialManagementFrame;
+import com.sims.ui.GradeManagementFrame;
+import com.sims.ui.StudentManagementFrame;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowEvent;
+import java.lang.reflect.InvocationTargetException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Responsiveness harness
+ * Opens every management panel against a database slowed down by LatencyInjector, clicks its
+ * read-only actions (Refresh, Search, Load ...) and picks entries in its combo boxes, while
+ * background threads keep calling the DAOs. A probe posted to the event dispatch thread every
+ * few milliseconds measures how long the EDT was blocked.
+ *
+ * Each scenario passes when the EDT was never blocked longer than --max-edt-ms; the exit code is 1
+ * if any scenario failed. Error dialogs raised by injected failures are recorded and closed.
+ * Needs a display (use xvfb-run on a headless build machine) and a seeded database.
+ *
+ * Usage: ResponsivenessHarness [--faults SPEC] [--max-edt-ms N] [--rounds N]
+ *        [--background-threads N] [--user NAME --password PASSWORD]
+ */
+public class ResponsivenessHarness {
+    private static final String DEFAULT_FAULTS = "select=100ms~50ms; write=200ms~100ms; batch=500ms; commit=50ms";
+    private static final List<String> SAFE_ACTIONS =
+            Arrays.asList("Refresh", "Search", "Load Students", "Load Grades");
+    private static final long PROBE_INTERVAL_MS = 5;
+    private static final long SETTLE_MS = 200;
+
+    private long maxEdtMillis = 200;
+    private int rounds = 2;
+    private int backgroundThreads = 2;
+    private String username = "admin";
+    private String password = "admin123";
+
+    private final EdtMonitor edtMonitor = new EdtMonitor();
+    private final List<String> dialogs = new ArrayList<>();
+
+    /**
+     * EDT blocking observed while one scenario ran
+     */
+    private static class ScenarioResult {
+        private final String name;
+        private final LatencyHistogram edtDelays;
+        private final int dialogCount;
+
+        ScenarioResult(String name, LatencyHistogram edtDelays, int dialogCount) {
+            this.name = name;
+            this.edtDelays = edtDelays;
+            this.dialogCount = dialogCount;
+        }
+    }
+
+    /**
+     * Posts an empty task to the EDT in a loop and records how long each one waited to run
+     */
+    private static class EdtMonitor implements Runnable {
+        private volatile LatencyHistogram histogram = new LatencyHistogram();
+        private volatile boolean running = true;
+
+        @Override
+        public void run() {
+            while (running) {
+                long posted = System.nanoTime();
+                try {
+                    SwingUtilities.invokeAndWait(() -> { });
+                    histogram.record(System.nanoTime() - posted);
+                    Thread.sleep(PROBE_INTERVAL_MS);
+                } catch (InterruptedException e) {
+                    return;
+                } catch (InvocationTargetException e) {
+                    // The probe does nothing, so this cannot happen
+                }
+            }
+        }
+
+        LatencyHistogram swap() {
+            LatencyHistogram current = histogram;
+            histogram = new LatencyHistogram();
+            return current;
+        }
+    }
+
+    public static void main(String[] args) {
+        ResponsivenessHarness harness = new ResponsivenessHarness();
+        String faults = System.getProperty("sims.db.faults", DEFAULT_FAULTS);
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--faults":
+                        faults = args[++i];
+                        break;
+                    case "--max-edt-ms":
+                        harness.maxEdtMillis = Long.parseLong(args[++i]);
+                        break;
+                    case "--rounds":
+                        harness.rounds = Integer.parseInt(args[++i]);
+                        break;
+                    case "--background-threads":
+                        harness.backgroundThreads = Integer.parseInt(args[++i]);
+                        break;
+                    case "--user":
+                        harness.username = args[++i];
+                        break;
+                    case "--password":
+                        harness.password = args[++i];
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            LatencyInjector.parse(faults);
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: ResponsivenessHarness [--faults SPEC] [--max-edt-ms N] [--rounds N] " +
+                    "[--background-threads N] [--user NAME --password PASSWORD]");
+            System.exit(2);
+        }
+        if (GraphicsEnvironment.isHeadless()) {
+            System.err.println("ResponsivenessHarness needs a display; run it under xvfb-run on build machines");
+            System.exit(2);
+        }
+
+        // Must be set before DatabaseConnection is first used
+        System.setProperty("sims.db.faults", faults);
+        int exitCode;
+        try {
+            exitCode = harness.run() ? 0 : 1;
+        } catch (Exception e) {
+            System.err.println("Responsiveness harness failed: " + e);
+            exitCode = 2;
+        } finally {
+            DatabaseConnection.closeConnection();
+        }
+        System.exit(exitCode);
+    }
+
+    private boolean run() throws Exception {
+        AuthService authService = new AuthService();
+        if (authService.login(username, password) == null) {
+            throw new IllegalStateException("Could not log in as " + username);
+        }
+        closeDialogsAutomatically();
+
+        Thread monitor = new Thread(edtMonitor, "edt-monitor");
+        monitor.setDaemon(true);
+        monitor.start();
+
+        AtomicBoolean backgroundRunning = new AtomicBoolean(true);
+        AtomicInteger backgroundCalls = new AtomicInteger();
+        AtomicInteger backgroundErrors = new AtomicInteger();
+        List<Thread> background = startBackgroundLoad(backgroundRunning, backgroundCalls, backgroundErrors);
+
+        Map<String, Function<AuthService, JComponent>> panels = new LinkedHashMap<>();
+        panels.put("Students", StudentManagementFrame::new);
+        panels.put("Courses", CourseManagementFrame::new);
+        panels.put("Attendance", AttendanceManagementFrame::new);
+        panels.put("Grades", GradeManagementFrame::new);
+        panels.put("Financial", FinancialManagementFrame::new);
+
+        List<ScenarioResult> results = new ArrayList<>();
+        edtMonitor.swap();
+        for (int round = 1; round <= rounds; round++) {
+            for (Map.Entry<String, Function<AuthService, JComponent>> panel : panels.entrySet()) {
+                results.add(runScenario(panel.getKey() + " #" + round, panel.getValue(), authService));
+            }
+        }
+
+        backgroundRunning.set(false);
+        for (Thread thread : background) {
+            thread.join();
+        }
+        edtMonitor.running = false;
+        monitor.interrupt();
+
+        return report(results, backgroundCalls.get(), backgroundErrors.get());
+    }
+
+    /**
+     * Open one panel, exercise its safe actions, close it; returns the EDT delays seen meanwhile
+     */
+    private ScenarioResult runScenario(String name, Function<AuthService, JComponent> factory,
+                                       AuthService authService) throws Exception {
+        int dialogsBefore = dialogCount();
+        edtMonitor.swap();
+
+        JFrame[] frame = new JFrame[1];
+        List<AbstractButton> buttons = new ArrayList<>();
+        List<JComboBox<?>> combos = new ArrayList<>();
+        onEdt(() -> {
+            frame[0] = new JFrame("Responsiveness: " + name);
+            JComponent panel = factory.apply(authService);
+            frame[0].setContentPane(panel);
+            frame[0].setSize(1000, 700);
+            frame[0].setVisible(true);
+            collect(panel, buttons, combos);
+        });
+        settle();
+
+        for (AbstractButton button : buttons) {
+            if (SAFE_ACTIONS.contains(button.getText())) {
+                onEdt(button::doClick);
+                settle();
+            }
+        }
+        for (JComboBox<?> combo : combos) {
+            int count = combo.getItemCount();
+            for (int index = 1; index < Math.min(count, 3); index++) {
+                int selected = index;
+                onEdt(() -> combo.setSelectedIndex(selected));
+                settle();
+            }
+        }
+
+        onEdt(() -> frame[0].dispose());
+        settle();
+        return new ScenarioResult(name, edtMonitor.swap(), dialogCount() - dialogsBefore);
+    }
+
+    private static void collect(Container container, List<AbstractButton> buttons, List<JComboBox<?>> combos) {
+        for (Component component : container.getComponents()) {
+            if (component instanceof AbstractButton) {
+                buttons.add((AbstractButton) component);
+            } else if (component instanceof JComboBox) {
+                combos.add((JComboBox<?>) component);
+            }
+            if (component instanceof Container) {
+                collect((Container) component, buttons, combos);
+            }
+        }
+    }
+
+    /**
+     * Background DAO callers, standing in for pollers and write-behind flushes
+     */
+    private List<Thread> startBackgroundLoad(AtomicBoolean running, AtomicInteger calls, AtomicInteger errors) {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < backgroundThreads; i++) {
+            int offset = i;
+            Thread thread = new Thread(() -> {
+                StudentDAO studentDAO = new StudentDAO();
+                CourseDAO courseDAO = new CourseDAO();
+                GradeDAO gradeDAO = new GradeDAO();
+                AttendanceDAO attendanceDAO = new AttendanceDAO();
+                FinancialDAO financialDAO = new FinancialDAO();
+                int step = offset;
+                while (running.get()) {
+                    try {
+                        switch (step++ % 5) {
+                            case 0:
+                                studentDAO.getAllStudents();
+                                break;
+                            case 1:
+                                courseDAO.getAllCourses();
+                                break;
+                            case 2:
+                                gradeDAO.getGradesByStudent(1);
+                                break;
+                            case 3:
+                                attendanceDAO.getAttendanceByCourseAndDate(1, LocalDate.now());
+                                break;
+                            default:
+                                financialDAO.getTotalBalance(1);
+                                break;
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    calls.incrementAndGet();
+                }
+            }, "background-dao-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+        return threads;
+    }
+
+    /**
+     * Record and close dialogs (usually error messages for injected failures) so scenarios keep going
+     */
+    private void closeDialogsAutomatically() {
+        Toolkit.getDefaultToolkit().addAWTEventListener(event -> {
+            if (event.getID() == WindowEvent.WINDOW_OPENED && event.getSource() instanceof Dialog) {
+                Dialog dialog = (Dialog) event.getSource();
+                synchronized (dialogs) {
+                    dialogs.add(dialog.getTitle() + ": " + dialogText(dialog));
+                }
+                SwingUtilities.invokeLater(dialog::dispose);
+            }
+        }, AWTEvent.WINDOW_EVENT_MASK);
+    }
+
+    private static String dialogText(Container container) {
+        for (Component component : container.getComponents()) {
+            if (component instanceof JOptionPane) {
+                return String.valueOf(((JOptionPane) component).getMessage()).replace('\n', ' ');
+            }
+            if (component instanceof Container) {
+                String text = dialogText((Container) component);
+                if (!text.isEmpty()) {
+                    return text;
+                }
+            }
+        }
+        return "";
+    }
+
+    private int dialogCount() {
+        synchronized (dialogs) {
+            return dialogs.size();
+        }
+    }
+
+    private static void onEdt(Runnable task) throws InvocationTargetException, InterruptedException {
+        SwingUtilities.invokeAndWait(task);
+    }
+
+    private static void settle() throws InterruptedException {
+        Thread.sleep(SETTLE_MS);
+    }
+
+    private boolean report(List<ScenarioResult> results, int backgroundCalls, int backgroundErrors) {
+        System.out.println("Faults: " + DatabaseConnection.getLatencyInjector());
+        System.out.printf("%-16s %10s %10s %10s %8s %8s  %s%n",
+                "scenario", "probes", "p99 ms", "max ms", "dialogs", "result", "");
+        boolean passed = true;
+        for (ScenarioResult result : results) {
+            double maxMillis = result.edtDelays.getMaxNanos() / 1e6;
+            boolean ok = maxMillis <= maxEdtMillis;
+            passed &= ok;
+            System.out.printf("%-16s %10d %10.1f %10.1f %8d %8s%n", result.name,
+                    result.edtDelays.getCount(),
+                    result.edtDelays.getValueAtPercentile(99) / 1e6, maxMillis,
+                    result.dialogCount, ok ? "PASS" : "FAIL");
+        }
+        System.out.printf("Background DAO calls: %d (%d failed)%n", backgroundCalls, backgroundErrors);
+        synchronized (dialogs) {
+            for (String dialog : dialogs) {
+                System.out.println("Dialog: " + dialog);
+            }
+        }
+        System.out.println(passed
+                ? "PASS: EDT never blocked longer than " + maxEdtMillis + " ms"
+                : "FAIL: EDT blocked longer than " + maxEdtMillis + " ms; DAO calls are running on the EDT");
+        return passed;
+    }
+}
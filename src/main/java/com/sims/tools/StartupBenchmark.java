@@ -0,0 +1,190 @@
+package com.sims.tools;
+
+import com.sims.metrics.LatencyHistogram;
+
+import java.awt.GraphicsEnvironment;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Startup benchmark: time to first window with and without the class-data-sharing archive
+ * Launches the packaged client repeatedly, alternating between launch configurations, and stops
+ * each run as soon as the chosen window is on screen (-Dsims.startup.exitAfter). Reports the wall
+ * time from process launch and the in-JVM time from the client's own phase report.
+ *
+ * Configurations: "no CDS" (-Xshare:off), "JDK CDS" (the JDK's default archive of its own
+ * classes) and "app CDS" (-XX:SharedArchiveFile, the archive built by the "cds" Maven profile).
+ * The splash needs only a display; the login window also needs a reachable database.
+ *
+ * Usage: StartupBenchmark [--dist DIR] [--runs N] [--until splash|login] [--java PATH]
+ */
+public class StartupBenchmark {
+    private static final Pattern PHASE_LINE = Pattern.compile("^\\s+(splash|login window)\\s+(\\d+)\\s+(\\d+)");
+    private static final long RUN_TIMEOUT_SECONDS = 60;
+
+    private File dist = new File("target/dist");
+    private int runs = 10;
+    private String until = "splash";
+    private String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+
+    /**
+     * Timings collected for one launch configuration
+     */
+    private static class Config {
+        private final String name;
+        private final List<String> jvmOptions;
+        private final LatencyHistogram wall = new LatencyHistogram();
+        private final LatencyHistogram inJvm = new LatencyHistogram();
+
+        Config(String name, String... jvmOptions) {
+            this.name = name;
+            this.jvmOptions = Arrays.asList(jvmOptions);
+        }
+    }
+
+    public static void main(String[] args) {
+        StartupBenchmark benchmark = new StartupBenchmark();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--dist":
+                        benchmark.dist = new File(args[++i]);
+                        break;
+                    case "--runs":
+                        benchmark.runs = Integer.parseInt(args[++i]);
+                        break;
+                    case "--until":
+                        benchmark.until = args[++i];
+                        break;
+                    case "--java":
+                        benchmark.java = args[++i];
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            if (!"splash".equals(benchmark.until) && !"login".equals(benchmark.until)) {
+                throw new IllegalArgumentException("--until must be splash or login");
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: StartupBenchmark [--dist DIR] [--runs N] [--until splash|login] [--java PATH]");
+            System.exit(2);
+        }
+
+        if (GraphicsEnvironment.isHeadless()) {
+            System.err.println("StartupBenchmark needs a display; run it under xvfb-run on build machines");
+            System.exit(2);
+        }
+
+        try {
+            benchmark.run();
+        } catch (Exception e) {
+            System.err.println("Startup benchmark failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private void run() throws IOException, InterruptedException {
+        File jar = new File(dist, "sims.jar");
+        File archive = new File(dist, "sims.jsa");
+        if (!jar.isFile()) {
+            throw new IOException(jar + " not found; build it with: mvn -Pcds package");
+        }
+        Map<String, Config> configs = new LinkedHashMap<>();
+        configs.put("no CDS", new Config("no CDS", "-Xshare:off"));
+        configs.put("JDK CDS", new Config("JDK CDS"));
+        if (archive.isFile()) {
+            configs.put("app CDS", new Config("app CDS", "-XX:SharedArchiveFile=" + archive.getPath(), "-Xshare:auto"));
+        } else {
+            System.err.println("No archive at " + archive + "; measuring without app CDS");
+        }
+
+        // One discarded round warms the file cache, then configurations alternate to share any drift
+        for (int round = 0; round <= runs; round++) {
+            for (Config config : configs.values()) {
+                long[] timing = launch(jar, config);
+                if (round > 0) {
+                    config.wall.record(timing[0]);
+                    config.inJvm.record(timing[1]);
+                }
+            }
+        }
+
+        String window = "splash".equals(until) ? "splash" : "login window";
+        System.out.printf("Time to %s over %d runs (ms)%n", window, runs);
+        // Today's launch (the JDK's own archive only) is the baseline
+        double baseline = millis(configs.get("JDK CDS").wall.getValueAtPercentile(50));
+        System.out.printf("  %-8s %8s %8s %8s %12s %12s%n", "config", "median", "min", "max", "in-JVM p50",
+                "vs JDK CDS");
+        for (Config config : configs.values()) {
+            double median = millis(config.wall.getValueAtPercentile(50));
+            System.out.printf("  %-8s %8.0f %8.0f %8.0f %12.0f %+11.0f%%%n", config.name, median,
+                    millis(config.wall.getValueAtPercentile(0)), millis(config.wall.getMaxNanos()),
+                    millis(config.inJvm.getValueAtPercentile(50)), (median - baseline) / baseline * 100);
+        }
+    }
+
+    /**
+     * @return wall nanos from launch until the window was reported, and the client's own figure
+     */
+    private long[] launch(File jar, Config config) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(config.jvmOptions);
+        command.add("-Dsims.startup.exitAfter=" + until);
+        command.add("-cp");
+        command.add(jar.getPath());
+        command.add("com.sims.Main");
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        Thread watchdog = new Thread(() -> {
+            try {
+                if (!process.waitFor(RUN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+            }
+        }, "startup-benchmark-watchdog");
+        watchdog.setDaemon(true);
+        watchdog.start();
+        long wall = -1;
+        long inJvm = -1;
+        List<String> output = new ArrayList<>();
+        try (BufferedReader in = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                output.add(line);
+                Matcher matcher = PHASE_LINE.matcher(line);
+                if (matcher.find() && until.equals(matcher.group(1).split(" ")[0])) {
+                    wall = System.nanoTime() - start;
+                    inJvm = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(matcher.group(3)));
+                }
+            }
+        }
+        watchdog.join();
+        if (wall < 0) {
+            throw new IOException(config.name + " run did not reach the " + until + " window:\n"
+                    + String.join("\n", output));
+        }
+        return new long[]{wall, inJvm};
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,366 @@
+package com.sims.tools;
+
+import com.sims.cache.CacheRegistry;
+import com.sims.dao.AttendanceDAO;
+import com.sims.dao.CourseDAO;
+import com.sims.dao.FinancialDAO;
+import com.sims.dao.GradeDAO;
+import com.sims.dao.StudentDAO;
+import com.sims.database.DatabaseConnection;
+import com.sims.metrics.LatencyHistogram;
+import com.sims.metrics.QueryMetrics;
+import com.sims.models.Attendance;
+import com.sims.models.FinancialRecord;
+import com.sims.models.Grade;
+import com.sims.services.MetricsReporter;
+
+import java.io.PrintWriter;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Workload replayer
+ * Drives the DAOs with a weighted mix of reads and writes at a fixed target rate and reports
+ * latency percentiles per operation, followed by the per-query JDBC statistics. Meant to be
+ * run against a database populated by DatasetGenerator; students, courses and enrollments are
+ * sampled from what is there.
+ *
+ * The schedule is open-loop: each operation has an intended start time and its latency is
+ * measured from then, so when the database falls behind the queueing delay is counted
+ * instead of silently lowering the rate. Operations run on one thread so the schedule and
+ * the random stream stay reproducible.
+ *
+ * Usage: WorkloadReplayer [--rate OPS_PER_SEC] [--duration SEC] [--warmup SEC]
+ *        [--write-percent N] [--seed N] [--no-cache]
+ */
+public class WorkloadReplayer {
+
+    /**
+     * DAO call made by one operation
+     */
+    private interface Operation {
+        void run(SplittableRandom random) throws SQLException;
+    }
+
+    /**
+     * Operation in the mix with its weight and latencies
+     */
+    private static class WeightedOperation {
+        private final String name;
+        private final boolean write;
+        private final int weight;
+        private final Operation operation;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private long errors;
+
+        WeightedOperation(String name, boolean write, int weight, Operation operation) {
+            this.name = name;
+            this.write = write;
+            this.weight = weight;
+            this.operation = operation;
+        }
+    }
+
+    private final StudentDAO studentDAO = new StudentDAO();
+    private final CourseDAO courseDAO = new CourseDAO();
+    private final AttendanceDAO attendanceDAO = new AttendanceDAO();
+    private final GradeDAO gradeDAO = new GradeDAO();
+    private final FinancialDAO financialDAO = new FinancialDAO();
+
+    private final List<WeightedOperation> operations = new ArrayList<>();
+    private double[] cumulativeWeights;
+
+    private int rate = 50;
+    private int durationSeconds = 60;
+    private int warmupSeconds = 5;
+    private int writePercent = 10;
+    private long seed = 42L;
+    private boolean useCache = true;
+
+    private int[] studentIds;
+    private String[] studentCodes;
+    private String[] lastNames;
+    private int[] enrollmentStudents;
+    private int[] enrollmentCourses;
+    private LocalDate firstClassDate;
+    private int classDateSpan;
+
+    /**
+     * Register the operation mix; reads share (100 - writePercent) and writes writePercent
+     */
+    private void registerOperations() {
+        read("student.byId", 20, r -> studentDAO.getStudentById(studentIds[hotIndex(r, studentIds.length)]));
+        read("student.byCode", 10, r -> studentDAO.getStudentByCode(studentCodes[hotIndex(r, studentCodes.length)]));
+        read("student.search", 5, r -> {
+            String name = lastNames[r.nextInt(lastNames.length)];
+            studentDAO.searchStudentsByName(name.substring(0, Math.min(3, name.length())));
+        });
+        read("course.byStudent", 10, r -> courseDAO.getCoursesByStudentId(studentIds[hotIndex(r, studentIds.length)]));
+        read("attendance.sheet", 10, r -> attendanceDAO.getAttendanceSheet(
+                enrollmentCourses[r.nextInt(enrollmentCourses.length)], classDate(r)));
+        read("attendance.percentage", 10, r -> {
+            int enrollment = r.nextInt(enrollmentStudents.length);
+            attendanceDAO.getAttendancePercentage(enrollmentStudents[enrollment], enrollmentCourses[enrollment]);
+        });
+        read("grades.byStudent", 10, r -> gradeDAO.getGradesByStudent(studentIds[hotIndex(r, studentIds.length)]));
+        read("grades.gpa", 5, r -> gradeDAO.calculateGPA(studentIds[hotIndex(r, studentIds.length)],
+                "FALL", "2023-2024"));
+        read("financial.byStudent", 5, r ->
+                financialDAO.getFinancialRecordsByStudent(studentIds[hotIndex(r, studentIds.length)]));
+        read("financial.balance", 5, r -> financialDAO.getTotalBalance(studentIds[hotIndex(r, studentIds.length)]));
+
+        write("attendance.record", 5, r -> {
+            int enrollment = r.nextInt(enrollmentStudents.length);
+            Attendance.AttendanceStatus[] statuses = Attendance.AttendanceStatus.values();
+            attendanceDAO.recordAttendance(new Attendance(enrollmentStudents[enrollment],
+                    enrollmentCourses[enrollment], classDate(r), statuses[r.nextInt(statuses.length)]));
+        });
+        write("grades.record", 3, r -> {
+            int enrollment = r.nextInt(enrollmentStudents.length);
+            BigDecimal marks = BigDecimal.valueOf(r.nextInt(2001), 2);
+            gradeDAO.recordGrade(new Grade(enrollmentStudents[enrollment], enrollmentCourses[enrollment],
+                    "QUIZ", "Replay quiz", marks, new BigDecimal("20"), "FALL", "2023-2024"));
+        });
+        write("financial.create", 2, r -> financialDAO.createFinancialRecord(new FinancialRecord(
+                studentIds[r.nextInt(studentIds.length)], FinancialRecord.TransactionType.FEE,
+                BigDecimal.valueOf(1000 + r.nextInt(50000), 2), "Replay charge", LocalDate.now())));
+
+        int readWeight = 0;
+        int writeWeight = 0;
+        for (WeightedOperation op : operations) {
+            if (op.write) {
+                writeWeight += op.weight;
+            } else {
+                readWeight += op.weight;
+            }
+        }
+        cumulativeWeights = new double[operations.size()];
+        double total = 0;
+        for (int i = 0; i < operations.size(); i++) {
+            WeightedOperation op = operations.get(i);
+            total += op.write ? (double) op.weight / writeWeight * writePercent
+                    : (double) op.weight / readWeight * (100 - writePercent);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    private void read(String name, int weight, Operation operation) {
+        operations.add(new WeightedOperation(name, false, weight, operation));
+    }
+
+    private void write(String name, int weight, Operation operation) {
+        operations.add(new WeightedOperation(name, true, weight, operation));
+    }
+
+    /**
+     * Sample the ids the operations draw from
+     */
+    private void loadSample() throws SQLException {
+        try (Connection conn = DatabaseConnection.openConnection(null)) {
+            List<Integer> ids = new ArrayList<>();
+            List<String> codes = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "SELECT student_id, student_code, last_name FROM students");
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                    codes.add(rs.getString(2));
+                    names.add(rs.getString(3));
+                }
+            }
+            if (ids.isEmpty()) {
+                throw new SQLException("No students found; run DatasetGenerator first");
+            }
+            studentIds = ids.stream().mapToInt(Integer::intValue).toArray();
+            studentCodes = codes.toArray(new String[0]);
+            lastNames = names.toArray(new String[0]);
+
+            List<int[]> enrollments = new ArrayList<>();
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "SELECT student_id, course_id FROM course_enrollments WHERE status = 'ENROLLED'");
+                 ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    enrollments.add(new int[] {rs.getInt(1), rs.getInt(2)});
+                }
+            }
+            if (enrollments.isEmpty()) {
+                throw new SQLException("No enrollments found; run DatasetGenerator first");
+            }
+            enrollmentStudents = new int[enrollments.size()];
+            enrollmentCourses = new int[enrollments.size()];
+            for (int i = 0; i < enrollments.size(); i++) {
+                enrollmentStudents[i] = enrollments.get(i)[0];
+                enrollmentCourses[i] = enrollments.get(i)[1];
+            }
+
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "SELECT MIN(attendance_date), MAX(attendance_date) FROM attendance");
+                 ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next() && rs.getDate(1) != null) {
+                    firstClassDate = rs.getDate(1).toLocalDate();
+                    classDateSpan = (int) (rs.getDate(2).toLocalDate().toEpochDay() - firstClassDate.toEpochDay()) + 1;
+                } else {
+                    firstClassDate = LocalDate.now();
+                    classDateSpan = 1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Run the warmup and measured phases
+     */
+    public void run() throws SQLException {
+        loadSample();
+        registerOperations();
+        System.out.printf("Replaying %d ops/s for %d s (+%d s warmup), %d%% writes, %d students, %d enrollments%n",
+                rate, durationSeconds, warmupSeconds, writePercent, studentIds.length, enrollmentStudents.length);
+
+        SplittableRandom random = new SplittableRandom(seed);
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(durationSeconds);
+        long measured = 0;
+        boolean warm = warmupSeconds == 0;
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * interval;
+            if (intended >= end) {
+                break;
+            }
+            long now;
+            while ((now = System.nanoTime()) < intended) {
+                LockSupport.parkNanos(intended - now);
+            }
+
+            if (!warm && intended >= measureFrom) {
+                warm = true;
+                QueryMetrics.resetAll();
+            }
+
+            WeightedOperation op = pick(random.nextDouble() * 100);
+            if (!useCache) {
+                CacheRegistry.invalidateAll();
+            }
+            boolean failed = false;
+            try {
+                op.operation.run(random);
+            } catch (SQLException | RuntimeException e) {
+                failed = true;
+                if (op.errors++ == 0) {
+                    System.err.println(op.name + " failed: " + e.getMessage());
+                }
+            }
+            if (intended >= measureFrom && !failed) {
+                op.latency.record(System.nanoTime() - intended);
+                measured++;
+            }
+        }
+
+        double seconds = (System.nanoTime() - measureFrom) / 1e9;
+        report(measured / seconds);
+    }
+
+    private WeightedOperation pick(double roll) {
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations.get(i);
+            }
+        }
+        return operations.get(operations.size() - 1);
+    }
+
+    /**
+     * 80% of picks go to the first 20% of the sample, like a working set of active students
+     */
+    private static int hotIndex(SplittableRandom random, int size) {
+        int hot = Math.max(1, size / 5);
+        return random.nextInt(100) < 80 ? random.nextInt(hot) : random.nextInt(size);
+    }
+
+    private LocalDate classDate(SplittableRandom random) {
+        return firstClassDate.plusDays(random.nextInt(classDateSpan));
+    }
+
+    private void report(double achievedRate) {
+        LatencyHistogram all = new LatencyHistogram();
+        System.out.println();
+        System.out.printf("%-22s %8s %6s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "mean", "p50", "p90", "p99", "p99.9", "max");
+        for (WeightedOperation op : operations) {
+            all.add(op.latency);
+            printRow(op.name, op.latency, op.errors);
+        }
+        long errors = operations.stream().mapToLong(op -> op.errors).sum();
+        printRow("all", all, errors);
+        System.out.printf("%nLatencies in ms from the scheduled start; achieved %.1f of %d ops/s%n",
+                achievedRate, rate);
+        System.out.println();
+        MetricsReporter.dump(new PrintWriter(System.out));
+    }
+
+    private static void printRow(String name, LatencyHistogram histogram, long errors) {
+        System.out.printf("%-22s %8d %6d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, histogram.getCount(), errors,
+                histogram.getMeanNanos() / 1e6, histogram.getValueAtPercentile(50) / 1e6,
+                histogram.getValueAtPercentile(90) / 1e6, histogram.getValueAtPercentile(99) / 1e6,
+                histogram.getValueAtPercentile(99.9) / 1e6, histogram.getMaxNanos() / 1e6);
+    }
+
+    public static void main(String[] args) {
+        WorkloadReplayer replayer = new WorkloadReplayer();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--rate":
+                        replayer.rate = Integer.parseInt(args[++i]);
+                        break;
+                    case "--duration":
+                        replayer.durationSeconds = Integer.parseInt(args[++i]);
+                        break;
+                    case "--warmup":
+                        replayer.warmupSeconds = Integer.parseInt(args[++i]);
+                        break;
+                    case "--write-percent":
+                        replayer.writePercent = Integer.parseInt(args[++i]);
+                        break;
+                    case "--seed":
+                        replayer.seed = Long.parseLong(args[++i]);
+                        break;
+                    case "--no-cache":
+                        replayer.useCache = false;
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            if (replayer.rate <= 0 || replayer.writePercent < 0 || replayer.writePercent > 100) {
+                throw new IllegalArgumentException("Rate must be positive and write percent 0-100");
+            }
+        } catch (ArrayIndexOutOfBoundsException | IllegalArgumentException e) {
+            System.err.println("Usage: WorkloadReplayer [--rate OPS_PER_SEC] [--duration SEC] [--warmup SEC] " +
+                    "[--write-percent N] [--seed N] [--no-cache]");
+            System.exit(2);
+        }
+
+        try {
+            replayer.run();
+            System.exit(0);
+        } catch (SQLException e) {
+            System.err.println("Workload replay failed: " + e.getMessage());
+            System.exit(1);
+        } finally {
+            DatabaseConnection.closeConnection();
+        }
+    }
+}
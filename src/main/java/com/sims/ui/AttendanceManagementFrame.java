@@ -2,18 +2,30 @@ package com.sims.ui;
 
 import com.sims.dao.AttendanceDAO;
 import com.sims.dao.CourseDAO;
-import com.sims.dao.StudentDAO;
+import com.sims.events.EventBus;
+import com.sims.events.RemoteChange;
+import com.sims.events.StudentDeleted;
+import com.sims.events.StudentEnrolled;
+import com.sims.events.StudentUpdated;
 import com.sims.models.Attendance;
+import com.sims.models.AttendanceSheetEntry;
+import com.sims.models.ChangeRecord;
 import com.sims.models.Course;
 import com.sims.models.Student;
+import com.sims.offline.OfflineMode;
+import com.sims.services.AttendanceWriteBuffer;
 import com.sims.services.AuthService;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.io.IOException;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Attendance Management Frame
@@ -21,21 +33,53 @@ import java.util.List;
 public class AttendanceManagementFrame extends JPanel {
     private AttendanceDAO attendanceDAO;
     private CourseDAO courseDAO;
-    private StudentDAO studentDAO;
     private JTable attendanceTable;
     private DefaultTableModel tableModel;
     private AuthService authService;
     private JComboBox<Course> courseCombo;
     private JSpinner dateSpinner;
+    private Map<Integer, List<Student>> rosterCache = new HashMap<>();
+    private List<AttendanceSheetEntry> sheetEntries = new ArrayList<>();
+    private int sheetCourseId;
+    private LocalDate sheetDate;
+    private final List<EventBus.Subscription> subscriptions = new ArrayList<>();
 
     public AttendanceManagementFrame(AuthService authService) {
         this.authService = authService;
         this.attendanceDAO = new AttendanceDAO();
         this.courseDAO = new CourseDAO();
-        this.studentDAO = new StudentDAO();
         initializeUI();
     }
 
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        EventBus bus = EventBus.getDefault();
+        subscriptions.add(bus.subscribe(StudentEnrolled.class, EventBus.Delivery.EDT,
+                event -> rosterCache.remove(event.getCourseId())));
+        subscriptions.add(bus.subscribe(StudentUpdated.class, EventBus.Delivery.EDT, event -> rosterCache.clear()));
+        subscriptions.add(bus.subscribe(StudentDeleted.class, EventBus.Delivery.EDT, event -> rosterCache.clear()));
+        subscriptions.add(bus.subscribe(RemoteChange.class, EventBus.Delivery.EDT, event -> {
+            ChangeRecord change = event.getChange();
+            if (change.getEntityType() == ChangeRecord.EntityType.ENROLLMENT) {
+                rosterCache.remove(change.getEntityId());
+            } else if (change.getEntityType() == ChangeRecord.EntityType.STUDENT) {
+                rosterCache.clear();
+            }
+        }));
+    }
+
+    @Override
+    public void removeNotify() {
+        for (EventBus.Subscription subscription : subscriptions) {
+            subscription.unsubscribe();
+        }
+        subscriptions.clear();
+        // Roster changes are not seen while the panel is hidden
+        rosterCache.clear();
+        super.removeNotify();
+    }
+
     private void initializeUI() {
         setLayout(new BorderLayout(10, 10));
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
@@ -103,14 +147,42 @@ public class AttendanceManagementFrame extends JPanel {
             return;
         }
 
+        LocalDate date = getSelectedDate();
+
         try {
+            List<AttendanceSheetEntry> sheet;
+            List<Student> roster = rosterCache.get(selectedCourse.getCourseId());
+            if (roster == null) {
+                // First load for this course: roster and existing marks in one query
+                sheet = attendanceDAO.getAttendanceSheet(selectedCourse.getCourseId(), date);
+                roster = new ArrayList<>();
+                for (AttendanceSheetEntry entry : sheet) {
+                    roster.add(entry.getStudent());
+                }
+                rosterCache.put(selectedCourse.getCourseId(), roster);
+            } else {
+                // Roster already known: only fetch the marks for the selected date
+                Map<Integer, Attendance> recorded = new HashMap<>();
+                for (Attendance attendance : attendanceDAO.getAttendanceByCourseAndDate(
+                        selectedCourse.getCourseId(), date)) {
+                    recorded.put(attendance.getStudentId(), attendance);
+                }
+                sheet = new ArrayList<>();
+                for (Student student : roster) {
+                    sheet.add(new AttendanceSheetEntry(student, recorded.get(student.getStudentId())));
+                }
+            }
+            AttendanceWriteBuffer.overlayPending(selectedCourse.getCourseId(), date, sheet);
+
             tableModel.setRowCount(0);
-            List<Student> students = studentDAO.getAllStudents();
-            for (Student student : students) {
+            sheetEntries = sheet;
+            sheetCourseId = selectedCourse.getCourseId();
+            sheetDate = date;
+            for (AttendanceSheetEntry entry : sheet) {
                 Object[] row = {
-                    student.getStudentCode(),
-                    student.getFullName(),
-                    "PRESENT"
+                    entry.getStudent().getStudentCode(),
+                    entry.getStudent().getFullName(),
+                    entry.isRecorded() ? entry.getAttendance().getStatus().name() : "PRESENT"
                 };
                 tableModel.addRow(row);
             }
@@ -128,35 +200,71 @@ public class AttendanceManagementFrame extends JPanel {
             return;
         }
 
-        LocalDate date = ((java.util.Date) dateSpinner.getValue()).toInstant()
-                .atZone(java.time.ZoneId.systemDefault()).toLocalDate();
+        LocalDate date = getSelectedDate();
+        if (sheetCourseId != selectedCourse.getCourseId() || !date.equals(sheetDate)) {
+            JOptionPane.showMessageDialog(this, "Please load students for the selected course and date first.",
+                    "No Selection", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
 
-        try {
-            List<Attendance> attendanceList = new java.util.ArrayList<>();
-            for (int i = 0; i < tableModel.getRowCount(); i++) {
-                String studentCode = (String) tableModel.getValueAt(i, 0);
-                String status = (String) tableModel.getValueAt(i, 2);
-
-                Student student = studentDAO.getStudentByCode(studentCode);
-                if (student != null) {
-                    Attendance attendance = new Attendance(
-                        student.getStudentId(),
-                        selectedCourse.getCourseId(),
-                        date,
-                        Attendance.AttendanceStatus.valueOf(status)
-                    );
-                    attendance.setRecordedBy(authService.getCurrentUser().getUserId());
-                    attendanceList.add(attendance);
-                }
+        // Only rows that are new for this date or whose status was changed are sent
+        List<Attendance> attendanceList = new ArrayList<>();
+        List<AttendanceSheetEntry> changedEntries = new ArrayList<>();
+        for (int i = 0; i < tableModel.getRowCount(); i++) {
+            AttendanceSheetEntry entry = sheetEntries.get(i);
+            Attendance.AttendanceStatus status =
+                    Attendance.AttendanceStatus.valueOf((String) tableModel.getValueAt(i, 2));
+
+            if (entry.isRecorded() && entry.getAttendance().getStatus() == status) {
+                continue;
+            }
+
+            Attendance attendance = new Attendance(
+                entry.getStudent().getStudentId(),
+                selectedCourse.getCourseId(),
+                date,
+                status
+            );
+            if (entry.isRecorded()) {
+                attendance.setRemarks(entry.getAttendance().getRemarks());
             }
+            attendance.setRecordedBy(authService.getCurrentUser().getUserId());
+            attendanceList.add(attendance);
+            changedEntries.add(entry);
+        }
+
+        if (attendanceList.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "No attendance changes to save.",
+                    "Information", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
 
-            if (attendanceDAO.batchRecordAttendance(attendanceList)) {
+        try {
+            if (AttendanceWriteBuffer.isEnabled()) {
+                // Journaled locally and written to the database in the background
+                AttendanceWriteBuffer.getInstance().submit(attendanceList);
+            } else if (!attendanceDAO.batchRecordAttendance(attendanceList)) {
+                return;
+            }
+            for (int i = 0; i < changedEntries.size(); i++) {
+                changedEntries.get(i).setAttendance(attendanceList.get(i));
+            }
+            if (OfflineMode.isOffline()) {
+                JOptionPane.showMessageDialog(this, "Attendance saved offline.\n" +
+                        "It will be sent to the database when the connection is back.",
+                        "Saved Offline", JOptionPane.INFORMATION_MESSAGE);
+            } else {
                 JOptionPane.showMessageDialog(this, "Attendance recorded successfully!",
                         "Success", JOptionPane.INFORMATION_MESSAGE);
             }
-        } catch (SQLException e) {
+        } catch (SQLException | IOException e) {
             JOptionPane.showMessageDialog(this, "Error saving attendance: " + e.getMessage(),
                     "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
+
+    private LocalDate getSelectedDate() {
+        return ((java.util.Date) dateSpinner.getValue()).toInstant()
+                .atZone(java.time.ZoneId.systemDefault()).toLocalDate();
+    }
 }
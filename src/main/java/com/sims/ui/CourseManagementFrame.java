@@ -2,6 +2,11 @@ package com.sims.ui;
 
 import com.sims.dao.CourseDAO;
 import com.sims.dao.StudentDAO;
+import com.sims.events.CourseCreated;
+import com.sims.events.CourseUpdated;
+import com.sims.events.EventBus;
+import com.sims.events.RemoteChange;
+import com.sims.models.ChangeRecord;
 import com.sims.models.Course;
 import com.sims.models.Student;
 import com.sims.services.AuthService;
@@ -10,10 +15,12 @@ import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Course Management Frame
+ * Rows are patched from course events instead of reloading the whole table after each save
  */
 public class CourseManagementFrame extends JPanel {
     private CourseDAO courseDAO;
@@ -21,6 +28,7 @@ public class CourseManagementFrame extends JPanel {
     private JTable courseTable;
     private DefaultTableModel tableModel;
     private AuthService authService;
+    private final List<EventBus.Subscription> subscriptions = new ArrayList<>();
 
     public CourseManagementFrame(AuthService authService) {
         this.authService = authService;
@@ -30,6 +38,27 @@ public class CourseManagementFrame extends JPanel {
         loadCourses();
     }
 
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        EventBus bus = EventBus.getDefault();
+        subscriptions.add(bus.subscribe(CourseCreated.class, EventBus.Delivery.EDT,
+                event -> putCourseRow(event.getEntity())));
+        subscriptions.add(bus.subscribe(CourseUpdated.class, EventBus.Delivery.EDT,
+                event -> putCourseRow(event.getEntity())));
+        subscriptions.add(bus.subscribe(RemoteChange.class, EventBus.Delivery.EDT,
+                event -> applyRemoteChange(event.getChange())));
+    }
+
+    @Override
+    public void removeNotify() {
+        for (EventBus.Subscription subscription : subscriptions) {
+            subscription.unsubscribe();
+        }
+        subscriptions.clear();
+        super.removeNotify();
+    }
+
     private void initializeUI() {
         setLayout(new BorderLayout(10, 10));
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
@@ -81,16 +110,7 @@ public class CourseManagementFrame extends JPanel {
             tableModel.setRowCount(0);
             List<Course> courses = courseDAO.getAllCourses();
             for (Course course : courses) {
-                Object[] row = {
-                    course.getCourseId(),
-                    course.getCourseCode(),
-                    course.getCourseName(),
-                    course.getCredits(),
-                    course.getSemester(),
-                    course.getAcademicYear(),
-                    course.getStatus().name()
-                };
-                tableModel.addRow(row);
+                tableModel.addRow(toRow(course));
             }
         } catch (SQLException e) {
             JOptionPane.showMessageDialog(this, "Error loading courses: " + e.getMessage(),
@@ -98,12 +118,54 @@ public class CourseManagementFrame extends JPanel {
         }
     }
 
+    private Object[] toRow(Course course) {
+        return new Object[] {
+            course.getCourseId(),
+            course.getCourseCode(),
+            course.getCourseName(),
+            course.getCredits(),
+            course.getSemester(),
+            course.getAcademicYear(),
+            course.getStatus().name()
+        };
+    }
+
+    /**
+     * Replace the row of a saved course, appending it if it is new
+     */
+    private void putCourseRow(Course course) {
+        Object[] values = toRow(course);
+        for (int row = 0; row < tableModel.getRowCount(); row++) {
+            if ((Integer) tableModel.getValueAt(row, 0) == course.getCourseId()) {
+                for (int column = 0; column < values.length; column++) {
+                    tableModel.setValueAt(values[column], row, column);
+                }
+                return;
+            }
+        }
+        tableModel.addRow(values);
+    }
+
+    /**
+     * Re-read a single course changed by another client
+     */
+    private void applyRemoteChange(ChangeRecord change) {
+        if (change.getEntityType() != ChangeRecord.EntityType.COURSE) {
+            return;
+        }
+        try {
+            Course course = courseDAO.getCourseById(change.getEntityId());
+            if (course != null) {
+                putCourseRow(course);
+            }
+        } catch (SQLException e) {
+            System.err.println("Error refreshing course " + change.getEntityId() + ": " + e.getMessage());
+        }
+    }
+
     private void showAddCourseDialog() {
         CourseDialog dialog = new CourseDialog((JFrame) SwingUtilities.getWindowAncestor(this), "Add Course", null);
         dialog.setVisible(true);
-        if (dialog.isSaved()) {
-            loadCourses();
-        }
     }
 
     private void showEditCourseDialog() {
@@ -121,9 +183,6 @@ public class CourseManagementFrame extends JPanel {
                 CourseDialog dialog = new CourseDialog((JFrame) SwingUtilities.getWindowAncestor(this),
                         "Edit Course", course);
                 dialog.setVisible(true);
-                if (dialog.isSaved()) {
-                    loadCourses();
-                }
             }
         } catch (SQLException e) {
             JOptionPane.showMessageDialog(this, "Error loading course: " + e.getMessage(),
@@ -254,12 +313,11 @@ public class CourseManagementFrame extends JPanel {
                     );
                     newCourse.setStatus((Course.Status) statusCombo.getSelectedItem());
 
-                    if (courseDAO.createCourse(newCourse)) {
-                        JOptionPane.showMessageDialog(this, "Course added successfully!",
-                                "Success", JOptionPane.INFORMATION_MESSAGE);
-                        saved = true;
-                        dispose();
-                    }
+                    courseDAO.createCourse(newCourse);
+                    JOptionPane.showMessageDialog(this, "Course added successfully!",
+                            "Success", JOptionPane.INFORMATION_MESSAGE);
+                    saved = true;
+                    dispose();
                 } else {
                     course.setCourseName(nameField.getText());
                     course.setDescription(descriptionField.getText());
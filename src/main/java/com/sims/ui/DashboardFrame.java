@@ -1,12 +1,20 @@
 package com.sims.ui;
 
+import com.sims.events.AttendanceRecorded;
+import com.sims.events.ConnectivityChanged;
+import com.sims.events.EventBus;
+import com.sims.events.GradeRecorded;
 import com.sims.models.User;
+import com.sims.offline.LocalStore;
+import com.sims.offline.OfflineMode;
 import com.sims.services.AuthService;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Main dashboard window with role-based menu access
@@ -15,6 +23,8 @@ public class DashboardFrame extends JFrame {
     private AuthService authService;
     private JPanel contentPanel;
     private CardLayout cardLayout;
+    private JLabel connectivityLabel;
+    private final List<EventBus.Subscription> subscriptions = new ArrayList<>();
 
     public DashboardFrame(AuthService authService) {
         this.authService = authService;
@@ -23,6 +33,62 @@ public class DashboardFrame extends JFrame {
         setupMenu();
     }
 
+    /**
+     * Load and initialize the dashboard's panel classes and the Swing classes they use
+     * Called during startup, off the event dispatch thread, so the first menu click after login
+     * does not pay for class loading.
+     */
+    public static void preloadClasses() throws ClassNotFoundException {
+        Class<?>[] classes = {DashboardFrame.class, StudentManagementFrame.class, CourseManagementFrame.class,
+                AttendanceManagementFrame.class, GradeManagementFrame.class, FinancialManagementFrame.class,
+                JMenuBar.class, JMenu.class, JMenuItem.class, JTable.class, JScrollPane.class,
+                JComboBox.class, JSpinner.class, JTextField.class, JOptionPane.class, CardLayout.class};
+        for (Class<?> type : classes) {
+            Class.forName(type.getName(), true, type.getClassLoader());
+        }
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        EventBus bus = EventBus.getDefault();
+        subscriptions.add(bus.subscribe(ConnectivityChanged.class, EventBus.Delivery.EDT, this::connectivityChanged));
+        subscriptions.add(bus.subscribe(AttendanceRecorded.class, EventBus.Delivery.EDT,
+                event -> updateConnectivityLabel()));
+        subscriptions.add(bus.subscribe(GradeRecorded.class, EventBus.Delivery.EDT,
+                event -> updateConnectivityLabel()));
+        updateConnectivityLabel();
+    }
+
+    @Override
+    public void removeNotify() {
+        for (EventBus.Subscription subscription : subscriptions) {
+            subscription.unsubscribe();
+        }
+        subscriptions.clear();
+        super.removeNotify();
+    }
+
+    private void connectivityChanged(ConnectivityChanged event) {
+        updateConnectivityLabel();
+        if (!event.isOffline() && event.getConflicts() > 0) {
+            JOptionPane.showMessageDialog(this,
+                    "Back online. " + event.getReplayedWrites() + " offline changes were saved.\n" +
+                    event.getConflicts() + " changes were not saved because the same records were changed " +
+                    "by someone else meanwhile.\nSee " + LocalStore.getDefault().getDirectory().resolve("conflicts.log"),
+                    "Offline Changes", JOptionPane.WARNING_MESSAGE);
+        }
+    }
+
+    private void updateConnectivityLabel() {
+        if (OfflineMode.isOffline()) {
+            connectivityLabel.setText("OFFLINE - " + OfflineMode.getPendingCount() + " changes waiting to sync");
+            connectivityLabel.setVisible(true);
+        } else {
+            connectivityLabel.setVisible(false);
+        }
+    }
+
     private void initializeComponents() {
         setTitle("Student Information Management System - Dashboard");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
@@ -48,6 +114,12 @@ public class DashboardFrame extends JFrame {
             new LoginFrame().setVisible(true);
             dispose();
         });
+        connectivityLabel = new JLabel();
+        connectivityLabel.setForeground(new Color(180, 60, 0));
+        connectivityLabel.setFont(connectivityLabel.getFont().deriveFont(Font.BOLD));
+        connectivityLabel.setVisible(false);
+        welcomePanel.add(Box.createHorizontalStrut(20));
+        welcomePanel.add(connectivityLabel);
         welcomePanel.add(Box.createHorizontalGlue());
         welcomePanel.add(logoutButton);
 
@@ -106,6 +178,18 @@ public class DashboardFrame extends JFrame {
             menuBar.add(financialMenu);
         }
 
+        // Diagnostics Menu
+        if (authService.isAdmin()) {
+            JMenu diagnosticsMenu = new JMenu("Diagnostics");
+            JMenuItem slowQueries = new JMenuItem("Slow Queries");
+            slowQueries.addActionListener(e -> showSlowQueries());
+            diagnosticsMenu.add(slowQueries);
+            JMenuItem actionTraces = new JMenuItem("Action Traces");
+            actionTraces.addActionListener(e -> showActionTraces());
+            diagnosticsMenu.add(actionTraces);
+            menuBar.add(diagnosticsMenu);
+        }
+
         setJMenuBar(menuBar);
     }
 
@@ -153,4 +237,16 @@ public class DashboardFrame extends JFrame {
         contentPanel.add(financialFrame, "FINANCIAL");
         cardLayout.show(contentPanel, "FINANCIAL");
     }
+
+    private void showSlowQueries() {
+        SlowQueryPanel slowQueryPanel = new SlowQueryPanel();
+        contentPanel.add(slowQueryPanel, "SLOW_QUERIES");
+        cardLayout.show(contentPanel, "SLOW_QUERIES");
+    }
+
+    private void showActionTraces() {
+        TracePanel tracePanel = new TracePanel();
+        contentPanel.add(tracePanel, "TRACES");
+        cardLayout.show(contentPanel, "TRACES");
+    }
 }
@@ -2,6 +2,9 @@ package com.sims.ui;
 
 import com.sims.dao.FinancialDAO;
 import com.sims.dao.StudentDAO;
+import com.sims.events.EventBus;
+import com.sims.events.FinancialRecordCreated;
+import com.sims.events.PaymentPosted;
 import com.sims.models.FinancialRecord;
 import com.sims.models.Student;
 import com.sims.services.AuthService;
@@ -12,10 +15,12 @@ import java.awt.*;
 import java.math.BigDecimal;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Financial Management Frame
+ * New transactions and payments are applied as single rows; only the balance is re-queried
  */
 public class FinancialManagementFrame extends JPanel {
     private FinancialDAO financialDAO;
@@ -25,6 +30,7 @@ public class FinancialManagementFrame extends JPanel {
     private AuthService authService;
     private JComboBox<Student> studentCombo;
     private JLabel balanceLabel;
+    private final List<EventBus.Subscription> subscriptions = new ArrayList<>();
 
     public FinancialManagementFrame(AuthService authService) {
         this.authService = authService;
@@ -33,6 +39,24 @@ public class FinancialManagementFrame extends JPanel {
         initializeUI();
     }
 
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        EventBus bus = EventBus.getDefault();
+        subscriptions.add(bus.subscribe(FinancialRecordCreated.class, EventBus.Delivery.EDT,
+                event -> addRecordRow(event.getEntity())));
+        subscriptions.add(bus.subscribe(PaymentPosted.class, EventBus.Delivery.EDT, this::applyPayment));
+    }
+
+    @Override
+    public void removeNotify() {
+        for (EventBus.Subscription subscription : subscriptions) {
+            subscription.unsubscribe();
+        }
+        subscriptions.clear();
+        super.removeNotify();
+    }
+
     private void initializeUI() {
         setLayout(new BorderLayout(10, 10));
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
@@ -99,17 +123,7 @@ public class FinancialManagementFrame extends JPanel {
             tableModel.setRowCount(0);
             List<FinancialRecord> records = financialDAO.getFinancialRecordsByStudent(selectedStudent.getStudentId());
             for (FinancialRecord record : records) {
-                Object[] row = {
-                    record.getFinancialId(),
-                    record.getTransactionType().name(),
-                    "$" + record.getAmount(),
-                    record.getDescription(),
-                    record.getTransactionDate(),
-                    record.getDueDate() != null ? record.getDueDate() : "N/A",
-                    record.getStatus().name(),
-                    record.getPaymentDate() != null ? record.getPaymentDate() : "N/A"
-                };
-                tableModel.addRow(row);
+                tableModel.addRow(toRow(record));
             }
 
             BigDecimal balance = financialDAO.getTotalBalance(selectedStudent.getStudentId());
@@ -120,6 +134,56 @@ public class FinancialManagementFrame extends JPanel {
         }
     }
 
+    private Object[] toRow(FinancialRecord record) {
+        return new Object[] {
+            record.getFinancialId(),
+            record.getTransactionType().name(),
+            "$" + record.getAmount(),
+            record.getDescription(),
+            record.getTransactionDate(),
+            record.getDueDate() != null ? record.getDueDate() : "N/A",
+            record.getStatus().name(),
+            record.getPaymentDate() != null ? record.getPaymentDate() : "N/A"
+        };
+    }
+
+    private void addRecordRow(FinancialRecord record) {
+        Student selectedStudent = (Student) studentCombo.getSelectedItem();
+        if (selectedStudent == null || selectedStudent.getStudentId() != record.getStudentId()) {
+            return;
+        }
+        tableModel.addRow(toRow(record));
+        refreshBalance(selectedStudent.getStudentId());
+    }
+
+    /**
+     * Patch status and payment date of the paid row
+     */
+    private void applyPayment(PaymentPosted payment) {
+        Student selectedStudent = (Student) studentCombo.getSelectedItem();
+        if (selectedStudent == null) {
+            return;
+        }
+        for (int row = 0; row < tableModel.getRowCount(); row++) {
+            if ((Integer) tableModel.getValueAt(row, 0) == payment.getFinancialId()) {
+                tableModel.setValueAt(payment.getStatus().name(), row, 6);
+                tableModel.setValueAt(payment.getPaymentDate() != null ? payment.getPaymentDate() : "N/A", row, 7);
+                refreshBalance(selectedStudent.getStudentId());
+                return;
+            }
+        }
+    }
+
+    private void refreshBalance(int studentId) {
+        try {
+            BigDecimal balance = financialDAO.getTotalBalance(studentId);
+            balanceLabel.setText("Balance: $" + balance);
+        } catch (SQLException e) {
+            JOptionPane.showMessageDialog(this, "Error loading balance: " + e.getMessage(),
+                    "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     private void showAddTransactionDialog() {
         Student selectedStudent = (Student) studentCombo.getSelectedItem();
         if (selectedStudent == null) {
@@ -131,9 +195,6 @@ public class FinancialManagementFrame extends JPanel {
         TransactionDialog dialog = new TransactionDialog((JFrame) SwingUtilities.getWindowAncestor(this),
                 selectedStudent);
         dialog.setVisible(true);
-        if (dialog.isSaved()) {
-            loadFinancialRecords();
-        }
     }
 
     private void showRecordPaymentDialog() {
@@ -153,7 +214,6 @@ public class FinancialManagementFrame extends JPanel {
                         paymentMethod, LocalDate.now(), "REC" + financialId)) {
                     JOptionPane.showMessageDialog(this, "Payment recorded successfully!",
                             "Success", JOptionPane.INFORMATION_MESSAGE);
-                    loadFinancialRecords();
                 }
             } catch (SQLException e) {
                 JOptionPane.showMessageDialog(this, "Error recording payment: " + e.getMessage(),
@@ -238,12 +298,11 @@ public class FinancialManagementFrame extends JPanel {
                         .atZone(java.time.ZoneId.systemDefault()).toLocalDate());
                 record.setRecordedBy(authService.getCurrentUser().getUserId());
 
-                if (financialDAO.createFinancialRecord(record)) {
-                    JOptionPane.showMessageDialog(this, "Transaction recorded successfully!",
-                            "Success", JOptionPane.INFORMATION_MESSAGE);
-                    saved = true;
-                    dispose();
-                }
+                financialDAO.createFinancialRecord(record);
+                JOptionPane.showMessageDialog(this, "Transaction recorded successfully!",
+                        "Success", JOptionPane.INFORMATION_MESSAGE);
+                saved = true;
+                dispose();
             } catch (Exception e) {
                 JOptionPane.showMessageDialog(this, "Error saving transaction: " + e.getMessage(),
                         "Error", JOptionPane.ERROR_MESSAGE);
@@ -1,11 +1,17 @@
 package com.sims.ui;
 
+import com.sims.analytics.GradeColumns;
+import com.sims.analytics.GradeStatistics;
 import com.sims.dao.CourseDAO;
 import com.sims.dao.GradeDAO;
 import com.sims.dao.StudentDAO;
+import com.sims.events.EventBus;
+import com.sims.events.GradeRecorded;
+import com.sims.events.GradeUpdated;
 import com.sims.models.Course;
 import com.sims.models.Grade;
 import com.sims.models.Student;
+import com.sims.offline.OfflineMode;
 import com.sims.services.AuthService;
 
 import javax.swing.*;
@@ -13,10 +19,20 @@ import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.math.BigDecimal;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.IntUnaryOperator;
 
 /**
  * Grade Management Frame
+ * New and updated grades for the loaded student and course are applied as single rows.
+ * Class statistics are computed off the EDT from a columnar copy of the term's grades, which is
+ * kept until a grade is recorded or updated.
  */
 public class GradeManagementFrame extends JPanel {
     private GradeDAO gradeDAO;
@@ -27,6 +43,12 @@ public class GradeManagementFrame extends JPanel {
     private AuthService authService;
     private JComboBox<Student> studentCombo;
     private JComboBox<Course> courseCombo;
+    private int loadedStudentId;
+    private int loadedCourseId;
+    private final List<EventBus.Subscription> subscriptions = new ArrayList<>();
+    private volatile GradeColumns termColumns;
+    private volatile String termColumnsKey;
+    private volatile int gradeChanges;
 
     public GradeManagementFrame(AuthService authService) {
         this.authService = authService;
@@ -36,6 +58,29 @@ public class GradeManagementFrame extends JPanel {
         initializeUI();
     }
 
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        EventBus bus = EventBus.getDefault();
+        subscriptions.add(bus.subscribe(GradeRecorded.class, EventBus.Delivery.EDT, event -> {
+            putGradeRow(event.getEntity());
+            dropTermColumns();
+        }));
+        subscriptions.add(bus.subscribe(GradeUpdated.class, EventBus.Delivery.EDT, event -> {
+            putGradeRow(event.getEntity());
+            dropTermColumns();
+        }));
+    }
+
+    @Override
+    public void removeNotify() {
+        for (EventBus.Subscription subscription : subscriptions) {
+            subscription.unsubscribe();
+        }
+        subscriptions.clear();
+        super.removeNotify();
+    }
+
     private void initializeUI() {
         setLayout(new BorderLayout(10, 10));
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
@@ -78,6 +123,10 @@ public class GradeManagementFrame extends JPanel {
         addButton.addActionListener(e -> showAddGradeDialog());
         topPanel.add(addButton);
 
+        JButton statisticsButton = new JButton("Statistics");
+        statisticsButton.addActionListener(e -> showStatisticsDialog());
+        topPanel.add(statisticsButton);
+
         // Table
         String[] columns = {"ID", "Assessment Type", "Assessment Name", "Marks Obtained", "Total Marks", "Percentage", "Grade"};
         tableModel = new DefaultTableModel(columns, 0) {
@@ -109,23 +158,47 @@ public class GradeManagementFrame extends JPanel {
             List<Grade> grades = gradeDAO.getGradesByStudentAndCourse(
                     selectedStudent.getStudentId(), selectedCourse.getCourseId());
             for (Grade grade : grades) {
-                Object[] row = {
-                    grade.getGradeId(),
-                    grade.getAssessmentType(),
-                    grade.getAssessmentName(),
-                    grade.getMarksObtained(),
-                    grade.getTotalMarks(),
-                    grade.getPercentage() + "%",
-                    grade.getGradeLetter()
-                };
-                tableModel.addRow(row);
+                tableModel.addRow(toRow(grade));
             }
+            loadedStudentId = selectedStudent.getStudentId();
+            loadedCourseId = selectedCourse.getCourseId();
         } catch (SQLException e) {
             JOptionPane.showMessageDialog(this, "Error loading grades: " + e.getMessage(),
                     "Error", JOptionPane.ERROR_MESSAGE);
         }
     }
 
+    private Object[] toRow(Grade grade) {
+        return new Object[] {
+            grade.getGradeId(),
+            grade.getAssessmentType(),
+            grade.getAssessmentName(),
+            grade.getMarksObtained(),
+            grade.getTotalMarks(),
+            grade.getPercentage() + "%",
+            grade.getGradeLetter()
+        };
+    }
+
+    /**
+     * Replace or append the row of a saved grade if it belongs to the loaded student and course
+     */
+    private void putGradeRow(Grade grade) {
+        if (grade.getStudentId() != loadedStudentId || grade.getCourseId() != loadedCourseId) {
+            return;
+        }
+        Object[] values = toRow(grade);
+        for (int row = 0; row < tableModel.getRowCount(); row++) {
+            if ((Integer) tableModel.getValueAt(row, 0) == grade.getGradeId()) {
+                for (int column = 0; column < values.length; column++) {
+                    tableModel.setValueAt(values[column], row, column);
+                }
+                return;
+            }
+        }
+        tableModel.addRow(values);
+    }
+
     private void showAddGradeDialog() {
         Student selectedStudent = (Student) studentCombo.getSelectedItem();
         Course selectedCourse = (Course) courseCombo.getSelectedItem();
@@ -139,8 +212,184 @@ public class GradeManagementFrame extends JPanel {
         GradeDialog dialog = new GradeDialog((JFrame) SwingUtilities.getWindowAncestor(this),
                 selectedStudent, selectedCourse);
         dialog.setVisible(true);
-        if (dialog.isSaved()) {
-            loadGrades();
+    }
+
+    private void showStatisticsDialog() {
+        new StatisticsDialog((JFrame) SwingUtilities.getWindowAncestor(this),
+                (Course) courseCombo.getSelectedItem()).setVisible(true);
+    }
+
+    /**
+     * Columnar grades of a term (both null for all terms), reused until a grade changes
+     */
+    private GradeColumns getTermColumns(String semester, String academicYear) throws SQLException {
+        String key = semester + "|" + academicYear;
+        GradeColumns columns = termColumns;
+        if (columns != null && key.equals(termColumnsKey)) {
+            return columns;
+        }
+        int changesBefore = gradeChanges;
+        columns = gradeDAO.loadGradeColumns(semester, academicYear);
+        // Not kept if a grade changed while loading; it may be missing from this copy
+        if (changesBefore == gradeChanges) {
+            termColumnsKey = key;
+            termColumns = columns;
+        }
+        return columns;
+    }
+
+    /**
+     * Called on the EDT when a grade is recorded or updated
+     */
+    private void dropTermColumns() {
+        gradeChanges++;
+        termColumns = null;
+    }
+
+    /**
+     * Mean, spread, quantiles and grade bands per assessment type or per course for one term
+     */
+    private class StatisticsDialog extends JDialog {
+        private final Course course;
+        private JTextField semesterField, yearField;
+        private JComboBox<String> groupCombo;
+        private JButton computeButton;
+        private DefaultTableModel statisticsModel;
+        private JLabel statusLabel;
+
+        public StatisticsDialog(JFrame parent, Course course) {
+            super(parent, "Grade Statistics", true);
+            this.course = course;
+            initializeDialog();
+        }
+
+        private void initializeDialog() {
+            setSize(1000, 450);
+            setLocationRelativeTo(getParent());
+
+            JPanel optionsPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+            optionsPanel.add(new JLabel(course != null ? "Course: " + course : "All courses"));
+            optionsPanel.add(new JLabel("Semester:"));
+            semesterField = new JTextField(course != null ? course.getSemester() : "", 8);
+            optionsPanel.add(semesterField);
+            optionsPanel.add(new JLabel("Academic Year:"));
+            yearField = new JTextField(course != null ? course.getAcademicYear() : "", 8);
+            optionsPanel.add(yearField);
+            optionsPanel.add(new JLabel("Group by:"));
+            groupCombo = new JComboBox<>(new String[] {"Assessment Type", "Course"});
+            if (course == null) {
+                groupCombo.setSelectedItem("Course");
+            }
+            optionsPanel.add(groupCombo);
+            computeButton = new JButton("Compute");
+            computeButton.addActionListener(e -> computeStatistics());
+            optionsPanel.add(computeButton);
+
+            String[] columns = {"Group", "Grades", "Mean", "Std Dev", "Min", "Median", "90th Pct", "Max",
+                                "A+", "A", "B+", "B", "C+", "C", "F"};
+            statisticsModel = new DefaultTableModel(columns, 0) {
+                @Override
+                public boolean isCellEditable(int row, int column) {
+                    return false;
+                }
+            };
+            statusLabel = new JLabel("Leave semester and year empty for all terms.");
+
+            add(optionsPanel, BorderLayout.NORTH);
+            add(new JScrollPane(new JTable(statisticsModel)), BorderLayout.CENTER);
+            add(statusLabel, BorderLayout.SOUTH);
+        }
+
+        private void computeStatistics() {
+            String semester = emptyToNull(semesterField.getText());
+            String academicYear = emptyToNull(yearField.getText());
+            if ((semester == null) != (academicYear == null)) {
+                JOptionPane.showMessageDialog(this, "Enter both semester and academic year, or neither.",
+                        "Invalid Term", JOptionPane.WARNING_MESSAGE);
+                return;
+            }
+            boolean byCourse = "Course".equals(groupCombo.getSelectedItem());
+            computeButton.setEnabled(false);
+            statusLabel.setText("Computing...");
+
+            new SwingWorker<List<Object[]>, Void>() {
+                private long loadMillis;
+                private long computeMillis;
+                private long gradeCount;
+
+                @Override
+                protected List<Object[]> doInBackground() throws SQLException {
+                    long start = System.nanoTime();
+                    GradeColumns columns = getTermColumns(semester, academicYear);
+                    loadMillis = (System.nanoTime() - start) / 1_000_000;
+
+                    start = System.nanoTime();
+                    GradeColumns.Filter filter = GradeColumns.Filter.all();
+                    if (course != null) {
+                        filter = filter.course(course.getCourseId());
+                    }
+                    IntUnaryOperator key = byCourse ? columns::getCourseId : columns::getAssessmentTypeKey;
+                    Map<Integer, GradeStatistics> groups = GradeStatistics.byGroup(columns, key, filter);
+                    GradeStatistics overall = GradeStatistics.of(columns, filter);
+                    computeMillis = (System.nanoTime() - start) / 1_000_000;
+                    gradeCount = overall.getCount();
+
+                    Map<Integer, String> courseCodes = new HashMap<>();
+                    if (byCourse) {
+                        for (Course each : courseDAO.getAllCourses()) {
+                            courseCodes.put(each.getCourseId(), each.getCourseCode());
+                        }
+                    }
+                    Map<String, GradeStatistics> sorted = new TreeMap<>();
+                    groups.forEach((group, statistics) -> sorted.put(byCourse
+                            ? courseCodes.getOrDefault(group, "#" + group)
+                            : Objects.toString(columns.getAssessmentTypeOfKey(group), "(none)"), statistics));
+
+                    List<Object[]> rows = new ArrayList<>();
+                    sorted.forEach((group, statistics) -> rows.add(toStatisticsRow(group, statistics)));
+                    rows.add(toStatisticsRow("All", overall));
+                    return rows;
+                }
+
+                @Override
+                protected void done() {
+                    computeButton.setEnabled(true);
+                    try {
+                        List<Object[]> rows = get();
+                        statisticsModel.setRowCount(0);
+                        for (Object[] row : rows) {
+                            statisticsModel.addRow(row);
+                        }
+                        statusLabel.setText(String.format("%,d grades; loaded in %d ms, computed in %d ms",
+                                gradeCount, loadMillis, computeMillis));
+                    } catch (InterruptedException | ExecutionException e) {
+                        Throwable cause = e.getCause() != null ? e.getCause() : e;
+                        statusLabel.setText(" ");
+                        JOptionPane.showMessageDialog(StatisticsDialog.this,
+                                "Error computing statistics: " + cause.getMessage(),
+                                "Error", JOptionPane.ERROR_MESSAGE);
+                    }
+                }
+            }.execute();
+        }
+
+        private Object[] toStatisticsRow(String group, GradeStatistics statistics) {
+            List<Object> row = new ArrayList<>();
+            row.add(group);
+            row.add(statistics.getCount());
+            row.add(String.format("%.2f", statistics.getMean()));
+            row.add(String.format("%.2f", statistics.getStandardDeviation()));
+            row.add(String.format("%.2f", statistics.getMin()));
+            row.add(String.format("%.2f", statistics.getMedian()));
+            row.add(String.format("%.2f", statistics.getQuantile(0.9)));
+            row.add(String.format("%.2f", statistics.getMax()));
+            row.addAll(statistics.getBandCounts().values());
+            return row.toArray();
+        }
+
+        private String emptyToNull(String text) {
+            String trimmed = text.trim();
+            return trimmed.isEmpty() ? null : trimmed;
         }
     }
 
@@ -215,12 +464,17 @@ public class GradeManagementFrame extends JPanel {
                 );
                 grade.setRecordedBy(authService.getCurrentUser().getUserId());
 
-                if (gradeDAO.recordGrade(grade)) {
+                gradeDAO.recordGrade(grade);
+                if (OfflineMode.isOffline()) {
+                    JOptionPane.showMessageDialog(this, "Grade saved offline.\n" +
+                            "It will be sent to the database when the connection is back.",
+                            "Saved Offline", JOptionPane.INFORMATION_MESSAGE);
+                } else {
                     JOptionPane.showMessageDialog(this, "Grade recorded successfully!",
                             "Success", JOptionPane.INFORMATION_MESSAGE);
-                    saved = true;
-                    dispose();
                 }
+                saved = true;
+                dispose();
             } catch (Exception e) {
                 JOptionPane.showMessageDialog(this, "Error saving grade: " + e.getMessage(),
                         "Error", JOptionPane.ERROR_MESSAGE);
@@ -0,0 +1,140 @@
+package com.sims.ui;
+
+import com.sims.database.SlowQueryEntry;
+import com.sims.database.SlowQueryLog;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Slow query viewer
+ * Shows the entries kept in memory by SlowQueryLog, newest first, refreshed every two seconds
+ * while visible. Selecting a row shows its parameters, error and plan.
+ */
+public class SlowQueryPanel extends JPanel {
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSS");
+    private static final int REFRESH_MILLIS = 2000;
+
+    private JTable queryTable;
+    private DefaultTableModel tableModel;
+    private JTextArea detailArea;
+    private JLabel statusLabel;
+    private List<SlowQueryEntry> entries = new ArrayList<>();
+    private final Timer refreshTimer = new Timer(REFRESH_MILLIS, e -> refresh());
+
+    public SlowQueryPanel() {
+        initializeUI();
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        refresh();
+        refreshTimer.start();
+    }
+
+    @Override
+    public void removeNotify() {
+        refreshTimer.stop();
+        super.removeNotify();
+    }
+
+    private void initializeUI() {
+        setLayout(new BorderLayout(10, 10));
+        setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        // Top Panel
+        JPanel topPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        statusLabel = new JLabel();
+        topPanel.add(statusLabel);
+        JButton refreshButton = new JButton("Refresh");
+        refreshButton.addActionListener(e -> refresh());
+        topPanel.add(Box.createHorizontalStrut(20));
+        topPanel.add(refreshButton);
+        JButton clearButton = new JButton("Clear");
+        clearButton.addActionListener(e -> {
+            SlowQueryLog.clearRecentEntries();
+            refresh();
+        });
+        topPanel.add(clearButton);
+
+        // Table
+        String[] columns = {"Time", "ms", "Rows", "Caller", "SQL"};
+        tableModel = new DefaultTableModel(columns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        queryTable = new JTable(tableModel);
+        queryTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        queryTable.getColumnModel().getColumn(0).setPreferredWidth(90);
+        queryTable.getColumnModel().getColumn(1).setPreferredWidth(60);
+        queryTable.getColumnModel().getColumn(2).setPreferredWidth(50);
+        queryTable.getColumnModel().getColumn(3).setPreferredWidth(220);
+        queryTable.getColumnModel().getColumn(4).setPreferredWidth(600);
+        queryTable.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                showDetail();
+            }
+        });
+
+        detailArea = new JTextArea(8, 0);
+        detailArea.setEditable(false);
+        detailArea.setLineWrap(true);
+        detailArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+
+        JSplitPane splitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT,
+                new JScrollPane(queryTable), new JScrollPane(detailArea));
+        splitPane.setResizeWeight(0.7);
+
+        add(topPanel, BorderLayout.NORTH);
+        add(splitPane, BorderLayout.CENTER);
+    }
+
+    private void refresh() {
+        List<SlowQueryEntry> latest = SlowQueryLog.getRecentEntries();
+        if (SlowQueryLog.isEnabled()) {
+            statusLabel.setText("Statements slower than " + SlowQueryLog.getThresholdMillis()
+                    + " ms, logged to " + SlowQueryLog.getFile());
+        } else {
+            statusLabel.setText("Slow query log is disabled (-Dsims.slowQuery.thresholdMs)");
+        }
+        if (latest.equals(entries)) {
+            return;
+        }
+
+        // Keep the selected entry selected as new ones arrive on top
+        int selected = queryTable.getSelectedRow();
+        SlowQueryEntry selectedEntry = selected >= 0 ? entries.get(selected) : null;
+        entries = latest;
+        tableModel.setRowCount(0);
+        for (SlowQueryEntry entry : entries) {
+            tableModel.addRow(new Object[]{
+                entry.getTime().format(TIME_FORMAT),
+                String.format("%.1f", entry.getDurationMillis()),
+                entry.getRows(),
+                entry.getCaller(),
+                entry.getSql()
+            });
+        }
+        int index = selectedEntry != null ? entries.indexOf(selectedEntry) : -1;
+        if (index >= 0) {
+            queryTable.setRowSelectionInterval(index, index);
+        } else {
+            detailArea.setText("");
+        }
+    }
+
+    private void showDetail() {
+        int selected = queryTable.getSelectedRow();
+        if (selected >= 0 && selected < entries.size()) {
+            detailArea.setText(entries.get(selected).format());
+            detailArea.setCaretPosition(0);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.sims.ui;
+
+import java.awt.*;
+
+/**
+ * Startup splash with a status line
+ * Plain AWT painting with no Swing components, so it can appear while the look and feel and the
+ * Swing classes are still loading on other threads. Safe to use from any thread.
+ */
+public class SplashWindow {
+    private static final int WIDTH = 440;
+    private static final int HEIGHT = 150;
+
+    private volatile String status = "Starting...";
+    private Window window;
+    private boolean closed;
+
+    private SplashWindow() {}
+
+    /**
+     * Show a splash as soon as the event dispatch thread gets to it
+     */
+    public static SplashWindow showLater() {
+        SplashWindow splash = new SplashWindow();
+        EventQueue.invokeLater(splash::open);
+        return splash;
+    }
+
+    private void open() {
+        if (closed) {
+            return;
+        }
+        window = new Window(null) {
+            @Override
+            public void paint(Graphics g) {
+                paintSplash((Graphics2D) g);
+            }
+        };
+        window.setSize(WIDTH, HEIGHT);
+        window.setLocationRelativeTo(null);
+        window.setVisible(true);
+    }
+
+    private void paintSplash(Graphics2D g) {
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, WIDTH, HEIGHT);
+        g.setColor(new Color(0x2F5D8A));
+        g.fillRect(0, 0, WIDTH, 6);
+        g.setColor(Color.GRAY);
+        g.drawRect(0, 0, WIDTH - 1, HEIGHT - 1);
+
+        g.setColor(Color.DARK_GRAY);
+        g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 17));
+        g.drawString("Student Information Management System", 24, 62);
+        g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 12));
+        g.drawString(status, 24, 110);
+    }
+
+    /**
+     * Replace the status line
+     */
+    public void setStatus(String text) {
+        status = text;
+        EventQueue.invokeLater(() -> {
+            if (window != null) {
+                window.repaint();
+            }
+        });
+    }
+
+    /**
+     * Run an action on the event dispatch thread once the splash is on screen (not if it was closed first)
+     */
+    public void whenShown(Runnable action) {
+        EventQueue.invokeLater(() -> {
+            if (window != null) {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Close the splash; harmless if it has not appeared yet
+     */
+    public void close() {
+        EventQueue.invokeLater(() -> {
+            closed = true;
+            if (window != null) {
+                window.dispose();
+                window = null;
+            }
+        });
+    }
+}
@@ -1,6 +1,12 @@
 package com.sims.ui;
 
 import com.sims.dao.StudentDAO;
+import com.sims.events.EventBus;
+import com.sims.events.RemoteChange;
+import com.sims.events.StudentCreated;
+import com.sims.events.StudentDeleted;
+import com.sims.events.StudentUpdated;
+import com.sims.models.ChangeRecord;
 import com.sims.models.Student;
 import com.sims.services.AuthService;
 
@@ -11,10 +17,12 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * Student Management Frame for CRUD operations
+ * Rows are patched from student events instead of reloading the whole table after each save
  */
 public class StudentManagementFrame extends JPanel {
     private StudentDAO studentDAO;
@@ -22,6 +30,7 @@ public class StudentManagementFrame extends JPanel {
     private DefaultTableModel tableModel;
     private AuthService authService;
     private JTextField searchField;
+    private final List<EventBus.Subscription> subscriptions = new ArrayList<>();
 
     public StudentManagementFrame(AuthService authService) {
         this.authService = authService;
@@ -30,6 +39,29 @@ public class StudentManagementFrame extends JPanel {
         loadStudents();
     }
 
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        EventBus bus = EventBus.getDefault();
+        subscriptions.add(bus.subscribe(StudentCreated.class, EventBus.Delivery.EDT,
+                event -> putStudentRow(event.getEntity(), true)));
+        subscriptions.add(bus.subscribe(StudentUpdated.class, EventBus.Delivery.EDT,
+                event -> putStudentRow(event.getEntity(), false)));
+        subscriptions.add(bus.subscribe(StudentDeleted.class, EventBus.Delivery.EDT,
+                event -> removeStudentRow(event.getStudentId())));
+        subscriptions.add(bus.subscribe(RemoteChange.class, EventBus.Delivery.EDT,
+                event -> applyRemoteChange(event.getChange())));
+    }
+
+    @Override
+    public void removeNotify() {
+        for (EventBus.Subscription subscription : subscriptions) {
+            subscription.unsubscribe();
+        }
+        subscriptions.clear();
+        super.removeNotify();
+    }
+
     private void initializeUI() {
         setLayout(new BorderLayout(10, 10));
         setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
@@ -95,16 +127,7 @@ public class StudentManagementFrame extends JPanel {
             tableModel.setRowCount(0);
             List<Student> students = studentDAO.getAllStudents();
             for (Student student : students) {
-                Object[] row = {
-                    student.getStudentId(),
-                    student.getStudentCode(),
-                    student.getFirstName(),
-                    student.getLastName(),
-                    student.getEmail(),
-                    student.getPhone(),
-                    student.getStatus().name()
-                };
-                tableModel.addRow(row);
+                tableModel.addRow(toRow(student));
             }
         } catch (SQLException e) {
             JOptionPane.showMessageDialog(this, "Error loading students: " + e.getMessage(),
@@ -123,16 +146,7 @@ public class StudentManagementFrame extends JPanel {
             tableModel.setRowCount(0);
             List<Student> students = studentDAO.searchStudentsByName(searchTerm);
             for (Student student : students) {
-                Object[] row = {
-                    student.getStudentId(),
-                    student.getStudentCode(),
-                    student.getFirstName(),
-                    student.getLastName(),
-                    student.getEmail(),
-                    student.getPhone(),
-                    student.getStatus().name()
-                };
-                tableModel.addRow(row);
+                tableModel.addRow(toRow(student));
             }
         } catch (SQLException e) {
             JOptionPane.showMessageDialog(this, "Error searching students: " + e.getMessage(),
@@ -140,12 +154,75 @@ public class StudentManagementFrame extends JPanel {
         }
     }
 
+    private Object[] toRow(Student student) {
+        return new Object[] {
+            student.getStudentId(),
+            student.getStudentCode(),
+            student.getFirstName(),
+            student.getLastName(),
+            student.getEmail(),
+            student.getPhone(),
+            student.getStatus().name()
+        };
+    }
+
+    private int findRow(int studentId) {
+        for (int i = 0; i < tableModel.getRowCount(); i++) {
+            if ((Integer) tableModel.getValueAt(i, 0) == studentId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Replace the row of a saved student, appending it if it is new
+     */
+    private void putStudentRow(Student student, boolean addIfMissing) {
+        int row = findRow(student.getStudentId());
+        Object[] values = toRow(student);
+        if (row >= 0) {
+            for (int column = 0; column < values.length; column++) {
+                tableModel.setValueAt(values[column], row, column);
+            }
+        } else if (addIfMissing) {
+            tableModel.addRow(values);
+        }
+    }
+
+    private void removeStudentRow(int studentId) {
+        int row = findRow(studentId);
+        if (row >= 0) {
+            tableModel.removeRow(row);
+        }
+    }
+
+    /**
+     * Re-read a single student changed by another client
+     */
+    private void applyRemoteChange(ChangeRecord change) {
+        if (change.getEntityType() != ChangeRecord.EntityType.STUDENT) {
+            return;
+        }
+        if (change.getOperation() == ChangeRecord.Operation.DELETE) {
+            removeStudentRow(change.getEntityId());
+            return;
+        }
+        try {
+            Student student = studentDAO.getStudentById(change.getEntityId());
+            if (student != null) {
+                putStudentRow(student, change.getOperation() == ChangeRecord.Operation.INSERT);
+            } else {
+                removeStudentRow(change.getEntityId());
+            }
+        } catch (SQLException e) {
+            System.err.println("Error refreshing student " + change.getEntityId() + ": " + e.getMessage());
+        }
+    }
+
     private void showAddStudentDialog() {
         StudentDialog dialog = new StudentDialog((JFrame) SwingUtilities.getWindowAncestor(this), "Add Student", null);
         dialog.setVisible(true);
-        if (dialog.isSaved()) {
-            loadStudents();
-        }
     }
 
     private void showEditStudentDialog() {
@@ -163,9 +240,6 @@ public class StudentManagementFrame extends JPanel {
                 StudentDialog dialog = new StudentDialog((JFrame) SwingUtilities.getWindowAncestor(this),
                         "Edit Student", student);
                 dialog.setVisible(true);
-                if (dialog.isSaved()) {
-                    loadStudents();
-                }
             }
         } catch (SQLException e) {
             JOptionPane.showMessageDialog(this, "Error loading student: " + e.getMessage(),
@@ -235,7 +309,6 @@ public class StudentManagementFrame extends JPanel {
                 if (studentDAO.deleteStudent(studentId)) {
                     JOptionPane.showMessageDialog(this, "Student deleted successfully.",
                             "Success", JOptionPane.INFORMATION_MESSAGE);
-                    loadStudents();
                 } else {
                     JOptionPane.showMessageDialog(this, "Failed to delete student.",
                             "Error", JOptionPane.ERROR_MESSAGE);
@@ -393,12 +466,11 @@ public class StudentManagementFrame extends JPanel {
                     );
                     newStudent.setStatus((Student.Status) statusCombo.getSelectedItem());
 
-                    if (studentDAO.createStudent(newStudent)) {
-                        JOptionPane.showMessageDialog(this, "Student added successfully!",
-                                "Success", JOptionPane.INFORMATION_MESSAGE);
-                        saved = true;
-                        dispose();
-                    }
+                    studentDAO.createStudent(newStudent);
+                    JOptionPane.showMessageDialog(this, "Student added successfully!",
+                            "Success", JOptionPane.INFORMATION_MESSAGE);
+                    saved = true;
+                    dispose();
                 } else {
                     // Update existing student
                     student.setFirstName(firstNameField.getText());
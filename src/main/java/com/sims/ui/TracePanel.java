@@ -0,0 +1,383 @@
+package com.sims.ui;
+
+import com.sims.metrics.Span;
+import com.sims.metrics.Trace;
+import com.sims.metrics.Tracer;
+
+import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Action trace viewer
+ * Lists recent user actions with their statement counts and shows the selected one as a
+ * waterfall. Statements issued more than once by the same DAO method in one action are drawn
+ * in orange, so N+1 query patterns stand out.
+ */
+public class TracePanel extends JPanel {
+    private static final DateTimeFormatter TIME_FORMAT =
+            DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+    private static final int REFRESH_MILLIS = 2000;
+
+    private JTable traceTable;
+    private DefaultTableModel tableModel;
+    private WaterfallView waterfall;
+    private JTextArea detailArea;
+    private JLabel statusLabel;
+    private List<Trace> traces = new ArrayList<>();
+    private final Timer refreshTimer = new Timer(REFRESH_MILLIS, e -> refresh());
+
+    public TracePanel() {
+        initializeUI();
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        refresh();
+        refreshTimer.start();
+    }
+
+    @Override
+    public void removeNotify() {
+        refreshTimer.stop();
+        super.removeNotify();
+    }
+
+    private void initializeUI() {
+        setLayout(new BorderLayout(10, 10));
+        setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        // Top Panel
+        JPanel topPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        statusLabel = new JLabel();
+        topPanel.add(statusLabel);
+        JButton refreshButton = new JButton("Refresh");
+        refreshButton.addActionListener(e -> refresh());
+        topPanel.add(Box.createHorizontalStrut(20));
+        topPanel.add(refreshButton);
+        JButton clearButton = new JButton("Clear");
+        clearButton.addActionListener(e -> {
+            Tracer.clearRecentTraces();
+            refresh();
+        });
+        topPanel.add(clearButton);
+
+        // Trace table
+        String[] columns = {"Time", "Action", "ms", "Statements", "Most repeated"};
+        tableModel = new DefaultTableModel(columns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        traceTable = new JTable(tableModel);
+        traceTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        traceTable.getColumnModel().getColumn(0).setPreferredWidth(90);
+        traceTable.getColumnModel().getColumn(1).setPreferredWidth(300);
+        traceTable.getColumnModel().getColumn(2).setPreferredWidth(60);
+        traceTable.getColumnModel().getColumn(3).setPreferredWidth(70);
+        traceTable.getColumnModel().getColumn(4).setPreferredWidth(300);
+        traceTable.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                showTrace();
+            }
+        });
+
+        // Waterfall and span details
+        waterfall = new WaterfallView();
+        detailArea = new JTextArea(0, 30);
+        detailArea.setEditable(false);
+        detailArea.setLineWrap(true);
+        detailArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        JSplitPane bottomPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT,
+                new JScrollPane(waterfall), new JScrollPane(detailArea));
+        bottomPane.setResizeWeight(0.75);
+
+        JSplitPane splitPane = new JSplitPane(JSplitPane.VERTICAL_SPLIT,
+                new JScrollPane(traceTable), bottomPane);
+        splitPane.setResizeWeight(0.35);
+
+        add(topPanel, BorderLayout.NORTH);
+        add(splitPane, BorderLayout.CENTER);
+    }
+
+    private void refresh() {
+        if (!Tracer.isEnabled()) {
+            statusLabel.setText("Tracing is disabled (-Dsims.trace.enabled)");
+        } else if (Tracer.getFile() != null) {
+            statusLabel.setText("Recent user actions; exported to " + Tracer.getFile());
+        } else {
+            statusLabel.setText("Recent user actions");
+        }
+        List<Trace> latest = Tracer.getRecentTraces();
+        if (latest.equals(traces)) {
+            return;
+        }
+
+        // Keep the selected trace selected as new ones arrive on top
+        int selected = traceTable.getSelectedRow();
+        Trace selectedTrace = selected >= 0 ? traces.get(selected) : null;
+        traces = latest;
+        tableModel.setRowCount(0);
+        for (Trace trace : traces) {
+            Span root = trace.getRoot();
+            tableModel.addRow(new Object[]{
+                TIME_FORMAT.format(Instant.ofEpochMilli(root.getStartEpochNanos() / 1_000_000L)),
+                root.getName(),
+                String.format("%.1f", root.getDurationNanos() / 1e6),
+                trace.getStatementCount(),
+                mostRepeated(trace)
+            });
+        }
+        int index = selectedTrace != null ? traces.indexOf(selectedTrace) : -1;
+        if (index >= 0) {
+            traceTable.setRowSelectionInterval(index, index);
+        } else {
+            waterfall.setTrace(null);
+            detailArea.setText("");
+        }
+    }
+
+    private void showTrace() {
+        int selected = traceTable.getSelectedRow();
+        if (selected >= 0 && selected < traces.size()) {
+            waterfall.setTrace(traces.get(selected));
+            detailArea.setText("");
+        }
+    }
+
+    private void showSpan(Span span) {
+        StringBuilder text = new StringBuilder();
+        text.append(span.getName()).append('\n')
+            .append(span.getKind()).append(" on ").append(span.getThreadName()).append('\n')
+            .append(String.format("%.2f ms", span.getDurationNanos() / 1e6)).append('\n');
+        if (span.getError() != null) {
+            text.append("Error: ").append(span.getError()).append('\n');
+        }
+        for (Map.Entry<String, Object> attribute : span.getAttributes().entrySet()) {
+            text.append(attribute.getKey()).append(" = ").append(attribute.getValue()).append('\n');
+        }
+        for (Span.Event event : span.getEvents()) {
+            text.append(String.format("+%.1f ms  %s%n", event.getOffsetNanos() / 1e6, event.getName()));
+        }
+        detailArea.setText(text.toString());
+        detailArea.setCaretPosition(0);
+    }
+
+    /**
+     * The statement issued most often in the trace, e.g. "StudentDAO.getStudentByCode x42"
+     */
+    private static String mostRepeated(Trace trace) {
+        Map<String, Integer> counts = statementCounts(trace);
+        String name = null;
+        int max = 1;
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            if (entry.getValue() > max) {
+                name = entry.getKey();
+                max = entry.getValue();
+            }
+        }
+        return name != null ? name + " x" + max : "";
+    }
+
+    private static Map<String, Integer> statementCounts(Trace trace) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (Span span : trace.getSpans()) {
+            if (span.getKind() == Span.Kind.STATEMENT) {
+                counts.merge(span.getName(), 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * One row per span in tree order: name indented by depth, then a bar placed on the trace's timeline
+     */
+    private class WaterfallView extends JComponent implements Scrollable {
+        private static final int ROW_HEIGHT = 18;
+        private static final int LABEL_WIDTH = 280;
+        private static final int INDENT = 12;
+
+        private final Color actionColor = new Color(70, 130, 180);
+        private final Color taskColor = new Color(60, 160, 90);
+        private final Color statementColor = new Color(150, 150, 150);
+        private final Color repeatedColor = new Color(240, 140, 30);
+        private final Color errorColor = new Color(200, 40, 40);
+
+        private List<Span> rows = new ArrayList<>();
+        private Map<String, Integer> statementCounts = new HashMap<>();
+        private long traceStart;
+        private long traceLength = 1;
+
+        WaterfallView() {
+            setToolTipText("");
+            setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 11));
+            addMouseListener(new MouseAdapter() {
+                @Override
+                public void mouseClicked(MouseEvent e) {
+                    Span span = spanAt(e.getY());
+                    if (span != null) {
+                        showSpan(span);
+                    }
+                }
+            });
+        }
+
+        void setTrace(Trace trace) {
+            rows = new ArrayList<>();
+            statementCounts = new HashMap<>();
+            if (trace != null) {
+                List<Span> spans = trace.getSpans();
+                Set<Span> ended = new HashSet<>(spans);
+                Map<Span, List<Span>> children = new HashMap<>();
+                List<Span> roots = new ArrayList<>();
+                for (Span span : spans) {
+                    if (span.getParent() == null || !ended.contains(span.getParent())) {
+                        roots.add(span);
+                    } else {
+                        children.computeIfAbsent(span.getParent(), parent -> new ArrayList<>()).add(span);
+                    }
+                }
+                for (Span root : roots) {
+                    addInTreeOrder(root, children);
+                }
+                statementCounts = statementCounts(trace);
+                traceStart = Long.MAX_VALUE;
+                long traceEnd = Long.MIN_VALUE;
+                for (Span span : spans) {
+                    traceStart = Math.min(traceStart, span.getStartEpochNanos());
+                    traceEnd = Math.max(traceEnd, span.getStartEpochNanos() + span.getDurationNanos());
+                }
+                traceLength = Math.max(traceEnd - traceStart, 1);
+            }
+            revalidate();
+            repaint();
+        }
+
+        private void addInTreeOrder(Span span, Map<Span, List<Span>> children) {
+            rows.add(span);
+            List<Span> nested = children.get(span);
+            if (nested != null) {
+                nested.sort(Comparator.comparingLong(Span::getStartEpochNanos));
+                for (Span child : nested) {
+                    addInTreeOrder(child, children);
+                }
+            }
+        }
+
+        private Span spanAt(int y) {
+            int index = y / ROW_HEIGHT;
+            return index >= 0 && index < rows.size() ? rows.get(index) : null;
+        }
+
+        @Override
+        public String getToolTipText(MouseEvent event) {
+            Span span = spanAt(event.getY());
+            if (span == null) {
+                return null;
+            }
+            Object sql = span.getAttributes().get("db.statement");
+            return String.format("%s  %.2f ms%s", span.getName(), span.getDurationNanos() / 1e6,
+                    sql != null ? "  " + sql : "");
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Graphics2D g2 = (Graphics2D) g.create();
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g2.setColor(getBackground() != null ? getBackground() : Color.WHITE);
+            g2.fillRect(0, 0, getWidth(), getHeight());
+            if (rows.isEmpty()) {
+                g2.setColor(Color.GRAY);
+                g2.drawString("Select an action to see its spans", 10, ROW_HEIGHT);
+                g2.dispose();
+                return;
+            }
+
+            FontMetrics metrics = g2.getFontMetrics();
+            int barWidth = Math.max(getWidth() - LABEL_WIDTH - 70, 50);
+            for (int i = 0; i < rows.size(); i++) {
+                Span span = rows.get(i);
+                int y = i * ROW_HEIGHT;
+                boolean repeated = span.getKind() == Span.Kind.STATEMENT
+                        && statementCounts.getOrDefault(span.getName(), 0) > 1;
+
+                // Label
+                g2.setColor(repeated ? repeatedColor.darker() : Color.DARK_GRAY);
+                int indent = span.getDepth() * INDENT;
+                g2.setClip(0, y, LABEL_WIDTH - 5, ROW_HEIGHT);
+                g2.drawString(span.getName(), 5 + indent, y + ROW_HEIGHT - 5);
+                g2.setClip(null);
+
+                // Bar
+                long offset = span.getStartEpochNanos() - traceStart;
+                int x = LABEL_WIDTH + (int) (offset * barWidth / traceLength);
+                int width = Math.max((int) (span.getDurationNanos() * barWidth / traceLength), 1);
+                g2.setColor(span.getError() != null ? errorColor
+                        : repeated ? repeatedColor
+                        : span.getKind() == Span.Kind.ACTION ? actionColor
+                        : span.getKind() == Span.Kind.TASK ? taskColor : statementColor);
+                g2.fillRect(x, y + 3, width, ROW_HEIGHT - 6);
+
+                // Events such as a modal dialog opening
+                g2.setColor(Color.BLACK);
+                for (Span.Event event : span.getEvents()) {
+                    int eventX = x + (int) (event.getOffsetNanos() * barWidth / traceLength);
+                    g2.drawLine(eventX, y + 1, eventX, y + ROW_HEIGHT - 1);
+                }
+
+                String duration = String.format("%.1f ms", span.getDurationNanos() / 1e6);
+                g2.setColor(Color.DARK_GRAY);
+                int textX = x + width + 4;
+                if (textX + metrics.stringWidth(duration) > getWidth()) {
+                    textX = Math.max(x - metrics.stringWidth(duration) - 4, LABEL_WIDTH);
+                }
+                g2.drawString(duration, textX, y + ROW_HEIGHT - 5);
+            }
+            g2.dispose();
+        }
+
+        @Override
+        public Dimension getPreferredSize() {
+            return new Dimension(LABEL_WIDTH + 300, Math.max(rows.size(), 1) * ROW_HEIGHT + 4);
+        }
+
+        @Override
+        public Dimension getPreferredScrollableViewportSize() {
+            return new Dimension(LABEL_WIDTH + 300, 10 * ROW_HEIGHT);
+        }
+
+        @Override
+        public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+            return ROW_HEIGHT;
+        }
+
+        @Override
+        public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+            return orientation == SwingConstants.VERTICAL ? visibleRect.height : visibleRect.width;
+        }
+
+        @Override
+        public boolean getScrollableTracksViewportWidth() {
+            return true;
+        }
+
+        @Override
+        public boolean getScrollableTracksViewportHeight() {
+            return false;
+        }
+    }
+}
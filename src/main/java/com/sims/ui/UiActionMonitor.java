@@ -0,0 +1,156 @@
+package com.sims.ui;
+
+import com.sims.metrics.FlightEvents;
+import com.sims.metrics.Span;
+import com.sims.metrics.Tracer;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseEvent;
+import java.awt.event.WindowEvent;
+
+/**
+ * Reports user actions as UI Action flight recorder events and as root spans for Tracer
+ * Replaces the system event queue so every click on a button, menu item, combo box, list or table
+ * and every Enter/Space key press is timed for as long as its listeners run on the EDT (opening a
+ * panel, searching, saving, ...). Each action names the com.sims.ui panel or dialog it happened in
+ * and the button text or component type. An action that opens a modal dialog lasts until the
+ * dialog is closed; the dialog's own actions are recorded inside it, and the trace marks when
+ * the dialog opened.
+ */
+public class UiActionMonitor extends EventQueue {
+    private static boolean installed;
+
+    private UiActionMonitor() {}
+
+    /**
+     * Install the monitor unless both flight recorder events and tracing are disabled
+     */
+    public static synchronized void installIfEnabled() {
+        if (!installed && (FlightEvents.isEnabled() || Tracer.isEnabled())) {
+            Toolkit.getDefaultToolkit().getSystemEventQueue().push(new UiActionMonitor());
+            installed = true;
+        }
+    }
+
+    @Override
+    protected void dispatchEvent(AWTEvent event) {
+        Component target = isUserAction(event) ? actionComponent((Component) event.getSource()) : null;
+        if (target == null) {
+            if (event.getID() == WindowEvent.WINDOW_OPENED) {
+                markModalDialog(event.getSource());
+            }
+            super.dispatchEvent(event);
+            return;
+        }
+
+        String panel = panelName(target);
+        String action = actionName(target, event);
+        String component = target.getClass().getSimpleName();
+        Object flightEvent = FlightEvents.beginUiAction();
+        Span span = Tracer.startAction(panel.isEmpty() ? action : panel + ": " + action);
+        if (span != null) {
+            span.setAttribute("sims.panel", panel).setAttribute("sims.component", component);
+        }
+        Tracer.Scope scope = Tracer.activate(span);
+        try {
+            super.dispatchEvent(event);
+        } finally {
+            scope.close();
+            if (span != null) {
+                span.end();
+            }
+            FlightEvents.commitUiAction(flightEvent, panel, action, component);
+        }
+    }
+
+    /**
+     * Note in the running action that it is now waiting for the user to close a modal dialog
+     */
+    private static void markModalDialog(Object source) {
+        Span span = Tracer.current();
+        if (span != null && source instanceof Dialog && ((Dialog) source).isModal()) {
+            String title = ((Dialog) source).getTitle();
+            span.addEvent("modal dialog opened" + (title != null && !title.isEmpty() ? ": " + title : ""));
+        }
+    }
+
+    private static boolean isUserAction(AWTEvent event) {
+        if (event.getID() == MouseEvent.MOUSE_RELEASED) {
+            return event.getSource() instanceof Component;
+        }
+        if (event.getID() == KeyEvent.KEY_PRESSED || event.getID() == KeyEvent.KEY_RELEASED) {
+            // Text fields fire on Enter press, buttons on Space release
+            int key = ((KeyEvent) event).getKeyCode();
+            return event.getSource() instanceof Component
+                    && (key == KeyEvent.VK_ENTER && event.getID() == KeyEvent.KEY_PRESSED
+                        || key == KeyEvent.VK_SPACE && event.getID() == KeyEvent.KEY_RELEASED);
+        }
+        return false;
+    }
+
+    /**
+     * The component the user acted on, or null for clicks that cannot trigger an action
+     */
+    private static Component actionComponent(Component source) {
+        if (source instanceof AbstractButton || source instanceof JTextField || source instanceof JTable) {
+            return source;
+        }
+        // A combo box's list lives in a popup; report the combo box itself
+        JPopupMenu popup = (JPopupMenu) SwingUtilities.getAncestorOfClass(JPopupMenu.class, source);
+        if (popup != null && popup.getInvoker() instanceof JComboBox) {
+            return popup.getInvoker();
+        }
+        if (source instanceof JList || source instanceof JComboBox) {
+            return source;
+        }
+        return null;
+    }
+
+    private static String actionName(Component target, AWTEvent event) {
+        if (target instanceof AbstractButton) {
+            String text = ((AbstractButton) target).getText();
+            if (text != null && !text.isEmpty()) {
+                return text;
+            }
+        }
+        if (target instanceof JComboBox) {
+            return "select";
+        }
+        return event instanceof KeyEvent ? KeyEvent.getKeyText(((KeyEvent) event).getKeyCode()) : "click";
+    }
+
+    /**
+     * Nearest enclosing class from com.sims.ui, following popups back to the component that opened them
+     */
+    private static String panelName(Component target) {
+        Component component = target;
+        while (component != null) {
+            if (component != target && component.getClass().getName().startsWith("com.sims.ui.")) {
+                return component.getClass().getSimpleName();
+            }
+            if (component instanceof JPopupMenu) {
+                component = ((JPopupMenu) component).getInvoker();
+            } else if (component instanceof Window) {
+                Window window = (Window) component;
+                component = window.getOwner();
+                if (window instanceof Dialog && component != null) {
+                    String title = ((Dialog) window).getTitle();
+                    return ownerPanel(component) + (title != null ? " / " + title : "");
+                }
+            } else {
+                component = component.getParent();
+            }
+        }
+        return "";
+    }
+
+    private static String ownerPanel(Component owner) {
+        Component component = owner;
+        while (component != null && !component.getClass().getName().startsWith("com.sims.ui.")) {
+            component = component instanceof Window ? ((Window) component).getOwner() : component.getParent();
+        }
+        return component != null ? component.getClass().getSimpleName() : "";
+    }
+}
@@ -0,0 +1,15 @@
+@echo off
+rem Student Information Management System launcher
+rem Starts the client with the class-data-sharing archive (sims.jsa) next to this script.
+rem JDK 19+ create and refresh it automatically; older JDKs use it only in the directory the
+rem build made it in. Any arguments run the command line instead of the GUI. Extra JVM options
+rem can be passed in SIMS_JAVA_OPTS.
+
+setlocal
+set "DIR=%~dp0"
+set "JAVA=java"
+if defined JAVA_HOME set "JAVA=%JAVA_HOME%\bin\java"
+set "CDS_OPTS=-XX:+IgnoreUnrecognizedVMOptions -XX:+AutoCreateSharedArchive -XX:SharedArchiveFile=%DIR%sims.jsa"
+if exist "%DIR%sims.jsa" set "CDS_OPTS=%CDS_OPTS% -Xshare:auto"
+
+"%JAVA%" %CDS_OPTS% %SIMS_JAVA_OPTS% -cp "%DIR%sims.jar" com.sims.Main %*
@@ -0,0 +1,17 @@
+-- Attendance upsert key
+-- recordAttendance/batchRecordAttendance rely on ON DUPLICATE KEY UPDATE, but the
+-- attendance table had no unique key on (student_id, course_id, attendance_date),
+-- so every re-save of a day inserted another row.
+
+-- Remove duplicates, keeping the most recently inserted mark for each day
+DELETE a FROM attendance a
+INNER JOIN attendance b
+    ON a.student_id = b.student_id
+    AND a.course_id = b.course_id
+    AND a.attendance_date = b.attendance_date
+    AND a.attendance_id < b.attendance_id;
+
+-- The unique key's (student_id, course_id) prefix replaces idx_student_course
+ALTER TABLE attendance
+    ADD UNIQUE KEY unique_attendance (student_id, course_id, attendance_date),
+    DROP INDEX idx_student_course;
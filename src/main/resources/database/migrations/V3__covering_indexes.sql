@@ -0,0 +1,11 @@
+-- Covering indexes for hot per-student queries, added online (no table lock)
+
+-- GradeDAO.calculateGPA: filter on (student_id, semester, academic_year), reads course_id and percentage
+ALTER TABLE grades
+    ADD INDEX idx_student_term (student_id, semester, academic_year, course_id, percentage),
+    ALGORITHM=INPLACE, LOCK=NONE;
+
+-- FinancialDAO.getPendingPayments: filter on (student_id, status), ordered by due_date
+ALTER TABLE financial_records
+    ADD INDEX idx_student_status_due (student_id, status, due_date),
+    ALGORITHM=INPLACE, LOCK=NONE;
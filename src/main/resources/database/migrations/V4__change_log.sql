@@ -0,0 +1,11 @@
+-- Change log for cross-client cache coherence
+-- Every DAO mutation appends a row; clients poll by change_id to invalidate their caches.
+CREATE TABLE IF NOT EXISTS change_log (
+    change_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    entity_type ENUM('STUDENT', 'COURSE', 'ENROLLMENT', 'ATTENDANCE', 'GRADE', 'FINANCIAL_RECORD', 'USER') NOT NULL,
+    entity_id INT NOT NULL,
+    operation ENUM('INSERT', 'UPDATE', 'DELETE') NOT NULL,
+    client_id VARCHAR(36),
+    changed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_changed_at (changed_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
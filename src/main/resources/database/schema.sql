@@ -84,7 +84,7 @@ CREATE TABLE IF NOT EXISTS attendance (
     FOREIGN KEY (student_id) REFERENCES students(student_id) ON DELETE CASCADE,
     FOREIGN KEY (course_id) REFERENCES courses(course_id) ON DELETE CASCADE,
     FOREIGN KEY (recorded_by) REFERENCES users(user_id) ON DELETE SET NULL,
-    INDEX idx_student_course (student_id, course_id),
+    UNIQUE KEY unique_attendance (student_id, course_id, attendance_date),
     INDEX idx_date (attendance_date),
     INDEX idx_status (status)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
@@ -109,7 +109,8 @@ CREATE TABLE IF NOT EXISTS grades (
     FOREIGN KEY (recorded_by) REFERENCES users(user_id) ON DELETE SET NULL,
     INDEX idx_student_course (student_id, course_id),
     INDEX idx_assessment_type (assessment_type),
-    INDEX idx_semester_year (semester, academic_year)
+    INDEX idx_semester_year (semester, academic_year),
+    INDEX idx_student_term (student_id, semester, academic_year, course_id, percentage)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 -- Financial records table
@@ -132,9 +133,38 @@ CREATE TABLE IF NOT EXISTS financial_records (
     INDEX idx_student (student_id),
     INDEX idx_transaction_type (transaction_type),
     INDEX idx_status (status),
-    INDEX idx_transaction_date (transaction_date)
+    INDEX idx_transaction_date (transaction_date),
+    INDEX idx_student_status_due (student_id, status, due_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- Change log for cross-client cache coherence (written by every DAO mutation)
+CREATE TABLE IF NOT EXISTS change_log (
+    change_id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    entity_type ENUM('STUDENT', 'COURSE', 'ENROLLMENT', 'ATTENDANCE', 'GRADE', 'FINANCIAL_RECORD', 'USER') NOT NULL,
+    entity_id INT NOT NULL,
+    operation ENUM('INSERT', 'UPDATE', 'DELETE') NOT NULL,
+    client_id VARCHAR(36),
+    changed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    INDEX idx_changed_at (changed_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+-- Schema version history (maintained by MigrationRunner)
+CREATE TABLE IF NOT EXISTS schema_version (
+    version INT PRIMARY KEY,
+    description VARCHAR(200) NOT NULL,
+    script VARCHAR(200) NOT NULL,
+    checksum BIGINT,
+    execution_ms BIGINT,
+    installed_on TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- This script already includes every migration up to the version recorded here
+INSERT INTO schema_version (version, description, script) VALUES
+(1, 'baseline schema', 'schema.sql'),
+(2, 'attendance unique key', 'schema.sql'),
+(3, 'covering indexes', 'schema.sql'),
+(4, 'change log', 'schema.sql');
+
 -- Insert default admin user
 INSERT INTO users (username, password, role, email) VALUES
 ('admin', 'admin123', 'ADMIN', 'admin@school.edu'),
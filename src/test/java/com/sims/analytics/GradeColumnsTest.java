@@ -0,0 +1,205 @@
+package com.sims.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradeColumnsTest {
+    private static final String[] TYPES = {"EXAM", "QUIZ", "PROJECT", null};
+    private static final String[] SEMESTERS = {"Fall", "Spring"};
+    private static final String[] YEARS = {"2024-2025", "2025-2026", "2026-2027"};
+
+    /**
+     * Rows with every column derived from the row number, so tests can recompute what to expect
+     */
+    private static GradeColumns columns(int rows) {
+        GradeColumns.Builder builder = new GradeColumns.Builder();
+        for (int row = 0; row < rows; row++) {
+            builder.add(row + 1, row % 1000, row % 7, TYPES[row % TYPES.length], marks(row), total(row),
+                    SEMESTERS[row % SEMESTERS.length], YEARS[row % YEARS.length]);
+        }
+        return builder.build();
+    }
+
+    private static int marks(int row) {
+        return (row * 37) % 10_001;
+    }
+
+    private static int total(int row) {
+        return row % 97 == 0 ? 0 : 10_000;
+    }
+
+    @Test
+    void textColumnsRoundTripThroughTheDictionaries() {
+        GradeColumns columns = columns(100);
+
+        for (int row = 0; row < 100; row++) {
+            assertEquals(TYPES[row % TYPES.length], columns.getAssessmentType(row));
+            assertEquals(SEMESTERS[row % SEMESTERS.length], columns.getSemester(row));
+            assertEquals(YEARS[row % YEARS.length], columns.getAcademicYear(row));
+            assertEquals(row + 1, columns.getGradeId(row));
+            assertEquals(marks(row), columns.getMarksObtained(row));
+        }
+        assertEquals(100, columns.size());
+        assertEquals(100L * 26, columns.getEstimatedBytes());
+    }
+
+    @Test
+    void dictionaryCodesFollowFirstAppearance() {
+        GradeColumns columns = columns(10);
+
+        assertEquals(Arrays.asList(TYPES), columns.getAssessmentTypes());
+        assertEquals(0, columns.getAssessmentTypeKey(0));
+        assertEquals(3, columns.getAssessmentTypeKey(3));
+        assertEquals("QUIZ", columns.getAssessmentTypeOfKey(columns.getAssessmentTypeKey(5)));
+        assertNull(columns.getAssessmentTypeOfKey(columns.getAssessmentTypeKey(7)));
+    }
+
+    @Test
+    void termKeyDecodesToSemesterAndYear() {
+        GradeColumns columns = columns(12);
+
+        for (int row = 0; row < 12; row++) {
+            assertEquals(columns.getSemester(row) + " " + columns.getAcademicYear(row),
+                    columns.getTermOfKey(columns.getTermKey(row)));
+        }
+    }
+
+    @Test
+    void tooManyDistinctValuesAreRejected() {
+        GradeColumns.Builder builder = new GradeColumns.Builder();
+        for (int i = 0; i <= Short.MAX_VALUE; i++) {
+            builder.add(i, 1, 1, "type " + i, 0, 100, "Fall", "2026-2027");
+        }
+
+        assertThrows(IllegalStateException.class,
+                () -> builder.add(0, 1, 1, "one too many", 0, 100, "Fall", "2026-2027"));
+        assertEquals("type 32767", builder.build().getAssessmentType(Short.MAX_VALUE));
+    }
+
+    @Test
+    void hundredthsRoundsDecimalMarks() {
+        assertEquals(8750, GradeColumns.hundredths(new BigDecimal("87.5")));
+        assertEquals(8751, GradeColumns.hundredths(new BigDecimal("87.505")));
+        assertEquals(10_000, GradeColumns.hundredths(new BigDecimal("100")));
+    }
+
+    @Test
+    void percentageIsNaNForZeroTotal() {
+        GradeColumns columns = columns(100);
+
+        assertTrue(Double.isNaN(columns.getPercentage(0)));
+        assertEquals(marks(1) / 100.0, columns.getPercentage(1), 1e-9);
+    }
+
+    @Test
+    void parallelSummaryMatchesASequentialScan() {
+        // Enough rows to be split across several chunks
+        int rows = 200_000;
+        GradeColumns columns = columns(rows);
+        GradeColumns.Filter filter = GradeColumns.Filter.all().course(3).term("Spring", "2025-2026");
+
+        long count = 0;
+        double sum = 0;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int row = 0; row < rows; row++) {
+            if (row % 7 == 3 && row % 2 == 1 && row % 3 == 1 && total(row) > 0) {
+                double percentage = columns.getPercentage(row);
+                count++;
+                sum += percentage;
+                min = Math.min(min, percentage);
+                max = Math.max(max, percentage);
+            }
+        }
+
+        GradeColumns.Summary summary = columns.summarize(filter);
+        assertEquals(count, summary.getCount());
+        assertEquals(sum / count, summary.getMean(), 1e-9);
+        assertEquals(min, summary.getMin());
+        assertEquals(max, summary.getMax());
+    }
+
+    @Test
+    void groupedSummaryMatchesASequentialScan() {
+        int rows = 100_000;
+        GradeColumns columns = columns(rows);
+
+        Map<Integer, GradeColumns.Summary> byType =
+                columns.summarizeBy(columns::getAssessmentTypeKey, GradeColumns.Filter.all().course(5));
+
+        Map<String, Long> expected = new HashMap<>();
+        for (int row = 0; row < rows; row++) {
+            if (row % 7 == 5 && total(row) > 0) {
+                expected.merge(String.valueOf(columns.getAssessmentType(row)), 1L, Long::sum);
+            }
+        }
+        Map<String, Long> actual = new HashMap<>();
+        byType.forEach((key, summary) ->
+                actual.put(String.valueOf(columns.getAssessmentTypeOfKey(key)), summary.getCount()));
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void customAggregateCountsMatchingRows() {
+        GradeColumns columns = columns(50_000);
+
+        long[] quizzes = columns.aggregate(GradeColumns.Filter.all().assessmentType("QUIZ"),
+                () -> new long[1], (count, row) -> count[0]++, (left, right) -> {
+                    left[0] += right[0];
+                    return left;
+                });
+
+        assertEquals(12_500, quizzes[0]);
+    }
+
+    @Test
+    void unknownFilterValueMatchesNothing() {
+        GradeColumns columns = columns(1000);
+
+        assertEquals(0, columns.summarize(GradeColumns.Filter.all().assessmentType("ORAL")).getCount());
+        assertEquals(0, columns.summarize(GradeColumns.Filter.all().term("Summer", "2025-2026")).getCount());
+        assertTrue(columns.summarizeBy(columns::getTermKey, GradeColumns.Filter.all().term("Fall", "1999"))
+                .isEmpty());
+        assertTrue(Double.isNaN(columns.summarize(GradeColumns.Filter.all().course(99)).getMean()));
+    }
+
+    @Test
+    void emptyColumnsAggregateToEmptyResults() {
+        GradeColumns columns = new GradeColumns.Builder().build();
+
+        assertEquals(0, columns.summarize(GradeColumns.Filter.all()).getCount());
+        assertTrue(columns.summarizeBy(columns::getCourseId, GradeColumns.Filter.all()).isEmpty());
+    }
+
+    @Test
+    void randomFiltersAgreeWithASequentialScan() {
+        GradeColumns columns = columns(60_000);
+        Random random = new Random(42);
+        for (int i = 0; i < 20; i++) {
+            int course = random.nextInt(7);
+            String semester = SEMESTERS[random.nextInt(SEMESTERS.length)];
+            String year = YEARS[random.nextInt(YEARS.length)];
+            GradeColumns.Filter filter = GradeColumns.Filter.all().course(course).term(semester, year);
+
+            long expected = 0;
+            for (int row = 0; row < columns.size(); row++) {
+                if (columns.getCourseId(row) == course && semester.equals(columns.getSemester(row))
+                        && year.equals(columns.getAcademicYear(row)) && columns.getTotalMarks(row) > 0) {
+                    expected++;
+                }
+            }
+            assertEquals(expected, columns.summarize(filter).getCount(), List.of(course, semester, year).toString());
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.sims.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GradeStatisticsTest {
+
+    /**
+     * Random marks out of 100, in hundredths
+     */
+    private static int[] randomMarks(long seed, int count) {
+        Random random = new Random(seed);
+        int[] marks = new int[count];
+        for (int i = 0; i < count; i++) {
+            marks[i] = (int) Math.max(0, Math.min(10_000, 7000 + random.nextGaussian() * 1500));
+        }
+        return marks;
+    }
+
+    private static GradeStatistics sequential(int[] marks) {
+        GradeStatistics statistics = new GradeStatistics();
+        for (int mark : marks) {
+            statistics.add(mark, 10_000);
+        }
+        return statistics;
+    }
+
+    private static void assertSameStatistics(GradeStatistics expected, GradeStatistics actual) {
+        assertEquals(expected.getCount(), actual.getCount());
+        assertEquals(expected.getMean(), actual.getMean(), 1e-9);
+        assertEquals(expected.getStandardDeviation(), actual.getStandardDeviation(), 1e-9);
+        assertEquals(expected.getMin(), actual.getMin());
+        assertEquals(expected.getMax(), actual.getMax());
+        assertEquals(expected.getBandCounts(), actual.getBandCounts());
+        assertArrayEquals(expected.getHistogram(1), actual.getHistogram(1));
+        assertEquals(expected.getMedian(), actual.getMedian(), 1e-9);
+    }
+
+    @Test
+    void meanAndStandardDeviationMatchTheTextbookFormulas() {
+        GradeStatistics statistics = new GradeStatistics();
+        for (int percent : new int[] {50, 60, 70, 80, 90}) {
+            statistics.add(percent * 100, 10_000);
+        }
+
+        assertEquals(5, statistics.getCount());
+        assertEquals(70.0, statistics.getMean(), 1e-12);
+        assertEquals(Math.sqrt(200.0), statistics.getStandardDeviation(), 1e-12);
+        assertEquals(50.0, statistics.getMin());
+        assertEquals(90.0, statistics.getMax());
+    }
+
+    @Test
+    void gradesWithoutTotalMarksAreSkipped() {
+        GradeStatistics statistics = new GradeStatistics();
+        statistics.add(500, 0);
+
+        assertEquals(0, statistics.getCount());
+        assertTrue(Double.isNaN(statistics.getMean()));
+        assertTrue(Double.isNaN(statistics.getMedian()));
+        assertTrue(Double.isNaN(statistics.getStandardDeviation()));
+    }
+
+    @Test
+    void mergedPartsEqualOneSequentialPass() {
+        int[] marks = randomMarks(7, 10_000);
+        GradeStatistics expected = sequential(marks);
+
+        // Uneven parts, including an empty one, merged in a tree as the parallel reduce does
+        int[] cuts = {0, 1, 1, 2500, 2501, 7000, 10_000};
+        GradeStatistics[] parts = new GradeStatistics[cuts.length - 1];
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = sequential(Arrays.copyOfRange(marks, cuts[i], cuts[i + 1]));
+        }
+        GradeStatistics left = parts[0].merge(parts[1]).merge(parts[2]);
+        GradeStatistics right = parts[3].merge(parts[4].merge(parts[5]));
+
+        assertSameStatistics(expected, left.merge(right));
+    }
+
+    @Test
+    void mergingIntoAnEmptyResultCopiesTheOther() {
+        GradeStatistics other = sequential(randomMarks(3, 500));
+        GradeStatistics empty = new GradeStatistics();
+
+        assertSame(empty, empty.merge(other));
+        assertSameStatistics(other, empty);
+        assertSameStatistics(other, other.merge(new GradeStatistics()));
+    }
+
+    @Test
+    void parallelStatisticsEqualASequentialPass() {
+        int[] marks = randomMarks(11, 150_000);
+        GradeColumns.Builder builder = new GradeColumns.Builder();
+        for (int i = 0; i < marks.length; i++) {
+            builder.add(i + 1, i, i % 4, "EXAM", marks[i], 10_000, "Fall", "2026-2027");
+        }
+        GradeColumns columns = builder.build();
+
+        assertSameStatistics(sequential(marks), GradeStatistics.of(columns, GradeColumns.Filter.all()));
+
+        Map<Integer, GradeStatistics> byCourse =
+                GradeStatistics.byGroup(columns, columns::getCourseId, GradeColumns.Filter.all());
+        assertEquals(4, byCourse.size());
+        for (int course = 0; course < 4; course++) {
+            GradeStatistics expected = new GradeStatistics();
+            for (int i = course; i < marks.length; i += 4) {
+                expected.add(marks[i], 10_000);
+            }
+            assertSameStatistics(expected, byCourse.get(course));
+        }
+    }
+
+    @Test
+    void quantilesAreWithinAQuarterPoint() {
+        int[] marks = randomMarks(5, 20_000);
+        GradeStatistics statistics = sequential(marks);
+        int[] sorted = marks.clone();
+        Arrays.sort(sorted);
+
+        for (double q : new double[] {0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99}) {
+            double exact = sorted[(int) Math.ceil(q * sorted.length) - 1] / 100.0;
+            assertEquals(exact, statistics.getQuantile(q), 0.25, "quantile " + q);
+        }
+        assertEquals(statistics.getMin(), statistics.getQuantile(0));
+        assertEquals(statistics.getMax(), statistics.getQuantile(1));
+    }
+
+    @Test
+    void bandBoundariesBelongToTheHigherBand() {
+        GradeStatistics statistics = new GradeStatistics();
+        statistics.add(9000, 10_000);
+        statistics.add(8999, 10_000);
+        statistics.add(40, 100);
+        statistics.add(3999, 10_000);
+        statistics.add(2, 3);
+        statistics.add(110, 100);
+
+        Map<String, Long> bands = statistics.getBandCounts();
+        assertEquals(Arrays.asList("A+", "A", "B+", "B", "C+", "C", "F"), Arrays.asList(bands.keySet().toArray()));
+        assertEquals(2L, bands.get("A+"));
+        assertEquals(1L, bands.get("A"));
+        assertEquals(1L, bands.get("B"));
+        assertEquals(1L, bands.get("C"));
+        assertEquals(1L, bands.get("F"));
+        assertEquals(statistics.getCount(), bands.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    void histogramCountsEveryGrade() {
+        GradeStatistics statistics = sequential(new int[] {0, 999, 1000, 5050, 9999, 10_000});
+
+        assertArrayEquals(new long[] {2, 1, 0, 0, 0, 1, 0, 0, 0, 2}, statistics.getHistogram(10));
+        assertEquals(6, Arrays.stream(statistics.getHistogram(1)).sum());
+        assertThrows(IllegalArgumentException.class, () -> statistics.getHistogram(30));
+        assertThrows(IllegalArgumentException.class, () -> statistics.getHistogram(0));
+    }
+}
@@ -0,0 +1,119 @@
+package com.sims.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class QueryCacheTest {
+
+    @Test
+    void hitServesTheCachedValueWithoutLoading() throws SQLException {
+        QueryCache<Integer, String> cache = new QueryCache<>("test.hit", 60, 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("v1", cache.get(1, () -> "v" + loads.incrementAndGet()));
+        assertEquals("v1", cache.get(1, () -> "v" + loads.incrementAndGet()));
+
+        assertEquals(1, loads.get());
+        CacheStats stats = cache.getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getSize());
+    }
+
+    @Test
+    void expiredEntryIsLoadedAgain() throws SQLException {
+        QueryCache<Integer, String> cache = new QueryCache<>("test.ttl", 0, 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1, () -> "v" + loads.incrementAndGet());
+        assertEquals("v2", cache.get(1, () -> "v" + loads.incrementAndGet()));
+        assertEquals(2, cache.getStats().getMisses());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvictedWhenFull() throws SQLException {
+        QueryCache<Integer, String> cache = new QueryCache<>("test.lru", 60, 2);
+        cache.put(1, "a");
+        cache.put(2, "b");
+        // Touch 1 so 2 becomes the eldest
+        cache.get(1, () -> "reloaded");
+        cache.put(3, "c");
+
+        assertEquals("a", cache.get(1, () -> "reloaded"));
+        assertEquals("c", cache.get(3, () -> "reloaded"));
+        assertEquals("reloaded", cache.get(2, () -> "reloaded"));
+        assertEquals(2, cache.getStats().getSize());
+        assertEquals(2, cache.getStats().getEvictions());
+    }
+
+    @Test
+    void nullResultsAreNotCached() throws SQLException {
+        QueryCache<Integer, String> cache = new QueryCache<>("test.null", 60, 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertNull(cache.get(1, () -> { loads.incrementAndGet(); return null; }));
+        assertNull(cache.get(1, () -> { loads.incrementAndGet(); return null; }));
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    void loaderFailureIsPropagatedAndNothingIsCached() {
+        QueryCache<Integer, String> cache = new QueryCache<>("test.failure", 60, 10);
+
+        assertThrows(SQLException.class, () -> cache.get(1, () -> { throw new SQLException("down"); }));
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    void invalidateRemovesOneEntryAndInvalidateAllRemovesEvery() throws SQLException {
+        QueryCache<Integer, String> cache = new QueryCache<>("test.invalidate", 60, 10);
+        cache.put(1, "a");
+        cache.put(2, "b");
+
+        cache.invalidate(1);
+        assertEquals("new", cache.get(1, () -> "new"));
+        assertEquals("b", cache.get(2, () -> "new"));
+
+        cache.invalidateAll();
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    void loadOverlappingAnInvalidationIsReturnedButNotCached() throws SQLException {
+        QueryCache<Integer, String> cache = new QueryCache<>("test.race", 60, 10);
+
+        String loaded = cache.get(1, () -> {
+            // A writer commits while this load is reading the old row
+            cache.invalidate(1);
+            return "stale";
+        });
+
+        assertEquals("stale", loaded);
+        assertEquals("fresh", cache.get(1, () -> "fresh"));
+    }
+
+    @Test
+    void copierKeepsCallersFromChangingTheCachedValue() throws SQLException {
+        QueryCache<Integer, List<String>> cache = new QueryCache<>("test.copy", 60, 10, ArrayList::new);
+        List<String> original = new ArrayList<>(List.of("a"));
+        cache.put(1, original);
+        original.add("changed after put");
+
+        List<String> first = cache.get(1, ArrayList::new);
+        first.add("changed after get");
+        List<String> second = cache.get(1, ArrayList::new);
+
+        assertEquals(List.of("a"), second);
+        assertNotSame(first, second);
+    }
+}
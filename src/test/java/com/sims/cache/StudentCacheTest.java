@@ -0,0 +1,221 @@
+package com.sims.cache;
+
+import com.sims.models.Student;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+class StudentCacheTest {
+
+    private static Student student(int studentId, String studentCode) {
+        Student student = new Student();
+        student.setStudentId(studentId);
+        student.setStudentCode(studentCode);
+        student.setFirstName("First" + studentId);
+        return student;
+    }
+
+    private static QueryCache.Loader<Student> unexpectedLoad() {
+        return () -> fail("expected a cache hit");
+    }
+
+    @Test
+    void putIsServedByIdAndByCode() throws SQLException {
+        StudentCache cache = new StudentCache("test.students.put", 10);
+        cache.put(student(1, "S001"));
+
+        assertEquals("S001", cache.getById(1, unexpectedLoad()).getStudentCode());
+        assertEquals(1, cache.getByCode("S001", unexpectedLoad()).getStudentId());
+        assertEquals(2, cache.getStats().getHits());
+    }
+
+    @Test
+    void missLoadsAndCachesTheStudent() throws SQLException {
+        StudentCache cache = new StudentCache("test.students.miss", 10);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getById(7, () -> { loads.incrementAndGet(); return student(7, "S007"); });
+        cache.getByCode("S007", unexpectedLoad());
+
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.getStats().getMisses());
+    }
+
+    @Test
+    void callersReceiveCopies() throws SQLException {
+        StudentCache cache = new StudentCache("test.students.copies", 10);
+        Student original = student(1, "S001");
+        cache.put(original);
+        original.setFirstName("changed after put");
+
+        Student first = cache.getById(1, unexpectedLoad());
+        first.setFirstName("changed after get");
+        Student second = cache.getById(1, unexpectedLoad());
+
+        assertEquals("First1", second.getFirstName());
+        assertNotSame(first, second);
+    }
+
+    @Test
+    void changedCodeDropsTheOldCodeIndex() throws SQLException {
+        StudentCache cache = new StudentCache("test.students.recode", 10);
+        cache.put(student(1, "OLD"));
+        cache.put(student(1, "NEW"));
+
+        assertEquals(1, cache.getByCode("NEW", unexpectedLoad()).getStudentId());
+        assertNull(cache.getByCode("OLD", () -> null));
+    }
+
+    @Test
+    void evictRemovesBothIndexes() throws SQLException {
+        StudentCache cache = new StudentCache("test.students.evict", 10);
+        cache.put(student(1, "S001"));
+        cache.evict(1);
+
+        assertNull(cache.getById(1, () -> null));
+        assertNull(cache.getByCode("S001", () -> null));
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    void overflowEvictsInInsertionOrder() throws SQLException {
+        StudentCache cache = new StudentCache("test.students.overflow", 2);
+        cache.put(student(1, "S001"));
+        cache.put(student(2, "S002"));
+        cache.put(student(3, "S003"));
+
+        assertNull(cache.getById(1, () -> null));
+        cache.getById(2, unexpectedLoad());
+        cache.getById(3, unexpectedLoad());
+        assertEquals(1, cache.getStats().getEvictions());
+    }
+
+    @Test
+    void slotsLeftByEvictAreSkipped() throws SQLException {
+        StudentCache cache = new StudentCache("test.students.stale", 2);
+        cache.put(student(1, "S001"));
+        cache.put(student(2, "S002"));
+        cache.evict(1);
+        // 1 is cached again, so its first slot is stale and must not evict the new entry
+        cache.put(student(1, "S001"));
+        cache.put(student(3, "S003"));
+
+        assertNull(cache.getById(2, () -> null));
+        cache.getById(1, unexpectedLoad());
+        cache.getById(3, unexpectedLoad());
+        assertEquals(2, cache.getStats().getSize());
+    }
+
+    @Test
+    void manyEvictionsKeepTheCacheBounded() throws SQLException {
+        StudentCache cache = new StudentCache("test.students.churn", 100);
+        for (int i = 0; i < 100_000; i++) {
+            cache.put(student(i, "S" + i));
+            if (i % 3 != 0) {
+                cache.evict(i);
+            }
+        }
+
+        assertTrue(cache.getStats().getSize() <= 100);
+        cache.getById(99_999, unexpectedLoad());
+    }
+
+    @Test
+    void loadOverlappingAWriteIsNotCached() throws SQLException {
+        StudentCache cache = new StudentCache("test.students.race", 10);
+
+        Student loaded = cache.getById(1, () -> {
+            cache.evict(1);
+            return student(1, "STALE");
+        });
+
+        assertEquals("STALE", loaded.getStudentCode());
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    void bulkPopulateStopsAfterAConcurrentWrite() {
+        StudentCache cache = new StudentCache("test.students.bulk", 10);
+        long before = cache.getMutationCount();
+        cache.put(student(99, "S099"));
+
+        cache.putAllIfUnchanged(List.of(student(1, "S001"), student(2, "S002")), before);
+
+        assertEquals(1, cache.getStats().getSize());
+    }
+
+    @Test
+    void invalidateAllClearsEverything() throws SQLException {
+        StudentCache cache = new StudentCache("test.students.clear", 10);
+        cache.put(student(1, "S001"));
+        cache.invalidateAll();
+
+        assertNull(cache.getByCode("S001", () -> null));
+        assertEquals(0, cache.getStats().getSize());
+    }
+
+    @Test
+    void concurrentWritersKeepTheIndexesConsistent() throws Exception {
+        int maxSize = 50;
+        StudentCache cache = new StudentCache("test.students.concurrent", maxSize);
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                done.add(workers.submit(() -> {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 20_000; i++) {
+                        int id = random.nextInt(200);
+                        switch (random.nextInt(3)) {
+                            case 0:
+                                cache.put(student(id, "S" + id));
+                                break;
+                            case 1:
+                                cache.evict(id);
+                                break;
+                            default:
+                                Student found = cache.getByCode("S" + id, () -> null);
+                                if (found != null && found.getStudentId() != id) {
+                                    throw new AssertionError("code S" + id + " maps to " + found.getStudentId());
+                                }
+                                break;
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : done) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        assertTrue(cache.getStats().getSize() <= maxSize);
+        for (int id = 0; id < 200; id++) {
+            Student byId = cache.getById(id, () -> null);
+            Student byCode = cache.getByCode("S" + id, () -> null);
+            assertEquals(byId == null, byCode == null, "indexes disagree for " + id);
+        }
+    }
+}
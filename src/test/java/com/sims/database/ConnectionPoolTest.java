@@ -0,0 +1,245 @@
+package com.sims.database;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionPoolTest {
+
+    /**
+     * In-memory stand-in for a physical connection
+     */
+    private static class FakeConnection {
+        boolean autoCommit = true;
+        boolean closed;
+        int rollbacks;
+
+        Connection proxy() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] {Connection.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "getAutoCommit":
+                                return autoCommit;
+                            case "setAutoCommit":
+                                autoCommit = (Boolean) args[0];
+                                return null;
+                            case "rollback":
+                                rollbacks++;
+                                return null;
+                            case "close":
+                                closed = true;
+                                return null;
+                            case "isClosed":
+                                return closed;
+                            case "isValid":
+                                return !closed;
+                            case "toString":
+                                return "FakeConnection@" + System.identityHashCode(this);
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            case "equals":
+                                return proxy == args[0];
+                            default:
+                                return null;
+                        }
+                    });
+        }
+    }
+
+    private final List<FakeConnection> opened = new ArrayList<>();
+
+    private synchronized Connection open() {
+        FakeConnection fake = new FakeConnection();
+        opened.add(fake);
+        return fake.proxy();
+    }
+
+    @Test
+    void closeReturnsTheConnectionForReuse() throws SQLException {
+        ConnectionPool pool = new ConnectionPool(this::open, 2, 1000);
+
+        Connection first = pool.getConnection();
+        assertEquals(1, pool.getActiveCount());
+        first.close();
+        assertEquals(0, pool.getActiveCount());
+        assertEquals(1, pool.getIdleCount());
+
+        try (Connection second = pool.getConnection()) {
+            assertNotSame(first, second);
+            assertFalse(second.isClosed());
+        }
+        assertEquals(1, pool.getCreatedCount());
+        assertEquals(1, opened.size());
+        assertFalse(opened.get(0).closed);
+    }
+
+    @Test
+    void closedProxyRejectsFurtherUseAndClosesOnlyOnce() throws SQLException {
+        ConnectionPool pool = new ConnectionPool(this::open, 1, 1000);
+
+        Connection connection = pool.getConnection();
+        connection.close();
+        connection.close();
+
+        assertTrue(connection.isClosed());
+        assertThrows(SQLException.class, connection::commit);
+        assertEquals(1, pool.getIdleCount());
+    }
+
+    @Test
+    void connectionReturnedMidTransactionIsRolledBack() throws SQLException {
+        ConnectionPool pool = new ConnectionPool(this::open, 1, 1000);
+
+        try (Connection connection = pool.getConnection()) {
+            connection.setAutoCommit(false);
+        }
+
+        FakeConnection physical = opened.get(0);
+        assertEquals(1, physical.rollbacks);
+        assertTrue(physical.autoCommit);
+    }
+
+    @Test
+    void borrowTimesOutWhenEveryConnectionIsInUse() throws SQLException {
+        ConnectionPool pool = new ConnectionPool(this::open, 1, 50);
+
+        try (Connection held = pool.getConnection()) {
+            assertThrows(SQLException.class, pool::getConnection);
+        }
+        assertEquals(1, pool.getTimeoutCount());
+        assertEquals(1, pool.getCreatedCount());
+    }
+
+    @Test
+    void waitingBorrowerGetsTheReturnedConnection() throws Exception {
+        ConnectionPool pool = new ConnectionPool(this::open, 1, 5000);
+        Connection held = pool.getConnection();
+
+        ExecutorService borrower = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> waited = borrower.submit(() -> {
+                try (Connection connection = pool.getConnection()) {
+                    return !connection.isClosed();
+                }
+            });
+            long deadline = System.currentTimeMillis() + 5000;
+            while (pool.getWaitingCount() == 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            held.close();
+            assertTrue(waited.get(5, TimeUnit.SECONDS));
+        } finally {
+            borrower.shutdownNow();
+        }
+        assertEquals(1, pool.getCreatedCount());
+    }
+
+    @Test
+    void concurrentBorrowersNeverExceedTheMaximum() throws Exception {
+        int maxSize = 3;
+        AtomicInteger inUse = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        ConnectionPool pool = new ConnectionPool(this::open, maxSize, 5000);
+
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                done.add(workers.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 200; i++) {
+                        try (Connection connection = pool.getConnection()) {
+                            peak.accumulateAndGet(inUse.incrementAndGet(), Math::max);
+                            inUse.decrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : done) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        assertTrue(peak.get() <= maxSize);
+        assertTrue(pool.getCreatedCount() <= maxSize);
+        assertEquals(0, pool.getActiveCount());
+        assertEquals(0, pool.getTimeoutCount());
+    }
+
+    @Test
+    void failedOpenFreesTheSlot() throws SQLException {
+        AtomicInteger attempts = new AtomicInteger();
+        ConnectionPool pool = new ConnectionPool(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new SQLException("refused");
+            }
+            return open();
+        }, 1, 50);
+
+        assertThrows(SQLException.class, pool::getConnection);
+        try (Connection connection = pool.getConnection()) {
+            assertFalse(connection.isClosed());
+        }
+        assertEquals(0, pool.getTimeoutCount());
+    }
+
+    @Test
+    void prefillOpensUpToTheMaximum() throws SQLException {
+        ConnectionPool pool = new ConnectionPool(this::open, 3, 1000);
+
+        assertEquals(3, pool.prefill(5));
+        assertEquals(3, pool.getIdleCount());
+        assertEquals(0, pool.prefill(2));
+        assertEquals(3, pool.getCreatedCount());
+    }
+
+    @Test
+    void shutdownClosesIdleAndLaterReturnedConnections() throws SQLException {
+        ConnectionPool pool = new ConnectionPool(this::open, 2, 1000);
+        Connection borrowed = pool.getConnection();
+        pool.getConnection().close();
+
+        pool.shutdown();
+        FakeConnection idle = opened.get(1);
+        FakeConnection active = opened.get(0);
+        assertTrue(idle.closed);
+        assertFalse(active.closed);
+
+        borrowed.close();
+        assertTrue(active.closed);
+        assertThrows(SQLException.class, pool::getConnection);
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    @Test
+    void proxyEqualityIsIdentity() throws SQLException {
+        ConnectionPool pool = new ConnectionPool(this::open, 1, 1000);
+        try (Connection connection = pool.getConnection()) {
+            assertSame(connection, connection);
+            assertTrue(connection.equals(connection));
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.sims.events;
+
+import com.sims.models.Student;
+
+import org.junit.jupiter.api.Test;
+
+import javax.swing.SwingUtilities;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventBusTest {
+
+    @Test
+    void syncSubscriberRunsOnThePublishingThread() {
+        EventBus bus = new EventBus();
+        AtomicReference<Thread> calledOn = new AtomicReference<>();
+        bus.subscribe(StudentDeleted.class, EventBus.Delivery.SYNC, event -> calledOn.set(Thread.currentThread()));
+
+        bus.publish(new StudentDeleted(1));
+
+        assertSame(Thread.currentThread(), calledOn.get());
+    }
+
+    @Test
+    void onlySubscribersOfTheEventTypeAreCalled() {
+        EventBus bus = new EventBus();
+        List<Integer> deleted = new ArrayList<>();
+        List<Integer> enrolled = new ArrayList<>();
+        bus.subscribe(StudentDeleted.class, EventBus.Delivery.SYNC, event -> deleted.add(event.getStudentId()));
+        bus.subscribe(StudentEnrolled.class, EventBus.Delivery.SYNC, event -> enrolled.add(event.getCourseId()));
+
+        bus.publish(new StudentDeleted(4));
+
+        assertEquals(List.of(4), deleted);
+        assertTrue(enrolled.isEmpty());
+    }
+
+    @Test
+    void superclassSubscriberReceivesSubclassEvents() {
+        EventBus bus = new EventBus();
+        List<DomainEvent> all = new ArrayList<>();
+        List<EntityEvent<?>> entities = new ArrayList<>();
+        bus.subscribe(DomainEvent.class, EventBus.Delivery.SYNC, all::add);
+        bus.subscribe(EntityEvent.class, EventBus.Delivery.SYNC, entities::add);
+
+        bus.publish(new StudentDeleted(1));
+        bus.publish(new StudentUpdated(new Student()));
+
+        assertEquals(2, all.size());
+        assertEquals(1, entities.size());
+    }
+
+    @Test
+    void unsubscribedHandlerIsNotCalled() {
+        EventBus bus = new EventBus();
+        List<Integer> received = new ArrayList<>();
+        EventBus.Subscription subscription =
+                bus.subscribe(StudentDeleted.class, EventBus.Delivery.SYNC, event -> received.add(event.getStudentId()));
+
+        bus.publish(new StudentDeleted(1));
+        subscription.unsubscribe();
+        bus.publish(new StudentDeleted(2));
+
+        assertEquals(List.of(1), received);
+    }
+
+    @Test
+    void failingSubscriberDoesNotStopTheOthers() {
+        EventBus bus = new EventBus();
+        AtomicBoolean called = new AtomicBoolean();
+        bus.subscribe(StudentDeleted.class, EventBus.Delivery.SYNC, event -> {
+            throw new IllegalStateException("subscriber bug");
+        });
+        bus.subscribe(StudentDeleted.class, EventBus.Delivery.SYNC, event -> called.set(true));
+
+        bus.publish(new StudentDeleted(1));
+
+        assertTrue(called.get());
+    }
+
+    @Test
+    void asyncSubscriberRunsInPublishOrderOffThePublishingThread() throws InterruptedException {
+        EventBus bus = new EventBus();
+        int events = 500;
+        List<Integer> received = Collections.synchronizedList(new ArrayList<>());
+        AtomicReference<Thread> calledOn = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(events);
+        bus.subscribe(StudentDeleted.class, EventBus.Delivery.ASYNC, event -> {
+            calledOn.set(Thread.currentThread());
+            received.add(event.getStudentId());
+            done.countDown();
+        });
+
+        for (int i = 0; i < events; i++) {
+            bus.publish(new StudentDeleted(i));
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertNotEquals(Thread.currentThread(), calledOn.get());
+        for (int i = 0; i < events; i++) {
+            assertEquals(i, received.get(i));
+        }
+    }
+
+    @Test
+    void edtSubscriberRunsOnTheEventDispatchThread() throws Exception {
+        EventBus bus = new EventBus();
+        AtomicBoolean onEdt = new AtomicBoolean();
+        CountDownLatch done = new CountDownLatch(1);
+        bus.subscribe(StudentDeleted.class, EventBus.Delivery.EDT, event -> {
+            onEdt.set(SwingUtilities.isEventDispatchThread());
+            done.countDown();
+        });
+
+        bus.publish(new StudentDeleted(1));
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(onEdt.get());
+    }
+
+    @Test
+    void setDefaultReplacesAndRestoresTheSharedBus() {
+        EventBus shared = EventBus.getDefault();
+        EventBus replacement = new EventBus();
+        try {
+            EventBus.setDefault(replacement);
+            assertSame(replacement, EventBus.getDefault());
+        } finally {
+            EventBus.setDefault(null);
+        }
+        assertSame(shared, EventBus.getDefault());
+    }
+}
@@ -0,0 +1,114 @@
+package com.sims.offline;
+
+import com.sims.models.Attendance;
+import com.sims.models.Grade;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Coalescing and conflict detection used when the offline journal is replayed
+ */
+class OfflineReplayTest {
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+
+    @TempDir
+    Path directory;
+
+    private static Attendance mark(int studentId, LocalDate date, Attendance.AttendanceStatus status) {
+        return new Attendance(studentId, 10, date, status);
+    }
+
+    private static Grade grade(String type, String name, String marks, String total) {
+        return new Grade(1, 10, type, name, new BigDecimal(marks), new BigDecimal(total), "Fall", "2026-2027");
+    }
+
+    @Test
+    void marksForTheSameStudentAndDateFormOneUnit() throws IOException {
+        WriteJournal journal = new WriteJournal(directory.resolve("journal.log"));
+        journal.appendAttendance(List.of(mark(1, DAY, Attendance.AttendanceStatus.LATE),
+                mark(2, DAY, Attendance.AttendanceStatus.ABSENT)), List.of("PRESENT", ""));
+        journal.appendGrades(List.of(grade("EXAM", "Midterm", "80", "100")));
+        journal.appendAttendance(List.of(mark(1, DAY, Attendance.AttendanceStatus.EXCUSED),
+                mark(1, DAY.plusDays(1), Attendance.AttendanceStatus.ABSENT)), List.of("PRESENT", "PRESENT"));
+        journal.appendGrades(List.of(grade("EXAM", "Midterm", "80", "100")));
+
+        List<List<WriteJournal.Entry>> units = OfflineMode.groupUnits(journal.getEntries());
+
+        assertEquals(5, units.size());
+        List<WriteJournal.Entry> student1 = units.get(0);
+        assertEquals(2, student1.size());
+        // The first entry holds the status seen before going offline, the last one the status to write
+        assertEquals("PRESENT", student1.get(0).getBaseStatus());
+        assertEquals(Attendance.AttendanceStatus.EXCUSED, student1.get(1).getAttendance().getStatus());
+        assertEquals(2, units.get(1).get(0).getAttendance().getStudentId());
+        // Grades are never coalesced, even for the same assessment
+        assertEquals(1, units.get(2).size());
+        assertEquals(1, units.get(4).size());
+        assertEquals(DAY.plusDays(1), units.get(3).get(0).getAttendance().getAttendanceDate());
+    }
+
+    @Test
+    void markIsAppliedWhenTheDatabaseStillHoldsItsBase() {
+        assertEquals(OfflineMode.MarkOutcome.APPLY, OfflineMode.decideMark("PRESENT", "PRESENT", "LATE"));
+        assertEquals(OfflineMode.MarkOutcome.APPLY, OfflineMode.decideMark("", "", "LATE"));
+    }
+
+    @Test
+    void markAlreadyInTheDatabaseIsSkipped() {
+        assertEquals(OfflineMode.MarkOutcome.ALREADY_APPLIED, OfflineMode.decideMark("PRESENT", "LATE", "LATE"));
+        assertEquals(OfflineMode.MarkOutcome.ALREADY_APPLIED,
+                OfflineMode.decideMark(WriteJournal.UNKNOWN_BASE, "LATE", "LATE"));
+    }
+
+    @Test
+    void markChangedByAnotherClientIsAConflict() {
+        assertEquals(OfflineMode.MarkOutcome.CONFLICT, OfflineMode.decideMark("PRESENT", "ABSENT", "LATE"));
+        // Marked elsewhere while this client saw no mark
+        assertEquals(OfflineMode.MarkOutcome.CONFLICT, OfflineMode.decideMark("", "ABSENT", "LATE"));
+        // Mark deleted elsewhere
+        assertEquals(OfflineMode.MarkOutcome.CONFLICT, OfflineMode.decideMark("PRESENT", "", "LATE"));
+    }
+
+    @Test
+    void markOnASheetNeverReadOnlineOnlyFillsAnEmptySlot() {
+        assertEquals(OfflineMode.MarkOutcome.APPLY, OfflineMode.decideMark(WriteJournal.UNKNOWN_BASE, "", "LATE"));
+        assertEquals(OfflineMode.MarkOutcome.CONFLICT,
+                OfflineMode.decideMark(WriteJournal.UNKNOWN_BASE, "PRESENT", "LATE"));
+    }
+
+    @Test
+    void gradeMatchesOnlyTheSameAssessment() {
+        Grade quiz = grade("QUIZ", "Quiz 1", "8", "10");
+        Grade otherName = grade("EXAM", "Final", "80", "100");
+        Grade otherYear = grade("EXAM", "Midterm", "80", "100");
+        otherYear.setAcademicYear("2025-2026");
+        Grade midterm = grade("EXAM", "Midterm", "75", "100");
+        List<Grade> recorded = List.of(quiz, otherName, otherYear, midterm);
+
+        assertSame(midterm, OfflineMode.findSameAssessment(recorded, grade("EXAM", "Midterm", "80", "100")));
+        assertNull(OfflineMode.findSameAssessment(recorded, grade("EXAM", "Quiz 1", "8", "10")));
+        assertNull(OfflineMode.findSameAssessment(List.of(), quiz));
+    }
+
+    @Test
+    void sameMarksIsADuplicateAndDifferentMarksAConflict() {
+        Grade recorded = grade("EXAM", "Midterm", "80.00", "100");
+
+        assertTrue(OfflineMode.sameMarks(recorded, grade("EXAM", "Midterm", "80", "100.0")));
+        assertFalse(OfflineMode.sameMarks(recorded, grade("EXAM", "Midterm", "81", "100")));
+        assertFalse(OfflineMode.sameMarks(recorded, grade("EXAM", "Midterm", "80", "120")));
+    }
+}
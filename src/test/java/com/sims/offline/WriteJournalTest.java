@@ -0,0 +1,144 @@
+package com.sims.offline;
+
+import com.sims.models.Attendance;
+import com.sims.models.Grade;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WriteJournalTest {
+    private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+
+    @TempDir
+    Path directory;
+
+    private Path journalPath() {
+        return directory.resolve("offline").resolve("journal.log");
+    }
+
+    private static Attendance mark(int studentId, Attendance.AttendanceStatus status) {
+        Attendance attendance = new Attendance(studentId, 10, DAY, status);
+        attendance.setRecordedBy(3);
+        return attendance;
+    }
+
+    private static Grade grade(String name, String marks) {
+        Grade grade = new Grade(1, 10, "EXAM", name, new BigDecimal(marks), new BigDecimal("100"),
+                "Fall", "2026-2027");
+        grade.setRecordedBy(3);
+        return grade;
+    }
+
+    @Test
+    void appendedEntriesSurviveAReopen() throws IOException {
+        WriteJournal journal = new WriteJournal(journalPath());
+        Attendance late = mark(1, Attendance.AttendanceStatus.LATE);
+        late.setRemarks("bus\tdelayed, 10% late\nsecond line");
+        journal.appendAttendance(List.of(late, mark(2, Attendance.AttendanceStatus.ABSENT)),
+                List.of("PRESENT", WriteJournal.UNKNOWN_BASE));
+        journal.appendGrades(List.of(grade("Midterm", "87.50")));
+
+        List<WriteJournal.Entry> entries = new WriteJournal(journalPath()).getEntries();
+
+        assertEquals(3, entries.size());
+        Attendance first = entries.get(0).getAttendance();
+        assertEquals(1, first.getStudentId());
+        assertEquals(10, first.getCourseId());
+        assertEquals(DAY, first.getAttendanceDate());
+        assertEquals(Attendance.AttendanceStatus.LATE, first.getStatus());
+        assertEquals("bus\tdelayed, 10% late\nsecond line", first.getRemarks());
+        assertEquals(Integer.valueOf(3), first.getRecordedBy());
+        assertEquals("PRESENT", entries.get(0).getBaseStatus());
+        assertEquals(WriteJournal.UNKNOWN_BASE, entries.get(1).getBaseStatus());
+        assertNull(entries.get(1).getAttendance().getRemarks());
+
+        Grade midterm = entries.get(2).getGrade();
+        assertNull(entries.get(2).getAttendance());
+        assertEquals("Midterm", midterm.getAssessmentName());
+        assertEquals(0, new BigDecimal("87.5").compareTo(midterm.getMarksObtained()));
+        assertEquals("2026-2027", midterm.getAcademicYear());
+    }
+
+    @Test
+    void sequencesKeepIncreasingAcrossReopens() throws IOException {
+        WriteJournal journal = new WriteJournal(journalPath());
+        journal.appendGrades(List.of(grade("A", "1"), grade("B", "2")));
+
+        WriteJournal reopened = new WriteJournal(journalPath());
+        List<WriteJournal.Entry> appended = reopened.appendGrades(List.of(grade("C", "3")));
+
+        assertEquals(3, appended.get(0).getSequence());
+    }
+
+    @Test
+    void removedEntriesAreGoneAfterAReopen() throws IOException {
+        WriteJournal journal = new WriteJournal(journalPath());
+        List<WriteJournal.Entry> appended = journal.appendGrades(List.of(grade("A", "1"), grade("B", "2"),
+                grade("C", "3")));
+
+        journal.remove(List.of(appended.get(0).getSequence(), appended.get(2).getSequence()));
+        assertEquals(1, journal.size());
+        // Appends after a rewrite go to the new file
+        journal.appendGrades(List.of(grade("D", "4")));
+
+        List<WriteJournal.Entry> entries = new WriteJournal(journalPath()).getEntries();
+        assertEquals(2, entries.size());
+        assertEquals("B", entries.get(0).getGrade().getAssessmentName());
+        assertEquals("D", entries.get(1).getGrade().getAssessmentName());
+    }
+
+    @Test
+    void tornLastLineIsDroppedAndLaterAppendsSurvive() throws IOException {
+        WriteJournal journal = new WriteJournal(journalPath());
+        journal.appendAttendance(List.of(mark(1, Attendance.AttendanceStatus.LATE)), List.of(""));
+        // A crash mid-append leaves a line that still parses, with recordedBy cut from 31 to 3
+        Files.write(journalPath(), ("A\t2\t2\t10\t" + DAY + "\tABSENT\t\t3").getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        WriteJournal reopened = new WriteJournal(journalPath());
+        assertEquals(1, reopened.size());
+        reopened.appendAttendance(List.of(mark(3, Attendance.AttendanceStatus.EXCUSED)), List.of(""));
+
+        List<WriteJournal.Entry> entries = new WriteJournal(journalPath()).getEntries();
+        assertEquals(2, entries.size());
+        assertEquals(3, entries.get(1).getAttendance().getStudentId());
+    }
+
+    @Test
+    void unreadableLinesAreSkipped() throws IOException {
+        Files.createDirectories(journalPath().getParent());
+        Files.write(journalPath(), List.of("A\tnot-a-number", "X\t1", "G\t7\t1\t10\tEXAM\tQuiz\t5\t10\tFall\t2026-2027\t"),
+                StandardCharsets.UTF_8);
+
+        WriteJournal journal = new WriteJournal(journalPath());
+
+        assertEquals(1, journal.size());
+        assertNull(journal.getEntries().get(0).getGrade().getRecordedBy());
+        assertEquals(8, journal.appendGrades(List.of(grade("A", "1"))).get(0).getSequence());
+    }
+
+    @Test
+    void removingNothingLeavesTheFileAlone() throws IOException {
+        WriteJournal journal = new WriteJournal(journalPath());
+        journal.appendGrades(List.of(grade("A", "1")));
+        List<String> before = Files.readAllLines(journalPath());
+
+        journal.remove(List.of(99L));
+
+        assertEquals(before, Files.readAllLines(journalPath()));
+        assertTrue(Files.notExists(journalPath().resolveSibling("journal.log.tmp")));
+    }
+}
@@ -0,0 +1,234 @@
+package com.sims.services;
+
+import com.sims.cache.ReferenceSnapshot;
+import com.sims.dao.ChangeLogDAO;
+import com.sims.events.EventBus;
+import com.sims.events.RemoteChange;
+import com.sims.models.ChangeRecord;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeLogPollerTest {
+
+    /**
+     * change_log held in memory; ids are committed in whatever order the test chooses
+     */
+    private static class FakeChangeLog extends ChangeLogDAO {
+        private final TreeMap<Long, ChangeRecord> rows = new TreeMap<>();
+        private final Set<Long> lookedUp = new HashSet<>();
+
+        void commit(long changeId, String clientId) {
+            ChangeRecord change = new ChangeRecord(ChangeRecord.EntityType.COURSE, (int) changeId,
+                    ChangeRecord.Operation.UPDATE);
+            change.setChangeId(changeId);
+            change.setClientId(clientId);
+            rows.put(changeId, change);
+        }
+
+        void commit(long changeId) {
+            commit(changeId, "other-client");
+        }
+
+        void purgeThrough(long changeId) {
+            rows.headMap(changeId, true).clear();
+        }
+
+        @Override
+        public long getLatestChangeId() {
+            return rows.isEmpty() ? 0L : rows.lastKey();
+        }
+
+        @Override
+        public long getOldestChangeId() {
+            return rows.isEmpty() ? 0L : rows.firstKey();
+        }
+
+        @Override
+        public List<ChangeRecord> getChanges(Collection<Long> changeIds) {
+            lookedUp.addAll(changeIds);
+            List<ChangeRecord> changes = new ArrayList<>();
+            for (Long changeId : changeIds) {
+                if (rows.containsKey(changeId)) {
+                    changes.add(rows.get(changeId));
+                }
+            }
+            return changes;
+        }
+
+        @Override
+        public List<ChangeRecord> getChangesSince(long changeId, int limit) {
+            List<ChangeRecord> changes = new ArrayList<>();
+            for (ChangeRecord change : rows.tailMap(changeId, false).values()) {
+                if (changes.size() == limit) {
+                    break;
+                }
+                changes.add(change);
+            }
+            return changes;
+        }
+    }
+
+    private final FakeChangeLog changeLog = new FakeChangeLog();
+    private final List<Long> applied = new ArrayList<>();
+    private long now = 1_000_000L;
+    private EventBus previousBus;
+
+    @BeforeEach
+    void captureRemoteChanges() {
+        previousBus = EventBus.getDefault();
+        EventBus bus = new EventBus();
+        bus.subscribe(RemoteChange.class, EventBus.Delivery.SYNC,
+                event -> applied.add(event.getChange().getChangeId()));
+        EventBus.setDefault(bus);
+    }
+
+    @AfterEach
+    void restoreBus() {
+        EventBus.setDefault(previousBus);
+    }
+
+    private ChangeLogPoller newPoller() throws SQLException {
+        return new ChangeLogPoller(changeLog, () -> now);
+    }
+
+    @Test
+    void startsAfterTheLatestChange() throws SQLException {
+        changeLog.commit(1);
+        changeLog.commit(2);
+        ChangeLogPoller poller = newPoller();
+        changeLog.commit(3);
+
+        poller.poll();
+
+        assertEquals(List.of(3L), applied);
+    }
+
+    @Test
+    void ownChangesAreSkipped() throws SQLException {
+        ChangeLogPoller poller = newPoller();
+        changeLog.commit(1, ChangeLogDAO.CLIENT_ID);
+        changeLog.commit(2);
+
+        poller.poll();
+        poller.poll();
+
+        assertEquals(List.of(2L), applied);
+    }
+
+    @Test
+    void everyPageIsRead() throws SQLException {
+        ChangeLogPoller poller = newPoller();
+        for (long id = 1; id <= 1234; id++) {
+            changeLog.commit(id);
+        }
+
+        poller.poll();
+
+        assertEquals(1234, applied.size());
+        assertEquals(1234L, applied.get(applied.size() - 1));
+    }
+
+    @Test
+    void changeCommittedAfterAHigherIdIsAppliedOnALaterPoll() throws SQLException {
+        ChangeLogPoller poller = newPoller();
+        changeLog.commit(1);
+        changeLog.commit(3);
+        poller.poll();
+        assertEquals(List.of(1L, 3L), applied);
+
+        // The transaction holding id 2 commits late
+        changeLog.commit(2);
+        now += TimeUnit.SECONDS.toMillis(30);
+        poller.poll();
+        poller.poll();
+
+        assertEquals(List.of(1L, 3L, 2L), applied);
+    }
+
+    @Test
+    void expiredGapIsDroppedWithoutClearingTheCaches() throws SQLException {
+        ChangeLogPoller poller = newPoller();
+        changeLog.commit(1);
+        changeLog.commit(3);
+        poller.poll();
+
+        long generation = ReferenceSnapshot.getGeneration();
+        now += TimeUnit.MINUTES.toMillis(11);
+        poller.poll();
+        assertEquals(generation, ReferenceSnapshot.getGeneration());
+
+        // Id 2 was rolled back; it is no longer looked up
+        changeLog.lookedUp.clear();
+        changeLog.commit(4);
+        poller.poll();
+        assertFalse(changeLog.lookedUp.contains(2L));
+        assertEquals(List.of(1L, 3L, 4L), applied);
+    }
+
+    @Test
+    void gapsFoundLaterExpireLater() throws SQLException {
+        changeLog.commit(1);
+        ChangeLogPoller poller = newPoller();
+        changeLog.commit(3);
+        poller.poll();
+        now += TimeUnit.MINUTES.toMillis(8);
+        changeLog.commit(5);
+        poller.poll();
+
+        // Gap 2 is past the timeout, gap 4 is not
+        now += TimeUnit.MINUTES.toMillis(3);
+        poller.poll();
+        changeLog.commit(2);
+        changeLog.commit(4);
+        poller.poll();
+
+        assertEquals(List.of(3L, 5L, 4L), applied);
+    }
+
+    @Test
+    void purgedChangesClearTheCachesAndPollingContinues() throws SQLException {
+        changeLog.commit(1);
+        ChangeLogPoller poller = newPoller();
+        for (long id = 2; id <= 10; id++) {
+            changeLog.commit(id);
+        }
+        changeLog.purgeThrough(8);
+
+        long generation = ReferenceSnapshot.getGeneration();
+        poller.poll();
+
+        assertTrue(ReferenceSnapshot.getGeneration() > generation);
+        assertEquals(List.of(9L, 10L), applied);
+    }
+
+    @Test
+    void tooManySkippedIdsClearTheCachesInsteadOfBeingTracked() throws SQLException {
+        ChangeLogPoller poller = newPoller();
+        changeLog.commit(1);
+        changeLog.commit(50_000);
+
+        long generation = ReferenceSnapshot.getGeneration();
+        poller.poll();
+        assertTrue(ReferenceSnapshot.getGeneration() > generation);
+
+        changeLog.lookedUp.clear();
+        poller.poll();
+        assertTrue(changeLog.lookedUp.isEmpty());
+        assertEquals(List.of(1L, 50_000L), applied);
+    }
+}